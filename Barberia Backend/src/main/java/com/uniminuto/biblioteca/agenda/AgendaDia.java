@@ -0,0 +1,197 @@
+package com.uniminuto.biblioteca.agenda;
+
+import java.util.Arrays;
+
+/**
+ * Agenda inmutable de un barbero para un día.
+ * Guarda los intervalos [inicio, fin) en minutos desde la medianoche, ordenados por inicio,
+ * en arreglos primitivos paralelos. El arreglo {@code maxFin} contiene el máximo prefijo de los
+ * fines, lo que permite detectar solapamientos con una búsqueda binaria aunque existan
+ * citas antiguas que se solapen entre sí.
+ */
+public final class AgendaDia {
+
+    /**
+     * Agenda sin citas.
+     */
+    public static final AgendaDia VACIA = new AgendaDia(new int[0], new int[0], new int[0]);
+
+    private final int[] inicios;
+    private final int[] fines;
+    private final int[] idsCita;
+    private final int[] maxFin;
+    private final long[] mascaraOcupada;
+
+    private AgendaDia(int[] inicios, int[] fines, int[] idsCita) {
+        this.inicios = inicios;
+        this.fines = fines;
+        this.idsCita = idsCita;
+        this.maxFin = new int[inicios.length];
+        int max = 0;
+        for (int i = 0; i < inicios.length; i++) {
+            max = Math.max(max, fines[i]);
+            maxFin[i] = max;
+        }
+        this.mascaraOcupada = MascaraFranjas.vacia();
+        for (int i = 0; i < inicios.length; i++) {
+            MascaraFranjas.marcarMinutos(mascaraOcupada, inicios[i], fines[i]);
+        }
+    }
+
+    /**
+     * Construye una agenda a partir de intervalos ya ordenados por inicio.
+     * @param inicios Minutos de inicio.
+     * @param fines Minutos de fin (exclusivos).
+     * @param idsCita IDs de las citas.
+     * @return Agenda del día.
+     */
+    public static AgendaDia deOrdenados(int[] inicios, int[] fines, int[] idsCita) {
+        return inicios.length == 0 ? VACIA : new AgendaDia(inicios, fines, idsCita);
+    }
+
+    /**
+     * Busca una cita que se solape con el intervalo [inicio, fin).
+     * @param inicio Minuto de inicio.
+     * @param fin Minuto de fin (exclusivo).
+     * @param idCitaExcluida ID de cita a ignorar (la propia cita en una actualización), o null.
+     * @return ID de la cita en conflicto, o -1 si el intervalo está libre.
+     */
+    public int buscarConflicto(int inicio, int fin, Integer idCitaExcluida) {
+        // Solo pueden solaparse las citas que empiezan antes del fin del intervalo
+        int i = primeraPosicionDesde(fin) - 1;
+        while (i >= 0 && maxFin[i] > inicio) {
+            if (fines[i] > inicio && (idCitaExcluida == null || idsCita[i] != idCitaExcluida)) {
+                return idsCita[i];
+            }
+            i--;
+        }
+        return -1;
+    }
+
+    /**
+     * Devuelve una nueva agenda que incluye la cita indicada (reemplazándola si ya estaba).
+     * @param idCita ID de la cita.
+     * @param inicio Minuto de inicio.
+     * @param fin Minuto de fin (exclusivo).
+     * @return Nueva agenda.
+     */
+    public AgendaDia con(int idCita, int inicio, int fin) {
+        AgendaDia base = sin(idCita);
+        int n = base.inicios.length;
+        int pos = base.primeraPosicionDesde(inicio + 1);
+        int[] nuevosInicios = new int[n + 1];
+        int[] nuevosFines = new int[n + 1];
+        int[] nuevosIds = new int[n + 1];
+        insertar(base.inicios, nuevosInicios, pos, inicio);
+        insertar(base.fines, nuevosFines, pos, fin);
+        insertar(base.idsCita, nuevosIds, pos, idCita);
+        return new AgendaDia(nuevosInicios, nuevosFines, nuevosIds);
+    }
+
+    /**
+     * Devuelve una nueva agenda sin la cita indicada.
+     * @param idCita ID de la cita.
+     * @return Nueva agenda, o la misma si la cita no estaba.
+     */
+    public AgendaDia sin(int idCita) {
+        int pos = -1;
+        for (int i = 0; i < idsCita.length; i++) {
+            if (idsCita[i] == idCita) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0) {
+            return this;
+        }
+        if (idsCita.length == 1) {
+            return VACIA;
+        }
+        return new AgendaDia(quitar(inicios, pos), quitar(fines, pos), quitar(idsCita, pos));
+    }
+
+    /**
+     * Número de citas en la agenda.
+     * @return Cantidad de citas.
+     */
+    public int tamanio() {
+        return inicios.length;
+    }
+
+    /**
+     * Minutos ocupados en el día (suma de las duraciones de las citas).
+     * @return Minutos reservados.
+     */
+    public int minutosReservados() {
+        int total = 0;
+        for (int i = 0; i < inicios.length; i++) {
+            total += fines[i] - inicios[i];
+        }
+        return total;
+    }
+
+    /**
+     * Máscara de las franjas de 15 minutos ocupadas por las citas del día.
+     * El llamador no debe modificar el arreglo devuelto.
+     * @return Máscara de franjas ocupadas.
+     */
+    public long[] mascaraOcupada() {
+        return mascaraOcupada;
+    }
+
+    /**
+     * Minuto de inicio de la cita en la posición indicada.
+     * @param i Posición.
+     * @return Minuto de inicio.
+     */
+    public int inicio(int i) {
+        return inicios[i];
+    }
+
+    /**
+     * Minuto de fin de la cita en la posición indicada.
+     * @param i Posición.
+     * @return Minuto de fin (exclusivo).
+     */
+    public int fin(int i) {
+        return fines[i];
+    }
+
+    /**
+     * ID de la cita en la posición indicada.
+     * @param i Posición.
+     * @return ID de la cita.
+     */
+    public int idCita(int i) {
+        return idsCita[i];
+    }
+
+    /**
+     * Primera posición cuyo inicio es mayor o igual al minuto indicado.
+     */
+    private int primeraPosicionDesde(int minuto) {
+        int bajo = 0;
+        int alto = inicios.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio] < minuto) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private static void insertar(int[] origen, int[] destino, int pos, int valor) {
+        System.arraycopy(origen, 0, destino, 0, pos);
+        destino[pos] = valor;
+        System.arraycopy(origen, pos, destino, pos + 1, origen.length - pos);
+    }
+
+    private static int[] quitar(int[] origen, int pos) {
+        int[] destino = Arrays.copyOf(origen, origen.length - 1);
+        System.arraycopy(origen, pos + 1, destino, pos, origen.length - pos - 1);
+        return destino;
+    }
+}
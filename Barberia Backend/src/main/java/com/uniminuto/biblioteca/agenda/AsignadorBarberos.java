@@ -0,0 +1,152 @@
+package com.uniminuto.biblioteca.agenda;
+
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Elige, entre los barberos de una sede, el de menor carga del día que pueda atender un servicio.
+ * Para cada sede y día se mantiene un montículo indexado por minutos reservados que se actualiza en
+ * O(log n) con cada cambio confirmado en el {@link IndiceCitas}; elegir no consulta la base de datos
+ * mientras el montículo esté en memoria.
+ */
+@Component
+public class AsignadorBarberos implements OyenteAgenda {
+
+    @Autowired
+    private IndiceCitas indiceCitas;
+
+    @Autowired
+    private CalendarioLaboral calendarioLaboral;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    private final ConcurrentMap<Long, MonticuloCarga> monticulos = new ConcurrentHashMap<>();
+
+    /**
+     * Sede de cada barbero incluido en algún montículo, para ubicar el montículo que le corresponde.
+     */
+    private final ConcurrentMap<Integer, Integer> sedePorBarbero = new ConcurrentHashMap<>();
+
+    /**
+     * Contador de cambios. Un montículo construido desde la base de datos solo se guarda si ningún
+     * cambio ocurrió mientras se construía.
+     */
+    private final AtomicLong cambios = new AtomicLong();
+
+    private volatile long ultimoDiaDepurado = LocalDate.now().toEpochDay();
+
+    @PostConstruct
+    void registrarse() {
+        indiceCitas.agregarOyente(this);
+    }
+
+    /**
+     * Elige el barbero de la sede con menos minutos reservados en la fecha que tenga libre el intervalo
+     * dentro de su horario laboral.
+     * @param idSede ID de la sede.
+     * @param fecha Fecha.
+     * @param inicio Minuto de inicio.
+     * @param duracion Duración en minutos.
+     * @param descartados Barberos que no deben elegirse.
+     * @return ID del barbero elegido, o null si ninguno puede atender.
+     */
+    public Integer elegir(Integer idSede, LocalDate fecha, int inicio, int duracion, Set<Integer> descartados) {
+        MonticuloCarga monticulo = obtenerMonticulo(idSede, fecha);
+        long[] intervalo = MascaraFranjas.deIntervalo(inicio, inicio + duracion);
+        synchronized (monticulo) {
+            int elegido = monticulo.primeroQue(idBarbero -> !descartados.contains(idBarbero)
+                    && MascaraFranjas.contiene(calendarioLaboral.mascara(idSede, idBarbero, fecha), intervalo)
+                    && indiceCitas.obtenerAgenda(idBarbero, fecha).buscarConflicto(inicio, inicio + duracion, null) < 0);
+            return elegido >= 0 ? elegido : null;
+        }
+    }
+
+    /**
+     * Descarta todos los montículos (por ejemplo, si un barbero cambia de sede).
+     */
+    public void descartarTodo() {
+        cambios.incrementAndGet();
+        monticulos.clear();
+        sedePorBarbero.clear();
+    }
+
+    @Override
+    public void agendaModificada(Integer idBarbero, LocalDate fecha, AgendaDia agenda) {
+        cambios.incrementAndGet();
+        Integer idSede = sedePorBarbero.get(idBarbero);
+        if (idSede == null) {
+            return;
+        }
+        long clave = clave(idSede, fecha);
+        MonticuloCarga monticulo = monticulos.get(clave);
+        if (monticulo == null) {
+            return;
+        }
+        if (agenda == null) {
+            // La agenda se recargará desde la base de datos; el montículo también
+            monticulos.remove(clave, monticulo);
+            return;
+        }
+        synchronized (monticulo) {
+            if (monticulo.contiene(idBarbero)) {
+                monticulo.fijar(idBarbero, agenda.minutosReservados());
+            }
+        }
+    }
+
+    @Override
+    public void agendasDescartadas() {
+        cambios.incrementAndGet();
+        monticulos.clear();
+    }
+
+    private MonticuloCarga obtenerMonticulo(Integer idSede, LocalDate fecha) {
+        long clave = clave(idSede, fecha);
+        MonticuloCarga monticulo = monticulos.get(clave);
+        if (monticulo != null) {
+            return monticulo;
+        }
+        depurarDiasPasados();
+        long cambiosPrevios = cambios.get();
+        List<Integer> idsBarbero = barberoRepository.findBySede_IdSede(idSede).stream()
+                .map(Barbero::getIdBarbero).collect(Collectors.toList());
+        Map<Integer, AgendaDia> agendas = indiceCitas.obtenerAgendasSede(idSede, fecha, idsBarbero);
+        monticulo = new MonticuloCarga(idsBarbero.size());
+        for (Integer idBarbero : idsBarbero) {
+            monticulo.fijar(idBarbero, agendas.get(idBarbero).minutosReservados());
+            sedePorBarbero.put(idBarbero, idSede);
+        }
+        if (cambios.get() == cambiosPrevios) {
+            MonticuloCarga previo = monticulos.putIfAbsent(clave, monticulo);
+            return previo != null ? previo : monticulo;
+        }
+        return monticulo;
+    }
+
+    /**
+     * Elimina los montículos de días anteriores a hoy; se ejecuta como máximo una vez por día.
+     */
+    private void depurarDiasPasados() {
+        long hoy = LocalDate.now().toEpochDay();
+        if (hoy > ultimoDiaDepurado) {
+            ultimoDiaDepurado = hoy;
+            monticulos.keySet().removeIf(k -> (int) (k & 0xFFFFFFFFL) < hoy);
+        }
+    }
+
+    private static long clave(Integer idSede, LocalDate fecha) {
+        return ((long) idSede << 32) | (fecha.toEpochDay() & 0xFFFFFFFFL);
+    }
+}
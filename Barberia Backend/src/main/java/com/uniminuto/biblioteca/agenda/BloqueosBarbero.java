@@ -0,0 +1,108 @@
+package com.uniminuto.biblioteca.agenda;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.coyote.BadRequestException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Candados por barbero, repartidos en franjas fijas, para serializar las reservas de un mismo barbero
+ * sin bloquear la tabla completa. Cada candado se libera al terminar la transacción que lo tomó,
+ * después de que el índice en memoria haya recibido los cambios confirmados.
+ */
+@Component
+public class BloqueosBarbero {
+
+    private static final int FRANJAS = 256;
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 10;
+
+    private final ReentrantLock[] candados = new ReentrantLock[FRANJAS];
+
+    public BloqueosBarbero() {
+        for (int i = 0; i < FRANJAS; i++) {
+            candados[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Bloquea la agenda de un barbero hasta que termine la transacción actual, o hasta liberar el bloqueo
+     * devuelto si antes se descarta al barbero.
+     * @param idBarbero ID del barbero.
+     * @return Bloqueo tomado.
+     * @throws BadRequestException Si la agenda sigue ocupada tras la espera máxima.
+     */
+    public Bloqueo bloquearHastaFinDeTransaccion(Integer idBarbero) throws BadRequestException {
+        return tomar(franja(idBarbero));
+    }
+
+    /**
+     * Bloquea las agendas de varios barberos hasta que termine la transacción actual.
+     * Las franjas se toman en orden ascendente para evitar interbloqueos entre operaciones masivas.
+     * @param idsBarbero IDs de los barberos.
+     * @throws BadRequestException Si alguna agenda sigue ocupada tras la espera máxima.
+     */
+    public void bloquearHastaFinDeTransaccion(Collection<Integer> idsBarbero) throws BadRequestException {
+        TreeSet<Integer> franjas = new TreeSet<>();
+        for (Integer idBarbero : idsBarbero) {
+            franjas.add(franja(idBarbero));
+        }
+        for (Integer franja : franjas) {
+            tomar(franja);
+        }
+    }
+
+    private Bloqueo tomar(int franja) throws BadRequestException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El bloqueo de agenda requiere una transacción activa.");
+        }
+        ReentrantLock candado = candados[franja];
+        try {
+            if (!candado.tryLock(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS)) {
+                throw new BadRequestException("La agenda del barbero está ocupada, intente de nuevo.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BadRequestException("Se interrumpió la espera por la agenda del barbero.");
+        }
+        Bloqueo bloqueo = new Bloqueo(candado);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bloqueo.liberar();
+            }
+        });
+        return bloqueo;
+    }
+
+    /**
+     * Bloqueo de una franja tomado por la transacción actual. Solo debe liberarse antes de terminar la
+     * transacción si no se escribió nada bajo él, y desde el mismo hilo que lo tomó.
+     */
+    public static final class Bloqueo {
+        private final ReentrantLock candado;
+        private boolean liberado;
+
+        private Bloqueo(ReentrantLock candado) {
+            this.candado = candado;
+        }
+
+        /**
+         * Libera la franja; al terminar la transacción ya no se vuelve a liberar.
+         */
+        public void liberar() {
+            if (!liberado) {
+                liberado = true;
+                candado.unlock();
+            }
+        }
+    }
+
+    private static int franja(Integer idBarbero) {
+        int h = idBarbero * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (FRANJAS - 1);
+    }
+}
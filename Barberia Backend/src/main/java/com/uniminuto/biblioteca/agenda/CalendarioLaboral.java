@@ -0,0 +1,205 @@
+package com.uniminuto.biblioteca.agenda;
+
+import com.uniminuto.biblioteca.entity.FestivoSede;
+import com.uniminuto.biblioteca.entity.HorarioSede;
+import com.uniminuto.biblioteca.entity.TurnoBarbero;
+import com.uniminuto.biblioteca.repository.FestivoSedeRepository;
+import com.uniminuto.biblioteca.repository.HorarioSedeRepository;
+import com.uniminuto.biblioteca.repository.TurnoBarberoRepository;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calendario laboral compilado en máscaras de franjas.
+ * El horario de cada sede y los turnos de cada barbero se convierten, una sola vez, en una máscara
+ * por día de la semana; saber si un barbero trabaja en un intervalo se reduce entonces a operaciones
+ * de bits. Las máscaras se recompilan solo para la sede o el barbero cuya plantilla cambia.
+ * <ul>
+ *   <li>Una sede sin horario definido abre todos los días en el horario por defecto.</li>
+ *   <li>Un barbero sin turnos definidos trabaja durante todo el horario de su sede.</li>
+ *   <li>En los festivos de una sede no se atiende.</li>
+ * </ul>
+ */
+@Component
+public class CalendarioLaboral {
+
+    private static final int DIAS_SEMANA = 7;
+
+    @Autowired
+    private HorarioSedeRepository horarioSedeRepository;
+
+    @Autowired
+    private TurnoBarberoRepository turnoBarberoRepository;
+
+    @Autowired
+    private FestivoSedeRepository festivoSedeRepository;
+
+    @Value("${barberia.agenda.hora-apertura:08:00}")
+    private String horaApertura;
+
+    @Value("${barberia.agenda.hora-cierre:20:00}")
+    private String horaCierre;
+
+    /**
+     * Máscaras semanales por sede (índice 0 = lunes). Las sedes ausentes usan el horario por defecto.
+     */
+    private final ConcurrentMap<Integer, long[][]> semanasSede = new ConcurrentHashMap<>();
+
+    /**
+     * Máscaras semanales por barbero (índice 0 = lunes). Los barberos ausentes no tienen restricción propia.
+     */
+    private final ConcurrentMap<Integer, long[][]> semanasBarbero = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Integer, Set<LocalDate>> festivosSede = new ConcurrentHashMap<>();
+
+    private volatile long[][] semanaPorDefecto;
+
+    private volatile boolean compilado;
+
+    /**
+     * Compila todas las plantillas al iniciar la aplicación (tres consultas en total).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void compilarTodo() {
+        long[] diaPorDefecto = MascaraFranjas.deIntervalo(
+                IndiceCitas.minutos(LocalTime.parse(horaApertura)), IndiceCitas.minutos(LocalTime.parse(horaCierre)));
+        long[][] porDefecto = new long[DIAS_SEMANA][];
+        for (int d = 0; d < DIAS_SEMANA; d++) {
+            porDefecto[d] = diaPorDefecto;
+        }
+        semanaPorDefecto = porDefecto;
+
+        Map<Integer, long[][]> sedes = new HashMap<>();
+        for (HorarioSede horario : horarioSedeRepository.findAll()) {
+            long[][] semana = sedes.computeIfAbsent(horario.getSede().getIdSede(), k -> semanaVacia());
+            marcar(semana, horario.getDiaSemana(), horario.getHoraApertura(), horario.getHoraCierre());
+        }
+        Map<Integer, long[][]> barberos = new HashMap<>();
+        for (TurnoBarbero turno : turnoBarberoRepository.findAll()) {
+            long[][] semana = barberos.computeIfAbsent(turno.getBarbero().getIdBarbero(), k -> semanaVacia());
+            marcar(semana, turno.getDiaSemana(), turno.getHoraInicio(), turno.getHoraFin());
+        }
+        Map<Integer, Set<LocalDate>> festivos = new HashMap<>();
+        for (FestivoSede festivo : festivoSedeRepository.findAll()) {
+            festivos.computeIfAbsent(festivo.getSede().getIdSede(), k -> new HashSet<>()).add(festivo.getFecha());
+        }
+
+        semanasSede.clear();
+        semanasSede.putAll(sedes);
+        semanasBarbero.clear();
+        semanasBarbero.putAll(barberos);
+        festivosSede.clear();
+        festivos.forEach((idSede, fechas) -> festivosSede.put(idSede, Set.copyOf(fechas)));
+        compilado = true;
+    }
+
+    /**
+     * Vuelve a compilar el horario semanal y los festivos de una sede.
+     * @param idSede ID de la sede.
+     */
+    public synchronized void recompilarSede(Integer idSede) {
+        asegurarCompilado();
+        List<HorarioSede> horarios = horarioSedeRepository.findBySede_IdSedeOrderByDiaSemanaAscHoraAperturaAsc(idSede);
+        if (horarios.isEmpty()) {
+            semanasSede.remove(idSede);
+        } else {
+            long[][] semana = semanaVacia();
+            for (HorarioSede horario : horarios) {
+                marcar(semana, horario.getDiaSemana(), horario.getHoraApertura(), horario.getHoraCierre());
+            }
+            semanasSede.put(idSede, semana);
+        }
+        Set<LocalDate> festivos = new HashSet<>();
+        for (FestivoSede festivo : festivoSedeRepository.findBySede_IdSedeOrderByFechaAsc(idSede)) {
+            festivos.add(festivo.getFecha());
+        }
+        if (festivos.isEmpty()) {
+            festivosSede.remove(idSede);
+        } else {
+            festivosSede.put(idSede, Set.copyOf(festivos));
+        }
+    }
+
+    /**
+     * Vuelve a compilar los turnos semanales de un barbero.
+     * @param idBarbero ID del barbero.
+     */
+    public synchronized void recompilarBarbero(Integer idBarbero) {
+        asegurarCompilado();
+        List<TurnoBarbero> turnos = turnoBarberoRepository.findByBarbero_IdBarberoOrderByDiaSemanaAscHoraInicioAsc(idBarbero);
+        if (turnos.isEmpty()) {
+            semanasBarbero.remove(idBarbero);
+            return;
+        }
+        long[][] semana = semanaVacia();
+        for (TurnoBarbero turno : turnos) {
+            marcar(semana, turno.getDiaSemana(), turno.getHoraInicio(), turno.getHoraFin());
+        }
+        semanasBarbero.put(idBarbero, semana);
+    }
+
+    /**
+     * Máscara de las franjas en que un barbero atiende en una fecha: horario de la sede
+     * intersectado con los turnos del barbero, o vacía si la sede tiene festivo.
+     * El llamador puede modificar el arreglo devuelto.
+     * @param idSede ID de la sede del barbero.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha.
+     * @return Máscara de franjas laborables.
+     */
+    public long[] mascara(Integer idSede, Integer idBarbero, LocalDate fecha) {
+        asegurarCompilado();
+        Set<LocalDate> festivos = festivosSede.get(idSede);
+        if (festivos != null && festivos.contains(fecha)) {
+            return MascaraFranjas.vacia();
+        }
+        int dia = fecha.getDayOfWeek().getValue() - 1;
+        long[] resultado = semanasSede.getOrDefault(idSede, semanaPorDefecto)[dia].clone();
+        long[][] semanaBarbero = semanasBarbero.get(idBarbero);
+        if (semanaBarbero != null) {
+            for (int w = 0; w < MascaraFranjas.PALABRAS; w++) {
+                resultado[w] &= semanaBarbero[dia][w];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Compila las plantillas si se consulta el calendario antes de que la aplicación termine de iniciar.
+     */
+    private void asegurarCompilado() {
+        if (!compilado) {
+            synchronized (this) {
+                if (!compilado) {
+                    compilarTodo();
+                }
+            }
+        }
+    }
+
+    private static long[][] semanaVacia() {
+        long[][] semana = new long[DIAS_SEMANA][];
+        for (int d = 0; d < DIAS_SEMANA; d++) {
+            semana[d] = MascaraFranjas.vacia();
+        }
+        return semana;
+    }
+
+    private static void marcar(long[][] semana, DayOfWeek dia, LocalTime desde, LocalTime hasta) {
+        int fin = hasta.equals(LocalTime.MIDNIGHT) ? 24 * 60 : IndiceCitas.minutos(hasta);
+        MascaraFranjas.marcarMinutos(semana[dia.getValue() - 1], IndiceCitas.minutos(desde), fin);
+    }
+}
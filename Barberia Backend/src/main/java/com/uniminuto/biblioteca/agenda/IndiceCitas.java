@@ -0,0 +1,365 @@
+package com.uniminuto.biblioteca.agenda;
+
+import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.model.UbicacionCita;
+import com.uniminuto.biblioteca.repository.CitaRepository;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Índice en memoria de las citas por barbero y día.
+ * Cada agenda se carga una sola vez desde la base de datos y luego se mantiene al día con los
+ * cambios confirmados, de modo que la detección de solapamientos no requiere una consulta SQL
+ * por validación.
+ * Solo se guardan las agendas leídas fuera de una transacción: dentro de la del llamador la lectura
+ * podría ver una instantánea anterior a citas ya confirmadas (REPEATABLE READ), escrituras propias aún
+ * sin confirmar o una réplica atrasada, y el índice las conservaría indefinidamente. Esas agendas se
+ * usan para responder, pero no se guardan.
+ */
+@Component
+public class IndiceCitas {
+
+    private static final int FRANJAS_DE_SELLOS = 64;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    private final ConcurrentMap<Long, AgendaDia> agendas = new ConcurrentHashMap<>();
+
+    /**
+     * Sellos de modificación por grupo de claves. Una carga desde la base de datos solo se guarda
+     * si ninguna modificación tocó su grupo mientras se consultaba.
+     */
+    private final AtomicLongArray sellos = new AtomicLongArray(FRANJAS_DE_SELLOS);
+
+    private volatile long ultimoDiaDepurado = LocalDate.now().toEpochDay();
+
+    private final List<OyenteAgenda> oyentes = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registra un oyente que será notificado de cada cambio aplicado a las agendas.
+     * @param oyente Oyente a registrar.
+     */
+    public void agregarOyente(OyenteAgenda oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Obtiene la agenda de un barbero para un día, cargándola si aún no está en memoria.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha.
+     * @return Agenda del día.
+     */
+    public AgendaDia obtenerAgenda(Integer idBarbero, LocalDate fecha) {
+        long clave = clave(idBarbero, fecha);
+        AgendaDia agenda = agendas.get(clave);
+        if (agenda != null) {
+            return agenda;
+        }
+        depurarDiasPasados();
+        long sello = sellos.get(franja(clave));
+        agenda = construir(citaRepository.buscarUbicacionesDia(idBarbero, fecha));
+        return instalar(clave, sello, agenda);
+    }
+
+    /**
+     * Obtiene las agendas de un día para varios barberos de una sede. Las que no estén en memoria
+     * se cargan con una única consulta para toda la sede.
+     * @param idSede ID de la sede.
+     * @param fecha Fecha.
+     * @param idsBarbero IDs de los barberos de la sede.
+     * @return Agenda de cada barbero.
+     */
+    public Map<Integer, AgendaDia> obtenerAgendasSede(Integer idSede, LocalDate fecha, Collection<Integer> idsBarbero) {
+        Map<Integer, AgendaDia> resultado = new HashMap<>();
+        List<Integer> faltantes = new ArrayList<>();
+        for (Integer idBarbero : idsBarbero) {
+            AgendaDia agenda = agendas.get(clave(idBarbero, fecha));
+            if (agenda != null) {
+                resultado.put(idBarbero, agenda);
+            } else {
+                faltantes.add(idBarbero);
+            }
+        }
+        if (faltantes.isEmpty()) {
+            return resultado;
+        }
+        depurarDiasPasados();
+        long[] sellosPrevios = new long[faltantes.size()];
+        for (int i = 0; i < faltantes.size(); i++) {
+            sellosPrevios[i] = sellos.get(franja(clave(faltantes.get(i), fecha)));
+        }
+        Map<Integer, List<UbicacionCita>> citasPorBarbero = new HashMap<>();
+        for (UbicacionCita cita : citaRepository.buscarUbicacionesSedeDia(idSede, fecha)) {
+            citasPorBarbero.computeIfAbsent(cita.getIdBarbero(), k -> new ArrayList<>()).add(cita);
+        }
+        for (int i = 0; i < faltantes.size(); i++) {
+            Integer idBarbero = faltantes.get(i);
+            long clave = clave(idBarbero, fecha);
+            AgendaDia agenda = construir(citasPorBarbero.getOrDefault(idBarbero, List.of()));
+            resultado.put(idBarbero, instalar(clave, sellosPrevios[i], agenda));
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene las agendas de varios barberos para todos los días de un rango. Las que no estén en
+     * memoria se cargan con una única consulta por rango de fechas.
+     * @param idsBarbero IDs de los barberos.
+     * @param desde Fecha inicial (inclusiva).
+     * @param hasta Fecha final (inclusiva).
+     * @return Agenda de cada par, indexada por {@link #claveDe(Integer, LocalDate)}.
+     */
+    public Map<Long, AgendaDia> obtenerAgendasRango(Collection<Integer> idsBarbero, LocalDate desde, LocalDate hasta) {
+        Map<Long, AgendaDia> resultado = new HashMap<>();
+        Map<Long, Long> sellosPrevios = new HashMap<>();
+        Set<Integer> barberosFaltantes = new HashSet<>();
+        LocalDate primeraFaltante = null;
+        LocalDate ultimaFaltante = null;
+        for (Integer idBarbero : idsBarbero) {
+            for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+                long clave = clave(idBarbero, fecha);
+                AgendaDia agenda = agendas.get(clave);
+                if (agenda != null) {
+                    resultado.put(clave, agenda);
+                    continue;
+                }
+                sellosPrevios.put(clave, sellos.get(franja(clave)));
+                barberosFaltantes.add(idBarbero);
+                if (primeraFaltante == null || fecha.isBefore(primeraFaltante)) {
+                    primeraFaltante = fecha;
+                }
+                if (ultimaFaltante == null || fecha.isAfter(ultimaFaltante)) {
+                    ultimaFaltante = fecha;
+                }
+            }
+        }
+        if (sellosPrevios.isEmpty()) {
+            return resultado;
+        }
+        depurarDiasPasados();
+        Map<Long, List<UbicacionCita>> citasPorClave = new HashMap<>();
+        for (UbicacionCita cita : citaRepository.buscarUbicacionesRango(barberosFaltantes, primeraFaltante, ultimaFaltante)) {
+            long clave = clave(cita.getIdBarbero(), cita.getFecha());
+            if (sellosPrevios.containsKey(clave)) {
+                citasPorClave.computeIfAbsent(clave, k -> new ArrayList<>()).add(cita);
+            }
+        }
+        sellosPrevios.forEach((clave, sello) -> {
+            AgendaDia agenda = construir(citasPorClave.getOrDefault(clave, List.of()));
+            resultado.put(clave, instalar(clave, sello, agenda));
+        });
+        return resultado;
+    }
+
+    /**
+     * Lee de la base de datos, con bloqueo, las agendas de varios barberos en varias fechas, sin usar ni
+     * modificar las agendas en memoria. Con las filas de los barberos bloqueadas, el resultado incluye lo
+     * reservado por cualquier instancia de la aplicación y no cambia hasta el final de la transacción.
+     * @param idsBarbero IDs de los barberos.
+     * @param fechas Fechas.
+     * @return Agenda de cada par, indexada por {@link #claveDe(Integer, LocalDate)}.
+     */
+    public Map<Long, AgendaDia> leerAgendasBloqueadas(Collection<Integer> idsBarbero, Collection<LocalDate> fechas) {
+        Map<Long, List<UbicacionCita>> citasPorClave = new HashMap<>();
+        for (UbicacionCita cita : citaRepository.bloquearUbicacionesEnFechas(idsBarbero, fechas)) {
+            citasPorClave.computeIfAbsent(clave(cita.getIdBarbero(), cita.getFecha()), k -> new ArrayList<>()).add(cita);
+        }
+        Map<Long, AgendaDia> resultado = new HashMap<>();
+        for (Integer idBarbero : idsBarbero) {
+            for (LocalDate fecha : fechas) {
+                long clave = clave(idBarbero, fecha);
+                resultado.put(clave, construir(citasPorClave.getOrDefault(clave, List.of())));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca una cita del barbero que se solape con el intervalo indicado.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha.
+     * @param hora Hora de inicio.
+     * @param duracionMinutos Duración en minutos.
+     * @param idCitaExcluida ID de cita a ignorar, o null.
+     * @return ID de la cita en conflicto, o -1 si el intervalo está libre.
+     */
+    public int buscarConflicto(Integer idBarbero, LocalDate fecha, LocalTime hora, int duracionMinutos,
+            Integer idCitaExcluida) {
+        int inicio = minutos(hora);
+        return obtenerAgenda(idBarbero, fecha).buscarConflicto(inicio, inicio + duracionMinutos, idCitaExcluida);
+    }
+
+    /**
+     * Registra (o reubica) una cita en el índice.
+     * @param cita Cita confirmada.
+     */
+    public void registrar(Cita cita) {
+        int inicio = minutos(cita.getHora());
+        registrar(cita.getIdCita(), cita.getBarbero().getIdBarbero(), cita.getFecha(),
+                inicio, inicio + cita.getServicio().duracionEfectivaMinutos());
+    }
+
+    /**
+     * Registra (o reubica) una cita en el índice a partir de su intervalo.
+     * @param idCita ID de la cita.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha.
+     * @param inicio Minuto de inicio.
+     * @param fin Minuto de fin (exclusivo).
+     */
+    public void registrar(Integer idCita, Integer idBarbero, LocalDate fecha, int inicio, int fin) {
+        long clave = clave(idBarbero, fecha);
+        sellos.incrementAndGet(franja(clave));
+        notificar(idBarbero, fecha, agendas.computeIfPresent(clave, (k, agenda) -> agenda.con(idCita, inicio, fin)));
+    }
+
+    /**
+     * Quita una cita del índice.
+     * @param idCita ID de la cita.
+     * @param idBarbero ID del barbero que la tenía asignada.
+     * @param fecha Fecha en que estaba agendada.
+     */
+    public void quitar(Integer idCita, Integer idBarbero, LocalDate fecha) {
+        long clave = clave(idBarbero, fecha);
+        sellos.incrementAndGet(franja(clave));
+        notificar(idBarbero, fecha, agendas.computeIfPresent(clave, (k, agenda) -> agenda.sin(idCita)));
+    }
+
+    /**
+     * Quita una cita del índice cuando no se conoce su barbero ni su fecha (por ejemplo, tras un
+     * borrado condicional). Recorre las agendas en memoria, que son pocas y pequeñas.
+     * @param idCita ID de la cita.
+     */
+    public void quitar(Integer idCita) {
+        for (int i = 0; i < FRANJAS_DE_SELLOS; i++) {
+            sellos.incrementAndGet(i);
+        }
+        for (Map.Entry<Long, AgendaDia> entrada : agendas.entrySet()) {
+            if (entrada.getValue().sin(idCita) == entrada.getValue()) {
+                continue;
+            }
+            long clave = entrada.getKey();
+            AgendaDia nueva = agendas.computeIfPresent(clave, (k, agenda) -> agenda.sin(idCita));
+            notificar((int) (clave >>> 32), LocalDate.ofEpochDay((int) (clave & 0xFFFFFFFFL)), nueva);
+        }
+    }
+
+    /**
+     * Descarta la agenda de un barbero para un día; se volverá a cargar en la siguiente consulta.
+     * Se usa cuando las citas se escriben sin pasar por la entidad (por ejemplo, inserciones por lotes).
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha.
+     */
+    public void invalidar(Integer idBarbero, LocalDate fecha) {
+        long clave = clave(idBarbero, fecha);
+        sellos.incrementAndGet(franja(clave));
+        agendas.remove(clave);
+        notificar(idBarbero, fecha, null);
+    }
+
+    /**
+     * Descarta todas las agendas en memoria (por ejemplo, si cambia la duración de un servicio).
+     */
+    public void invalidarTodo() {
+        for (int i = 0; i < FRANJAS_DE_SELLOS; i++) {
+            sellos.incrementAndGet(i);
+        }
+        agendas.clear();
+        for (OyenteAgenda oyente : oyentes) {
+            oyente.agendasDescartadas();
+        }
+    }
+
+    /**
+     * Guarda una agenda recién cargada si se leyó fuera de una transacción y ninguna modificación tocó su
+     * grupo desde que se leyó el sello. La comprobación y la inserción son atómicas: quien modifica
+     * incrementa el sello antes de aplicar el cambio sobre la agenda en memoria, así que o bien esta carga
+     * ve el sello nuevo y no se guarda, o bien el cambio se aplica sobre la agenda ya guardada.
+     * @param clave Clave de la agenda.
+     * @param sello Sello leído antes de la consulta.
+     * @param agenda Agenda cargada.
+     * @return Agenda vigente en el índice, o la cargada si no pudo guardarse.
+     */
+    private AgendaDia instalar(long clave, long sello, AgendaDia agenda) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return agenda;
+        }
+        AgendaDia vigente = agendas.compute(clave,
+                (k, previa) -> previa != null ? previa : sellos.get(franja(k)) == sello ? agenda : null);
+        return vigente != null ? vigente : agenda;
+    }
+
+    private void notificar(Integer idBarbero, LocalDate fecha, AgendaDia agenda) {
+        for (OyenteAgenda oyente : oyentes) {
+            oyente.agendaModificada(idBarbero, fecha, agenda);
+        }
+    }
+
+    /**
+     * Convierte una hora en minutos desde la medianoche.
+     * @param hora Hora.
+     * @return Minutos.
+     */
+    public static int minutos(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
+    private static AgendaDia construir(List<UbicacionCita> citas) {
+        // Las citas llegan ordenadas por hora, por lo que los arreglos quedan ordenados por inicio
+        int n = citas.size();
+        int[] inicios = new int[n];
+        int[] fines = new int[n];
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            UbicacionCita cita = citas.get(i);
+            inicios[i] = minutos(cita.getHora());
+            fines[i] = inicios[i] + cita.duracionEfectivaMinutos();
+            ids[i] = cita.getIdCita();
+        }
+        return AgendaDia.deOrdenados(inicios, fines, ids);
+    }
+
+    /**
+     * Elimina las agendas de días anteriores a hoy; se ejecuta como máximo una vez por día.
+     */
+    private void depurarDiasPasados() {
+        long hoy = LocalDate.now().toEpochDay();
+        if (hoy > ultimoDiaDepurado) {
+            ultimoDiaDepurado = hoy;
+            agendas.keySet().removeIf(k -> (int) (k & 0xFFFFFFFFL) < hoy);
+        }
+    }
+
+    /**
+     * Clave con la que se indexa la agenda de un barbero en un día.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha.
+     * @return Clave compuesta.
+     */
+    public static long claveDe(Integer idBarbero, LocalDate fecha) {
+        return clave(idBarbero, fecha);
+    }
+
+    private static long clave(Integer idBarbero, LocalDate fecha) {
+        return ((long) idBarbero << 32) | (fecha.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private static int franja(long clave) {
+        return (int) ((clave ^ (clave >>> 32)) & (FRANJAS_DE_SELLOS - 1));
+    }
+}
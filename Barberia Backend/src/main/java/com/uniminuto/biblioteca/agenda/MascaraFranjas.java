@@ -0,0 +1,189 @@
+package com.uniminuto.biblioteca.agenda;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Operaciones de bits sobre máscaras de franjas de un día.
+ * El día se divide en franjas de 15 minutos (96 franjas) y una máscara es un {@code long[]}
+ * de dos palabras donde el bit {@code f} representa la franja que empieza en el minuto {@code f * 15}.
+ */
+public final class MascaraFranjas {
+
+    /**
+     * Minutos que abarca cada franja.
+     */
+    public static final int MINUTOS_POR_FRANJA = 15;
+
+    /**
+     * Número de franjas en un día.
+     */
+    public static final int FRANJAS_POR_DIA = 24 * 60 / MINUTOS_POR_FRANJA;
+
+    /**
+     * Número de palabras de 64 bits que ocupa una máscara.
+     */
+    public static final int PALABRAS = (FRANJAS_POR_DIA + 63) / 64;
+
+    private MascaraFranjas() {
+    }
+
+    /**
+     * Crea una máscara sin franjas marcadas.
+     * @return Máscara vacía.
+     */
+    public static long[] vacia() {
+        return new long[PALABRAS];
+    }
+
+    /**
+     * Crea una máscara con todas las franjas que toca el intervalo [inicioMinutos, finMinutos).
+     * @param inicioMinutos Minuto de inicio.
+     * @param finMinutos Minuto de fin (exclusivo).
+     * @return Máscara del intervalo.
+     */
+    public static long[] deIntervalo(int inicioMinutos, int finMinutos) {
+        long[] mascara = vacia();
+        marcarMinutos(mascara, inicioMinutos, finMinutos);
+        return mascara;
+    }
+
+    /**
+     * Marca las franjas que toca el intervalo [inicioMinutos, finMinutos). Una cita que empieza o
+     * termina a mitad de franja ocupa la franja completa.
+     * @param mascara Máscara a modificar.
+     * @param inicioMinutos Minuto de inicio.
+     * @param finMinutos Minuto de fin (exclusivo).
+     */
+    public static void marcarMinutos(long[] mascara, int inicioMinutos, int finMinutos) {
+        int desde = Math.max(0, inicioMinutos / MINUTOS_POR_FRANJA);
+        int hasta = Math.min(FRANJAS_POR_DIA, (finMinutos + MINUTOS_POR_FRANJA - 1) / MINUTOS_POR_FRANJA);
+        marcarFranjas(mascara, desde, hasta);
+    }
+
+    /**
+     * Marca las franjas [desde, hasta).
+     * @param mascara Máscara a modificar.
+     * @param desde Primera franja.
+     * @param hasta Franja final (exclusiva).
+     */
+    public static void marcarFranjas(long[] mascara, int desde, int hasta) {
+        for (int f = desde; f < hasta; ) {
+            int palabra = f >>> 6;
+            int bitInicio = f & 63;
+            int bitFin = Math.min(64, bitInicio + (hasta - f));
+            long bits = bitFin == 64 ? -1L << bitInicio : ((1L << bitFin) - 1) & (-1L << bitInicio);
+            mascara[palabra] |= bits;
+            f += bitFin - bitInicio;
+        }
+    }
+
+    /**
+     * Franjas en las que puede empezar un servicio que necesita {@code franjasNecesarias} franjas
+     * libres consecutivas.
+     * @param libres Máscara de franjas libres.
+     * @param franjasNecesarias Franjas consecutivas requeridas.
+     * @return Máscara de franjas de inicio posibles.
+     */
+    public static long[] iniciosPosibles(long[] libres, int franjasNecesarias) {
+        long[] resultado = libres.clone();
+        for (int k = 1; k < franjasNecesarias; k++) {
+            long[] desplazada = desplazarHaciaAbajo(libres, k);
+            for (int w = 0; w < PALABRAS; w++) {
+                resultado[w] &= desplazada[w];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Calcula {@code a & ~b}.
+     * @param a Máscara base.
+     * @param b Máscara a restar.
+     * @return Nueva máscara.
+     */
+    public static long[] restar(long[] a, long[] b) {
+        long[] resultado = new long[PALABRAS];
+        for (int w = 0; w < PALABRAS; w++) {
+            resultado[w] = a[w] & ~b[w];
+        }
+        return resultado;
+    }
+
+    /**
+     * Indica si todas las franjas de {@code subconjunto} están en {@code mascara}.
+     * @param subconjunto Máscara a verificar.
+     * @param mascara Máscara contenedora.
+     * @return true si está contenida.
+     */
+    public static boolean contiene(long[] mascara, long[] subconjunto) {
+        for (int w = 0; w < PALABRAS; w++) {
+            if ((subconjunto[w] & ~mascara[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cuenta las franjas marcadas.
+     * @param mascara Máscara.
+     * @return Número de franjas marcadas.
+     */
+    public static int contar(long[] mascara) {
+        int total = 0;
+        for (long palabra : mascara) {
+            total += Long.bitCount(palabra);
+        }
+        return total;
+    }
+
+    /**
+     * Convierte las franjas marcadas en horas de inicio.
+     * @param mascara Máscara.
+     * @return Horas de inicio de las franjas marcadas, en orden.
+     */
+    public static List<LocalTime> horas(long[] mascara) {
+        List<LocalTime> horas = new ArrayList<>(contar(mascara));
+        for (int w = 0; w < PALABRAS; w++) {
+            long palabra = mascara[w];
+            while (palabra != 0) {
+                int franja = (w << 6) + Long.numberOfTrailingZeros(palabra);
+                horas.add(LocalTime.of(0, 0).plusMinutes((long) franja * MINUTOS_POR_FRANJA));
+                palabra &= palabra - 1;
+            }
+        }
+        return horas;
+    }
+
+    /**
+     * Número de franjas que ocupa un servicio de la duración indicada.
+     * @param duracionMinutos Duración en minutos.
+     * @return Franjas necesarias.
+     */
+    public static int franjasPara(int duracionMinutos) {
+        return Math.max(1, (duracionMinutos + MINUTOS_POR_FRANJA - 1) / MINUTOS_POR_FRANJA);
+    }
+
+    /**
+     * Desplaza la máscara {@code k} franjas: el bit {@code i} del resultado es el bit {@code i + k} del origen.
+     */
+    private static long[] desplazarHaciaAbajo(long[] origen, int k) {
+        long[] resultado = new long[PALABRAS];
+        int saltoPalabras = k >>> 6;
+        int saltoBits = k & 63;
+        for (int w = 0; w < PALABRAS; w++) {
+            int fuente = w + saltoPalabras;
+            if (fuente >= PALABRAS) {
+                break;
+            }
+            long valor = origen[fuente] >>> saltoBits;
+            if (saltoBits != 0 && fuente + 1 < PALABRAS) {
+                valor |= origen[fuente + 1] << (64 - saltoBits);
+            }
+            resultado[w] = valor;
+        }
+        return resultado;
+    }
+}
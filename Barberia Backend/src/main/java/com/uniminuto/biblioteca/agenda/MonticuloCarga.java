@@ -0,0 +1,136 @@
+package com.uniminuto.biblioteca.agenda;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * Montículo mínimo indexado de barberos ordenados por minutos reservados (y por ID en caso de empate).
+ * El índice de posiciones permite cambiar la carga de un barbero en O(log n) sin reconstruir el montículo.
+ * No es seguro para uso concurrente; el llamador debe sincronizar.
+ */
+final class MonticuloCarga {
+
+    private int[] ids;
+    private int[] cargas;
+    private int tamanio;
+    private final Map<Integer, Integer> posiciones = new HashMap<>();
+
+    MonticuloCarga(int capacidad) {
+        ids = new int[Math.max(1, capacidad)];
+        cargas = new int[Math.max(1, capacidad)];
+    }
+
+    /**
+     * Agrega un barbero o actualiza su carga.
+     * @param idBarbero ID del barbero.
+     * @param carga Minutos reservados.
+     */
+    void fijar(int idBarbero, int carga) {
+        Integer pos = posiciones.get(idBarbero);
+        if (pos == null) {
+            if (tamanio == ids.length) {
+                ids = Arrays.copyOf(ids, tamanio * 2);
+                cargas = Arrays.copyOf(cargas, tamanio * 2);
+            }
+            ids[tamanio] = idBarbero;
+            cargas[tamanio] = carga;
+            posiciones.put(idBarbero, tamanio);
+            subir(tamanio++);
+            return;
+        }
+        int anterior = cargas[pos];
+        cargas[pos] = carga;
+        if (carga < anterior) {
+            subir(pos);
+        } else if (carga > anterior) {
+            bajar(pos);
+        }
+    }
+
+    /**
+     * Indica si el barbero está en el montículo.
+     * @param idBarbero ID del barbero.
+     * @return true si está.
+     */
+    boolean contiene(int idBarbero) {
+        return posiciones.containsKey(idBarbero);
+    }
+
+    /**
+     * Recorre los barberos de menor a mayor carga sin modificar el montículo y devuelve el primero
+     * que cumpla la condición. Solo se visitan los hijos de los nodos ya descartados, por lo que el costo
+     * es O(k log k) para k candidatos revisados.
+     * @param condicion Condición sobre el ID del barbero.
+     * @return ID del barbero elegido, o -1 si ninguno la cumple.
+     */
+    int primeroQue(IntPredicate condicion) {
+        if (tamanio == 0) {
+            return -1;
+        }
+        PriorityQueue<Integer> frontera = new PriorityQueue<>(this::comparar);
+        frontera.add(0);
+        while (!frontera.isEmpty()) {
+            int pos = frontera.poll();
+            if (condicion.test(ids[pos])) {
+                return ids[pos];
+            }
+            int hijo = 2 * pos + 1;
+            if (hijo < tamanio) {
+                frontera.add(hijo);
+            }
+            if (hijo + 1 < tamanio) {
+                frontera.add(hijo + 1);
+            }
+        }
+        return -1;
+    }
+
+    private int comparar(int a, int b) {
+        int porCarga = Integer.compare(cargas[a], cargas[b]);
+        return porCarga != 0 ? porCarga : Integer.compare(ids[a], ids[b]);
+    }
+
+    private void subir(int pos) {
+        while (pos > 0) {
+            int padre = (pos - 1) >>> 1;
+            if (comparar(pos, padre) >= 0) {
+                return;
+            }
+            intercambiar(pos, padre);
+            pos = padre;
+        }
+    }
+
+    private void bajar(int pos) {
+        while (true) {
+            int menor = pos;
+            int izquierdo = 2 * pos + 1;
+            int derecho = izquierdo + 1;
+            if (izquierdo < tamanio && comparar(izquierdo, menor) < 0) {
+                menor = izquierdo;
+            }
+            if (derecho < tamanio && comparar(derecho, menor) < 0) {
+                menor = derecho;
+            }
+            if (menor == pos) {
+                return;
+            }
+            intercambiar(pos, menor);
+            pos = menor;
+        }
+    }
+
+    private void intercambiar(int a, int b) {
+        int id = ids[a];
+        int carga = cargas[a];
+        ids[a] = ids[b];
+        cargas[a] = cargas[b];
+        ids[b] = id;
+        cargas[b] = carga;
+        posiciones.put(ids[a], a);
+        posiciones.put(ids[b], b);
+    }
+}
@@ -0,0 +1,23 @@
+package com.uniminuto.biblioteca.agenda;
+
+import java.time.LocalDate;
+
+/**
+ * Recibe los cambios que se confirman sobre las agendas del {@link IndiceCitas}, para mantener
+ * al día estructuras derivadas sin volver a consultar la base de datos.
+ */
+public interface OyenteAgenda {
+
+    /**
+     * Se invoca cuando cambia la agenda de un barbero en un día.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha.
+     * @param agenda Agenda resultante, o null si no está en memoria (fue descartada o nunca se cargó).
+     */
+    void agendaModificada(Integer idBarbero, LocalDate fecha, AgendaDia agenda);
+
+    /**
+     * Se invoca cuando se descartan todas las agendas en memoria.
+     */
+    void agendasDescartadas();
+}
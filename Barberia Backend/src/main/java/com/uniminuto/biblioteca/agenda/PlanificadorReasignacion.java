@@ -0,0 +1,122 @@
+package com.uniminuto.biblioteca.agenda;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Calcula cómo repartir entre otros barberos las citas de un día de un barbero ausente.
+ * <p>
+ * Las citas se recorren por hora de inicio y cada una se asigna al barbero con menos minutos
+ * reservados que la pueda atender. Si ninguno puede, se busca un camino de aumento de longitud uno:
+ * un barbero cuyo único conflicto sea otra cita ya reasignada en este mismo proceso que, a su vez,
+ * quepa con otro barbero. Así se recuperan la mayoría de los casos que el voraz simple deja fuera,
+ * con un costo de O(c * b^2) para c citas y b barberos.
+ */
+public final class PlanificadorReasignacion {
+
+    /**
+     * Valor de {@link #planificar} para las citas que no se pudieron ubicar.
+     */
+    public static final int SIN_UBICAR = -1;
+
+    private final int[] idsCita;
+    private final int[] inicios;
+    private final int[] fines;
+    private final long[][] laborales;
+    private final AgendaDia[] agendas;
+    private final int[] cargas;
+    private final int[] asignado;
+    private final Map<Integer, Integer> posicionPorCita = new HashMap<>();
+
+    private PlanificadorReasignacion(int[] idsCita, int[] inicios, int[] fines, long[][] laborales, AgendaDia[] agendas) {
+        this.idsCita = idsCita;
+        this.inicios = inicios;
+        this.fines = fines;
+        this.laborales = laborales;
+        this.agendas = agendas.clone();
+        this.cargas = new int[agendas.length];
+        for (int j = 0; j < agendas.length; j++) {
+            cargas[j] = agendas[j].minutosReservados();
+        }
+        this.asignado = new int[idsCita.length];
+        for (int i = 0; i < idsCita.length; i++) {
+            posicionPorCita.put(idsCita[i], i);
+        }
+    }
+
+    /**
+     * Reparte las citas de un día entre los barberos candidatos.
+     * @param idsCita IDs de las citas a reubicar, ordenadas por hora de inicio.
+     * @param inicios Minuto de inicio de cada cita.
+     * @param fines Minuto de fin (exclusivo) de cada cita.
+     * @param laborales Máscara laboral del día de cada barbero candidato.
+     * @param agendas Agenda actual del día de cada barbero candidato (no se modifica).
+     * @return Para cada cita, la posición del barbero asignado en {@code laborales}/{@code agendas},
+     *         o {@link #SIN_UBICAR}.
+     */
+    public static int[] planificar(int[] idsCita, int[] inicios, int[] fines, long[][] laborales, AgendaDia[] agendas) {
+        PlanificadorReasignacion planificador = new PlanificadorReasignacion(idsCita, inicios, fines, laborales, agendas);
+        for (int i = 0; i < idsCita.length; i++) {
+            planificador.ubicar(i);
+        }
+        return planificador.asignado;
+    }
+
+    private void ubicar(int i) {
+        int mejor = mejorBarbero(i, -1);
+        if (mejor >= 0) {
+            asignar(i, mejor);
+            return;
+        }
+        // Camino de aumento: liberar a un barbero moviendo la única cita reasignada que le estorba
+        long[] intervalo = MascaraFranjas.deIntervalo(inicios[i], fines[i]);
+        for (int j = 0; j < agendas.length; j++) {
+            if (!MascaraFranjas.contiene(laborales[j], intervalo)) {
+                continue;
+            }
+            int idConflicto = agendas[j].buscarConflicto(inicios[i], fines[i], null);
+            Integer k = posicionPorCita.get(idConflicto);
+            if (k == null || asignado[k] != j) {
+                continue; // El conflicto es una cita propia del barbero, que no se mueve
+            }
+            AgendaDia sinK = agendas[j].sin(idConflicto);
+            if (sinK.buscarConflicto(inicios[i], fines[i], null) >= 0) {
+                continue; // Hay más de un conflicto
+            }
+            int alterno = mejorBarbero(k, j);
+            if (alterno < 0) {
+                continue;
+            }
+            agendas[j] = sinK;
+            cargas[j] -= fines[k] - inicios[k];
+            asignar(k, alterno);
+            asignar(i, j);
+            return;
+        }
+        asignado[i] = SIN_UBICAR;
+    }
+
+    /**
+     * Barbero con menos carga que puede atender la cita, sin contar el barbero excluido.
+     */
+    private int mejorBarbero(int i, int excluido) {
+        long[] intervalo = MascaraFranjas.deIntervalo(inicios[i], fines[i]);
+        int mejor = -1;
+        for (int j = 0; j < agendas.length; j++) {
+            if (j == excluido || (mejor >= 0 && cargas[j] >= cargas[mejor])) {
+                continue;
+            }
+            if (MascaraFranjas.contiene(laborales[j], intervalo)
+                    && agendas[j].buscarConflicto(inicios[i], fines[i], null) < 0) {
+                mejor = j;
+            }
+        }
+        return mejor;
+    }
+
+    private void asignar(int i, int j) {
+        agendas[j] = agendas[j].con(idsCita[i], inicios[i], fines[i]);
+        cargas[j] += fines[i] - inicios[i];
+        asignado[i] = j;
+    }
+}
@@ -0,0 +1,32 @@
+package com.uniminuto.biblioteca.api;
+
+import com.uniminuto.biblioteca.model.EstadisticaAgrupacionRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Interfaz que define los endpoints de la agrupación de lecturas simultáneas de citas y pagos.
+ */
+@CrossOrigin(origins = "*")
+@RequestMapping("/agrupacion")
+public interface AgrupacionApi {
+
+    /**
+     * Obtiene cuántas llamadas a cada consulta se ejecutaron y cuántas esperaron el resultado de otra.
+     * @return Estadísticas por consulta.
+     */
+    @GetMapping("/estadisticas")
+    ResponseEntity<List<EstadisticaAgrupacionRs>> obtenerEstadisticas();
+
+    /**
+     * Descarta las estadísticas acumuladas.
+     * @return Respuesta genérica de éxito.
+     */
+    @DeleteMapping("/estadisticas")
+    ResponseEntity<RespuestaGenericaRs> reiniciarEstadisticas();
+}
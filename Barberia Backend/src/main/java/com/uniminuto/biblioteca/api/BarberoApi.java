@@ -1,11 +1,14 @@
 package com.uniminuto.biblioteca.api;
 
 import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.TurnoBarbero;
 import com.uniminuto.biblioteca.model.BarberoRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.model.TurnoRq;
 
 import java.util.List;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,6 +17,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -25,21 +29,35 @@ import org.springframework.web.bind.annotation.RequestParam;
 public interface BarberoApi {
 
     /**
-     * Lista todos los barberos registrados.
-     * @return Lista de barberos.
+     * Lista los barberos registrados ordenados por apellido, nombre e ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página. La primera página con el tamaño por defecto se sirve ya serializada
+     * desde memoria.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @param aceptaCodificacion Cabecera Accept-Encoding; con gzip la primera página se envía comprimida.
+     * @return Página de barberos, como JSON ya serializado.
      * @throws BadRequestException Excepción si hay un error.
      */
+    @VersionadoPor({"barbero", "sede"})
     @GetMapping("/listar")
-    ResponseEntity<List<Barbero>> listarBarberos() throws BadRequestException;
+    ResponseEntity<byte[]> listarBarberos(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion) throws BadRequestException;
 
     /**
-     * Lista barberos por el ID de la sede a la que pertenecen.
+     * Lista barberos por el ID de la sede a la que pertenecen, ordenados por apellido, nombre e ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página.
      * @param idSede ID de la sede.
-     * @return Lista de barberos.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @return Página de barberos.
      * @throws BadRequestException Excepción si hay un error.
      */
+    @VersionadoPor({"barbero", "sede"})
     @GetMapping("/listar-por-sede")
-    ResponseEntity<List<Barbero>> listarBarberosPorSede(@RequestParam Integer idSede) throws BadRequestException;
+    ResponseEntity<List<Barbero>> listarBarberosPorSede(@RequestParam Integer idSede,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) throws BadRequestException;
 
     /**
      * Obtiene un barbero por su ID.
@@ -47,6 +65,7 @@ public interface BarberoApi {
      * @return El barbero encontrado.
      * @throws BadRequestException Excepción si el barbero no existe.
      */
+    @VersionadoPor({"barbero", "sede"})
     @GetMapping("/obtener-por-id/{idBarbero}")
     ResponseEntity<Barbero> obtenerBarberoPorId(@PathVariable Integer idBarbero) throws BadRequestException;
 
@@ -76,4 +95,25 @@ public interface BarberoApi {
      */
     @DeleteMapping("/eliminar/{idBarbero}")
     ResponseEntity<RespuestaGenericaRs> eliminarBarbero(@PathVariable Integer idBarbero) throws BadRequestException;
+
+    /**
+     * Lista los turnos semanales de un barbero.
+     * @param idBarbero ID del barbero.
+     * @return Lista de turnos.
+     * @throws BadRequestException Excepción si el barbero no existe.
+     */
+    @VersionadoPor({"turno_barbero", "barbero"})
+    @GetMapping("/turnos/{idBarbero}")
+    ResponseEntity<List<TurnoBarbero>> listarTurnos(@PathVariable Integer idBarbero) throws BadRequestException;
+
+    /**
+     * Reemplaza los turnos semanales de un barbero.
+     * @param idBarbero ID del barbero.
+     * @param turnosRq Nuevos turnos.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Excepción si el barbero no existe o algún turno es inválido.
+     */
+    @PutMapping("/turnos/{idBarbero}")
+    ResponseEntity<RespuestaGenericaRs> actualizarTurnos(@PathVariable Integer idBarbero,
+            @RequestBody List<TurnoRq> turnosRq) throws BadRequestException;
 }
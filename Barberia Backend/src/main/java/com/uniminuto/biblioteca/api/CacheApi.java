@@ -0,0 +1,41 @@
+package com.uniminuto.biblioteca.api;
+
+import com.uniminuto.biblioteca.model.EstadisticaBusquedasRs;
+import com.uniminuto.biblioteca.model.EstadisticaCacheRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Interfaz que define los endpoints de la caché de segundo nivel (sedes, servicios y barberos) y de la
+ * caché de búsquedas por ID.
+ */
+@CrossOrigin(origins = "*")
+@RequestMapping("/cache")
+public interface CacheApi {
+
+    /**
+     * Obtiene los aciertos, fallos y escrituras de cada región de la caché.
+     * @return Estadísticas por región.
+     */
+    @GetMapping("/estadisticas")
+    ResponseEntity<List<EstadisticaCacheRs>> obtenerEstadisticas();
+
+    /**
+     * Obtiene los aciertos, fallos, expulsiones y ocupación de la caché de búsquedas por ID, por tipo de entidad.
+     * @return Estadísticas por tipo de entidad.
+     */
+    @GetMapping("/busquedas/estadisticas")
+    ResponseEntity<List<EstadisticaBusquedasRs>> obtenerEstadisticasBusquedas();
+
+    /**
+     * Vacía ambas cachés; las siguientes lecturas vuelven a la base de datos.
+     * @return Respuesta genérica de éxito.
+     */
+    @DeleteMapping("/invalidar")
+    ResponseEntity<RespuestaGenericaRs> invalidar();
+}
@@ -1,7 +1,14 @@
 package com.uniminuto.biblioteca.api; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.model.AgendaFechaRs;
+import com.uniminuto.biblioteca.model.CitaResumen;
 import com.uniminuto.biblioteca.model.CitaRq;
+import com.uniminuto.biblioteca.model.DisponibilidadBarberoRs;
+import com.uniminuto.biblioteca.model.OcupacionDiaRs;
+import com.uniminuto.biblioteca.model.ReasignacionRq;
+import com.uniminuto.biblioteca.model.ReasignacionRs;
+import com.uniminuto.biblioteca.model.ReprogramacionRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 
 import java.time.LocalDate;
@@ -12,12 +19,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Interfaz que define los endpoints para la gestión de citas.
@@ -27,12 +36,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 public interface CitaApi {
 
     /**
-     * Lista todas las citas registradas.
-     * @return Lista de citas.
+     * Lista las citas registradas ordenadas por fecha, hora e ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @return Página de citas.
      * @throws BadRequestException Excepción si hay un error.
      */
+    @VersionadoPor({"cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/listar")
-    ResponseEntity<List<Cita>> listarCitas() throws BadRequestException;
+    ResponseEntity<List<CitaResumen>> listarCitas(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) throws BadRequestException;
 
     /**
      * Obtiene una cita por su ID.
@@ -40,6 +54,7 @@ public interface CitaApi {
      * @return La cita encontrada.
      * @throws BadRequestException Excepción si la cita no existe.
      */
+    @VersionadoPor({"cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/obtener-por-id/{idCita}")
     ResponseEntity<Cita> obtenerCitaPorId(@PathVariable Integer idCita) throws BadRequestException;
 
@@ -52,6 +67,15 @@ public interface CitaApi {
     @PostMapping("/crear")
     ResponseEntity<RespuestaGenericaRs> crearCita(@RequestBody CitaRq citaRq) throws BadRequestException;
 
+    /**
+     * Crea varias citas en una sola operación (todo o nada).
+     * @param citasRq Lista de citas a crear.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Excepción si alguna cita no es válida o hay conflicto de horario.
+     */
+    @PostMapping("/crear-lote")
+    ResponseEntity<RespuestaGenericaRs> crearCitasEnLote(@RequestBody List<CitaRq> citasRq) throws BadRequestException;
+
     /**
      * Actualiza una cita existente.
      * @param citaRq Datos de la cita a actualizar (debe incluir el ID).
@@ -61,6 +85,35 @@ public interface CitaApi {
     @PutMapping("/actualizar")
     ResponseEntity<RespuestaGenericaRs> actualizarCita(@RequestBody CitaRq citaRq) throws BadRequestException;
 
+    /**
+     * Mueve una cita a otra fecha u hora si el nuevo horario está libre.
+     * @param idCita ID de la cita.
+     * @param reprogramacionRq Nueva fecha y/u hora.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Excepción si el horario no está libre o la cita cambió entretanto.
+     */
+    @PatchMapping("/{idCita}/reprogramar")
+    ResponseEntity<RespuestaGenericaRs> reprogramarCita(@PathVariable Integer idCita,
+            @RequestBody ReprogramacionRq reprogramacionRq) throws BadRequestException;
+
+    /**
+     * Cancela una cita futura que no tenga pagos.
+     * @param idCita ID de la cita.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Excepción si la cita no existe, ya estaba cancelada, ya pasó o tiene pagos.
+     */
+    @PatchMapping("/{idCita}/cancelar")
+    ResponseEntity<RespuestaGenericaRs> cancelarCita(@PathVariable Integer idCita) throws BadRequestException;
+
+    /**
+     * Reasigna las citas de un barbero ausente a otros barberos de la misma sede.
+     * @param reasignacionRq Barbero ausente y rango de fechas.
+     * @return Citas reasignadas y citas que no se pudieron ubicar.
+     * @throws BadRequestException Excepción si el rango es inválido o el barbero no existe.
+     */
+    @PostMapping("/reasignar-ausencia")
+    ResponseEntity<ReasignacionRs> reasignarAusencia(@RequestBody ReasignacionRq reasignacionRq) throws BadRequestException;
+
     /**
      * Elimina una cita por su ID.
      * @param idCita ID de la cita a eliminar.
@@ -77,17 +130,87 @@ public interface CitaApi {
      * @return Lista de citas.
      * @throws BadRequestException Si hay un error o no se encuentran citas.
      */
+    @VersionadoPor({"cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/listar-por-fecha-barbero")
-    ResponseEntity<List<Cita>> listarCitasPorFechaYBarbero(
+    ResponseEntity<List<CitaResumen>> listarCitasPorFechaYBarbero(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
             @RequestParam Integer idBarbero) throws BadRequestException;
 
     /**
-     * Lista citas por cliente.
+     * Lista citas por cliente, de la más reciente a la más antigua.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página.
      * @param idCliente ID del cliente.
-     * @return Lista de citas del cliente.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @return Página de citas del cliente.
      * @throws BadRequestException Si hay un error o no se encuentran citas.
      */
+    @VersionadoPor({"cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/listar-por-cliente/{idCliente}")
-    ResponseEntity<List<Cita>> listarCitasPorCliente(@PathVariable Integer idCliente) throws BadRequestException;
+    ResponseEntity<List<CitaResumen>> listarCitasPorCliente(@PathVariable Integer idCliente,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) throws BadRequestException;
+
+    /**
+     * Consulta en una sola petición qué barberos de una sede están libres y a qué horas.
+     * @param fecha Fecha a consultar (formato YYYY-MM-DD).
+     * @param idSede ID de la sede.
+     * @param idServicio ID del servicio a agendar (determina la duración).
+     * @return Horas disponibles agrupadas por barbero.
+     * @throws BadRequestException Si la sede o el servicio no existen.
+     */
+    @GetMapping("/disponibilidad")
+    ResponseEntity<List<DisponibilidadBarberoRs>> consultarDisponibilidad(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam Integer idSede,
+            @RequestParam Integer idServicio) throws BadRequestException;
+
+    /**
+     * Mapa de ocupación: capacidad libre por día de una sede (o de uno de sus barberos) en un rango.
+     * @param idSede ID de la sede.
+     * @param idBarbero ID del barbero (opcional).
+     * @param desde Fecha inicial (formato YYYY-MM-DD).
+     * @param hasta Fecha final (formato YYYY-MM-DD).
+     * @return Franjas libres y totales por día.
+     * @throws BadRequestException Si el rango es inválido o la sede/barbero no existen.
+     */
+    @GetMapping("/heatmap")
+    ResponseEntity<List<OcupacionDiaRs>> consultarOcupacion(
+            @RequestParam Integer idSede,
+            @RequestParam(required = false) Integer idBarbero,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) throws BadRequestException;
+
+    /**
+     * Agenda de varios días de un barbero o de una sede para vistas de calendario.
+     * Responde con ETag; si el cliente envía If-None-Match y ninguna cita cambió se devuelve 304 sin cuerpo.
+     * @param idBarbero ID del barbero (indicar este o idSede).
+     * @param idSede ID de la sede (indicar este o idBarbero).
+     * @param desde Fecha inicial (formato YYYY-MM-DD).
+     * @param hasta Fecha final (formato YYYY-MM-DD).
+     * @return Citas agrupadas por día y barbero.
+     * @throws BadRequestException Si los parámetros son inválidos.
+     */
+    @VersionadoPor({"cita", "cliente", "barbero", "sede", "servicio"})
+    @GetMapping("/agenda")
+    ResponseEntity<List<AgendaFechaRs>> consultarAgenda(
+            @RequestParam(required = false) Integer idBarbero,
+            @RequestParam(required = false) Integer idSede,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) throws BadRequestException;
+
+    /**
+     * Exporta las citas de un rango de fechas, ordenadas por fecha, hora e ID.
+     * Las filas se envían a medida que se leen de la base de datos, sin límite de cantidad.
+     * @param desde Fecha inicial (formato YYYY-MM-DD).
+     * @param hasta Fecha final (formato YYYY-MM-DD).
+     * @param formato ndjson (por defecto) o csv.
+     * @return Archivo de descarga con las citas.
+     * @throws BadRequestException Si las fechas o el formato no son válidos.
+     */
+    @GetMapping("/exportar")
+    ResponseEntity<StreamingResponseBody> exportarCitas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String formato) throws BadRequestException;
 }
@@ -2,10 +2,12 @@ package com.uniminuto.biblioteca.api; // Manteniendo el paquete base "biblioteca
 
 import com.uniminuto.biblioteca.entity.Cliente;
 import com.uniminuto.biblioteca.model.ClienteRq;
+import com.uniminuto.biblioteca.model.ImportacionClientesRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 
 import java.util.List;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,6 +17,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * Interfaz que define los endpoints para la gestión de clientes.
@@ -24,12 +28,17 @@ import org.springframework.web.bind.annotation.RequestMapping;
 public interface ClienteApi {
 
     /**
-     * Lista todos los clientes registrados.
-     * @return Lista de clientes.
+     * Lista los clientes registrados ordenados por fecha de registro e ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @return Página de clientes.
      * @throws BadRequestException Excepción si hay un error.
      */
+    @VersionadoPor("cliente")
     @GetMapping("/listar")
-    ResponseEntity<List<Cliente>> listarClientes() throws BadRequestException;
+    ResponseEntity<List<Cliente>> listarClientes(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) throws BadRequestException;
 
     /**
      * Obtiene un cliente por su ID.
@@ -37,6 +46,7 @@ public interface ClienteApi {
      * @return El cliente encontrado.
      * @throws BadRequestException Excepción si el cliente no existe.
      */
+    @VersionadoPor("cliente")
     @GetMapping("/obtener-por-id/{idCliente}")
     ResponseEntity<Cliente> obtenerClientePorId(@PathVariable Integer idCliente) throws BadRequestException;
 
@@ -66,4 +76,16 @@ public interface ClienteApi {
      */
     @DeleteMapping("/eliminar/{idCliente}")
     ResponseEntity<RespuestaGenericaRs> eliminarCliente(@PathVariable Integer idCliente) throws BadRequestException;
+
+    /**
+     * Importa clientes desde un archivo CSV (UTF-8) con encabezados nombre, apellido, telefono y,
+     * opcionalmente, correo y fechaRegistro. Las filas inválidas o con teléfono ya registrado se omiten
+     * y se detallan en la respuesta; las demás se crean.
+     * @param archivo Archivo CSV.
+     * @return Resumen de la importación con el detalle de las filas omitidas.
+     * @throws BadRequestException Si el archivo no se puede leer o le faltan encabezados obligatorios.
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    ResponseEntity<ImportacionClientesRs> importarClientes(@RequestParam("archivo") MultipartFile archivo)
+            throws BadRequestException;
 }
@@ -0,0 +1,32 @@
+package com.uniminuto.biblioteca.api;
+
+import com.uniminuto.biblioteca.model.EstadisticaConexionRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Interfaz que define los endpoints del uso del pool de conexiones.
+ */
+@CrossOrigin(origins = "*")
+@RequestMapping("/conexion")
+public interface ConexionApi {
+
+    /**
+     * Obtiene cuántas conexiones pidió cada endpoint y cuánto tiempo las retuvo.
+     * @return Estadísticas por endpoint.
+     */
+    @GetMapping("/estadisticas")
+    ResponseEntity<List<EstadisticaConexionRs>> obtenerEstadisticas();
+
+    /**
+     * Descarta las estadísticas acumuladas.
+     * @return Respuesta genérica de éxito.
+     */
+    @DeleteMapping("/estadisticas")
+    ResponseEntity<RespuestaGenericaRs> reiniciarEstadisticas();
+}
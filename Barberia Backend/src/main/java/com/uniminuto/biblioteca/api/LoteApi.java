@@ -0,0 +1,31 @@
+package com.uniminuto.biblioteca.api;
+
+import com.uniminuto.biblioteca.model.RespuestaLoteRs;
+import com.uniminuto.biblioteca.model.SolicitudLoteRq;
+import java.util.List;
+import org.apache.coyote.BadRequestException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Interfaz que define el endpoint para atender varias consultas del API en una sola solicitud, por
+ * ejemplo los listados que necesita una página al cargar.
+ */
+@CrossOrigin(origins = "*")
+@RequestMapping("/batch")
+public interface LoteApi {
+
+    /**
+     * Ejecuta en paralelo varias consultas GET del API y devuelve todas las respuestas juntas. Un error
+     * en una consulta no afecta a las demás: se informa en su propia respuesta.
+     * @param solicitudes Consultas a ejecutar, cada una con su ruta (p. ej. "/cliente/listar?limit=500").
+     * @return Una respuesta por consulta, en el mismo orden, con su estado, cabeceras y cuerpo.
+     * @throws BadRequestException Si el lote está vacío o supera el máximo de consultas.
+     */
+    @PostMapping
+    ResponseEntity<List<RespuestaLoteRs>> ejecutarLote(@RequestBody List<SolicitudLoteRq> solicitudes)
+            throws BadRequestException;
+}
@@ -1,6 +1,7 @@
 package com.uniminuto.biblioteca.api; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.entity.Pago;
+import com.uniminuto.biblioteca.model.PagoResumen;
 import com.uniminuto.biblioteca.model.PagoRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Interfaz que define los endpoints para la gestión de pagos.
@@ -27,12 +29,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 public interface PagoApi {
 
     /**
-     * Lista todos los pagos registrados.
-     * @return Lista de pagos.
+     * Lista los pagos registrados ordenados por fecha de pago e ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @return Página de pagos.
      * @throws BadRequestException Excepción si hay un error.
      */
+    @VersionadoPor({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/listar")
-    ResponseEntity<List<Pago>> listarPagos() throws BadRequestException;
+    ResponseEntity<List<PagoResumen>> listarPagos(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) throws BadRequestException;
 
     /**
      * Obtiene un pago por su ID.
@@ -40,6 +47,7 @@ public interface PagoApi {
      * @return El pago encontrado.
      * @throws BadRequestException Excepción si el pago no existe.
      */
+    @VersionadoPor({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/obtener-por-id/{idPago}")
     ResponseEntity<Pago> obtenerPagoPorId(@PathVariable Integer idPago) throws BadRequestException;
 
@@ -76,27 +84,55 @@ public interface PagoApi {
      * @return Lista de pagos para la cita especificada.
      * @throws BadRequestException Si la cita no existe o hay un error.
      */
+    @VersionadoPor({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/listar-por-cita/{idCita}")
-    ResponseEntity<List<Pago>> listarPagosPorCita(@PathVariable Integer idCita) throws BadRequestException;
+    ResponseEntity<List<PagoResumen>> listarPagosPorCita(@PathVariable Integer idCita) throws BadRequestException;
 
     /**
-     * Lista pagos por método de pago.
+     * Lista pagos por método de pago, ordenados por fecha de pago e ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página.
      * @param metodoPago Método de pago (Efectivo, Tarjeta, Transferencia).
-     * @return Lista de pagos.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @return Página de pagos.
      * @throws BadRequestException Si hay un error.
      */
+    @VersionadoPor({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/listar-por-metodo")
-    ResponseEntity<List<Pago>> listarPagosPorMetodo(@RequestParam Pago.MetodoPago metodoPago) throws BadRequestException;
+    ResponseEntity<List<PagoResumen>> listarPagosPorMetodo(@RequestParam Pago.MetodoPago metodoPago,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) throws BadRequestException;
 
     /**
-     * Lista pagos dentro de un rango de fechas.
+     * Lista pagos dentro de un rango de fechas, ordenados por fecha de pago e ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página.
      * @param fechaInicio Fecha de inicio del rango (formato YYYY-MM-DD).
      * @param fechaFin Fecha de fin del rango (formato YYYY-MM-DD).
-     * @return Lista de pagos.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @return Página de pagos.
      * @throws BadRequestException Si hay un error en las fechas.
      */
+    @VersionadoPor({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
     @GetMapping("/listar-por-rango-fechas")
-    ResponseEntity<List<Pago>> listarPagosPorRangoFechas(
+    ResponseEntity<List<PagoResumen>> listarPagosPorRangoFechas(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) throws BadRequestException;
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) throws BadRequestException;
+
+    /**
+     * Exporta los pagos de un rango de fechas, ordenados por fecha de pago e ID.
+     * Las filas se envían a medida que se leen de la base de datos, sin límite de cantidad.
+     * @param fechaInicio Fecha de inicio del rango (formato YYYY-MM-DD).
+     * @param fechaFin Fecha de fin del rango (formato YYYY-MM-DD).
+     * @param formato ndjson (por defecto) o csv.
+     * @return Archivo de descarga con los pagos.
+     * @throws BadRequestException Si las fechas o el formato no son válidos.
+     */
+    @GetMapping("/exportar")
+    ResponseEntity<StreamingResponseBody> exportarPagos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(required = false) String formato) throws BadRequestException;
 }
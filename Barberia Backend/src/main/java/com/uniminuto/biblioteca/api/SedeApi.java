@@ -1,11 +1,16 @@
 package com.uniminuto.biblioteca.api; // Manteniendo el paquete base "biblioteca"
 
+import com.uniminuto.biblioteca.entity.FestivoSede;
+import com.uniminuto.biblioteca.entity.HorarioSede;
 import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.model.FestivoRq;
+import com.uniminuto.biblioteca.model.HorarioSedeRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.model.SedeRq;
 
 import java.util.List;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,8 +19,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam; // No usado en SedeApi por ahora, pero se mantiene si se necesita
+import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * Interfaz que define los endpoints para la gestión de sedes.
@@ -25,12 +31,20 @@ import org.springframework.web.bind.annotation.RequestParam; // No usado en Sede
 public interface SedeApi {
 
     /**
-     * Lista todas las sedes registradas.
-     * @return Lista de sedes.
+     * Lista las sedes registradas ordenadas por ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página. La primera página con el tamaño por defecto se sirve ya serializada
+     * desde memoria.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @param aceptaCodificacion Cabecera Accept-Encoding; con gzip la primera página se envía comprimida.
+     * @return Página de sedes, como JSON ya serializado.
      * @throws BadRequestException Excepción si hay un error.
      */
+    @VersionadoPor("sede")
     @GetMapping("/listar")
-    ResponseEntity<List<Sede>> listarSedes() throws BadRequestException;
+    ResponseEntity<byte[]> listarSedes(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion) throws BadRequestException;
 
     /**
      * Obtiene una sede por su ID.
@@ -38,6 +52,7 @@ public interface SedeApi {
      * @return La sede encontrada.
      * @throws BadRequestException Excepción si la sede no existe.
      */
+    @VersionadoPor("sede")
     @GetMapping("/obtener-por-id/{idSede}")
     ResponseEntity<Sede> obtenerSedePorId(@PathVariable Integer idSede) throws BadRequestException;
 
@@ -67,4 +82,53 @@ public interface SedeApi {
      */
     @DeleteMapping("/eliminar/{idSede}")
     ResponseEntity<RespuestaGenericaRs> eliminarSede(@PathVariable Integer idSede) throws BadRequestException;
+
+    /**
+     * Obtiene el horario semanal de una sede.
+     * @param idSede ID de la sede.
+     * @return Lista de horarios.
+     * @throws BadRequestException Excepción si la sede no existe.
+     */
+    @VersionadoPor({"horario_sede", "sede"})
+    @GetMapping("/horario/{idSede}")
+    ResponseEntity<List<HorarioSede>> listarHorario(@PathVariable Integer idSede) throws BadRequestException;
+
+    /**
+     * Reemplaza el horario semanal de una sede.
+     * @param idSede ID de la sede.
+     * @param horariosRq Nuevo horario.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Excepción si la sede no existe o algún horario es inválido.
+     */
+    @PutMapping("/horario/{idSede}")
+    ResponseEntity<RespuestaGenericaRs> actualizarHorario(@PathVariable Integer idSede,
+            @RequestBody List<HorarioSedeRq> horariosRq) throws BadRequestException;
+
+    /**
+     * Lista los festivos de una sede.
+     * @param idSede ID de la sede.
+     * @return Lista de festivos.
+     * @throws BadRequestException Excepción si la sede no existe.
+     */
+    @VersionadoPor({"festivo_sede", "sede"})
+    @GetMapping("/festivos/{idSede}")
+    ResponseEntity<List<FestivoSede>> listarFestivos(@PathVariable Integer idSede) throws BadRequestException;
+
+    /**
+     * Registra un festivo para una sede.
+     * @param festivoRq Datos del festivo.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Excepción si hay errores de validación o duplicidad.
+     */
+    @PostMapping("/festivo")
+    ResponseEntity<RespuestaGenericaRs> crearFestivo(@RequestBody FestivoRq festivoRq) throws BadRequestException;
+
+    /**
+     * Elimina un festivo por su ID.
+     * @param idFestivo ID del festivo.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Excepción si el festivo no existe.
+     */
+    @DeleteMapping("/festivo/{idFestivo}")
+    ResponseEntity<RespuestaGenericaRs> eliminarFestivo(@PathVariable Integer idFestivo) throws BadRequestException;
 }
@@ -6,6 +6,7 @@ import com.uniminuto.biblioteca.model.ServicioRq;
 
 import java.util.List;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,7 +15,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * Interfaz que define los endpoints para la gestión de servicios.
@@ -24,12 +27,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 public interface ServicioApi {
 
     /**
-     * Lista todos los servicios registrados.
-     * @return Lista de servicios.
+     * Lista los servicios registrados ordenados por ID.
+     * Paginado por cursor: la cabecera X-Siguiente-Cursor trae el valor de {@code after} para la página siguiente
+     * y no se envía en la última página. La primera página con el tamaño por defecto se sirve ya serializada
+     * desde memoria.
+     * @param after Cursor de la página anterior (opcional).
+     * @param limit Tamaño de página (opcional, por defecto 50, máximo 500).
+     * @param aceptaCodificacion Cabecera Accept-Encoding; con gzip la primera página se envía comprimida.
+     * @return Página de servicios, como JSON ya serializado.
      * @throws BadRequestException Excepción si hay un error.
      */
+    @VersionadoPor("servicio")
     @GetMapping("/listar")
-    ResponseEntity<List<Servicio>> listarServicios() throws BadRequestException;
+    ResponseEntity<byte[]> listarServicios(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion) throws BadRequestException;
 
     /**
      * Obtiene un servicio por su ID.
@@ -37,6 +48,7 @@ public interface ServicioApi {
      * @return El servicio encontrado.
      * @throws BadRequestException Excepción si el servicio no existe.
      */
+    @VersionadoPor("servicio")
     @GetMapping("/obtener-por-id/{idServicio}")
     ResponseEntity<Servicio> obtenerServicioPorId(@PathVariable Integer idServicio) throws BadRequestException;
 
@@ -0,0 +1,24 @@
+package com.uniminuto.biblioteca.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un endpoint de consulta cuya respuesta depende solo del contenido de las tablas indicadas.
+ * Responde con un ETag calculado a partir de la versión de esas tablas; si el cliente envía If-None-Match
+ * y nada cambió, se devuelve 304 sin ejecutar el endpoint.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface VersionadoPor {
+
+    /**
+     * Tablas de las que se leen los datos de la respuesta, en minúsculas.
+     * @return Nombres de las tablas.
+     */
+    String[] value();
+}
@@ -0,0 +1,30 @@
+package com.uniminuto.biblioteca.apicontroller;
+
+import com.uniminuto.biblioteca.api.AgrupacionApi;
+import com.uniminuto.biblioteca.model.EstadisticaAgrupacionRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.services.AgrupacionService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Implementación del controlador REST de la agrupación de lecturas.
+ */
+@RestController
+public class AgrupacionApiController implements AgrupacionApi {
+
+    @Autowired
+    private AgrupacionService agrupacionService;
+
+    @Override
+    public ResponseEntity<List<EstadisticaAgrupacionRs>> obtenerEstadisticas() {
+        return ResponseEntity.ok(agrupacionService.obtenerEstadisticas());
+    }
+
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> reiniciarEstadisticas() {
+        return ResponseEntity.ok(agrupacionService.reiniciarEstadisticas());
+    }
+}
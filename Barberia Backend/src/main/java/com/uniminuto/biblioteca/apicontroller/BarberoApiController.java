@@ -1,17 +1,24 @@
 package com.uniminuto.biblioteca.apicontroller;
 
 import com.uniminuto.biblioteca.api.BarberoApi;
+import com.uniminuto.biblioteca.cache.ListadosPreparados;
+import com.uniminuto.biblioteca.cache.ListadosPreparados.Listado;
 import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.TurnoBarbero;
 import com.uniminuto.biblioteca.model.BarberoRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.model.TurnoRq;
 import com.uniminuto.biblioteca.services.BarberoService;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
 
 import java.util.List;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,14 +31,25 @@ public class BarberoApiController implements BarberoApi {
     @Autowired
     private BarberoService barberoService;
 
+    @Autowired
+    private ListadosPreparados listadosPreparados;
+
     @Override
-    public ResponseEntity<List<Barbero>> listarBarberos() throws BadRequestException {
-        return ResponseEntity.ok(barberoService.listarBarberos());
+    public ResponseEntity<byte[]> listarBarberos(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion)
+            throws BadRequestException {
+        if (after == null && limit == null) {
+            return listadosPreparados.responder(Listado.BARBEROS, () -> barberoService.listarBarberos(null, null), aceptaCodificacion);
+        }
+        return listadosPreparados.responder(barberoService.listarBarberos(after, limit));
     }
 
     @Override
-    public ResponseEntity<List<Barbero>> listarBarberosPorSede(@RequestParam Integer idSede) throws BadRequestException {
-        return ResponseEntity.ok(barberoService.listarBarberosPorSede(idSede));
+    public ResponseEntity<List<Barbero>> listarBarberosPorSede(@RequestParam Integer idSede,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit)
+            throws BadRequestException {
+        return PaginacionUtils.responder(barberoService.listarBarberosPorSede(idSede, after, limit));
     }
 
     @Override
@@ -53,4 +71,15 @@ public class BarberoApiController implements BarberoApi {
     public ResponseEntity<RespuestaGenericaRs> eliminarBarbero(@PathVariable Integer idBarbero) throws BadRequestException {
         return ResponseEntity.ok(barberoService.eliminarBarbero(idBarbero));
     }
+
+    @Override
+    public ResponseEntity<List<TurnoBarbero>> listarTurnos(@PathVariable Integer idBarbero) throws BadRequestException {
+        return ResponseEntity.ok(barberoService.listarTurnos(idBarbero));
+    }
+
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> actualizarTurnos(@PathVariable Integer idBarbero,
+            @RequestBody List<TurnoRq> turnosRq) throws BadRequestException {
+        return ResponseEntity.ok(barberoService.actualizarTurnos(idBarbero, turnosRq));
+    }
 }
@@ -0,0 +1,36 @@
+package com.uniminuto.biblioteca.apicontroller;
+
+import com.uniminuto.biblioteca.api.CacheApi;
+import com.uniminuto.biblioteca.model.EstadisticaBusquedasRs;
+import com.uniminuto.biblioteca.model.EstadisticaCacheRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.services.CacheService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Implementación del controlador REST de la caché de segundo nivel.
+ */
+@RestController
+public class CacheApiController implements CacheApi {
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Override
+    public ResponseEntity<List<EstadisticaCacheRs>> obtenerEstadisticas() {
+        return ResponseEntity.ok(cacheService.obtenerEstadisticas());
+    }
+
+    @Override
+    public ResponseEntity<List<EstadisticaBusquedasRs>> obtenerEstadisticasBusquedas() {
+        return ResponseEntity.ok(cacheService.obtenerEstadisticasBusquedas());
+    }
+
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> invalidar() {
+        return ResponseEntity.ok(cacheService.invalidar());
+    }
+}
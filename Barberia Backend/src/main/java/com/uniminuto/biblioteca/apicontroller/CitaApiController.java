@@ -2,9 +2,19 @@ package com.uniminuto.biblioteca.apicontroller; // Manteniendo el paquete base "
 
 import com.uniminuto.biblioteca.api.CitaApi;
 import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.model.AgendaFechaRs;
+import com.uniminuto.biblioteca.model.CitaResumen;
 import com.uniminuto.biblioteca.model.CitaRq;
+import com.uniminuto.biblioteca.model.DisponibilidadBarberoRs;
+import com.uniminuto.biblioteca.model.FormatoExportacion;
+import com.uniminuto.biblioteca.model.OcupacionDiaRs;
+import com.uniminuto.biblioteca.model.ReasignacionRq;
+import com.uniminuto.biblioteca.model.ReasignacionRs;
+import com.uniminuto.biblioteca.model.ReprogramacionRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.services.CitaService;
+import com.uniminuto.biblioteca.utils.ExportacionUtils;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -15,6 +25,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Implementación del controlador REST para la gestión de citas.
@@ -26,8 +37,9 @@ public class CitaApiController implements CitaApi {
     private CitaService citaService;
 
     @Override
-    public ResponseEntity<List<Cita>> listarCitas() throws BadRequestException {
-        return ResponseEntity.ok(citaService.listarCitas());
+    public ResponseEntity<List<CitaResumen>> listarCitas(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) throws BadRequestException {
+        return PaginacionUtils.responder(citaService.listarCitas(after, limit));
     }
 
     @Override
@@ -40,24 +52,78 @@ public class CitaApiController implements CitaApi {
         return ResponseEntity.ok(citaService.crearCita(citaRq));
     }
 
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> crearCitasEnLote(@RequestBody List<CitaRq> citasRq) throws BadRequestException {
+        return ResponseEntity.ok(citaService.crearCitasEnLote(citasRq));
+    }
+
     @Override
     public ResponseEntity<RespuestaGenericaRs> actualizarCita(@RequestBody CitaRq citaRq) throws BadRequestException {
         return ResponseEntity.ok(citaService.actualizarCita(citaRq));
     }
 
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> reprogramarCita(@PathVariable Integer idCita,
+            @RequestBody ReprogramacionRq reprogramacionRq) throws BadRequestException {
+        return ResponseEntity.ok(citaService.reprogramarCita(idCita, reprogramacionRq));
+    }
+
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> cancelarCita(@PathVariable Integer idCita) throws BadRequestException {
+        return ResponseEntity.ok(citaService.cancelarCita(idCita));
+    }
+
+    @Override
+    public ResponseEntity<ReasignacionRs> reasignarAusencia(@RequestBody ReasignacionRq reasignacionRq)
+            throws BadRequestException {
+        return ResponseEntity.ok(citaService.reasignarAusencia(reasignacionRq));
+    }
+
     @Override
     public ResponseEntity<RespuestaGenericaRs> eliminarCita(@PathVariable Integer idCita) throws BadRequestException {
         return ResponseEntity.ok(citaService.eliminarCita(idCita));
     }
 
     @Override
-    public ResponseEntity<List<Cita>> listarCitasPorFechaYBarbero(
+    public ResponseEntity<List<CitaResumen>> listarCitasPorFechaYBarbero(
             @RequestParam LocalDate fecha, @RequestParam Integer idBarbero) throws BadRequestException {
         return ResponseEntity.ok(citaService.listarCitasPorFechaYBarbero(fecha, idBarbero));
     }
 
     @Override
-    public ResponseEntity<List<Cita>> listarCitasPorCliente(@PathVariable Integer idCliente) throws BadRequestException {
-        return ResponseEntity.ok(citaService.listarCitasPorCliente(idCliente));
+    public ResponseEntity<List<CitaResumen>> listarCitasPorCliente(@PathVariable Integer idCliente,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit)
+            throws BadRequestException {
+        return PaginacionUtils.responder(citaService.listarCitasPorCliente(idCliente, after, limit));
+    }
+
+    @Override
+    public ResponseEntity<List<DisponibilidadBarberoRs>> consultarDisponibilidad(
+            @RequestParam LocalDate fecha, @RequestParam Integer idSede, @RequestParam Integer idServicio)
+            throws BadRequestException {
+        return ResponseEntity.ok(citaService.consultarDisponibilidad(fecha, idSede, idServicio));
+    }
+
+    @Override
+    public ResponseEntity<List<OcupacionDiaRs>> consultarOcupacion(@RequestParam Integer idSede,
+            @RequestParam(required = false) Integer idBarbero, @RequestParam LocalDate desde,
+            @RequestParam LocalDate hasta) throws BadRequestException {
+        return ResponseEntity.ok(citaService.consultarOcupacion(idSede, idBarbero, desde, hasta));
+    }
+
+    @Override
+    public ResponseEntity<List<AgendaFechaRs>> consultarAgenda(@RequestParam(required = false) Integer idBarbero,
+            @RequestParam(required = false) Integer idSede, @RequestParam LocalDate desde,
+            @RequestParam LocalDate hasta) throws BadRequestException {
+        return ResponseEntity.ok(citaService.consultarAgenda(idBarbero, idSede, desde, hasta));
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportarCitas(@RequestParam LocalDate desde, @RequestParam LocalDate hasta,
+            @RequestParam(required = false) String formato) throws BadRequestException {
+        FormatoExportacion formatoExportacion = ExportacionUtils.formato(formato);
+        ExportacionUtils.validarRango(desde, hasta);
+        return ExportacionUtils.responder("citas_" + desde + "_" + hasta, formatoExportacion,
+                salida -> citaService.exportarCitas(desde, hasta, formatoExportacion, salida));
     }
 }
@@ -3,16 +3,22 @@ package com.uniminuto.biblioteca.apicontroller; // Manteniendo el paquete base "
 import com.uniminuto.biblioteca.api.ClienteApi;
 import com.uniminuto.biblioteca.entity.Cliente;
 import com.uniminuto.biblioteca.model.ClienteRq;
+import com.uniminuto.biblioteca.model.ImportacionClientesRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.services.ClienteService;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * Implementación del controlador REST para la gestión de clientes.
@@ -24,8 +30,9 @@ public class ClienteApiController implements ClienteApi {
     private ClienteService clienteService;
 
     @Override
-    public ResponseEntity<List<Cliente>> listarClientes() throws BadRequestException {
-        return ResponseEntity.ok(clienteService.listarClientes());
+    public ResponseEntity<List<Cliente>> listarClientes(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) throws BadRequestException {
+        return PaginacionUtils.responder(clienteService.listarClientes(after, limit));
     }
 
     @Override
@@ -47,4 +54,17 @@ public class ClienteApiController implements ClienteApi {
     public ResponseEntity<RespuestaGenericaRs> eliminarCliente(@PathVariable Integer idCliente) throws BadRequestException {
         return ResponseEntity.ok(clienteService.eliminarCliente(idCliente));
     }
+
+    @Override
+    public ResponseEntity<ImportacionClientesRs> importarClientes(@RequestParam("archivo") MultipartFile archivo)
+            throws BadRequestException {
+        if (archivo.isEmpty()) {
+            throw new BadRequestException("Debe adjuntar un archivo CSV.");
+        }
+        try (InputStream contenido = archivo.getInputStream()) {
+            return ResponseEntity.ok(clienteService.importarClientes(contenido));
+        } catch (IOException e) {
+            throw new BadRequestException("No se pudo leer el archivo: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package com.uniminuto.biblioteca.apicontroller;
+
+import com.uniminuto.biblioteca.api.ConexionApi;
+import com.uniminuto.biblioteca.model.EstadisticaConexionRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.services.ConexionService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Implementación del controlador REST del uso del pool de conexiones.
+ */
+@RestController
+public class ConexionApiController implements ConexionApi {
+
+    @Autowired
+    private ConexionService conexionService;
+
+    @Override
+    public ResponseEntity<List<EstadisticaConexionRs>> obtenerEstadisticas() {
+        return ResponseEntity.ok(conexionService.obtenerEstadisticas());
+    }
+
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> reiniciarEstadisticas() {
+        return ResponseEntity.ok(conexionService.reiniciarEstadisticas());
+    }
+}
@@ -0,0 +1,27 @@
+package com.uniminuto.biblioteca.apicontroller;
+
+import com.uniminuto.biblioteca.api.LoteApi;
+import com.uniminuto.biblioteca.model.RespuestaLoteRs;
+import com.uniminuto.biblioteca.model.SolicitudLoteRq;
+import com.uniminuto.biblioteca.services.LoteService;
+import java.util.List;
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Implementación del controlador REST de los lotes de consultas.
+ */
+@RestController
+public class LoteApiController implements LoteApi {
+
+    @Autowired
+    private LoteService loteService;
+
+    @Override
+    public ResponseEntity<List<RespuestaLoteRs>> ejecutarLote(List<SolicitudLoteRq> solicitudes)
+            throws BadRequestException {
+        return ResponseEntity.ok(loteService.ejecutarLote(solicitudes));
+    }
+}
@@ -0,0 +1,35 @@
+package com.uniminuto.biblioteca.apicontroller;
+
+import com.uniminuto.biblioteca.concurrencia.ConflictoVersionException;
+import com.uniminuto.biblioteca.concurrencia.ConflictosVersion;
+import com.uniminuto.biblioteca.model.ConflictoVersionRs;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Responde con HTTP 409 las actualizaciones rechazadas por un conflicto de versión.
+ */
+@RestControllerAdvice
+public class ManejadorConflictos {
+
+    @Autowired
+    private ConflictosVersion conflictosVersion;
+
+    @ExceptionHandler(ConflictoVersionException.class)
+    public ResponseEntity<ConflictoVersionRs> conflicto(ConflictoVersionException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ConflictoVersionRs(false, e.getMessage(), e.getEntidad(), e.getId(), e.getVersionActual()));
+    }
+
+    /**
+     * Conflictos de operaciones que no se reintentan.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ConflictoVersionRs> conflicto(ObjectOptimisticLockingFailureException e) {
+        return conflicto(conflictosVersion.traducir(e));
+    }
+}
@@ -2,9 +2,13 @@ package com.uniminuto.biblioteca.apicontroller; // Manteniendo el paquete base "
 
 import com.uniminuto.biblioteca.api.PagoApi;
 import com.uniminuto.biblioteca.entity.Pago;
+import com.uniminuto.biblioteca.model.FormatoExportacion;
+import com.uniminuto.biblioteca.model.PagoResumen;
 import com.uniminuto.biblioteca.model.PagoRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.services.PagoService;
+import com.uniminuto.biblioteca.utils.ExportacionUtils;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -15,6 +19,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Implementación del controlador REST para la gestión de pagos.
@@ -26,8 +31,9 @@ public class PagoApiController implements PagoApi {
     private PagoService pagoService;
 
     @Override
-    public ResponseEntity<List<Pago>> listarPagos() throws BadRequestException {
-        return ResponseEntity.ok(pagoService.listarPagos());
+    public ResponseEntity<List<PagoResumen>> listarPagos(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) throws BadRequestException {
+        return PaginacionUtils.responder(pagoService.listarPagos(after, limit));
     }
 
     @Override
@@ -51,18 +57,31 @@ public class PagoApiController implements PagoApi {
     }
 
     @Override
-    public ResponseEntity<List<Pago>> listarPagosPorCita(@PathVariable Integer idCita) throws BadRequestException {
+    public ResponseEntity<List<PagoResumen>> listarPagosPorCita(@PathVariable Integer idCita) throws BadRequestException {
         return ResponseEntity.ok(pagoService.listarPagosPorCita(idCita));
     }
 
     @Override
-    public ResponseEntity<List<Pago>> listarPagosPorMetodo(@RequestParam Pago.MetodoPago metodoPago) throws BadRequestException {
-        return ResponseEntity.ok(pagoService.listarPagosPorMetodo(metodoPago));
+    public ResponseEntity<List<PagoResumen>> listarPagosPorMetodo(@RequestParam Pago.MetodoPago metodoPago,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit)
+            throws BadRequestException {
+        return PaginacionUtils.responder(pagoService.listarPagosPorMetodo(metodoPago, after, limit));
     }
 
     @Override
-    public ResponseEntity<List<Pago>> listarPagosPorRangoFechas(
-            @RequestParam LocalDate fechaInicio, @RequestParam LocalDate fechaFin) throws BadRequestException {
-        return ResponseEntity.ok(pagoService.listarPagosPorRangoFechas(fechaInicio, fechaFin));
+    public ResponseEntity<List<PagoResumen>> listarPagosPorRangoFechas(
+            @RequestParam LocalDate fechaInicio, @RequestParam LocalDate fechaFin,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit)
+            throws BadRequestException {
+        return PaginacionUtils.responder(pagoService.listarPagosPorRangoFechas(fechaInicio, fechaFin, after, limit));
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportarPagos(@RequestParam LocalDate fechaInicio,
+            @RequestParam LocalDate fechaFin, @RequestParam(required = false) String formato) throws BadRequestException {
+        FormatoExportacion formatoExportacion = ExportacionUtils.formato(formato);
+        ExportacionUtils.validarRango(fechaInicio, fechaFin);
+        return ExportacionUtils.responder("pagos_" + fechaInicio + "_" + fechaFin, formatoExportacion,
+                salida -> pagoService.exportarPagos(fechaInicio, fechaFin, formatoExportacion, salida));
     }
 }
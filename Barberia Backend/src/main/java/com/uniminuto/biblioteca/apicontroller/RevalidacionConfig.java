@@ -0,0 +1,22 @@
+package com.uniminuto.biblioteca.apicontroller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registra la revalidación con ETag de los endpoints marcados con
+ * {@link com.uniminuto.biblioteca.api.VersionadoPor}.
+ */
+@Configuration
+public class RevalidacionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RevalidacionInterceptor revalidacionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(revalidacionInterceptor);
+    }
+}
@@ -0,0 +1,71 @@
+package com.uniminuto.biblioteca.apicontroller;
+
+import com.uniminuto.biblioteca.api.VersionadoPor;
+import com.uniminuto.biblioteca.datasource.MonitorReplica;
+import com.uniminuto.biblioteca.datasource.VersionesTablas;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Atiende las solicitudes condicionales de los endpoints marcados con {@link VersionadoPor} antes de que
+ * se ejecute el controlador: si la versión de las tablas no cambió responde 304 sin consultar la base de
+ * datos; si cambió, deja pasar la solicitud con el ETag nuevo.
+ * <p>
+ * No se envía Last-Modified: tiene precisión de un segundo, y un cliente que revalidara solo con
+ * If-Modified-Since recibiría 304 ante un cambio confirmado en el mismo segundo de su última lectura.
+ */
+@Component
+public class RevalidacionInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    @Autowired
+    private ObjectProvider<MonitorReplica> monitorReplica;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        VersionadoPor versionadoPor = ((HandlerMethod) handler).getMethodAnnotation(VersionadoPor.class);
+        if (versionadoPor == null) {
+            return true;
+        }
+        String etag = etagVigente(versionadoPor.value());
+        if (etag == null) {
+            return true;
+        }
+        // El navegador guarda la respuesta pero la revalida en cada uso
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    /**
+     * ETag de la versión actual de las tablas, o null si la lectura puede ir a una réplica que aún no vio
+     * el último cambio.
+     * @param tablas Tablas de las que se leen los datos, en minúsculas.
+     * @return ETag entre comillas, o null.
+     */
+    public String etagVigente(String[] tablas) {
+        return puedeLeerDatosViejos(versionesTablas.ultimoCambioMs(tablas)) ? null : versionesTablas.etag(tablas);
+    }
+
+    /**
+     * Una lectura enviada a la réplica puede no ver un cambio reciente; etiquetarla con la versión nueva
+     * dejaría al cliente con datos viejos bajo un ETag vigente.
+     */
+    private boolean puedeLeerDatosViejos(long ultimoCambioMs) {
+        MonitorReplica monitor = monitorReplica.getIfAvailable();
+        return monitor != null && monitor.alDia()
+                && System.currentTimeMillis() - ultimoCambioMs <= monitor.getRetrasoMaximoMs();
+    }
+}
@@ -1,7 +1,13 @@
 package com.uniminuto.biblioteca.apicontroller; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.api.SedeApi;
+import com.uniminuto.biblioteca.cache.ListadosPreparados;
+import com.uniminuto.biblioteca.cache.ListadosPreparados.Listado;
+import com.uniminuto.biblioteca.entity.FestivoSede;
+import com.uniminuto.biblioteca.entity.HorarioSede;
 import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.model.FestivoRq;
+import com.uniminuto.biblioteca.model.HorarioSedeRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.model.SedeRq;
 import com.uniminuto.biblioteca.services.SedeService;
@@ -9,9 +15,12 @@ import com.uniminuto.biblioteca.services.SedeService;
 import java.util.List;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -23,9 +32,18 @@ public class SedeApiController implements SedeApi {
     @Autowired
     private SedeService sedeService;
 
+    @Autowired
+    private ListadosPreparados listadosPreparados;
+
     @Override
-    public ResponseEntity<List<Sede>> listarSedes() throws BadRequestException {
-        return ResponseEntity.ok(sedeService.listarSedes());
+    public ResponseEntity<byte[]> listarSedes(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion)
+            throws BadRequestException {
+        if (after == null && limit == null) {
+            return listadosPreparados.responder(Listado.SEDES, () -> sedeService.listarSedes(null, null), aceptaCodificacion);
+        }
+        return listadosPreparados.responder(sedeService.listarSedes(after, limit));
     }
 
     @Override
@@ -47,4 +65,30 @@ public class SedeApiController implements SedeApi {
     public ResponseEntity<RespuestaGenericaRs> eliminarSede(@PathVariable Integer idSede) throws BadRequestException {
         return ResponseEntity.ok(sedeService.eliminarSede(idSede));
     }
+
+    @Override
+    public ResponseEntity<List<HorarioSede>> listarHorario(@PathVariable Integer idSede) throws BadRequestException {
+        return ResponseEntity.ok(sedeService.listarHorario(idSede));
+    }
+
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> actualizarHorario(@PathVariable Integer idSede,
+            @RequestBody List<HorarioSedeRq> horariosRq) throws BadRequestException {
+        return ResponseEntity.ok(sedeService.actualizarHorario(idSede, horariosRq));
+    }
+
+    @Override
+    public ResponseEntity<List<FestivoSede>> listarFestivos(@PathVariable Integer idSede) throws BadRequestException {
+        return ResponseEntity.ok(sedeService.listarFestivos(idSede));
+    }
+
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> crearFestivo(@RequestBody FestivoRq festivoRq) throws BadRequestException {
+        return ResponseEntity.ok(sedeService.crearFestivo(festivoRq));
+    }
+
+    @Override
+    public ResponseEntity<RespuestaGenericaRs> eliminarFestivo(@PathVariable Integer idFestivo) throws BadRequestException {
+        return ResponseEntity.ok(sedeService.eliminarFestivo(idFestivo));
+    }
 }
@@ -1,17 +1,21 @@
 package com.uniminuto.biblioteca.apicontroller; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.api.ServicioApi;
+import com.uniminuto.biblioteca.cache.ListadosPreparados;
+import com.uniminuto.biblioteca.cache.ListadosPreparados.Listado;
 import com.uniminuto.biblioteca.entity.Servicio;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.model.ServicioRq;
 import com.uniminuto.biblioteca.services.ServicioService;
 
-import java.util.List;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -23,9 +27,18 @@ public class ServicioApiController implements ServicioApi {
     @Autowired
     private ServicioService servicioService;
 
+    @Autowired
+    private ListadosPreparados listadosPreparados;
+
     @Override
-    public ResponseEntity<List<Servicio>> listarServicios() throws BadRequestException {
-        return ResponseEntity.ok(servicioService.listarServicios());
+    public ResponseEntity<byte[]> listarServicios(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion)
+            throws BadRequestException {
+        if (after == null && limit == null) {
+            return listadosPreparados.responder(Listado.SERVICIOS, () -> servicioService.listarServicios(null, null), aceptaCodificacion);
+        }
+        return listadosPreparados.responder(servicioService.listarServicios(after, limit));
     }
 
     @Override
@@ -0,0 +1,541 @@
+package com.uniminuto.biblioteca.cache;
+
+import com.uniminuto.biblioteca.model.EstadisticaBusquedasRs;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+import org.apache.coyote.BadRequestException;
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Caché cercana de las búsquedas por ID ({@code obtener-por-id}), por tipo de entidad e ID. Guarda las
+ * entidades ya cargadas con sus relaciones y también los IDs que no existen, estos por poco tiempo, para
+ * que los reintentos sobre un ID inexistente no vuelvan a la base de datos.
+ * <p>
+ * Las lecturas no toman bloqueos: las entradas están en un {@link ConcurrentHashMap} y un acierto solo marca
+ * la entrada como usada. El tamaño se acota por peso (una estimación del tamaño de cada entidad, calculada con
+ * sus campos) y al superarlo se expulsa con el algoritmo del reloj: una manecilla recorre las entradas, da una
+ * segunda oportunidad a las usadas desde la vuelta anterior y descarta las demás.
+ * <p>
+ * Cada entrada recuerda las entidades relacionadas que contiene (la cita su cliente, barbero, sede y servicio;
+ * el pago además su cita), de modo que al invalidar una entidad se invalidan también las entradas que la
+ * incluyen. Los servicios invalidan al confirmar cada escritura; el TTL acota lo que dure un cambio hecho por
+ * fuera de ellos.
+ * <p>
+ * Las entidades devueltas están desasociadas y se comparten entre solicitudes: no deben modificarse.
+ */
+@Component
+public class CacheBusquedas {
+
+    /**
+     * Peso asignado a una entrada de ID inexistente.
+     */
+    private static final int PESO_AUSENTE = 64;
+
+    /**
+     * Peso estimado de una entidad sin contar sus campos.
+     */
+    private static final int PESO_ENTIDAD = 32;
+
+    /**
+     * Peso estimado de un campo con valor; los textos suman además dos bytes por carácter.
+     */
+    private static final int PESO_CAMPO = 16;
+
+    /**
+     * Vueltas completas que puede dar la manecilla en una expulsión. En la primera pueden estar todas las
+     * entradas marcadas como usadas; en la segunda ya no, salvo que se vuelvan a leer entretanto.
+     */
+    private static final int VUELTAS_EXPULSION = 3;
+
+    /**
+     * Consulta de la entidad cuando no está en la caché.
+     * @param <T> Tipo de la entidad.
+     */
+    @FunctionalInterface
+    public interface Cargador<T> {
+        Optional<T> cargar();
+    }
+
+    private final TransactionTemplate lecturaPrimaria;
+
+    private final PersistenceUnitUtil unidadPersistencia;
+
+    private final Metamodel metamodelo;
+
+    private final long pesoMaximo;
+
+    private final long ttlNanos;
+
+    private final long ttlAusentesNanos;
+
+    private final ConcurrentHashMap<Clave, Entrada> entradas = new ConcurrentHashMap<>();
+
+    /**
+     * Para cada entidad, las entradas que la contienen como relación.
+     */
+    private final ConcurrentHashMap<Clave, Set<Clave>> dependientes = new ConcurrentHashMap<>();
+
+    private final AtomicLong pesoTotal = new AtomicLong();
+
+    /**
+     * Posición de cada tipo de entidad en {@link #generaciones}; los tipos desconocidos comparten la última.
+     */
+    private final Map<Class<?>, Integer> indiceTipos = new HashMap<>();
+
+    /**
+     * Cuenta las invalidaciones de cada tipo. Una carga no se guarda si se cruzó con la invalidación de su
+     * tipo o del de alguna de sus relaciones, porque pudo leer antes del cambio.
+     */
+    private final AtomicLongArray generaciones;
+
+    /**
+     * Campos no asociativos de cada tipo de entidad, para estimar su peso.
+     */
+    private final Map<Class<?>, List<Field>> camposBasicos = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, Contadores> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Monitor de la expulsión y posición de la manecilla, que sigue donde quedó en la expulsión anterior.
+     */
+    private final Object expulsion = new Object();
+
+    private Iterator<Map.Entry<Clave, Entrada>> manecilla;
+
+    public CacheBusquedas(PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+            @Value("${barberia.cache-busquedas.peso-maximo-kb:8192}") long pesoMaximoKb,
+            @Value("${barberia.cache-busquedas.ttl-segundos:600}") long ttlSegundos,
+            @Value("${barberia.cache-busquedas.ttl-ausentes-segundos:30}") long ttlAusentesSegundos) {
+        // Las cargas van a la primaria: una réplica atrasada dejaría en la caché datos anteriores a la
+        // última invalidación
+        this.lecturaPrimaria = new TransactionTemplate(transactionManager);
+        this.unidadPersistencia = entityManagerFactory.getPersistenceUnitUtil();
+        this.metamodelo = entityManagerFactory.getMetamodel();
+        this.pesoMaximo = pesoMaximoKb * 1024;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.ttlAusentesNanos = TimeUnit.SECONDS.toNanos(ttlAusentesSegundos);
+        for (EntityType<?> tipo : metamodelo.getEntities()) {
+            indiceTipos.put(tipo.getJavaType(), indiceTipos.size());
+        }
+        this.generaciones = new AtomicLongArray(indiceTipos.size() + 1);
+    }
+
+    /**
+     * Busca una entidad por ID en la caché o, si no está, con el cargador, y guarda el resultado.
+     * @param tipo Tipo de la entidad.
+     * @param id ID.
+     * @param cargador Consulta que trae la entidad con las relaciones que se van a serializar.
+     * @param <T> Tipo de la entidad.
+     * @return La entidad, o vacío si no existe.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> obtener(Class<T> tipo, Object id, Cargador<T> cargador) {
+        Clave clave = new Clave(tipo, id);
+        Contadores contador = contadores(tipo);
+        Entrada entrada = vigente(clave);
+        if (entrada != null) {
+            if (entrada.valor == null) {
+                contador.aciertosAusentes.increment();
+                return Optional.empty();
+            }
+            contador.aciertos.increment();
+            return Optional.of((T) entrada.valor);
+        }
+        long[] generacionesAntes = generaciones();
+        contador.fallos.increment();
+        Set<Clave> relaciones = new HashSet<>();
+        long[] peso = new long[1];
+        Optional<T> resultado = lecturaPrimaria.execute(estado -> {
+            Optional<T> cargado = cargador.cargar();
+            cargado.ifPresent(entidad -> peso[0] = recorrer(entidad, relaciones));
+            return cargado;
+        });
+        if (resultado.isPresent()) {
+            relaciones.remove(clave);
+            guardar(clave, resultado.get(), peso[0], ttlNanos, relaciones, generacionesAntes);
+        } else {
+            guardar(clave, null, PESO_AUSENTE, ttlAusentesNanos, Set.of(), generacionesAntes);
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca una entidad por ID o lanza la excepción indicada si no existe.
+     * @param tipo Tipo de la entidad.
+     * @param id ID.
+     * @param cargador Consulta de la entidad.
+     * @param mensaje Mensaje de la excepción si no existe.
+     * @param <T> Tipo de la entidad.
+     * @return La entidad.
+     * @throws BadRequestException Si no existe.
+     */
+    public <T> T obtener(Class<T> tipo, Object id, Cargador<T> cargador, String mensaje) throws BadRequestException {
+        Optional<T> resultado = obtener(tipo, id, cargador);
+        if (resultado.isEmpty()) {
+            throw new BadRequestException(mensaje + id);
+        }
+        return resultado.get();
+    }
+
+    /**
+     * Indica si se sabe, por una búsqueda reciente, que el ID no existe.
+     * @param tipo Tipo de la entidad.
+     * @param id ID.
+     * @return true si hay una entrada vigente de ID inexistente.
+     */
+    public boolean ausente(Class<?> tipo, Object id) {
+        Entrada entrada = vigente(new Clave(tipo, id));
+        if (entrada == null || entrada.valor != null) {
+            return false;
+        }
+        contadores(tipo).aciertosAusentes.increment();
+        return true;
+    }
+
+    /**
+     * Recuerda que un ID no existe, por ejemplo cuando lo rechazó una llave foránea.
+     * @param tipo Tipo de la entidad.
+     * @param id ID.
+     */
+    public void registrarAusente(Class<?> tipo, Object id) {
+        guardar(new Clave(tipo, id), null, PESO_AUSENTE, ttlAusentesNanos, Set.of(), generaciones());
+    }
+
+    /**
+     * Descarta una entidad y las entradas que la contienen. Debe llamarse al confirmar la escritura, también
+     * al crear (para olvidar que el ID no existía).
+     * @param tipo Tipo de la entidad.
+     * @param id ID.
+     */
+    public void invalidar(Class<?> tipo, Object id) {
+        generaciones.incrementAndGet(indice(tipo));
+        descartar(new Clave(tipo, id));
+    }
+
+    /**
+     * Descarta todas las entradas de un tipo y las que las contienen, para escrituras que afectan muchas filas.
+     * @param tipo Tipo de la entidad.
+     */
+    public void invalidarTipo(Class<?> tipo) {
+        generaciones.incrementAndGet(indice(tipo));
+        List<Clave> claves = new ArrayList<>();
+        entradas.keySet().stream().filter(clave -> clave.tipo == tipo).forEach(claves::add);
+        dependientes.keySet().stream().filter(clave -> clave.tipo == tipo).forEach(claves::add);
+        claves.forEach(this::descartar);
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public void invalidarTodo() {
+        for (int i = 0; i < generaciones.length(); i++) {
+            generaciones.incrementAndGet(i);
+        }
+        entradas.forEach(this::quitar);
+        dependientes.clear();
+    }
+
+    /**
+     * Estadísticas por tipo de entidad desde el inicio de la aplicación.
+     * @return Estadísticas ordenadas por tipo.
+     */
+    public List<EstadisticaBusquedasRs> obtenerEstadisticas() {
+        Map<Class<?>, long[]> ocupacion = new HashMap<>();
+        entradas.forEach((clave, entrada) -> {
+            long[] valores = ocupacion.computeIfAbsent(clave.tipo, k -> new long[2]);
+            valores[0]++;
+            valores[1] += entrada.peso;
+        });
+        List<EstadisticaBusquedasRs> resultado = new ArrayList<>();
+        contadores.forEach((tipo, contador) -> {
+            long aciertos = contador.aciertos.sum();
+            long aciertosAusentes = contador.aciertosAusentes.sum();
+            long fallos = contador.fallos.sum();
+            long lecturas = aciertos + aciertosAusentes + fallos;
+            long[] valores = ocupacion.getOrDefault(tipo, new long[2]);
+            resultado.add(new EstadisticaBusquedasRs(tipo.getSimpleName(), aciertos, aciertosAusentes, fallos,
+                    contador.expulsiones.sum(), valores[0], valores[1],
+                    lecturas == 0 ? null : (double) (aciertos + aciertosAusentes) / lecturas));
+        });
+        resultado.sort(Comparator.comparing(EstadisticaBusquedasRs::getTipo));
+        return resultado;
+    }
+
+    /**
+     * Entrada vigente de la clave, marcada como usada; las vencidas se descartan.
+     */
+    private Entrada vigente(Clave clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.vencida(System.nanoTime())) {
+            quitar(clave, entrada);
+            return null;
+        }
+        if (!entrada.usada) {
+            entrada.usada = true; // Solo se escribe si cambia, para no invalidar la línea de caché en cada acierto
+        }
+        return entrada;
+    }
+
+    private void guardar(Clave clave, Object valor, long peso, long ttl, Set<Clave> relaciones,
+            long[] generacionesAntes) {
+        if (peso > pesoMaximo) {
+            return;
+        }
+        Entrada entrada = new Entrada(valor, peso, System.nanoTime() + ttl, relaciones);
+        Entrada anterior = entradas.put(clave, entrada);
+        if (anterior != null) {
+            olvidar(clave, anterior);
+        }
+        pesoTotal.addAndGet(peso);
+        for (Clave relacion : relaciones) {
+            dependientes.compute(relacion, (k, conjunto) -> {
+                Set<Clave> resultado = conjunto != null ? conjunto : ConcurrentHashMap.newKeySet();
+                resultado.add(clave);
+                return resultado;
+            });
+        }
+        // Se comprueba después de publicar la entrada: una invalidación posterior a esta comprobación la
+        // encuentra y la descarta, y una anterior se detecta aquí
+        if (cambio(generacionesAntes, clave.tipo, relaciones)) {
+            quitar(clave, entrada);
+            return;
+        }
+        expulsar();
+    }
+
+    private boolean cambio(long[] generacionesAntes, Class<?> tipo, Set<Clave> relaciones) {
+        int indice = indice(tipo);
+        if (generaciones.get(indice) != generacionesAntes[indice]) {
+            return true;
+        }
+        for (Clave relacion : relaciones) {
+            indice = indice(relacion.tipo);
+            if (generaciones.get(indice) != generacionesAntes[indice]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Expulsa entradas con el algoritmo del reloj hasta volver al peso máximo. Una sola expulsión a la vez;
+     * las lecturas no esperan por ella.
+     */
+    private void expulsar() {
+        if (pesoTotal.get() <= pesoMaximo) {
+            return;
+        }
+        synchronized (expulsion) {
+            long ahora = System.nanoTime();
+            int vueltas = 0;
+            while (pesoTotal.get() > pesoMaximo) {
+                if (manecilla == null || !manecilla.hasNext()) {
+                    if (entradas.isEmpty() || ++vueltas > VUELTAS_EXPULSION) {
+                        return;
+                    }
+                    manecilla = entradas.entrySet().iterator();
+                    continue;
+                }
+                Map.Entry<Clave, Entrada> candidata = manecilla.next();
+                Entrada entrada = candidata.getValue();
+                if (entrada.usada && !entrada.vencida(ahora)) {
+                    entrada.usada = false; // Segunda oportunidad
+                } else if (quitar(candidata.getKey(), entrada)) {
+                    contadores(candidata.getKey().tipo).expulsiones.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Quita la entrada y, en cascada, las que la contienen.
+     */
+    private void descartar(Clave clave) {
+        Entrada entrada = entradas.remove(clave);
+        if (entrada != null) {
+            olvidar(clave, entrada);
+        }
+        Set<Clave> contenidas = dependientes.remove(clave);
+        if (contenidas != null) {
+            contenidas.forEach(this::descartar);
+        }
+    }
+
+    /**
+     * Quita la entrada solo si sigue siendo la indicada.
+     */
+    private boolean quitar(Clave clave, Entrada entrada) {
+        if (entradas.remove(clave, entrada)) {
+            olvidar(clave, entrada);
+            return true;
+        }
+        return false;
+    }
+
+    private void olvidar(Clave clave, Entrada entrada) {
+        pesoTotal.addAndGet(-entrada.peso);
+        for (Clave relacion : entrada.relaciones) {
+            dependientes.computeIfPresent(relacion, (k, conjunto) -> {
+                conjunto.remove(clave);
+                return conjunto.isEmpty() ? null : conjunto;
+            });
+        }
+    }
+
+    /**
+     * Recorre las relaciones cargadas de la entidad (ManyToOne y OneToOne), anota cada entidad incluida y
+     * devuelve el peso estimado del conjunto. Se ejecuta dentro de la transacción de la carga.
+     */
+    private long recorrer(Object entidad, Set<Clave> destino) {
+        Object real = Hibernate.unproxy(entidad);
+        EntityType<?> tipo = metamodelo.entity(real.getClass());
+        long peso = PESO_ENTIDAD + pesoCampos(real);
+        for (SingularAttribute<?, ?> atributo : tipo.getSingularAttributes()) {
+            if (!atributo.isAssociation() || !(atributo.getJavaMember() instanceof Field)
+                    || atributo.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                continue;
+            }
+            Field campo = (Field) atributo.getJavaMember();
+            ReflectionUtils.makeAccessible(campo);
+            Object relacionada = ReflectionUtils.getField(campo, real);
+            if (relacionada == null) {
+                continue;
+            }
+            peso += PESO_CAMPO;
+            if (relacionada instanceof HibernateProxy) {
+                // Sin inicializar el proxy: la entidad no viaja en la respuesta, pero su ID sí
+                LazyInitializer inicializador = ((HibernateProxy) relacionada).getHibernateLazyInitializer();
+                destino.add(new Clave(inicializador.getPersistentClass(), inicializador.getIdentifier()));
+                if (inicializador.isUninitialized()) {
+                    continue;
+                }
+                relacionada = inicializador.getImplementation();
+            }
+            if (destino.add(new Clave(relacionada.getClass(), unidadPersistencia.getIdentifier(relacionada)))) {
+                peso += recorrer(relacionada, destino);
+            }
+        }
+        return peso;
+    }
+
+    /**
+     * Peso estimado de los campos no asociativos: un valor fijo por campo más el largo de los textos.
+     */
+    private long pesoCampos(Object entidad) {
+        long peso = 0;
+        for (Field campo : camposBasicos.computeIfAbsent(entidad.getClass(), this::camposBasicos)) {
+            Object valor = ReflectionUtils.getField(campo, entidad);
+            if (valor != null) {
+                peso += PESO_CAMPO + (valor instanceof CharSequence ? 2L * ((CharSequence) valor).length() : 0);
+            }
+        }
+        return peso;
+    }
+
+    private List<Field> camposBasicos(Class<?> clase) {
+        List<Field> campos = new ArrayList<>();
+        for (SingularAttribute<?, ?> atributo : metamodelo.entity(clase).getSingularAttributes()) {
+            if (!atributo.isAssociation() && atributo.getJavaMember() instanceof Field) {
+                Field campo = (Field) atributo.getJavaMember();
+                ReflectionUtils.makeAccessible(campo);
+                campos.add(campo);
+            }
+        }
+        return campos;
+    }
+
+    private long[] generaciones() {
+        long[] copia = new long[generaciones.length()];
+        for (int i = 0; i < copia.length; i++) {
+            copia[i] = generaciones.get(i);
+        }
+        return copia;
+    }
+
+    private int indice(Class<?> tipo) {
+        return indiceTipos.getOrDefault(tipo, generaciones.length() - 1);
+    }
+
+    private Contadores contadores(Class<?> tipo) {
+        return contadores.computeIfAbsent(tipo, k -> new Contadores());
+    }
+
+    /**
+     * Tipo de entidad e ID.
+     */
+    private static final class Clave {
+        private final Class<?> tipo;
+        private final Object id;
+
+        private Clave(Class<?> tipo, Object id) {
+            this.tipo = tipo;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            return otro instanceof Clave && ((Clave) otro).tipo == tipo && ((Clave) otro).id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tipo.hashCode() + Objects.hashCode(id);
+        }
+    }
+
+    private static final class Entrada {
+        private final Object valor; // null si el ID no existe
+        private final long peso;
+        private final long expiraNanos;
+        private final Set<Clave> relaciones;
+        private volatile boolean usada; // Leída desde la última pasada de la manecilla
+
+        private Entrada(Object valor, long peso, long expiraNanos, Set<Clave> relaciones) {
+            this.valor = valor;
+            this.peso = peso;
+            this.expiraNanos = expiraNanos;
+            this.relaciones = relaciones;
+        }
+
+        private boolean vencida(long ahora) {
+            return ahora - expiraNanos > 0;
+        }
+    }
+
+    private static final class Contadores {
+        private final LongAdder aciertos = new LongAdder();
+        private final LongAdder aciertosAusentes = new LongAdder();
+        private final LongAdder fallos = new LongAdder();
+        private final LongAdder expulsiones = new LongAdder();
+    }
+}
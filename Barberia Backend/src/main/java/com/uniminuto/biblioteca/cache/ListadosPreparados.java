@@ -0,0 +1,268 @@
+package com.uniminuto.biblioteca.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniminuto.biblioteca.datasource.VersionesTablas;
+import com.uniminuto.biblioteca.model.PaginaRs;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.coyote.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Primera página de los listados de referencia (sedes, servicios y barberos) ya serializada a JSON y
+ * comprimida con gzip, para responder sin consultar la base de datos ni pasar por Jackson.
+ * <p>
+ * Los servicios llaman a {@link #invalidar(Listado...)} al confirmar cada creación, actualización o
+ * eliminación; el listado se descarta y se vuelve a armar en ese momento. Una carga que empezó antes de la
+ * invalidación se descarta en lugar de instalarse, así que nunca queda en memoria una versión anterior a
+ * la última escritura confirmada. Como respaldo, cada listado recuerda la versión de sus tablas
+ * ({@link VersionesTablas}) y se vuelve a armar si cambiaron por otra vía (JDBC, importaciones).
+ */
+@Component
+public class ListadosPreparados {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ListadosPreparados.class);
+
+    /**
+     * Listados que se mantienen preparados.
+     */
+    public enum Listado {
+        SEDES("sede"),
+        SERVICIOS("servicio"),
+        BARBEROS("barbero", "sede"); // Cada barbero se lista con su sede
+
+        private final String[] tablas;
+
+        Listado(String... tablas) {
+            this.tablas = tablas;
+        }
+    }
+
+    /**
+     * Consulta que arma la primera página de un listado.
+     */
+    @FunctionalInterface
+    public interface Cargador {
+        PaginaRs<?> cargar() throws BadRequestException;
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    private final TransactionTemplate lecturaPrimaria;
+
+    private final Map<Listado, Region> regiones = new EnumMap<>(Listado.class);
+
+    public ListadosPreparados(PlatformTransactionManager transactionManager) {
+        // Transacción propia y de escritura: se ejecuta tras confirmar otra, y la lectura no debe ir a una
+        // réplica que aún no tenga el cambio que provocó la recarga
+        lecturaPrimaria = new TransactionTemplate(transactionManager);
+        lecturaPrimaria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (Listado listado : Listado.values()) {
+            regiones.put(listado, new Region());
+        }
+    }
+
+    /**
+     * Responde la primera página de un listado desde memoria, armándola si no está preparada.
+     * @param listado Listado.
+     * @param cargador Consulta de la primera página con el tamaño por defecto.
+     * @param aceptaCodificacion Cabecera Accept-Encoding de la solicitud, o null.
+     * @return Respuesta 200 con el JSON, comprimido si el cliente acepta gzip.
+     * @throws BadRequestException Si la consulta falla.
+     */
+    public ResponseEntity<byte[]> responder(Listado listado, Cargador cargador, String aceptaCodificacion)
+            throws BadRequestException {
+        Region region = regiones.get(listado);
+        if (region.cargador == null) {
+            region.cargador = cargador;
+        }
+        Preparado preparado = region.actual;
+        if (preparado == null || !preparado.version.equals(versionesTablas.etag(listado.tablas))) {
+            preparado = preparar(listado, region);
+        }
+        ResponseEntity.BodyBuilder respuesta = cabeceras(preparado.siguienteCursor)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (preparado.gzip != null && aceptaGzip(aceptaCodificacion)) {
+            debilitarEtag();
+            return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(preparado.gzip);
+        }
+        return respuesta.body(preparado.json);
+    }
+
+    /**
+     * Responde una página que no se mantiene preparada (con cursor o tamaño de página propio).
+     * @param pagina Página consultada.
+     * @return Respuesta 200 con el JSON.
+     */
+    public ResponseEntity<byte[]> responder(PaginaRs<?> pagina) {
+        return cabeceras(pagina.getSiguienteCursor()).body(serializar(pagina.getElementos()));
+    }
+
+    /**
+     * Descarta los listados y los vuelve a armar. Debe llamarse después de confirmar la escritura, por
+     * ejemplo con {@code TransaccionUtils.alConfirmar}.
+     * @param listados Listados afectados por la escritura.
+     */
+    public void invalidar(Listado... listados) {
+        for (Listado listado : listados) {
+            Region region = regiones.get(listado);
+            synchronized (region) {
+                region.generacion++;
+                region.actual = null;
+            }
+            if (region.cargador != null) {
+                try {
+                    preparar(listado, region);
+                } catch (BadRequestException | RuntimeException e) {
+                    // La siguiente solicitud lo vuelve a intentar
+                    LOG.warn("No se pudo volver a armar el listado de {}: {}", listado, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Preparado preparar(Listado listado, Region region) throws BadRequestException {
+        long generacion;
+        synchronized (region) {
+            generacion = region.generacion;
+        }
+        // La versión se toma antes de leer: un cambio durante la carga deja el listado marcado como viejo
+        String version = versionesTablas.etag(listado.tablas);
+        PaginaRs<?> pagina = cargar(region.cargador);
+        byte[] json = serializar(pagina.getElementos());
+        byte[] gzip = comprimir(json);
+        Preparado preparado = new Preparado(version, json, gzip.length < json.length ? gzip : null,
+                pagina.getSiguienteCursor());
+        synchronized (region) {
+            // Si hubo una escritura mientras se cargaba, lo leído puede ser anterior a ella
+            if (region.generacion == generacion) {
+                region.actual = preparado;
+            }
+        }
+        return preparado;
+    }
+
+    private PaginaRs<?> cargar(Cargador cargador) throws BadRequestException {
+        BadRequestException[] error = new BadRequestException[1];
+        PaginaRs<?> pagina = lecturaPrimaria.execute(estado -> {
+            try {
+                return cargador.cargar();
+            } catch (BadRequestException e) {
+                error[0] = e;
+                return null;
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+        return pagina;
+    }
+
+    private byte[] serializar(Object cuerpo) {
+        try {
+            return objectMapper.writeValueAsBytes(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] datos) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    private static ResponseEntity.BodyBuilder cabeceras(String siguienteCursor) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (siguienteCursor != null) {
+            respuesta.header(PaginacionUtils.CABECERA_SIGUIENTE_CURSOR, siguienteCursor);
+        }
+        return respuesta;
+    }
+
+    /**
+     * Indica si el cliente acepta gzip según Accept-Encoding (se respeta {@code q=0}).
+     */
+    static boolean aceptaGzip(String aceptaCodificacion) {
+        if (aceptaCodificacion == null) {
+            return false;
+        }
+        for (String parte : aceptaCodificacion.split(",")) {
+            String[] partes = parte.split(";");
+            String codificacion = partes[0].trim();
+            if (!"gzip".equalsIgnoreCase(codificacion) && !"*".equals(codificacion)) {
+                continue;
+            }
+            boolean rechazada = false;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim().replace(" ", "");
+                rechazada |= parametro.matches("q=0(\\.0*)?");
+            }
+            return !rechazada;
+        }
+        return false;
+    }
+
+    /**
+     * El ETag fuerte de la revalidación identifica la representación sin comprimir; la comprimida lleva
+     * el mismo valor marcado como débil, que If-None-Match compara igual.
+     */
+    private static void debilitarEtag() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!(atributos instanceof ServletRequestAttributes)) {
+            return;
+        }
+        HttpServletResponse response = ((ServletRequestAttributes) atributos).getResponse();
+        String etag = response != null ? response.getHeader(HttpHeaders.ETAG) : null;
+        if (etag != null && !etag.startsWith("W/")) {
+            response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+        }
+    }
+
+    private static final class Region {
+        private volatile Preparado actual;
+        private volatile Cargador cargador;
+        private long generacion; // Protegida por el monitor de la región
+    }
+
+    private static final class Preparado {
+        private final String version;
+        private final byte[] json;
+        private final byte[] gzip; // null si comprimir no reduce el tamaño
+        private final String siguienteCursor;
+
+        private Preparado(String version, byte[] json, byte[] gzip, String siguienteCursor) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.siguienteCursor = siguienteCursor;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.uniminuto.biblioteca.concurrencia;
+
+import com.uniminuto.biblioteca.datasource.VersionesTablas;
+import com.uniminuto.biblioteca.model.EstadisticaAgrupacionRs;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Agrupa las llamadas simultáneas e idénticas a las consultas marcadas con {@link AgruparLecturas}: la
+ * primera ejecuta la consulta y las que llegan mientras tanto esperan su resultado (o su excepción) en
+ * lugar de repetirla. No hay bloqueos propios: la llamada que encuentra una ejecución en curso con
+ * {@code putIfAbsent} se une a ella, y la ejecución se retira del mapa al terminar, así que no se guarda
+ * ningún resultado más allá de ese momento.
+ * <p>
+ * La clave incluye la versión de las tablas que lee la consulta ({@link VersionesTablas}): una llamada que
+ * llega después de confirmarse un cambio no se une a una ejecución que pudo leer antes de él. El aspecto
+ * envuelve al de {@code @Transactional}, de modo que las llamadas que esperan no abren transacción ni
+ * toman conexión.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AgrupacionLecturasAspect {
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    private final Map<List<Object>, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+
+    private final Map<String, Contadores> porConsulta = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.uniminuto.biblioteca.concurrencia.AgruparLecturas)")
+    public Object agrupar(ProceedingJoinPoint consulta) throws Throwable {
+        // Dentro de una transacción ajena la consulta puede ver escrituras aún no confirmadas
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return consulta.proceed();
+        }
+        Method metodo = AopUtils.getMostSpecificMethod(((MethodSignature) consulta.getSignature()).getMethod(),
+                AopUtils.getTargetClass(consulta.getTarget()));
+        AgruparLecturas agrupar = AnnotationUtils.findAnnotation(metodo, AgruparLecturas.class);
+        String nombre = consulta.getSignature().getDeclaringType().getSimpleName() + "." + consulta.getSignature().getName();
+        Contadores contadores = porConsulta.computeIfAbsent(nombre, k -> new Contadores());
+        List<Object> clave = new ArrayList<>(consulta.getArgs().length + 2);
+        clave.add(nombre);
+        clave.add(versionesTablas.etag(agrupar.value()));
+        clave.addAll(Arrays.asList(consulta.getArgs()));
+
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            contadores.agrupadas.increment();
+            try {
+                return existente.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+        contadores.ejecutadas.increment();
+        try {
+            Object resultado = consulta.proceed();
+            propia.complete(resultado);
+            return resultado;
+        } catch (Throwable e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    /**
+     * Llamadas ejecutadas y agrupadas por consulta, de más a menos agrupadas.
+     * @return Estadísticas acumuladas desde el inicio o el último reinicio.
+     */
+    public List<EstadisticaAgrupacionRs> obtenerEstadisticas() {
+        List<EstadisticaAgrupacionRs> resultado = new ArrayList<>(porConsulta.size());
+        porConsulta.forEach((consulta, contadores) -> {
+            long ejecutadas = contadores.ejecutadas.sum();
+            long agrupadas = contadores.agrupadas.sum();
+            long llamadas = ejecutadas + agrupadas;
+            resultado.add(new EstadisticaAgrupacionRs(consulta, llamadas, ejecutadas, agrupadas,
+                    llamadas == 0 ? null : (double) agrupadas / llamadas));
+        });
+        resultado.sort(Comparator.comparing(EstadisticaAgrupacionRs::getAgrupadas).reversed());
+        return resultado;
+    }
+
+    /**
+     * Descarta las estadísticas acumuladas.
+     */
+    public void reiniciar() {
+        porConsulta.clear();
+    }
+
+    private static final class Contadores {
+        private final LongAdder ejecutadas = new LongAdder();
+        private final LongAdder agrupadas = new LongAdder();
+    }
+}
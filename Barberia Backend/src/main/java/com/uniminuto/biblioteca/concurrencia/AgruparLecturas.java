@@ -0,0 +1,25 @@
+package com.uniminuto.biblioteca.concurrencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca una consulta de servicio cuyas llamadas simultáneas con los mismos argumentos comparten una sola
+ * ejecución y su resultado (ver {@link AgrupacionLecturasAspect}). El resultado se entrega igual a todas
+ * las llamadas, por lo que no debe modificarse.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AgruparLecturas {
+
+    /**
+     * Tablas que lee la consulta, en minúsculas. Una llamada no se une a una ejecución iniciada antes del
+     * último cambio confirmado en ellas.
+     * @return Nombres de las tablas.
+     */
+    String[] value();
+}
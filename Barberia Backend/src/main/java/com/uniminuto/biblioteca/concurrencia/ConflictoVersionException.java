@@ -0,0 +1,45 @@
+package com.uniminuto.biblioteca.concurrencia;
+
+import org.apache.coyote.BadRequestException;
+
+/**
+ * Se lanza cuando una actualización se hizo sobre una versión de la entidad que ya no es la actual.
+ * La API la responde con HTTP 409 e indica la versión vigente para que el cliente vuelva a consultar.
+ */
+public class ConflictoVersionException extends BadRequestException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entidad;
+
+    private final Object id;
+
+    private final Long versionActual;
+
+    /**
+     * @param entidad Nombre de la entidad.
+     * @param id ID del registro.
+     * @param versionActual Versión vigente, o null si el registro ya no existe.
+     */
+    public ConflictoVersionException(String entidad, Object id, Long versionActual) {
+        super(versionActual == null
+                ? "El registro de " + entidad + " con ID " + id + " fue eliminado por otra operación."
+                : "El registro de " + entidad + " con ID " + id + " fue modificado por otra operación (versión actual: "
+                        + versionActual + "); consúltelo de nuevo antes de actualizarlo.");
+        this.entidad = entidad;
+        this.id = id;
+        this.versionActual = versionActual;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    public Long getVersionActual() {
+        return versionActual;
+    }
+}
@@ -0,0 +1,43 @@
+package com.uniminuto.biblioteca.concurrencia;
+
+import java.io.Serializable;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Convierte los conflictos de versión que detecta Hibernate al escribir en {@link ConflictoVersionException},
+ * con la versión vigente leída en una sesión aparte.
+ */
+@Component
+public class ConflictosVersion {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * @param e Conflicto detectado por Hibernate o por una actualización condicional.
+     * @return Conflicto con la versión vigente del registro.
+     */
+    public ConflictoVersionException traducir(ObjectOptimisticLockingFailureException e) {
+        String nombreEntidad = e.getPersistentClassName();
+        Object id = e.getIdentifier();
+        String entidad = nombreEntidad == null ? "registro" : nombreEntidad.substring(nombreEntidad.lastIndexOf('.') + 1);
+        return new ConflictoVersionException(entidad, id, nombreEntidad == null || id == null
+                ? null : versionActual(nombreEntidad, (Serializable) id));
+    }
+
+    private Long versionActual(String nombreEntidad, Serializable id) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            SessionImplementor sesion = entityManager.unwrap(SessionImplementor.class);
+            Object entidad = sesion.get(nombreEntidad, id);
+            return entidad == null ? null : (Long) sesion.getEntityPersister(nombreEntidad, entidad).getVersion(entidad);
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.uniminuto.biblioteca.concurrencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca una operación de servicio que puede repetirse completa si otra transacción modificó la misma
+ * entidad entre la lectura y la escritura (ver {@link ReintentoConflictosAspect}). La operación debe
+ * abrir su propia transacción y volver a leer lo que modifica en cada intento.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReintentarEnConflicto {
+}
@@ -0,0 +1,73 @@
+package com.uniminuto.biblioteca.concurrencia;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Repite las operaciones marcadas con {@link ReintentarEnConflicto} cuando fallan por un conflicto de
+ * versión. Cada intento corre en una transacción nueva (el aspecto envuelve al de {@code @Transactional}),
+ * con una espera aleatoria que se duplica entre intentos para que las operaciones en conflicto no vuelvan
+ * a chocar al mismo tiempo. Si se agotan los intentos, el conflicto llega al cliente como HTTP 409.
+ * <ul>
+ *   <li>{@code barberia.concurrencia.intentos}: intentos en total, incluido el primero.</li>
+ *   <li>{@code barberia.concurrencia.espera-inicial-ms}: espera máxima antes del segundo intento.</li>
+ *   <li>{@code barberia.concurrencia.espera-maxima-ms}: tope de la espera entre intentos.</li>
+ * </ul>
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReintentoConflictosAspect {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReintentoConflictosAspect.class);
+
+    @Autowired
+    private ConflictosVersion conflictosVersion;
+
+    @Value("${barberia.concurrencia.intentos:3}")
+    private int intentos;
+
+    @Value("${barberia.concurrencia.espera-inicial-ms:20}")
+    private long esperaInicialMs;
+
+    @Value("${barberia.concurrencia.espera-maxima-ms:200}")
+    private long esperaMaximaMs;
+
+    @Around("@annotation(com.uniminuto.biblioteca.concurrencia.ReintentarEnConflicto)")
+    public Object reintentar(ProceedingJoinPoint operacion) throws Throwable {
+        // Dentro de una transacción ajena no se puede repetir solo esta parte: decide quien la abrió
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operacion.proceed();
+        }
+        long espera = esperaInicialMs;
+        for (int intento = 1; ; intento++) {
+            try {
+                return operacion.proceed();
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (intento >= intentos) {
+                    throw conflictosVersion.traducir(e);
+                }
+                LOG.debug("Conflicto de versión en {} (intento {} de {}): {}",
+                        operacion.getSignature().toShortString(), intento, intentos, e.getMessage());
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(espera + 1));
+                } catch (InterruptedException interrupcion) {
+                    Thread.currentThread().interrupt();
+                    throw conflictosVersion.traducir(e);
+                }
+                espera = Math.min(espera * 2, esperaMaximaMs);
+            }
+        }
+    }
+}
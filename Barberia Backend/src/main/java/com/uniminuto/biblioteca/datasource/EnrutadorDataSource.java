@@ -0,0 +1,61 @@
+package com.uniminuto.biblioteca.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envía las transacciones de solo lectura ({@code @Transactional(readOnly = true)}) a la réplica mientras
+ * esté al día, y todo lo demás a la primaria. Si la réplica no entrega una conexión, la lectura se
+ * atiende en la primaria y la réplica queda fuera hasta la siguiente medición del {@link MonitorReplica}.
+ * <p>
+ * Debe usarse detrás de un {@code LazyConnectionDataSourceProxy}: el gestor de transacciones pide la
+ * conexión antes de marcar la transacción como de solo lectura, y el proxy retrasa la elección hasta
+ * la primera sentencia.
+ */
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Destino de una conexión.
+     */
+    public enum Origen {
+        PRIMARIA, REPLICA
+    }
+
+    private final DataSource primaria;
+
+    private final DataSource replica;
+
+    private final MonitorReplica monitor;
+
+    public EnrutadorDataSource(DataSource primaria, DataSource replica, MonitorReplica monitor) {
+        this.primaria = primaria;
+        this.replica = replica;
+        this.monitor = monitor;
+        setTargetDataSources(Map.of(Origen.PRIMARIA, primaria, Origen.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && monitor.alDia()
+                ? Origen.REPLICA : Origen.PRIMARIA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Origen.REPLICA) {
+            return primaria.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            monitor.marcarCaida(e);
+            return primaria.getConnection();
+        }
+    }
+}
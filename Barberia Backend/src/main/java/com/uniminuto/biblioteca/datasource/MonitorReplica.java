@@ -0,0 +1,101 @@
+package com.uniminuto.biblioteca.datasource;
+
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Mide el retraso de la réplica de lectura con un latido: en cada ciclo escribe la hora actual en la
+ * tabla {@code latido_replica} de la primaria y lee la que ya llegó a la réplica. La réplica se considera
+ * al día mientras el retraso medido no supere el máximo configurado; si no responde, deja de estarlo
+ * hasta la siguiente medición correcta.
+ */
+public class MonitorReplica {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private static final String SQL_ESCRIBIR_LATIDO = "UPDATE latido_replica SET marca_ms = ? WHERE id = 1";
+
+    private static final String SQL_LEER_LATIDO = "SELECT marca_ms FROM latido_replica WHERE id = 1";
+
+    private final JdbcTemplate primaria;
+
+    private final JdbcTemplate replica;
+
+    private final long retrasoMaximoMs;
+
+    /**
+     * Último retraso medido; {@link Long#MAX_VALUE} si aún no se mide o la réplica no responde.
+     */
+    private volatile long retrasoMs = Long.MAX_VALUE;
+
+    public MonitorReplica(DataSource primaria, DataSource replica, long retrasoMaximoMs) {
+        this.primaria = new JdbcTemplate(primaria);
+        this.replica = new JdbcTemplate(replica);
+        this.retrasoMaximoMs = retrasoMaximoMs;
+    }
+
+    /**
+     * Escribe el latido en la primaria y mide el retraso de la réplica. El retraso incluye hasta un
+     * intervalo de latido, por lo que el máximo permitido debe ser mayor que el intervalo.
+     */
+    @Scheduled(fixedDelayString = "${barberia.replica.intervalo-latido-ms:1000}",
+            initialDelayString = "${barberia.replica.intervalo-latido-ms:1000}")
+    public void verificar() {
+        try {
+            primaria.update(SQL_ESCRIBIR_LATIDO, System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            LOG.warn("No se pudo escribir el latido de replicación en la primaria: {}", e.getMessage());
+        }
+        try {
+            Long marca = replica.queryForObject(SQL_LEER_LATIDO, Long.class);
+            long anterior = retrasoMs;
+            retrasoMs = marca == null ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - marca);
+            if (anterior <= retrasoMaximoMs && !alDia()) {
+                LOG.warn("La réplica de lectura lleva {} ms de retraso; las lecturas van a la primaria", retrasoMs);
+            } else if (anterior > retrasoMaximoMs && alDia()) {
+                LOG.info("La réplica de lectura está al día; vuelve a atender las lecturas");
+            }
+        } catch (DataAccessException e) {
+            marcarCaida(e);
+        }
+    }
+
+    /**
+     * Indica si las transacciones de solo lectura pueden ir a la réplica.
+     * @return true si el último retraso medido está dentro del máximo.
+     */
+    public boolean alDia() {
+        return retrasoMs <= retrasoMaximoMs;
+    }
+
+    /**
+     * Último retraso medido en milisegundos.
+     * @return Retraso, o {@link Long#MAX_VALUE} si la réplica no está disponible.
+     */
+    public long getRetrasoMs() {
+        return retrasoMs;
+    }
+
+    /**
+     * Retraso máximo tolerado: los datos confirmados hace más tiempo ya están en la réplica mientras esté al día.
+     * @return Retraso máximo en milisegundos.
+     */
+    public long getRetrasoMaximoMs() {
+        return retrasoMaximoMs;
+    }
+
+    /**
+     * Deja de enviar lecturas a la réplica hasta la siguiente medición correcta.
+     * @param causa Error al usar la réplica.
+     */
+    void marcarCaida(Exception causa) {
+        if (retrasoMs != Long.MAX_VALUE) {
+            LOG.warn("La réplica de lectura no responde; las lecturas van a la primaria: {}", causa.getMessage());
+        }
+        retrasoMs = Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,79 @@
+package com.uniminuto.biblioteca.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Separación de lecturas y escrituras. Solo se activa si se configura
+ * {@code barberia.replica.datasource.jdbc-url}; sin réplica la aplicación usa el único pool de
+ * {@code spring.datasource}.
+ * <ul>
+ *   <li>{@code spring.datasource.*}: pool de la primaria (escrituras, migraciones y lecturas sin transacción
+ *       de solo lectura).</li>
+ *   <li>{@code barberia.replica.datasource.*}: pool de la réplica (propiedades de Hikari).</li>
+ *   <li>{@code barberia.replica.retraso-maximo-ms}: retraso máximo tolerado antes de volver a la primaria.</li>
+ * </ul>
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "barberia.replica.datasource", name = "jdbc-url")
+public class ReplicaLecturaConfig {
+
+    /**
+     * Pool de la primaria, configurado igual que el pool único por defecto.
+     * @param propiedades Propiedades de {@code spring.datasource}.
+     * @return Pool de la primaria.
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties propiedades) {
+        HikariDataSource dataSource = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    /**
+     * Pool de la réplica de lectura.
+     * @return Pool de la réplica.
+     */
+    @Bean
+    @ConfigurationProperties("barberia.replica.datasource")
+    public HikariDataSource dataSourceReplica() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(@Qualifier("dataSourcePrimaria") DataSource primaria,
+            @Qualifier("dataSourceReplica") DataSource replica,
+            @Value("${barberia.replica.retraso-maximo-ms:5000}") long retrasoMaximoMs) {
+        return new MonitorReplica(primaria, replica, retrasoMaximoMs);
+    }
+
+    /**
+     * DataSource que usan JPA y los JdbcTemplate de la aplicación.
+     * @param primaria Pool de la primaria.
+     * @param replica Pool de la réplica.
+     * @param monitor Monitor del retraso de la réplica.
+     * @return DataSource enrutado.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimaria") DataSource primaria,
+            @Qualifier("dataSourceReplica") DataSource replica, MonitorReplica monitor) {
+        return new LazyConnectionDataSourceProxy(new EnrutadorDataSource(primaria, replica, monitor));
+    }
+}
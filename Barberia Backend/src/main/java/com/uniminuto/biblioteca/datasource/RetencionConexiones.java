@@ -0,0 +1,130 @@
+package com.uniminuto.biblioteca.datasource;
+
+import com.uniminuto.biblioteca.model.EstadisticaConexionRs;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Mide cuánto tiempo retiene cada endpoint una conexión del pool, desde que la pide hasta que la
+ * devuelve. Las conexiones pedidas fuera de una solicitud HTTP (tareas programadas, exportaciones en
+ * segundo plano, migraciones) se agrupan aparte.
+ */
+public class RetencionConexiones {
+
+    static final String FUERA_DE_SOLICITUD = "(fuera de solicitud)";
+
+    private final Map<String, Acumulado> porEndpoint = new ConcurrentHashMap<>();
+
+    /**
+     * Envuelve un DataSource para medir las conexiones que entrega.
+     * @param dataSource DataSource original.
+     * @return DataSource medido.
+     */
+    public DataSource medir(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return medir(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String usuario, String clave) throws SQLException {
+                return medir(super.getConnection(usuario, clave));
+            }
+        };
+    }
+
+    /**
+     * Estadísticas por endpoint, de mayor a menor tiempo total de retención.
+     * @return Estadísticas acumuladas desde el inicio o el último reinicio.
+     */
+    public List<EstadisticaConexionRs> obtenerEstadisticas() {
+        List<EstadisticaConexionRs> resultado = new ArrayList<>(porEndpoint.size());
+        porEndpoint.forEach((endpoint, acumulado) -> {
+            long conexiones = acumulado.conexiones.sum();
+            long totalNanos = acumulado.totalNanos.sum();
+            resultado.add(new EstadisticaConexionRs(endpoint, conexiones, milisegundos(totalNanos),
+                    conexiones == 0 ? 0 : milisegundos(totalNanos / conexiones), milisegundos(acumulado.maximoNanos.get())));
+        });
+        resultado.sort(Comparator.comparing(EstadisticaConexionRs::getRetencionTotalMs).reversed());
+        return resultado;
+    }
+
+    /**
+     * Descarta las estadísticas acumuladas.
+     */
+    public void reiniciar() {
+        porEndpoint.clear();
+    }
+
+    private Connection medir(Connection conexion) {
+        String endpoint = endpointActual();
+        long inicio = System.nanoTime();
+        boolean[] cerrada = {false};
+        return (Connection) Proxy.newProxyInstance(RetencionConexiones.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, metodo, args) -> {
+                    if ("close".equals(metodo.getName()) && !cerrada[0]) {
+                        cerrada[0] = true;
+                        registrar(endpoint, System.nanoTime() - inicio);
+                    }
+                    return invocar(conexion, metodo, args);
+                });
+    }
+
+    private void registrar(String endpoint, long nanos) {
+        Acumulado acumulado = porEndpoint.computeIfAbsent(endpoint, k -> new Acumulado());
+        acumulado.conexiones.increment();
+        acumulado.totalNanos.add(nanos);
+        acumulado.maximoNanos.accumulate(nanos);
+    }
+
+    /**
+     * Endpoint de la solicitud en curso en este hilo, con el patrón de la ruta en lugar de la URL para no
+     * separar las estadísticas por cada ID.
+     */
+    private static String endpointActual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!(atributos instanceof ServletRequestAttributes)) {
+            return FUERA_DE_SOLICITUD;
+        }
+        HttpServletRequest solicitud = ((ServletRequestAttributes) atributos).getRequest();
+        Object patron = solicitud.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return solicitud.getMethod() + " " + (patron != null ? patron : solicitud.getRequestURI());
+    }
+
+    private static Object invocar(Connection conexion, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(conexion, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long milisegundos(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static final class Acumulado {
+        private final LongAdder conexiones = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+    }
+}
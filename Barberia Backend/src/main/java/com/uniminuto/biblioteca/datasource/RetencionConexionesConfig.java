@@ -0,0 +1,30 @@
+package com.uniminuto.biblioteca.datasource;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Envuelve el DataSource de la aplicación (el pool único o el enrutado a la réplica) para medir la
+ * retención de conexiones por endpoint.
+ */
+@Configuration
+public class RetencionConexionesConfig {
+
+    @Bean
+    public static RetencionConexiones retencionConexiones() {
+        return new RetencionConexiones();
+    }
+
+    @Bean
+    public static BeanPostProcessor medidorRetencionConexiones(RetencionConexiones retencionConexiones) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                return bean instanceof DataSource && "dataSource".equals(nombre)
+                        ? retencionConexiones.medir((DataSource) bean) : bean;
+            }
+        };
+    }
+}
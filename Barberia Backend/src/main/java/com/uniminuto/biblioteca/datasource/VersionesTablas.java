@@ -0,0 +1,198 @@
+package com.uniminuto.biblioteca.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Lleva una versión por tabla que aumenta cada vez que se confirma una escritura sobre ella. Las
+ * escrituras se detectan en las sentencias que pasan por el DataSource (JPA, JPQL masivo y
+ * JdbcTemplate por igual) y la versión se incrementa solo cuando la transacción confirma; si se
+ * revierte no cambia nada.
+ * <p>
+ * Las versiones viven en memoria y empiezan de cero en cada arranque, por eso el ETag incluye la hora
+ * de arranque. Supone una única instancia de la aplicación escribiendo en la base de datos, igual que la
+ * caché de segundo nivel y el índice de agendas.
+ */
+public class VersionesTablas {
+
+    /**
+     * Tabla destino de un INSERT, UPDATE, DELETE, MERGE o REPLACE, con o sin esquema y comillas.
+     */
+    private static final Pattern ESCRITURA = Pattern.compile(
+            "^\\s*(?:insert\\s+(?:ignore\\s+)?into|update|delete\\s+from|merge\\s+into|replace\\s+into)\\s+"
+                    + "(?:[`\"]?\\w+[`\"]?\\.)?[`\"]?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private final long inicioMs = System.currentTimeMillis();
+
+    private final Map<String, Version> porTabla = new ConcurrentHashMap<>();
+
+    /**
+     * Envuelve un DataSource para registrar las escrituras confirmadas en sus conexiones.
+     * @param dataSource DataSource original.
+     * @return DataSource rastreado.
+     */
+    public DataSource rastrear(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return rastrear(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String usuario, String clave) throws SQLException {
+                return rastrear(super.getConnection(usuario, clave));
+            }
+        };
+    }
+
+    /**
+     * ETag fuerte para un recurso que solo depende de las tablas indicadas.
+     * @param tablas Tablas de las que se leen los datos, en minúsculas.
+     * @return ETag entre comillas.
+     */
+    public String etag(String... tablas) {
+        StringBuilder etag = new StringBuilder("\"").append(Long.toString(inicioMs, 36));
+        for (String tabla : tablas) {
+            etag.append('-').append(Long.toString(version(tabla).numero.get(), 36));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Momento del último cambio confirmado en cualquiera de las tablas; la hora de arranque si ninguna cambió.
+     * @param tablas Tablas en minúsculas.
+     * @return Milisegundos desde la época.
+     */
+    public long ultimoCambioMs(String... tablas) {
+        long ultimo = inicioMs;
+        for (String tabla : tablas) {
+            ultimo = Math.max(ultimo, version(tabla).ultimoCambioMs);
+        }
+        return ultimo;
+    }
+
+    /**
+     * Tabla que modifica una sentencia SQL.
+     * @param sql Sentencia.
+     * @return Nombre de la tabla en minúsculas, o null si la sentencia no escribe.
+     */
+    static String tablaEscrita(String sql) {
+        // Descarta las consultas sin aplicar la expresión regular
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        if (i == sql.length() || "iudmrIUDMR".indexOf(sql.charAt(i)) < 0) {
+            return null;
+        }
+        Matcher matcher = ESCRITURA.matcher(sql);
+        return matcher.find() ? matcher.group(1).toLowerCase(Locale.ROOT) : null;
+    }
+
+    private Version version(String tabla) {
+        return porTabla.computeIfAbsent(tabla, k -> new Version());
+    }
+
+    private void confirmar(Set<String> tablas) {
+        long ahora = System.currentTimeMillis();
+        for (String tabla : tablas) {
+            Version version = version(tabla);
+            version.ultimoCambioMs = ahora;
+            version.numero.incrementAndGet();
+        }
+        tablas.clear();
+    }
+
+    /**
+     * Conexión que anota las tablas escritas y las confirma junto con la transacción. Una conexión la usa
+     * un solo hilo a la vez, así que las tablas pendientes no necesitan sincronización.
+     */
+    private Connection rastrear(Connection conexion) {
+        Set<String> pendientes = new HashSet<>();
+        return (Connection) Proxy.newProxyInstance(VersionesTablas.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "prepareStatement":
+                        case "prepareCall":
+                            anotar(pendientes, (String) args[0]);
+                            return invocar(conexion, metodo, args);
+                        case "createStatement":
+                            return rastrear((Statement) invocar(conexion, metodo, args), pendientes);
+                        case "commit":
+                            Object resultado = invocar(conexion, metodo, args);
+                            confirmar(pendientes);
+                            return resultado;
+                        case "rollback":
+                            resultado = invocar(conexion, metodo, args);
+                            if (args == null) {
+                                // Revertir hasta un punto de guardado deja las tablas pendientes: a lo sumo sobra un incremento
+                                pendientes.clear();
+                            }
+                            return resultado;
+                        case "setAutoCommit":
+                            // Activar el autocommit confirma lo pendiente
+                            boolean confirma = (Boolean) args[0] && !conexion.getAutoCommit();
+                            resultado = invocar(conexion, metodo, args);
+                            if (confirma) {
+                                confirmar(pendientes);
+                            }
+                            return resultado;
+                        case "close":
+                            // Con autocommit cada sentencia ya se confirmó; sin él, el pool revierte lo pendiente
+                            if (!pendientes.isEmpty() && !conexion.isClosed() && conexion.getAutoCommit()) {
+                                confirmar(pendientes);
+                            }
+                            pendientes.clear();
+                            return invocar(conexion, metodo, args);
+                        default:
+                            return invocar(conexion, metodo, args);
+                    }
+                });
+    }
+
+    private Statement rastrear(Statement sentencia, Set<String> pendientes) {
+        return (Statement) Proxy.newProxyInstance(VersionesTablas.class.getClassLoader(),
+                new Class<?>[]{Statement.class}, (proxy, metodo, args) -> {
+                    if (args != null && args.length > 0 && args[0] instanceof String
+                            && (metodo.getName().startsWith("execute") || "addBatch".equals(metodo.getName()))) {
+                        anotar(pendientes, (String) args[0]);
+                    }
+                    return invocar(sentencia, metodo, args);
+                });
+    }
+
+    private static void anotar(Set<String> pendientes, String sql) {
+        String tabla = tablaEscrita(sql);
+        if (tabla != null) {
+            pendientes.add(tabla);
+        }
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class Version {
+        private final AtomicLong numero = new AtomicLong();
+        private volatile long ultimoCambioMs;
+    }
+}
@@ -0,0 +1,30 @@
+package com.uniminuto.biblioteca.datasource;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Envuelve el DataSource de la aplicación para llevar la versión de cada tabla con la que se calculan
+ * los ETag de los endpoints de consulta.
+ */
+@Configuration
+public class VersionesTablasConfig {
+
+    @Bean
+    public static VersionesTablas versionesTablas() {
+        return new VersionesTablas();
+    }
+
+    @Bean
+    public static BeanPostProcessor rastreadorVersionesTablas(VersionesTablas versionesTablas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                return bean instanceof DataSource && "dataSource".equals(nombre)
+                        ? versionesTablas.rastrear((DataSource) bean) : bean;
+            }
+        };
+    }
+}
@@ -1,22 +1,31 @@
 package com.uniminuto.biblioteca.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entidad que representa la tabla "Barbero" en la base de datos.
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Región configurada en ehcache.xml
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Campos internos de los proxies LAZY
 @NoArgsConstructor
 @Table(name = "Barbero")
 public class Barbero implements Serializable {
@@ -53,10 +62,15 @@ public class Barbero implements Serializable {
      * Sede a la que pertenece el barbero.
      * Se mapea la relación ManyToOne con la entidad Sede.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "id_sede", nullable = false)
     private Sede sede;
 
+    /** Versión para el bloqueo optimista. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructor con campos básicos para facilitar la creación si es necesario
     public Barbero(Integer idBarbero, String nombre, String apellido, String especialidad, Sede sede) {
         this.idBarbero = idBarbero;
@@ -1,16 +1,21 @@
 package com.uniminuto.biblioteca.entity; // Manteniendo el paquete base "biblioteca"
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -19,12 +24,20 @@ import lombok.NoArgsConstructor;
  */
 @Data
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Campos internos de los proxies LAZY
 @NoArgsConstructor
 @Table(name = "Cita") // Nombre de la tabla en la DB
 public class Cita implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Restricción que impide dos citas vigentes del mismo barbero a la misma fecha y hora de inicio (no
+     * detecta intervalos que se crucen). Se define en la migración V10 sobre la columna calculada
+     * id_barbero_vigente, que es NULL en las citas canceladas.
+     */
+    public static final String UK_BARBERO_FECHA_HORA = "uk_cita_barbero_fecha_hora";
+
     /**
      * Identificador único de la cita.
      */
@@ -48,24 +61,41 @@ public class Cita implements Serializable {
     /**
      * Cliente asociado a la cita.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "id_cliente", nullable = false)
     private Cliente cliente;
 
     /**
      * Barbero asociado a la cita.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "id_barbero", nullable = false)
     private Barbero barbero;
 
     /**
      * Servicio asociado a la cita.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "id_servicio", nullable = false)
     private Servicio servicio;
 
+    /**
+     * Estado de la cita. Una cita cancelada se conserva, pero deja libre su horario.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoCita estado = EstadoCita.AGENDADA;
+
+    // Enum para los estados de la cita
+    public enum EstadoCita {
+        AGENDADA, CANCELADA
+    }
+
+    /** Versión para el bloqueo optimista. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructor con campos básicos para facilitar la creación si es necesario
     public Cita(Integer idCita, LocalDate fecha, LocalTime hora, Cliente cliente, Barbero barbero, Servicio servicio) {
         this.idCita = idCita;
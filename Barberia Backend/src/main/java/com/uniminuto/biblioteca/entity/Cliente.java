@@ -1,5 +1,6 @@
 package com.uniminuto.biblioteca.entity; // Manteniendo el paquete base "biblioteca"
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import java.time.LocalDate;
 import javax.persistence.Column;
@@ -8,6 +9,8 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
+import javax.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -16,12 +19,19 @@ import lombok.NoArgsConstructor;
  */
 @Data
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Campos internos de los proxies LAZY
 @NoArgsConstructor
-@Table(name = "Cliente") // Nombre de la tabla en la DB
+@Table(name = "Cliente", // Nombre de la tabla en la DB
+        uniqueConstraints = @UniqueConstraint(name = Cliente.UK_TELEFONO, columnNames = "telefono"))
 public class Cliente implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Restricción que impide dos clientes con el mismo teléfono.
+     */
+    public static final String UK_TELEFONO = "uk_cliente_telefono";
+
     /**
      * Identificador único del cliente.
      */
@@ -60,6 +70,11 @@ public class Cliente implements Serializable {
     @Column(name = "fecha_registro", nullable = false)
     private LocalDate fechaRegistro;
 
+    /** Versión para el bloqueo optimista. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructor con campos básicos para facilitar la creación si es necesario
     public Cliente(Integer idCliente, String nombre, String apellido, String telefono, String correo, LocalDate fechaRegistro) {
         this.idCliente = idCliente;
@@ -0,0 +1,71 @@
+package com.uniminuto.biblioteca.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad que representa la tabla "Festivo_Sede": días en que una sede no atiende.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "Festivo_Sede",
+        uniqueConstraints = @UniqueConstraint(name = FestivoSede.UK_SEDE_FECHA, columnNames = {"id_sede", "fecha"}))
+public class FestivoSede implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Restricción que impide dos festivos de la misma sede en la misma fecha.
+     */
+    public static final String UK_SEDE_FECHA = "uk_festivo_sede_fecha";
+
+    /**
+     * Identificador único del festivo.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_festivo")
+    private Integer idFestivo;
+
+    /**
+     * Sede que cierra ese día.
+     */
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "id_sede", nullable = false)
+    private Sede sede;
+
+    /**
+     * Fecha del festivo.
+     */
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    /**
+     * Descripción del festivo.
+     */
+    @Column(name = "descripcion", length = 100)
+    private String descripcion;
+
+    // Constructor con campos básicos para facilitar la creación si es necesario
+    public FestivoSede(Integer idFestivo, Sede sede, LocalDate fecha, String descripcion) {
+        this.idFestivo = idFestivo;
+        this.sede = sede;
+        this.fecha = fecha;
+        this.descripcion = descripcion;
+    }
+}
@@ -0,0 +1,76 @@
+package com.uniminuto.biblioteca.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad que representa la tabla "Horario_Sede": horario de apertura de una sede para un día de la semana.
+ * Los días sin horario se consideran cerrados una vez que la sede tiene al menos un horario definido.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "Horario_Sede")
+public class HorarioSede implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identificador único del horario.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_horario")
+    private Integer idHorario;
+
+    /**
+     * Sede a la que pertenece el horario.
+     */
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "id_sede", nullable = false)
+    private Sede sede;
+
+    /**
+     * Día de la semana en que aplica el horario.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dia_semana", nullable = false, length = 10)
+    private DayOfWeek diaSemana;
+
+    /**
+     * Hora de apertura.
+     */
+    @Column(name = "hora_apertura", nullable = false)
+    private LocalTime horaApertura;
+
+    /**
+     * Hora de cierre.
+     */
+    @Column(name = "hora_cierre", nullable = false)
+    private LocalTime horaCierre;
+
+    // Constructor con campos básicos para facilitar la creación si es necesario
+    public HorarioSede(Integer idHorario, Sede sede, DayOfWeek diaSemana, LocalTime horaApertura, LocalTime horaCierre) {
+        this.idHorario = idHorario;
+        this.sede = sede;
+        this.diaSemana = diaSemana;
+        this.horaApertura = horaApertura;
+        this.horaCierre = horaCierre;
+    }
+}
@@ -7,12 +7,14 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -57,7 +59,7 @@ public class Pago implements Serializable {
     /**
      * Cita asociada al pago.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "id_cita", nullable = false)
     private Cita cita;
 
@@ -66,6 +68,11 @@ public class Pago implements Serializable {
         Efectivo, Tarjeta, Transferencia
     }
 
+    /** Versión para el bloqueo optimista. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructor con campos básicos para facilitar la creación si es necesario
     public Pago(Integer idPago, BigDecimal monto, LocalDate fechaPago, MetodoPago metodoPago, Cita cita) {
         this.idPago = idPago;
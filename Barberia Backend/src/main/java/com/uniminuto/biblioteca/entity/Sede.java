@@ -1,20 +1,28 @@
 package com.uniminuto.biblioteca.entity; // Manteniendo el paquete base "biblioteca"
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entidad que representa la tabla "Sede" en la base de datos de la barbería.
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Región configurada en ehcache.xml
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Campos internos de los proxies LAZY
 @NoArgsConstructor
 @Table(name = "Sede") // Nombre de la tabla en la DB
 public class Sede implements Serializable {
@@ -47,6 +55,11 @@ public class Sede implements Serializable {
     @Column(name = "telefono", nullable = false, length = 15)
     private String telefono;
 
+    /** Versión para el bloqueo optimista. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructor con campos básicos para facilitar la creación si es necesario
     public Sede(Integer idSede, String nombre, String direccion, String telefono) {
         this.idSede = idSede;
@@ -1,27 +1,40 @@
 package com.uniminuto.biblioteca.entity; // Manteniendo el paquete base "biblioteca"
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import java.math.BigDecimal; // Importar para manejar valores monetarios con precisión
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entidad que representa la tabla "Servicio" en la base de datos de la barbería.
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Región configurada en ehcache.xml
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Campos internos de los proxies LAZY
 @NoArgsConstructor
 @Table(name = "Servicio") // Nombre de la tabla en la DB
 public class Servicio implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Duración que se asume para los servicios registrados antes de manejar duraciones.
+     */
+    public static final int DURACION_POR_DEFECTO_MINUTOS = 30;
+
     /**
      * Identificador único del servicio.
      */
@@ -48,6 +61,17 @@ public class Servicio implements Serializable {
     @Column(name = "precio", nullable = false, precision = 10, scale = 2)
     private BigDecimal precio;
 
+    /**
+     * Duración del servicio en minutos. Determina cuánto tiempo ocupa una cita en la agenda del barbero.
+     */
+    @Column(name = "duracion_minutos", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 30")
+    private Integer duracionMinutos = DURACION_POR_DEFECTO_MINUTOS;
+
+    /** Versión para el bloqueo optimista. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructor con campos básicos para facilitar la creación si es necesario
     public Servicio(Integer idServicio, String nombreServicio, String descripcion, BigDecimal precio) {
         this.idServicio = idServicio;
@@ -55,4 +79,12 @@ public class Servicio implements Serializable {
         this.descripcion = descripcion;
         this.precio = precio;
     }
+
+    /**
+     * Devuelve la duración efectiva del servicio, usando la duración por defecto si no está definida.
+     * @return Duración en minutos.
+     */
+    public int duracionEfectivaMinutos() {
+        return duracionMinutos != null && duracionMinutos > 0 ? duracionMinutos : DURACION_POR_DEFECTO_MINUTOS;
+    }
 }
@@ -0,0 +1,77 @@
+package com.uniminuto.biblioteca.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad que representa la tabla "Turno_Barbero": un bloque de trabajo semanal de un barbero.
+ * Un barbero puede tener varios turnos el mismo día (los descansos son el espacio entre turnos);
+ * los días sin turnos son días libres.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "Turno_Barbero")
+public class TurnoBarbero implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identificador único del turno.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_turno")
+    private Integer idTurno;
+
+    /**
+     * Barbero al que pertenece el turno.
+     */
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "id_barbero", nullable = false)
+    private Barbero barbero;
+
+    /**
+     * Día de la semana en que aplica el turno.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dia_semana", nullable = false, length = 10)
+    private DayOfWeek diaSemana;
+
+    /**
+     * Hora de inicio del turno.
+     */
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    /**
+     * Hora de fin del turno.
+     */
+    @Column(name = "hora_fin", nullable = false)
+    private LocalTime horaFin;
+
+    // Constructor con campos básicos para facilitar la creación si es necesario
+    public TurnoBarbero(Integer idTurno, Barbero barbero, DayOfWeek diaSemana, LocalTime horaInicio, LocalTime horaFin) {
+        this.idTurno = idTurno;
+        this.barbero = barbero;
+        this.diaSemana = diaSemana;
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+    }
+}
@@ -0,0 +1,270 @@
+package com.uniminuto.biblioteca.lote;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniminuto.biblioteca.api.VersionadoPor;
+import com.uniminuto.biblioteca.apicontroller.RevalidacionInterceptor;
+import com.uniminuto.biblioteca.model.RespuestaLoteRs;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.apache.coyote.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Atiende una consulta de un lote llamando directamente al método del controlador que atiende su ruta GET,
+ * sin solicitud ni respuesta sintéticas: la solicitud del lote ya pasó por la cadena de filtros (seguridad,
+ * CORS) y las consultas se ejecutan en otros hilos, donde no deben usar la solicitud del contenedor.
+ * <p>
+ * Las rutas se toman de los mapeos de Spring MVC, con sus variables de ruta y parámetros convertidos por el
+ * mismo servicio de conversión. De los interceptores solo aplica la revalidación: las consultas de un
+ * endpoint {@link VersionadoPor} llevan su ETag. Los endpoints que leen cuerpo, la solicitud o la respuesta
+ * del contenedor, o que responden en streaming, no se admiten en un lote.
+ */
+@Component
+public class DespachadorLote {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DespachadorLote.class);
+
+    private static final ParameterNameDiscoverer NOMBRES = new DefaultParameterNameDiscoverer();
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    @Qualifier("mvcConversionService")
+    private ConversionService conversionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RevalidacionInterceptor revalidacion;
+
+    private volatile List<Consulta> consultas;
+
+    /**
+     * Ejecuta una consulta GET del API.
+     * @param id Identificador de la consulta dentro del lote.
+     * @param ruta Ruta del API con sus parámetros.
+     * @return Estado, cabeceras y cuerpo de la respuesta.
+     */
+    public RespuestaLoteRs despachar(String id, String ruta) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(ruta).build();
+        PathContainer camino = PathContainer.parsePath(uri.getPath() != null ? uri.getPath() : "");
+        for (Consulta consulta : obtenerConsultas()) {
+            PathPattern.PathMatchInfo coincidencia = consulta.patron.matchAndExtract(camino);
+            if (coincidencia != null) {
+                return ejecutar(id, consulta, coincidencia.getUriVariables(), uri.getQueryParams());
+            }
+        }
+        return new RespuestaLoteRs(id, 404, Collections.emptyMap(), null,
+                "No hay una consulta GET admitida en un lote para la ruta " + uri.getPath());
+    }
+
+    private RespuestaLoteRs ejecutar(String id, Consulta consulta, Map<String, String> variables,
+            MultiValueMap<String, String> parametros) {
+        try {
+            MethodParameter[] parametrosMetodo = consulta.metodo.getMethodParameters();
+            Object[] argumentos = new Object[parametrosMetodo.length];
+            for (MethodParameter parametro : parametrosMetodo) {
+                argumentos[parametro.getParameterIndex()] = argumento(parametro, variables, parametros);
+            }
+            // Como en el interceptor, el ETag se toma antes de leer los datos
+            String etag = consulta.tablas != null ? revalidacion.etagVigente(consulta.tablas) : null;
+            Object resultado = consulta.metodo.getMethod().invoke(consulta.metodo.getBean(), argumentos);
+            return respuesta(id, resultado, etag);
+        } catch (InvocationTargetException e) {
+            return error(id, e.getTargetException());
+        } catch (Exception e) {
+            return error(id, e);
+        }
+    }
+
+    /**
+     * Valor de un parámetro del método a partir de la ruta; las cabeceras propias de una consulta no existen,
+     * así que los parámetros de cabecera reciben su valor por defecto (p. ej. sin Accept-Encoding, sin comprimir).
+     */
+    private Object argumento(MethodParameter parametro, Map<String, String> variables,
+            MultiValueMap<String, String> parametros) throws BadRequestException {
+        parametro.initParameterNameDiscovery(NOMBRES);
+        String nombre;
+        String valor;
+        boolean requerido;
+        String porDefecto = ValueConstants.DEFAULT_NONE;
+        PathVariable variable = parametro.getParameterAnnotation(PathVariable.class);
+        RequestParam parametroConsulta = parametro.getParameterAnnotation(RequestParam.class);
+        if (variable != null) {
+            nombre = nombre(variable.name(), parametro);
+            valor = variables.get(nombre);
+            requerido = variable.required();
+        } else if (parametroConsulta != null) {
+            nombre = nombre(parametroConsulta.name(), parametro);
+            List<String> valores = parametros.get(nombre);
+            valor = valores != null && !valores.isEmpty() && valores.get(0) != null
+                    ? URLDecoder.decode(valores.get(0), StandardCharsets.UTF_8) : null;
+            requerido = parametroConsulta.required();
+            porDefecto = parametroConsulta.defaultValue();
+        } else {
+            RequestHeader cabecera = parametro.getParameterAnnotation(RequestHeader.class);
+            nombre = nombre(cabecera.name(), parametro);
+            valor = null;
+            requerido = cabecera.required();
+            porDefecto = cabecera.defaultValue();
+        }
+        if (valor == null && !ValueConstants.DEFAULT_NONE.equals(porDefecto)) {
+            valor = porDefecto;
+        }
+        if (valor == null) {
+            if (requerido) {
+                throw new BadRequestException("Falta el parámetro '" + nombre + "'.");
+            }
+            return null;
+        }
+        try {
+            return conversionService.convert(valor, TypeDescriptor.valueOf(String.class), new TypeDescriptor(parametro));
+        } catch (ConversionException e) {
+            throw new BadRequestException("Valor no válido para el parámetro '" + nombre + "': " + valor);
+        }
+    }
+
+    private static String nombre(String declarado, MethodParameter parametro) {
+        return !declarado.isEmpty() ? declarado : parametro.getParameterName();
+    }
+
+    private RespuestaLoteRs respuesta(String id, Object resultado, String etag) throws JsonProcessingException {
+        ResponseEntity<?> entidad = resultado instanceof ResponseEntity
+                ? (ResponseEntity<?>) resultado : ResponseEntity.ok(resultado);
+        Map<String, String> cabeceras = new LinkedCaseInsensitiveMap<>();
+        entidad.getHeaders().forEach((nombre, valores) -> {
+            if (!valores.isEmpty()) {
+                cabeceras.put(nombre, valores.get(0));
+            }
+        });
+        if (etag != null) {
+            cabeceras.put(HttpHeaders.ETAG, etag);
+            cabeceras.put(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        Object cuerpo = entidad.getBody();
+        // Los listados preparados ya vienen serializados (y sin comprimir: la consulta no envía Accept-Encoding)
+        String json = cuerpo == null ? null
+                : cuerpo instanceof byte[] ? new String((byte[]) cuerpo, StandardCharsets.UTF_8)
+                : objectMapper.writeValueAsString(cuerpo);
+        int estado = entidad.getStatusCodeValue();
+        return new RespuestaLoteRs(id, estado, cabeceras, json,
+                estado >= 400 ? "La consulta respondió con estado " + estado : null);
+    }
+
+    /**
+     * Las validaciones de los servicios terminan en {@link BadRequestException}, que fuera de un lote
+     * también se responde con 400.
+     */
+    private static RespuestaLoteRs error(String id, Throwable e) {
+        if (e instanceof BadRequestException) {
+            return new RespuestaLoteRs(id, 400, Collections.emptyMap(), null, e.getMessage());
+        }
+        if (e instanceof ResponseStatusException) {
+            ResponseStatusException estado = (ResponseStatusException) e;
+            return new RespuestaLoteRs(id, estado.getRawStatusCode(), Collections.emptyMap(), null, estado.getReason());
+        }
+        LOG.error("Error al atender la consulta {} del lote", id, e);
+        return new RespuestaLoteRs(id, 500, Collections.emptyMap(), null, "Error interno al atender la consulta.");
+    }
+
+    private List<Consulta> obtenerConsultas() {
+        List<Consulta> actuales = consultas;
+        if (actuales != null) {
+            return actuales;
+        }
+        synchronized (this) {
+            if (consultas == null) {
+                consultas = registrar();
+            }
+            return consultas;
+        }
+    }
+
+    /**
+     * Consultas GET admitidas, de la ruta más específica a la más general, como las elige Spring MVC.
+     */
+    private List<Consulta> registrar() {
+        List<Consulta> registradas = new ArrayList<>();
+        handlerMapping.getHandlerMethods().forEach((info, metodo) -> {
+            if (!info.getMethodsCondition().getMethods().contains(RequestMethod.GET) || !admitida(metodo)) {
+                return;
+            }
+            HandlerMethod resuelto = metodo.createWithResolvedBean();
+            ReflectionUtils.makeAccessible(resuelto.getMethod());
+            VersionadoPor versionadoPor = resuelto.getMethodAnnotation(VersionadoPor.class);
+            for (String patron : info.getPatternValues()) {
+                registradas.add(new Consulta(PathPatternParser.defaultInstance.parse(patron), resuelto,
+                        versionadoPor != null ? versionadoPor.value() : null));
+            }
+        });
+        registradas.sort(Comparator.comparing(consulta -> consulta.patron, PathPattern.SPECIFICITY_COMPARATOR));
+        return List.copyOf(registradas);
+    }
+
+    private static boolean admitida(HandlerMethod metodo) {
+        for (MethodParameter parametro : metodo.getMethodParameters()) {
+            if (!parametro.hasParameterAnnotation(PathVariable.class)
+                    && !parametro.hasParameterAnnotation(RequestParam.class)
+                    && !parametro.hasParameterAnnotation(RequestHeader.class)) {
+                return false;
+            }
+        }
+        Class<?> cuerpo = ResolvableType.forMethodReturnType(metodo.getMethod()).resolveGeneric(0);
+        return cuerpo == null || !StreamingResponseBody.class.isAssignableFrom(cuerpo);
+    }
+
+    /**
+     * Ruta GET, método que la atiende y tablas de las que depende su ETag (null si no es versionada).
+     */
+    private static final class Consulta {
+        private final PathPattern patron;
+        private final HandlerMethod metodo;
+        private final String[] tablas;
+
+        private Consulta(PathPattern patron, HandlerMethod metodo, String[] tablas) {
+            this.patron = patron;
+            this.metodo = metodo;
+            this.tablas = tablas;
+        }
+    }
+}
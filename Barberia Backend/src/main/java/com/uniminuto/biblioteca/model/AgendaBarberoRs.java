@@ -0,0 +1,19 @@
+package com.uniminuto.biblioteca.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Citas de un barbero en un día del calendario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgendaBarberoRs {
+    private Integer idBarbero;
+    private String nombre;
+    private String apellido;
+    private List<CitaCalendarioRs> citas; // Ordenadas por hora
+}
@@ -0,0 +1,18 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Un día del calendario con las citas agrupadas por barbero.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgendaFechaRs {
+    private LocalDate fecha;
+    private List<AgendaBarberoRs> barberos; // Solo los barberos con citas ese día
+}
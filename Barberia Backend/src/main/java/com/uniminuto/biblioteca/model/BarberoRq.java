@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class BarberoRq {
     private Integer idBarbero; // Para actualizaciones
+    private Long version; // Para actualizaciones (opcional): versión leída; si ya cambió se responde 409
     private String nombre;
     private String apellido;
     private String especialidad;
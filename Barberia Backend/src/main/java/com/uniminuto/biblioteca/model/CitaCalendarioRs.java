@@ -0,0 +1,22 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.LocalTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cita tal como la muestra el calendario: intervalo, cliente y servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CitaCalendarioRs {
+    private Integer idCita;
+    private LocalTime hora;
+    private LocalTime horaFin;
+    private Integer idCliente;
+    private String cliente; // Nombre y apellido
+    private Integer idServicio;
+    private String servicio;
+}
@@ -0,0 +1,34 @@
+package com.uniminuto.biblioteca.model;
+
+import com.uniminuto.biblioteca.entity.Cita;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección plana de una cita para los listados y búsquedas.
+ * Se obtiene con una sola consulta que une cliente, barbero, sede y servicio, sin cargar entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CitaResumen {
+    private Integer idCita;
+    private LocalDate fecha;
+    private LocalTime hora;
+    private Integer idCliente;
+    private String nombreCliente;
+    private String apellidoCliente;
+    private Integer idBarbero;
+    private String nombreBarbero;
+    private String apellidoBarbero;
+    private Integer idSede;
+    private Integer idServicio;
+    private String nombreServicio;
+    private BigDecimal precio;
+    private Integer duracionMinutos;
+    private Cita.EstadoCita estado;
+}
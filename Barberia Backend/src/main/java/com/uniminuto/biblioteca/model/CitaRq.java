@@ -12,9 +12,11 @@ import java.time.LocalTime;
 @NoArgsConstructor
 public class CitaRq {
     private Integer idCita; // Para actualizaciones
+    private Long version; // Para actualizaciones (opcional): versión leída; si ya cambió se responde 409
     private LocalDate fecha;
     private LocalTime hora;
     private Integer idCliente;
-    private Integer idBarbero;
+    private Integer idBarbero; // Opcional al crear si se indica idSede: se asigna el barbero con menos carga
+    private Integer idSede; // Solo para crear sin barbero ("cualquier barbero" de la sede)
     private Integer idServicio;
 }
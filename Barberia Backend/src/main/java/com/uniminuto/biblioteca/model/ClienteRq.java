@@ -11,6 +11,7 @@ import java.time.LocalDate; // Para manejar la fecha de registro si se envía
 @NoArgsConstructor
 public class ClienteRq {
     private Integer idCliente; // Para actualizaciones
+    private Long version; // Para actualizaciones (opcional): versión leída; si ya cambió se responde 409
     private String nombre;
     private String apellido;
     private String telefono;
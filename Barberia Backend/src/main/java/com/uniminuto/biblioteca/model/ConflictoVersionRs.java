@@ -0,0 +1,19 @@
+package com.uniminuto.biblioteca.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta (HTTP 409) de una actualización rechazada porque la entidad cambió.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConflictoVersionRs {
+    private boolean success;
+    private String message;
+    private String entidad; // Nombre de la entidad, p. ej. "Cita"
+    private Object id;
+    private Long versionActual; // Versión vigente, null si el registro fue eliminado
+}
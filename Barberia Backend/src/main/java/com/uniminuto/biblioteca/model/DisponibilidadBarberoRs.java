@@ -0,0 +1,20 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.LocalTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta con las horas en que un barbero puede atender un servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadBarberoRs {
+    private Integer idBarbero;
+    private String nombre;
+    private String apellido;
+    private List<LocalTime> horasDisponibles; // Horas de inicio posibles, en franjas de 15 minutos
+}
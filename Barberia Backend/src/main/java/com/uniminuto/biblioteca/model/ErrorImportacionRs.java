@@ -0,0 +1,17 @@
+package com.uniminuto.biblioteca.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila del archivo de importación que no se pudo cargar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorImportacionRs {
+    private Long linea; // Línea del archivo donde empieza el registro
+    private String telefono;
+    private String motivo;
+}
@@ -0,0 +1,19 @@
+package com.uniminuto.biblioteca.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta con cuántas llamadas a una consulta se resolvieron uniéndose a una ejecución en curso.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaAgrupacionRs {
+    private String consulta; // Clase y método del servicio, p. ej. "CitaServiceImpl.listarCitas"
+    private Long llamadas; // Llamadas recibidas
+    private Long ejecutadas; // Llamadas que ejecutaron la consulta
+    private Long agrupadas; // Llamadas que esperaron el resultado de otra
+    private Double tasaAgrupacion; // agrupadas / llamadas, null si aún no hay llamadas
+}
@@ -0,0 +1,22 @@
+package com.uniminuto.biblioteca.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta con las estadísticas de la caché de búsquedas por ID de un tipo de entidad desde que inició la aplicación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaBusquedasRs {
+    private String tipo; // Nombre de la entidad
+    private Long aciertos; // Búsquedas resueltas con una entidad guardada
+    private Long aciertosAusentes; // Búsquedas de IDs que se sabía que no existen
+    private Long fallos; // Búsquedas que tuvieron que ir a la base de datos
+    private Long expulsiones; // Entradas descartadas por exceder el peso máximo
+    private Long entradas; // Entradas guardadas actualmente
+    private Long pesoBytes; // Peso de las entradas guardadas
+    private Double tasaAciertos; // (aciertos + aciertosAusentes) / búsquedas, null si aún no hay búsquedas
+}
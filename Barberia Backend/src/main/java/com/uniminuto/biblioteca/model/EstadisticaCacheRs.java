@@ -0,0 +1,19 @@
+package com.uniminuto.biblioteca.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta con las estadísticas de una región de la caché de segundo nivel desde que inició la aplicación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaCacheRs {
+    private String region; // Nombre de la entidad cacheada
+    private Long aciertos; // Lecturas resueltas desde la caché
+    private Long fallos; // Lecturas que tuvieron que ir a la base de datos
+    private Long escrituras; // Entradas agregadas o reemplazadas
+    private Double tasaAciertos; // aciertos / (aciertos + fallos), null si aún no hay lecturas
+}
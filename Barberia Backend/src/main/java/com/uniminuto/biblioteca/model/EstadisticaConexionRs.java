@@ -0,0 +1,19 @@
+package com.uniminuto.biblioteca.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta con el tiempo que un endpoint retuvo conexiones del pool.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaConexionRs {
+    private String endpoint; // Método HTTP y patrón de la ruta, p. ej. "GET /cita/{idCita}"
+    private Long conexiones; // Conexiones pedidas al pool
+    private Long retencionTotalMs; // Suma del tiempo entre pedir y devolver cada conexión
+    private Long retencionPromedioMs;
+    private Long retencionMaximaMs;
+}
@@ -0,0 +1,16 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.LocalDate;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de solicitud para registrar un día festivo (cierre) de una sede.
+ */
+@Data
+@NoArgsConstructor
+public class FestivoRq {
+    private Integer idSede;
+    private LocalDate fecha;
+    private String descripcion;
+}
@@ -0,0 +1,29 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección plana de una cita con los campos que necesita una vista de calendario.
+ * Se obtiene con una sola consulta por rango, sin cargar las entidades relacionadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaAgenda {
+    private Integer idCita;
+    private LocalDate fecha;
+    private LocalTime hora;
+    private Integer idBarbero;
+    private String nombreBarbero;
+    private String apellidoBarbero;
+    private Integer idCliente;
+    private String nombreCliente;
+    private String apellidoCliente;
+    private Integer idServicio;
+    private String nombreServicio;
+    private Integer duracionMinutos;
+}
@@ -0,0 +1,33 @@
+package com.uniminuto.biblioteca.model;
+
+/**
+ * Formatos disponibles para las exportaciones de citas y pagos.
+ */
+public enum FormatoExportacion {
+
+    /**
+     * Un objeto JSON por línea.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * Valores separados por comas con una fila de encabezados.
+     */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String tipoContenido;
+    private final String extension;
+
+    FormatoExportacion(String tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
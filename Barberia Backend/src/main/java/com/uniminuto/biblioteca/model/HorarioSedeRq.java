@@ -0,0 +1,17 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de solicitud para definir el horario de apertura de una sede en un día de la semana.
+ */
+@Data
+@NoArgsConstructor
+public class HorarioSedeRq {
+    private DayOfWeek diaSemana; // MONDAY, TUESDAY, ...
+    private LocalTime horaApertura;
+    private LocalTime horaCierre;
+}
@@ -0,0 +1,19 @@
+package com.uniminuto.biblioteca.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta con el resultado de una importación masiva de clientes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacionClientesRs {
+    private Long filasLeidas; // Sin contar la fila de encabezados
+    private Long clientesCreados;
+    private Long filasConError;
+    private List<ErrorImportacionRs> errores;
+}
@@ -0,0 +1,19 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta con la capacidad libre de un día, sumada sobre los barberos consultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcupacionDiaRs {
+    private LocalDate fecha;
+    private Integer franjasLibres; // Franjas de 15 minutos laborables y sin cita
+    private Integer franjasTotales; // Franjas de 15 minutos laborables
+    private Boolean completo; // true si no queda ninguna franja libre
+}
@@ -0,0 +1,18 @@
+package com.uniminuto.biblioteca.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de un listado paginado por cursor.
+ * @param <T> Tipo de los elementos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaRs<T> {
+    private List<T> elementos;
+    private String siguienteCursor; // null si es la última página
+}
@@ -0,0 +1,34 @@
+package com.uniminuto.biblioteca.model;
+
+import com.uniminuto.biblioteca.entity.Pago;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección plana de un pago y de la cita que paga, para los listados y búsquedas.
+ * Se obtiene con una sola consulta que une la cita con su cliente, barbero y servicio, sin cargar entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PagoResumen {
+    private Integer idPago;
+    private BigDecimal monto;
+    private LocalDate fechaPago;
+    private Pago.MetodoPago metodoPago;
+    private Integer idCita;
+    private LocalDate fechaCita;
+    private LocalTime horaCita;
+    private Integer idCliente;
+    private String nombreCliente;
+    private String apellidoCliente;
+    private Integer idBarbero;
+    private String nombreBarbero;
+    private String apellidoBarbero;
+    private Integer idServicio;
+    private String nombreServicio;
+}
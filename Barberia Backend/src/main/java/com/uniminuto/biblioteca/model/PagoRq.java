@@ -13,6 +13,7 @@ import com.uniminuto.biblioteca.entity.Pago.MetodoPago; // Importar el enum Meto
 @NoArgsConstructor
 public class PagoRq {
     private Integer idPago; // Para actualizaciones
+    private Long version; // Para actualizaciones (opcional): versión leída; si ya cambió se responde 409
     private BigDecimal monto;
     private LocalDate fechaPago;
     private MetodoPago metodoPago; // Usar el enum directamente
@@ -0,0 +1,16 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.LocalDate;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de solicitud para reasignar las citas de un barbero ausente a otros barberos de su sede.
+ */
+@Data
+@NoArgsConstructor
+public class ReasignacionRq {
+    private Integer idBarbero; // Barbero ausente
+    private LocalDate desde;
+    private LocalDate hasta;
+}
@@ -0,0 +1,20 @@
+package com.uniminuto.biblioteca.model;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta con el resultado de reasignar las citas de un barbero ausente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReasignacionRs {
+    private Integer citasAfectadas; // Citas futuras del barbero en el rango
+    private Integer citasReasignadas;
+    private Map<Integer, Integer> barberoPorCita; // ID de cita -> ID del nuevo barbero
+    private List<Integer> citasSinUbicar; // Siguen asignadas al barbero ausente
+}
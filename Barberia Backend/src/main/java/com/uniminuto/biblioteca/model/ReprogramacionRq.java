@@ -0,0 +1,17 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de solicitud para mover una cita a otra fecha u hora.
+ * Los campos omitidos conservan su valor actual.
+ */
+@Data
+@NoArgsConstructor
+public class ReprogramacionRq {
+    private LocalDate fecha;
+    private LocalTime hora;
+}
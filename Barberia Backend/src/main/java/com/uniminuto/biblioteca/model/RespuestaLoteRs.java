@@ -0,0 +1,22 @@
+package com.uniminuto.biblioteca.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de respuesta de una consulta dentro de un lote, con lo que habría respondido el endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RespuestaLoteRs {
+    private String id;
+    private Integer estado; // Código HTTP de la consulta
+    private Map<String, String> cabeceras; // Cabeceras de la respuesta, p. ej. X-Siguiente-Cursor y ETag
+    @JsonRawValue
+    private String cuerpo; // JSON devuelto por el endpoint, sin volver a serializar; null si no devolvió JSON
+    private String error; // Mensaje de error si la consulta falló
+}
@@ -11,7 +11,9 @@ import java.math.BigDecimal; // Importar para manejar valores monetarios con pre
 @NoArgsConstructor
 public class ServicioRq {
     private Integer idServicio; // Para actualizaciones
+    private Long version; // Para actualizaciones (opcional): versión leída; si ya cambió se responde 409
     private String nombreServicio;
     private String descripcion;
     private BigDecimal precio;
+    private Integer duracionMinutos; // Opcional, por defecto 30 minutos
 }
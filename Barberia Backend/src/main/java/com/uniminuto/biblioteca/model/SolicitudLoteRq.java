@@ -0,0 +1,16 @@
+package com.uniminuto.biblioteca.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de solicitud de una consulta dentro de un lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudLoteRq {
+    private String id; // Identificador elegido por el cliente para ubicar la respuesta; por defecto, la posición
+    private String ruta; // Ruta GET del API con sus parámetros, p. ej. "/cliente/listar?limit=500"
+}
@@ -0,0 +1,17 @@
+package com.uniminuto.biblioteca.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Objeto de solicitud para definir un turno semanal de un barbero.
+ */
+@Data
+@NoArgsConstructor
+public class TurnoRq {
+    private DayOfWeek diaSemana; // MONDAY, TUESDAY, ...
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+}
@@ -0,0 +1,31 @@
+package com.uniminuto.biblioteca.model;
+
+import com.uniminuto.biblioteca.entity.Servicio;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección con lo mínimo necesario para mover o validar una cita sin cargar sus entidades relacionadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UbicacionCita {
+    private Integer idCita;
+    private Integer idBarbero;
+    private Integer idSede;
+    private LocalDate fecha;
+    private LocalTime hora;
+    private Integer duracionMinutos;
+
+    /**
+     * Duración del servicio de la cita, aplicando el valor por defecto si no está definida.
+     * @return Duración en minutos.
+     */
+    public int duracionEfectivaMinutos() {
+        return duracionMinutos != null && duracionMinutos > 0 ? duracionMinutos : Servicio.DURACION_POR_DEFECTO_MINUTOS;
+    }
+}
@@ -1,9 +1,14 @@
 package com.uniminuto.biblioteca.repository;
 
 import com.uniminuto.biblioteca.entity.Barbero;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -38,8 +43,78 @@ public interface BarberoRepository extends JpaRepository<Barbero, Integer> {
     boolean existsByNombreAndApellido(String nombre, String apellido);
 
     /**
-     * Lista todos los barberos ordenados por apellido y luego por nombre.
-     * @return Lista de barberos ordenados.
+     * Primera página de barberos ordenados por apellido, nombre e ID. La sede se trae en la misma consulta.
+     * @param pagina Tamaño de página.
+     * @return Barberos de la página.
      */
-    List<Barbero> findAllByOrderByApellidoAscNombreAsc();
+    @Query("SELECT b FROM Barbero b JOIN FETCH b.sede ORDER BY b.apellido, b.nombre, b.idBarbero")
+    List<Barbero> buscarPagina(Pageable pagina);
+
+    /**
+     * Página de barberos posteriores al cursor (apellido, nombre, ID).
+     * @param apellido Apellido del último barbero de la página anterior.
+     * @param nombre Nombre del último barbero de la página anterior.
+     * @param idBarbero ID del último barbero de la página anterior.
+     * @param pagina Tamaño de página.
+     * @return Barberos de la página.
+     */
+    @Query("SELECT b FROM Barbero b JOIN FETCH b.sede WHERE b.apellido >= :apellido "
+            + "AND (b.apellido > :apellido OR b.nombre > :nombre OR (b.nombre = :nombre AND b.idBarbero > :idBarbero)) "
+            + "ORDER BY b.apellido, b.nombre, b.idBarbero")
+    List<Barbero> buscarPaginaDespues(@Param("apellido") String apellido, @Param("nombre") String nombre,
+            @Param("idBarbero") Integer idBarbero, Pageable pagina);
+
+    /**
+     * Primera página de los barberos de una sede, ordenados por apellido, nombre e ID.
+     * @param idSede ID de la sede.
+     * @param pagina Tamaño de página.
+     * @return Barberos de la página.
+     */
+    @Query("SELECT b FROM Barbero b JOIN FETCH b.sede WHERE b.sede.idSede = :idSede ORDER BY b.apellido, b.nombre, b.idBarbero")
+    List<Barbero> buscarPaginaPorSede(@Param("idSede") Integer idSede, Pageable pagina);
+
+    /**
+     * Página de los barberos de una sede posteriores al cursor (apellido, nombre, ID).
+     * @param idSede ID de la sede.
+     * @param apellido Apellido del último barbero de la página anterior.
+     * @param nombre Nombre del último barbero de la página anterior.
+     * @param idBarbero ID del último barbero de la página anterior.
+     * @param pagina Tamaño de página.
+     * @return Barberos de la página.
+     */
+    @Query("SELECT b FROM Barbero b JOIN FETCH b.sede WHERE b.sede.idSede = :idSede AND b.apellido >= :apellido "
+            + "AND (b.apellido > :apellido OR b.nombre > :nombre OR (b.nombre = :nombre AND b.idBarbero > :idBarbero)) "
+            + "ORDER BY b.apellido, b.nombre, b.idBarbero")
+    List<Barbero> buscarPaginaPorSedeDespues(@Param("idSede") Integer idSede, @Param("apellido") String apellido,
+            @Param("nombre") String nombre, @Param("idBarbero") Integer idBarbero, Pageable pagina);
+
+    /**
+     * Verifica si existe el barbero con el ID indicado. A diferencia de existsById, que siempre consulta
+     * la base de datos, pasa por la caché de segundo nivel.
+     * @param idBarbero ID del barbero.
+     * @return true si existe, false en caso contrario.
+     */
+    default boolean existe(Integer idBarbero) {
+        return findById(idBarbero).isPresent();
+    }
+
+    /**
+     * Elimina el barbero con una sola sentencia, sin leerlo antes.
+     * @param idBarbero ID del barbero.
+     * @return Número de filas eliminadas (0 si no existe).
+     */
+    @Modifying
+    @Query("DELETE FROM Barbero b WHERE b.idBarbero = :idBarbero")
+    int eliminarPorId(@Param("idBarbero") Integer idBarbero);
+
+    /**
+     * Bloquea las filas de los barberos hasta el final de la transacción (SELECT ... FOR UPDATE), en orden de
+     * ID para que dos operaciones sobre los mismos barberos no se bloqueen entre sí. Serializa las reservas
+     * de un barbero entre todas las instancias de la aplicación.
+     * @param idsBarbero IDs de los barberos.
+     * @return IDs de los barberos existentes.
+     */
+    @Query(value = "SELECT id_barbero FROM barbero WHERE id_barbero IN :idsBarbero ORDER BY id_barbero FOR UPDATE",
+            nativeQuery = true)
+    List<Integer> bloquearFilas(@Param("idsBarbero") Collection<Integer> idsBarbero);
 }
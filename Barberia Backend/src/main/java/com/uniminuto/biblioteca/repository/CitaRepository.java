@@ -1,11 +1,26 @@
 package com.uniminuto.biblioteca.repository; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.model.CitaResumen;
+import com.uniminuto.biblioteca.model.FilaAgenda;
+import com.uniminuto.biblioteca.model.UbicacionCita;
+import java.sql.Date;
+import java.sql.Time;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,6 +30,25 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CitaRepository extends JpaRepository<Cita, Integer> {
 
+    /**
+     * Consulta base de {@link CitaResumen}: la cita con su cliente, barbero y servicio en una sola consulta.
+     */
+    String SELECT_RESUMEN = "SELECT new com.uniminuto.biblioteca.model.CitaResumen(c.idCita, c.fecha, c.hora, cl.idCliente, cl.nombre, cl.apellido, "
+            + "b.idBarbero, b.nombre, b.apellido, b.sede.idSede, s.idServicio, s.nombreServicio, s.precio, s.duracionMinutos, c.estado) "
+            + "FROM Cita c JOIN c.cliente cl JOIN c.barbero b JOIN c.servicio s ";
+
+    /**
+     * Condición de las citas que ocupan horario: las canceladas se conservan pero no cuentan en la agenda.
+     */
+    String VIGENTE = "c.estado <> 'CANCELADA' ";
+
+    /**
+     * Consulta base de {@link UbicacionCita}: barbero, sede, fecha, hora y duración de las citas vigentes.
+     * Las consultas que la usan agregan sus condiciones con AND.
+     */
+    String SELECT_UBICACION = "SELECT new com.uniminuto.biblioteca.model.UbicacionCita(c.idCita, b.idBarbero, b.sede.idSede, c.fecha, c.hora, s.duracionMinutos) "
+            + "FROM Cita c JOIN c.barbero b JOIN c.servicio s WHERE " + VIGENTE;
+
     /**
      * Busca citas por fecha y barbero.
      * @param fecha Fecha de la cita.
@@ -23,6 +57,89 @@ public interface CitaRepository extends JpaRepository<Cita, Integer> {
      */
     List<Cita> findByFechaAndBarbero_IdBarberoOrderByHoraAsc(LocalDate fecha, Integer idBarbero);
 
+    /**
+     * Resumen de las citas vigentes de un barbero en una fecha.
+     * @param fecha Fecha de las citas.
+     * @param idBarbero ID del barbero.
+     * @return Citas ordenadas por hora.
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.fecha = :fecha AND b.idBarbero = :idBarbero AND " + VIGENTE + "ORDER BY c.hora")
+    List<CitaResumen> buscarResumenesPorFechaYBarbero(@Param("fecha") LocalDate fecha, @Param("idBarbero") Integer idBarbero);
+
+    /**
+     * Ubicación de las citas de un barbero en una fecha.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha de las citas.
+     * @return Ubicaciones ordenadas por hora.
+     */
+    @Query(SELECT_UBICACION + "AND b.idBarbero = :idBarbero AND c.fecha = :fecha ORDER BY c.hora")
+    List<UbicacionCita> buscarUbicacionesDia(@Param("idBarbero") Integer idBarbero, @Param("fecha") LocalDate fecha);
+
+    /**
+     * Ubicación de las citas de todos los barberos de una sede en una fecha.
+     * @param idSede ID de la sede.
+     * @param fecha Fecha de las citas.
+     * @return Ubicaciones ordenadas por hora.
+     */
+    @Query(SELECT_UBICACION + "AND b.sede.idSede = :idSede AND c.fecha = :fecha ORDER BY c.hora")
+    List<UbicacionCita> buscarUbicacionesSedeDia(@Param("idSede") Integer idSede, @Param("fecha") LocalDate fecha);
+
+    /**
+     * Ubicación de las citas de varios barberos en varias fechas con una sola consulta.
+     * @param idsBarbero IDs de los barberos.
+     * @param fechas Fechas a consultar.
+     * @return Ubicaciones ordenadas por fecha y hora.
+     */
+    @Query(SELECT_UBICACION + "AND b.idBarbero IN :idsBarbero AND c.fecha IN :fechas ORDER BY c.fecha, c.hora")
+    List<UbicacionCita> buscarUbicacionesEnFechas(@Param("idsBarbero") Collection<Integer> idsBarbero,
+            @Param("fechas") Collection<LocalDate> fechas);
+
+    /**
+     * Ubicación de las citas de varios barberos en un rango de fechas con una sola consulta.
+     * @param idsBarbero IDs de los barberos.
+     * @param desde Fecha inicial (inclusiva).
+     * @param hasta Fecha final (inclusiva).
+     * @return Ubicaciones ordenadas por fecha y hora.
+     */
+    @Query(SELECT_UBICACION + "AND b.idBarbero IN :idsBarbero AND c.fecha BETWEEN :desde AND :hasta ORDER BY c.fecha, c.hora")
+    List<UbicacionCita> buscarUbicacionesRango(@Param("idsBarbero") Collection<Integer> idsBarbero,
+            @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Ubicación de las citas vigentes de varios barberos en varias fechas, leída con bloqueo (SELECT ... FOR UPDATE).
+     * Una lectura con bloqueo ve la última versión confirmada de las filas aunque la transacción haya abierto
+     * antes su instantánea, y las retiene hasta el final. La duración se lee con una subconsulta para no
+     * bloquear las filas de servicio, que comparten todos los barberos.
+     * @param idsBarbero IDs de los barberos.
+     * @param fechas Fechas a consultar.
+     * @return Filas [id_cita, id_barbero, id_sede, fecha, hora, duracion_minutos] ordenadas por fecha y hora.
+     */
+    @Query(value = "SELECT c.id_cita, c.id_barbero, b.id_sede, c.fecha, c.hora, "
+            + "(SELECT s.duracion_minutos FROM servicio s WHERE s.id_servicio = c.id_servicio) "
+            + "FROM cita c JOIN barbero b ON b.id_barbero = c.id_barbero "
+            + "WHERE c.id_barbero IN :idsBarbero AND c.fecha IN :fechas AND " + VIGENTE
+            + "ORDER BY c.fecha, c.hora FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> bloquearFilasUbicacion(@Param("idsBarbero") Collection<Integer> idsBarbero,
+            @Param("fechas") Collection<LocalDate> fechas);
+
+    /**
+     * Ubicación de las citas de varios barberos en varias fechas, leída con bloqueo. Ver
+     * {@link #bloquearFilasUbicacion(Collection, Collection)}.
+     * @param idsBarbero IDs de los barberos.
+     * @param fechas Fechas a consultar.
+     * @return Ubicaciones ordenadas por fecha y hora.
+     */
+    default List<UbicacionCita> bloquearUbicacionesEnFechas(Collection<Integer> idsBarbero, Collection<LocalDate> fechas) {
+        List<UbicacionCita> ubicaciones = new ArrayList<>();
+        for (Object[] fila : bloquearFilasUbicacion(idsBarbero, fechas)) {
+            ubicaciones.add(new UbicacionCita(((Number) fila[0]).intValue(), ((Number) fila[1]).intValue(),
+                    ((Number) fila[2]).intValue(), ((Date) fila[3]).toLocalDate(), ((Time) fila[4]).toLocalTime(),
+                    fila[5] != null ? ((Number) fila[5]).intValue() : null));
+        }
+        return ubicaciones;
+    }
+
     /**
      * Busca una cita específica por fecha, hora y barbero.
      * Útil para validar la disponibilidad del barbero.
@@ -34,15 +151,158 @@ public interface CitaRepository extends JpaRepository<Cita, Integer> {
     Optional<Cita> findByFechaAndHoraAndBarbero_IdBarbero(LocalDate fecha, LocalTime hora, Integer idBarbero);
 
     /**
-     * Lista todas las citas ordenadas por fecha y hora.
-     * @return Lista de citas ordenadas.
+     * Primera página de citas ordenadas por fecha, hora e ID.
+     * @param pagina Tamaño de página.
+     * @return Resumen de las citas de la página.
+     */
+    @Query(SELECT_RESUMEN + "ORDER BY c.fecha, c.hora, c.idCita")
+    List<CitaResumen> buscarPagina(Pageable pagina);
+
+    /**
+     * Página de citas posteriores al cursor (fecha, hora, ID), en el mismo orden que {@link #buscarPagina}.
+     * El primer término acota el recorrido del índice a partir de la fecha del cursor.
+     * @param fecha Fecha de la última cita de la página anterior.
+     * @param hora Hora de la última cita de la página anterior.
+     * @param idCita ID de la última cita de la página anterior.
+     * @param pagina Tamaño de página.
+     * @return Resumen de las citas de la página.
      */
-    List<Cita> findAllByOrderByFechaAscHoraAsc();
+    @Query(SELECT_RESUMEN + "WHERE c.fecha >= :fecha AND (c.fecha > :fecha OR c.hora > :hora "
+            + "OR (c.hora = :hora AND c.idCita > :idCita)) ORDER BY c.fecha, c.hora, c.idCita")
+    List<CitaResumen> buscarPaginaDespues(@Param("fecha") LocalDate fecha, @Param("hora") LocalTime hora,
+            @Param("idCita") Integer idCita, Pageable pagina);
 
     /**
-     * Busca citas por cliente.
+     * Primera página de las citas de un cliente, de la más reciente a la más antigua.
      * @param idCliente ID del cliente.
-     * @return Lista de citas del cliente.
+     * @param pagina Tamaño de página.
+     * @return Resumen de las citas de la página.
+     */
+    @Query(SELECT_RESUMEN + "WHERE cl.idCliente = :idCliente ORDER BY c.fecha DESC, c.hora DESC, c.idCita DESC")
+    List<CitaResumen> buscarPaginaPorCliente(@Param("idCliente") Integer idCliente, Pageable pagina);
+
+    /**
+     * Página de las citas de un cliente anteriores al cursor (fecha, hora, ID), en el mismo orden que
+     * {@link #buscarPaginaPorCliente}.
+     * @param idCliente ID del cliente.
+     * @param fecha Fecha de la última cita de la página anterior.
+     * @param hora Hora de la última cita de la página anterior.
+     * @param idCita ID de la última cita de la página anterior.
+     * @param pagina Tamaño de página.
+     * @return Resumen de las citas de la página.
+     */
+    @Query(SELECT_RESUMEN + "WHERE cl.idCliente = :idCliente AND c.fecha <= :fecha "
+            + "AND (c.fecha < :fecha OR c.hora < :hora OR (c.hora = :hora AND c.idCita < :idCita)) "
+            + "ORDER BY c.fecha DESC, c.hora DESC, c.idCita DESC")
+    List<CitaResumen> buscarPaginaPorClienteAntes(@Param("idCliente") Integer idCliente, @Param("fecha") LocalDate fecha,
+            @Param("hora") LocalTime hora, @Param("idCita") Integer idCita, Pageable pagina);
+
+    /**
+     * Obtiene barbero, sede, fecha, hora y duración de una cita con una sola consulta.
+     * @param idCita ID de la cita.
+     * @return Optional con la ubicación de la cita si existe y no está cancelada.
+     */
+    @Query(SELECT_UBICACION + "AND c.idCita = :idCita")
+    Optional<UbicacionCita> buscarUbicacion(@Param("idCita") Integer idCita);
+
+    /**
+     * Obtiene la ubicación de las citas de un barbero en un rango de fechas con una sola consulta.
+     * @param idBarbero ID del barbero.
+     * @param desde Fecha inicial (inclusiva).
+     * @param hasta Fecha final (inclusiva).
+     * @return Ubicaciones ordenadas por fecha y hora.
+     */
+    @Query(SELECT_UBICACION + "AND b.idBarbero = :idBarbero AND c.fecha BETWEEN :desde AND :hasta ORDER BY c.fecha, c.hora")
+    List<UbicacionCita> buscarUbicacionesPorBarbero(@Param("idBarbero") Integer idBarbero,
+            @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Obtiene las citas de un barbero en un rango de fechas con los campos que necesita el calendario.
+     * @param idBarbero ID del barbero.
+     * @param desde Fecha inicial (inclusiva).
+     * @param hasta Fecha final (inclusiva).
+     * @return Filas ordenadas por fecha y hora.
+     */
+    @Query("SELECT new com.uniminuto.biblioteca.model.FilaAgenda(c.idCita, c.fecha, c.hora, b.idBarbero, b.nombre, b.apellido, "
+            + "cl.idCliente, cl.nombre, cl.apellido, s.idServicio, s.nombreServicio, s.duracionMinutos) "
+            + "FROM Cita c JOIN c.barbero b JOIN c.cliente cl JOIN c.servicio s "
+            + "WHERE b.idBarbero = :idBarbero AND c.fecha BETWEEN :desde AND :hasta AND " + VIGENTE
+            + "ORDER BY c.fecha, c.hora")
+    List<FilaAgenda> buscarAgendaBarbero(@Param("idBarbero") Integer idBarbero,
+            @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Obtiene las citas de todos los barberos de una sede en un rango de fechas con los campos que necesita el calendario.
+     * @param idSede ID de la sede.
+     * @param desde Fecha inicial (inclusiva).
+     * @param hasta Fecha final (inclusiva).
+     * @return Filas ordenadas por fecha, barbero y hora.
+     */
+    @Query("SELECT new com.uniminuto.biblioteca.model.FilaAgenda(c.idCita, c.fecha, c.hora, b.idBarbero, b.nombre, b.apellido, "
+            + "cl.idCliente, cl.nombre, cl.apellido, s.idServicio, s.nombreServicio, s.duracionMinutos) "
+            + "FROM Cita c JOIN c.barbero b JOIN c.cliente cl JOIN c.servicio s "
+            + "WHERE b.sede.idSede = :idSede AND c.fecha BETWEEN :desde AND :hasta AND " + VIGENTE
+            + "ORDER BY c.fecha, b.idBarbero, c.hora")
+    List<FilaAgenda> buscarAgendaSede(@Param("idSede") Integer idSede,
+            @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Mueve una cita solo si sigue vigente en la fecha y hora leídas (nadie la modificó ni la canceló entretanto).
+     * @param idCita ID de la cita.
+     * @param idBarbero ID del barbero asignado.
+     * @param fechaActual Fecha leída.
+     * @param horaActual Hora leída.
+     * @param nuevaFecha Nueva fecha.
+     * @param nuevaHora Nueva hora.
+     * @return Número de filas modificadas (0 o 1).
+     */
+    @Modifying
+    @Query("UPDATE Cita c SET c.fecha = :nuevaFecha, c.hora = :nuevaHora, c.version = c.version + 1 "
+            + "WHERE c.idCita = :idCita AND c.barbero.idBarbero = :idBarbero "
+            + "AND c.fecha = :fechaActual AND c.hora = :horaActual AND " + VIGENTE)
+    int reprogramar(@Param("idCita") Integer idCita, @Param("idBarbero") Integer idBarbero,
+            @Param("fechaActual") LocalDate fechaActual, @Param("horaActual") LocalTime horaActual,
+            @Param("nuevaFecha") LocalDate nuevaFecha, @Param("nuevaHora") LocalTime nuevaHora);
+
+    /**
+     * Marca una cita como cancelada solo si sigue vigente, no es pasada y no tiene pagos registrados.
+     * @param idCita ID de la cita.
+     * @param hoy Fecha actual.
+     * @return Número de filas modificadas (0 o 1).
+     */
+    @Modifying
+    @Query("UPDATE Cita c SET c.estado = 'CANCELADA', c.version = c.version + 1 "
+            + "WHERE c.idCita = :idCita AND " + VIGENTE + "AND c.fecha >= :hoy "
+            + "AND NOT EXISTS (SELECT p.idPago FROM Pago p WHERE p.cita.idCita = :idCita)")
+    int cancelar(@Param("idCita") Integer idCita, @Param("hoy") LocalDate hoy);
+
+    /**
+     * Resumen de las citas de un rango de fechas para exportación, leído con un cursor de solo avance
+     * de 500 filas por viaje. Debe consumirse dentro de una transacción y cerrarse al terminar.
+     * @param desde Fecha inicial.
+     * @param hasta Fecha final (inclusiva).
+     * @return Citas ordenadas por fecha, hora e ID.
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.fecha BETWEEN :desde AND :hasta ORDER BY c.fecha, c.hora, c.idCita")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<CitaResumen> exportarPorRango(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Elimina la cita con una sola sentencia, sin leerla antes.
+     * @param idCita ID de la cita.
+     * @return Número de filas eliminadas (0 si no existe).
+     */
+    @Modifying
+    @Query("DELETE FROM Cita c WHERE c.idCita = :idCita")
+    int eliminarPorId(@Param("idCita") Integer idCita);
+
+    /**
+     * Busca una cita con su cliente, barbero, sede y servicio ya cargados, para que la respuesta se
+     * serialice sin volver a la base de datos.
+     * @param idCita ID de la cita.
+     * @return Optional que contiene la cita si se encuentra.
      */
-    List<Cita> findByCliente_IdClienteOrderByFechaDescHoraDesc(Integer idCliente);
+    @EntityGraph(attributePaths = {"cliente", "barbero", "barbero.sede", "servicio"})
+    @Query("SELECT c FROM Cita c WHERE c.idCita = :idCita")
+    Optional<Cita> buscarDetalle(@Param("idCita") Integer idCita);
 }
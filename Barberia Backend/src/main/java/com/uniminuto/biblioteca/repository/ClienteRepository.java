@@ -1,9 +1,15 @@
 package com.uniminuto.biblioteca.repository; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.entity.Cliente;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -27,6 +33,14 @@ public interface ClienteRepository extends JpaRepository<Cliente, Integer> {
      */
     boolean existsByTelefono(String telefono);
 
+    /**
+     * Teléfonos de la lista que ya pertenecen a algún cliente (una sola consulta para todo el bloque).
+     * @param telefonos Teléfonos a verificar.
+     * @return Teléfonos ya registrados.
+     */
+    @Query("SELECT c.telefono FROM Cliente c WHERE c.telefono IN :telefonos")
+    List<String> buscarTelefonosExistentes(@Param("telefonos") Collection<String> telefonos);
+
     /**
      * Busca clientes por nombre y apellido.
      * @param nombre Nombre del cliente.
@@ -36,8 +50,31 @@ public interface ClienteRepository extends JpaRepository<Cliente, Integer> {
     List<Cliente> findByNombreAndApellido(String nombre, String apellido);
 
     /**
-     * Lista todos los clientes ordenados por fecha de registro de forma descendente.
-     * @return Lista de clientes ordenados.
+     * Primera página de clientes ordenados por fecha de registro e ID.
+     * @param pagina Tamaño de página.
+     * @return Clientes de la página.
+     */
+    @Query("SELECT c FROM Cliente c ORDER BY c.fechaRegistro, c.idCliente")
+    List<Cliente> buscarPagina(Pageable pagina);
+
+    /**
+     * Página de clientes posteriores al cursor (fecha de registro, ID).
+     * @param fechaRegistro Fecha de registro del último cliente de la página anterior.
+     * @param idCliente ID del último cliente de la página anterior.
+     * @param pagina Tamaño de página.
+     * @return Clientes de la página.
+     */
+    @Query("SELECT c FROM Cliente c WHERE c.fechaRegistro >= :fechaRegistro "
+            + "AND (c.fechaRegistro > :fechaRegistro OR c.idCliente > :idCliente) ORDER BY c.fechaRegistro, c.idCliente")
+    List<Cliente> buscarPaginaDespues(@Param("fechaRegistro") LocalDate fechaRegistro,
+            @Param("idCliente") Integer idCliente, Pageable pagina);
+
+    /**
+     * Elimina el cliente con una sola sentencia, sin leerlo antes.
+     * @param idCliente ID del cliente.
+     * @return Número de filas eliminadas (0 si no existe).
      */
-    List<Cliente> findAllByOrderByFechaRegistroAsc();
+    @Modifying
+    @Query("DELETE FROM Cliente c WHERE c.idCliente = :idCliente")
+    int eliminarPorId(@Param("idCliente") Integer idCliente);
 }
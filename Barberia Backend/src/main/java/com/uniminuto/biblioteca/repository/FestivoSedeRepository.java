@@ -0,0 +1,30 @@
+package com.uniminuto.biblioteca.repository;
+
+import com.uniminuto.biblioteca.entity.FestivoSede;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para la entidad FestivoSede.
+ * Proporciona métodos para operaciones CRUD y consultas personalizadas.
+ */
+@Repository
+public interface FestivoSedeRepository extends JpaRepository<FestivoSede, Integer> {
+
+    /**
+     * Busca los festivos de una sede.
+     * @param idSede ID de la sede.
+     * @return Lista de festivos ordenados por fecha.
+     */
+    List<FestivoSede> findBySede_IdSedeOrderByFechaAsc(Integer idSede);
+
+    /**
+     * Verifica si una sede ya tiene registrado un festivo en una fecha.
+     * @param idSede ID de la sede.
+     * @param fecha Fecha del festivo.
+     * @return true si existe, false en caso contrario.
+     */
+    boolean existsBySede_IdSedeAndFecha(Integer idSede, LocalDate fecha);
+}
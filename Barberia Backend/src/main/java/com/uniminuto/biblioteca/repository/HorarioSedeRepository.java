@@ -0,0 +1,33 @@
+package com.uniminuto.biblioteca.repository;
+
+import com.uniminuto.biblioteca.entity.HorarioSede;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para la entidad HorarioSede.
+ * Proporciona métodos para operaciones CRUD y consultas personalizadas.
+ */
+@Repository
+public interface HorarioSedeRepository extends JpaRepository<HorarioSede, Integer> {
+
+    /**
+     * Busca el horario semanal de una sede.
+     * @param idSede ID de la sede.
+     * @return Lista de horarios ordenados por día y hora de apertura.
+     */
+    List<HorarioSede> findBySede_IdSedeOrderByDiaSemanaAscHoraAperturaAsc(Integer idSede);
+
+    /**
+     * Elimina el horario semanal de una sede con una sola sentencia.
+     * @param idSede ID de la sede.
+     * @return Número de horarios eliminados.
+     */
+    @Modifying
+    @Query("DELETE FROM HorarioSede h WHERE h.sede.idSede = :idSede")
+    int eliminarPorSede(@Param("idSede") Integer idSede);
+}
@@ -2,9 +2,19 @@ package com.uniminuto.biblioteca.repository; // Manteniendo el paquete base "bib
 
 import com.uniminuto.biblioteca.entity.Pago;
 import com.uniminuto.biblioteca.entity.Pago.MetodoPago;
+import com.uniminuto.biblioteca.model.PagoResumen;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,24 +25,102 @@ import org.springframework.stereotype.Repository;
 public interface PagoRepository extends JpaRepository<Pago, Integer> {
 
     /**
-     * Busca pagos asociados a una cita específica.
+     * Consulta base de {@link PagoResumen}: el pago con su cita, cliente, barbero y servicio en una sola consulta.
+     */
+    String SELECT_RESUMEN = "SELECT new com.uniminuto.biblioteca.model.PagoResumen(p.idPago, p.monto, p.fechaPago, p.metodoPago, c.idCita, c.fecha, c.hora, "
+            + "cl.idCliente, cl.nombre, cl.apellido, b.idBarbero, b.nombre, b.apellido, s.idServicio, s.nombreServicio) "
+            + "FROM Pago p JOIN p.cita c JOIN c.cliente cl JOIN c.barbero b JOIN c.servicio s ";
+
+    /**
+     * Resumen de los pagos asociados a una cita específica.
      * @param idCita ID de la cita.
-     * @return Lista de pagos para la cita.
+     * @return Lista de pagos para la cita, ordenados por fecha de pago e ID.
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.idCita = :idCita ORDER BY p.fechaPago, p.idPago")
+    List<PagoResumen> buscarResumenesPorCita(@Param("idCita") Integer idCita);
+
+    /**
+     * Primera página de pagos ordenados por fecha de pago e ID.
+     * @param pagina Tamaño de página.
+     * @return Resumen de los pagos de la página.
+     */
+    @Query(SELECT_RESUMEN + "ORDER BY p.fechaPago, p.idPago")
+    List<PagoResumen> buscarPagina(Pageable pagina);
+
+    /**
+     * Página de pagos posteriores al cursor (fecha de pago, ID).
+     * @param fecha Fecha de pago del último pago de la página anterior.
+     * @param idPago ID del último pago de la página anterior.
+     * @param pagina Tamaño de página.
+     * @return Resumen de los pagos de la página.
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.fechaPago >= :fecha AND (p.fechaPago > :fecha OR p.idPago > :idPago) "
+            + "ORDER BY p.fechaPago, p.idPago")
+    List<PagoResumen> buscarPaginaDespues(@Param("fecha") LocalDate fecha, @Param("idPago") Integer idPago, Pageable pagina);
+
+    /**
+     * Primera página de pagos de un método, ordenados por fecha de pago e ID.
+     * @param metodoPago Método de pago.
+     * @param pagina Tamaño de página.
+     * @return Resumen de los pagos de la página.
      */
-    List<Pago> findByCita_IdCita(Integer idCita);
+    @Query(SELECT_RESUMEN + "WHERE p.metodoPago = :metodoPago ORDER BY p.fechaPago, p.idPago")
+    List<PagoResumen> buscarPaginaPorMetodo(@Param("metodoPago") MetodoPago metodoPago, Pageable pagina);
 
     /**
-     * Busca pagos por método de pago.
+     * Página de pagos de un método posteriores al cursor (fecha de pago, ID).
      * @param metodoPago Método de pago.
-     * @return Lista de pagos que coinciden con el método.
+     * @param fecha Fecha de pago del último pago de la página anterior.
+     * @param idPago ID del último pago de la página anterior.
+     * @param pagina Tamaño de página.
+     * @return Resumen de los pagos de la página.
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.metodoPago = :metodoPago AND p.fechaPago >= :fecha "
+            + "AND (p.fechaPago > :fecha OR p.idPago > :idPago) ORDER BY p.fechaPago, p.idPago")
+    List<PagoResumen> buscarPaginaPorMetodoDespues(@Param("metodoPago") MetodoPago metodoPago, @Param("fecha") LocalDate fecha,
+            @Param("idPago") Integer idPago, Pageable pagina);
+
+    /**
+     * Página de pagos de un rango de fechas posteriores al cursor (fecha de pago, ID). Para la primera
+     * página el cursor es la fecha de inicio del rango con ID 0.
+     * @param fecha Fecha de pago del último pago de la página anterior.
+     * @param idPago ID del último pago de la página anterior.
+     * @param fechaFin Fecha final del rango (inclusiva).
+     * @param pagina Tamaño de página.
+     * @return Resumen de los pagos de la página.
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.fechaPago >= :fecha AND p.fechaPago <= :fechaFin "
+            + "AND (p.fechaPago > :fecha OR p.idPago > :idPago) ORDER BY p.fechaPago, p.idPago")
+    List<PagoResumen> buscarPaginaPorRango(@Param("fecha") LocalDate fecha, @Param("idPago") Integer idPago,
+            @Param("fechaFin") LocalDate fechaFin, Pageable pagina);
+
+    /**
+     * Resumen de los pagos de un rango de fechas para exportación, leído con un cursor de solo avance
+     * de 500 filas por viaje. Debe consumirse dentro de una transacción y cerrarse al terminar.
+     * @param fechaInicio Fecha inicial.
+     * @param fechaFin Fecha final (inclusiva).
+     * @return Pagos ordenados por fecha de pago e ID.
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.fechaPago BETWEEN :fechaInicio AND :fechaFin ORDER BY p.fechaPago, p.idPago")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<PagoResumen> exportarPorRango(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
+
+    /**
+     * Elimina el pago con una sola sentencia, sin leerlo antes.
+     * @param idPago ID del pago.
+     * @return Número de filas eliminadas (0 si no existe).
      */
-    List<Pago> findByMetodoPago(MetodoPago metodoPago);
+    @Modifying
+    @Query("DELETE FROM Pago p WHERE p.idPago = :idPago")
+    int eliminarPorId(@Param("idPago") Integer idPago);
 
     /**
-     * Busca pagos dentro de un rango de fechas.
-     * @param fechaInicio Fecha de inicio del rango.
-     * @param fechaFin Fecha de fin del rango.
-     * @return Lista de pagos dentro del rango de fechas.
+     * Busca un pago con su cita y las relaciones de la cita ya cargadas, para que la respuesta se
+     * serialice sin volver a la base de datos.
+     * @param idPago ID del pago.
+     * @return Optional que contiene el pago si se encuentra.
      */
-    List<Pago> findByFechaPagoBetween(LocalDate fechaInicio, LocalDate fechaFin);
+    @EntityGraph(attributePaths = {"cita", "cita.cliente", "cita.barbero", "cita.barbero.sede", "cita.servicio"})
+    @Query("SELECT p FROM Pago p WHERE p.idPago = :idPago")
+    Optional<Pago> buscarDetalle(@Param("idPago") Integer idPago);
 }
@@ -1,8 +1,13 @@
 package com.uniminuto.biblioteca.repository; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.entity.Sede;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -25,4 +30,31 @@ public interface SedeRepository extends JpaRepository<Sede, Integer> {
      * @return true si existe, false en caso contrario.
      */
     boolean existsByNombre(String nombre);
+
+    /**
+     * Página de sedes con ID mayor al indicado, ordenadas por ID.
+     * @param idSede ID de la última sede de la página anterior (0 para la primera página).
+     * @param pagina Tamaño de página.
+     * @return Sedes de la página.
+     */
+    List<Sede> findByIdSedeGreaterThanOrderByIdSedeAsc(Integer idSede, Pageable pagina);
+
+    /**
+     * Verifica si existe la sede con el ID indicado. A diferencia de existsById, que siempre consulta
+     * la base de datos, pasa por la caché de segundo nivel.
+     * @param idSede ID de la sede.
+     * @return true si existe, false en caso contrario.
+     */
+    default boolean existe(Integer idSede) {
+        return findById(idSede).isPresent();
+    }
+
+    /**
+     * Elimina la sede con una sola sentencia, sin leerla antes.
+     * @param idSede ID de la sede.
+     * @return Número de filas eliminadas (0 si no existe).
+     */
+    @Modifying
+    @Query("DELETE FROM Sede s WHERE s.idSede = :idSede")
+    int eliminarPorId(@Param("idSede") Integer idSede);
 }
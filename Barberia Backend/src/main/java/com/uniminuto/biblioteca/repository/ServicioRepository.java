@@ -3,7 +3,11 @@ package com.uniminuto.biblioteca.repository; // Manteniendo el paquete base "bib
 import com.uniminuto.biblioteca.entity.Servicio;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -27,12 +31,13 @@ public interface ServicioRepository extends JpaRepository<Servicio, Integer> {
      */
     boolean existsByNombreServicio(String nombreServicio);
 
-    // --- CAMBIO: Nuevo método para ordenar por ID ---
     /**
-     * Lista todos los servicios ordenados por ID de servicio de forma ascendente.
-     * @return Lista de servicios ordenados por ID.
+     * Página de servicios con ID mayor al indicado, ordenados por ID.
+     * @param idServicio ID del último servicio de la página anterior (0 para la primera página).
+     * @param pagina Tamaño de página.
+     * @return Servicios de la página.
      */
-    List<Servicio> findAllByOrderByIdServicioAsc();
+    List<Servicio> findByIdServicioGreaterThanOrderByIdServicioAsc(Integer idServicio, Pageable pagina);
 
     // Puedes comentar o eliminar el método anterior si ya no lo necesitas
     // /**
@@ -40,4 +45,23 @@ public interface ServicioRepository extends JpaRepository<Servicio, Integer> {
     //  * @return Lista de servicios ordenados.
     //  */
     // List<Servicio> findAllByOrderByNombreServicioAsc();
-}
\ No newline at end of file
+
+    /**
+     * Verifica si existe el servicio con el ID indicado. A diferencia de existsById, que siempre consulta
+     * la base de datos, pasa por la caché de segundo nivel.
+     * @param idServicio ID del servicio.
+     * @return true si existe, false en caso contrario.
+     */
+    default boolean existe(Integer idServicio) {
+        return findById(idServicio).isPresent();
+    }
+
+    /**
+     * Elimina el servicio con una sola sentencia, sin leerlo antes.
+     * @param idServicio ID del servicio.
+     * @return Número de filas eliminadas (0 si no existe).
+     */
+    @Modifying
+    @Query("DELETE FROM Servicio s WHERE s.idServicio = :idServicio")
+    int eliminarPorId(@Param("idServicio") Integer idServicio);
+}
@@ -0,0 +1,33 @@
+package com.uniminuto.biblioteca.repository;
+
+import com.uniminuto.biblioteca.entity.TurnoBarbero;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para la entidad TurnoBarbero.
+ * Proporciona métodos para operaciones CRUD y consultas personalizadas.
+ */
+@Repository
+public interface TurnoBarberoRepository extends JpaRepository<TurnoBarbero, Integer> {
+
+    /**
+     * Busca los turnos de un barbero.
+     * @param idBarbero ID del barbero.
+     * @return Lista de turnos ordenados por día y hora de inicio.
+     */
+    List<TurnoBarbero> findByBarbero_IdBarberoOrderByDiaSemanaAscHoraInicioAsc(Integer idBarbero);
+
+    /**
+     * Elimina todos los turnos de un barbero con una sola sentencia.
+     * @param idBarbero ID del barbero.
+     * @return Número de turnos eliminados.
+     */
+    @Modifying
+    @Query("DELETE FROM TurnoBarbero t WHERE t.barbero.idBarbero = :idBarbero")
+    int eliminarPorBarbero(@Param("idBarbero") Integer idBarbero);
+}
@@ -52,8 +52,9 @@ public class SecurityConfig {
                 "http://127.0.0.1:8080",
                 "http://127.0.0.1:4200"));
        
-        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*", "Authorization", "Content-Type"));
+        config.setExposedHeaders(List.of("ETag", "X-Siguiente-Cursor"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
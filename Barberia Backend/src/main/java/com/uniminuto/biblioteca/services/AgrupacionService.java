@@ -0,0 +1,23 @@
+package com.uniminuto.biblioteca.services;
+
+import com.uniminuto.biblioteca.model.EstadisticaAgrupacionRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.util.List;
+
+/**
+ * Interfaz para consultar cuántas lecturas simultáneas e idénticas se agruparon en una sola ejecución.
+ */
+public interface AgrupacionService {
+
+    /**
+     * Obtiene las llamadas ejecutadas y agrupadas de cada consulta.
+     * @return Estadísticas por consulta, de más a menos agrupadas.
+     */
+    List<EstadisticaAgrupacionRs> obtenerEstadisticas();
+
+    /**
+     * Descarta las estadísticas acumuladas, por ejemplo antes de una prueba de carga.
+     * @return Respuesta genérica de éxito.
+     */
+    RespuestaGenericaRs reiniciarEstadisticas();
+}
@@ -1,8 +1,11 @@
 package com.uniminuto.biblioteca.services;
 
 import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.TurnoBarbero;
 import com.uniminuto.biblioteca.model.BarberoRq;
+import com.uniminuto.biblioteca.model.PaginaRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.model.TurnoRq;
 import java.util.List;
 import org.apache.coyote.BadRequestException;
 
@@ -12,18 +15,23 @@ import org.apache.coyote.BadRequestException;
 public interface BarberoService {
 
     /**
-     * Obtiene el listado de todos los barberos.
-     * @return Lista de barberos.
+     * Obtiene una página del listado de barberos, ordenado por apellido, nombre e ID.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de barberos.
+     * @throws BadRequestException Si el cursor o el tamaño de página no son válidos.
      */
-    List<Barbero> listarBarberos();
+    PaginaRs<Barbero> listarBarberos(String after, Integer limit) throws BadRequestException;
 
     /**
      * Obtiene el listado de barberos por el ID de la sede.
      * @param idSede ID de la sede.
-     * @return Lista de barberos de la sede especificada.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de barberos de la sede especificada, ordenada por apellido, nombre e ID.
      * @throws BadRequestException Si la sede no existe o hay un error.
      */
-    List<Barbero> listarBarberosPorSede(Integer idSede) throws BadRequestException;
+    PaginaRs<Barbero> listarBarberosPorSede(Integer idSede, String after, Integer limit) throws BadRequestException;
 
     /**
      * Obtiene un barbero por su ID.
@@ -56,4 +64,21 @@ public interface BarberoService {
      * @throws BadRequestException Si el barbero no existe o no se puede eliminar.
      */
     RespuestaGenericaRs eliminarBarbero(Integer idBarbero) throws BadRequestException;
+
+    /**
+     * Obtiene los turnos semanales de un barbero.
+     * @param idBarbero ID del barbero.
+     * @return Lista de turnos (vacía si el barbero trabaja todo el horario de su sede).
+     * @throws BadRequestException Si el barbero no existe.
+     */
+    List<TurnoBarbero> listarTurnos(Integer idBarbero) throws BadRequestException;
+
+    /**
+     * Reemplaza los turnos semanales de un barbero.
+     * @param idBarbero ID del barbero.
+     * @param turnosRq Nuevos turnos; una lista vacía elimina la restricción de turnos.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Si el barbero no existe o algún turno es inválido.
+     */
+    RespuestaGenericaRs actualizarTurnos(Integer idBarbero, List<TurnoRq> turnosRq) throws BadRequestException;
 }
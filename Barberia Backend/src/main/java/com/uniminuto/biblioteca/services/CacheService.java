@@ -0,0 +1,32 @@
+package com.uniminuto.biblioteca.services;
+
+import com.uniminuto.biblioteca.model.EstadisticaBusquedasRs;
+import com.uniminuto.biblioteca.model.EstadisticaCacheRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.util.List;
+
+/**
+ * Interfaz para consultar y administrar la caché de segundo nivel de las entidades de referencia y la
+ * caché de búsquedas por ID.
+ */
+public interface CacheService {
+
+    /**
+     * Obtiene las estadísticas de aciertos y fallos de cada región de la caché.
+     * @return Estadísticas por región.
+     */
+    List<EstadisticaCacheRs> obtenerEstadisticas();
+
+    /**
+     * Obtiene las estadísticas de la caché de búsquedas por ID de cada tipo de entidad.
+     * @return Estadísticas por tipo de entidad.
+     */
+    List<EstadisticaBusquedasRs> obtenerEstadisticasBusquedas();
+
+    /**
+     * Vacía todas las regiones de la caché y la caché de búsquedas por ID. Solo es necesario si los datos se modifican por fuera
+     * de la aplicación (por ejemplo, con SQL directo en la base de datos).
+     * @return Respuesta genérica de éxito.
+     */
+    RespuestaGenericaRs invalidar();
+}
@@ -1,8 +1,19 @@
 package com.uniminuto.biblioteca.services; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.model.AgendaFechaRs;
+import com.uniminuto.biblioteca.model.CitaResumen;
 import com.uniminuto.biblioteca.model.CitaRq;
+import com.uniminuto.biblioteca.model.DisponibilidadBarberoRs;
+import com.uniminuto.biblioteca.model.FormatoExportacion;
+import com.uniminuto.biblioteca.model.OcupacionDiaRs;
+import com.uniminuto.biblioteca.model.PaginaRs;
+import com.uniminuto.biblioteca.model.ReasignacionRq;
+import com.uniminuto.biblioteca.model.ReasignacionRs;
+import com.uniminuto.biblioteca.model.ReprogramacionRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import org.apache.coyote.BadRequestException;
@@ -13,10 +24,13 @@ import org.apache.coyote.BadRequestException;
 public interface CitaService {
 
     /**
-     * Obtiene el listado de todas las citas.
-     * @return Lista de citas.
+     * Obtiene una página del listado de citas, ordenado por fecha, hora e ID.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de citas.
+     * @throws BadRequestException Si el cursor o el tamaño de página no son válidos.
      */
-    List<Cita> listarCitas();
+    PaginaRs<CitaResumen> listarCitas(String after, Integer limit) throws BadRequestException;
 
     /**
      * Obtiene una cita por su ID.
@@ -34,6 +48,14 @@ public interface CitaService {
      */
     RespuestaGenericaRs crearCita(CitaRq citaRq) throws BadRequestException;
 
+    /**
+     * Crea varias citas en una sola operación. Si alguna cita no es válida no se crea ninguna.
+     * @param citasRq Lista de solicitudes de cita.
+     * @return Respuesta genérica con el número de citas creadas.
+     * @throws BadRequestException Si alguna cita no es válida o se cruza con otra.
+     */
+    RespuestaGenericaRs crearCitasEnLote(List<CitaRq> citasRq) throws BadRequestException;
+
     /**
      * Actualiza una cita existente.
      * @param citaRq Objeto de solicitud con los datos actualizados de la cita.
@@ -42,6 +64,33 @@ public interface CitaService {
      */
     RespuestaGenericaRs actualizarCita(CitaRq citaRq) throws BadRequestException;
 
+    /**
+     * Mueve una cita a otra fecha u hora con una actualización condicional, sin cargar la entidad.
+     * @param idCita ID de la cita.
+     * @param reprogramacionRq Nueva fecha y/u hora.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Si el nuevo horario no está libre o la cita cambió entretanto.
+     */
+    RespuestaGenericaRs reprogramarCita(Integer idCita, ReprogramacionRq reprogramacionRq) throws BadRequestException;
+
+    /**
+     * Marca como cancelada una cita futura sin pagos con una actualización condicional de una sola sentencia.
+     * La cita se conserva y su horario queda libre.
+     * @param idCita ID de la cita.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Si la cita no existe, ya estaba cancelada, ya pasó o tiene pagos.
+     */
+    RespuestaGenericaRs cancelarCita(Integer idCita) throws BadRequestException;
+
+    /**
+     * Reparte las citas futuras de un barbero ausente entre los demás barberos de su sede.
+     * Las citas que no caben en ninguna agenda quedan con el barbero ausente y se reportan.
+     * @param reasignacionRq Barbero ausente y rango de fechas.
+     * @return Resultado de la reasignación.
+     * @throws BadRequestException Si el rango es inválido o el barbero no existe.
+     */
+    ReasignacionRs reasignarAusencia(ReasignacionRq reasignacionRq) throws BadRequestException;
+
     /**
      * Elimina una cita por su ID.
      * @param idCita ID de la cita a eliminar.
@@ -57,13 +106,61 @@ public interface CitaService {
      * @return Lista de citas.
      * @throws BadRequestException Si hay un error o no se encuentran citas.
      */
-    List<Cita> listarCitasPorFechaYBarbero(LocalDate fecha, Integer idBarbero) throws BadRequestException;
+    List<CitaResumen> listarCitasPorFechaYBarbero(LocalDate fecha, Integer idBarbero) throws BadRequestException;
 
     /**
-     * Lista citas por cliente.
+     * Lista citas por cliente, de la más reciente a la más antigua, por páginas.
      * @param idCliente ID del cliente.
-     * @return Lista de citas del cliente.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de citas del cliente.
      * @throws BadRequestException Si hay un error o no se encuentran citas.
      */
-    List<Cita> listarCitasPorCliente(Integer idCliente) throws BadRequestException;
+    PaginaRs<CitaResumen> listarCitasPorCliente(Integer idCliente, String after, Integer limit) throws BadRequestException;
+
+    /**
+     * Consulta las horas libres de todos los barberos de una sede para un servicio en una fecha.
+     * @param fecha Fecha a consultar.
+     * @param idSede ID de la sede.
+     * @param idServicio ID del servicio que se quiere agendar.
+     * @return Disponibilidad agrupada por barbero.
+     * @throws BadRequestException Si la sede o el servicio no existen.
+     */
+    List<DisponibilidadBarberoRs> consultarDisponibilidad(LocalDate fecha, Integer idSede, Integer idServicio)
+            throws BadRequestException;
+
+    /**
+     * Calcula, para cada día de un rango, cuántas franjas quedan libres en una sede o en uno de sus barberos.
+     * @param idSede ID de la sede.
+     * @param idBarbero ID de un barbero de la sede para limitar la consulta, o null para toda la sede.
+     * @param desde Fecha inicial (inclusiva).
+     * @param hasta Fecha final (inclusiva).
+     * @return Capacidad libre por día.
+     * @throws BadRequestException Si el rango es inválido o la sede/barbero no existen.
+     */
+    List<OcupacionDiaRs> consultarOcupacion(Integer idSede, Integer idBarbero, LocalDate desde, LocalDate hasta)
+            throws BadRequestException;
+
+    /**
+     * Agenda de varios días para una vista de calendario, agrupada por día y barbero, obtenida con una sola consulta.
+     * @param idBarbero ID del barbero, o null si se consulta la sede.
+     * @param idSede ID de la sede, o null si se consulta un barbero.
+     * @param desde Fecha inicial (inclusiva).
+     * @param hasta Fecha final (inclusiva).
+     * @return Un elemento por cada día del rango.
+     * @throws BadRequestException Si los parámetros son inválidos.
+     */
+    List<AgendaFechaRs> consultarAgenda(Integer idBarbero, Integer idSede, LocalDate desde, LocalDate hasta)
+            throws BadRequestException;
+
+    /**
+     * Escribe las citas de un rango de fechas a medida que se leen de la base de datos, sin cargarlas en memoria.
+     * El rango debe validarse antes de llamar, porque la respuesta ya puede haber empezado a enviarse.
+     * @param desde Fecha inicial (inclusiva).
+     * @param hasta Fecha final (inclusiva).
+     * @param formato Formato de la exportación.
+     * @param salida Flujo donde se escriben las filas (no se cierra).
+     * @throws IOException Si falla la escritura.
+     */
+    void exportarCitas(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida) throws IOException;
 }
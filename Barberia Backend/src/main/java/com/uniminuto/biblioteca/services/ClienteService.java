@@ -2,7 +2,10 @@ package com.uniminuto.biblioteca.services; // Manteniendo el paquete base "bibli
 
 import com.uniminuto.biblioteca.entity.Cliente;
 import com.uniminuto.biblioteca.model.ClienteRq;
+import com.uniminuto.biblioteca.model.ImportacionClientesRs;
+import com.uniminuto.biblioteca.model.PaginaRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.io.InputStream;
 import java.util.List;
 import org.apache.coyote.BadRequestException;
 
@@ -12,10 +15,13 @@ import org.apache.coyote.BadRequestException;
 public interface ClienteService {
 
     /**
-     * Obtiene el listado de todos los clientes.
-     * @return Lista de clientes.
+     * Obtiene una página del listado de clientes, ordenado por fecha de registro e ID.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de clientes.
+     * @throws BadRequestException Si el cursor o el tamaño de página no son válidos.
      */
-    List<Cliente> listarClientes();
+    PaginaRs<Cliente> listarClientes(String after, Integer limit) throws BadRequestException;
 
     /**
      * Obtiene un cliente por su ID.
@@ -48,4 +54,14 @@ public interface ClienteService {
      * @throws BadRequestException Si el cliente no existe o no se puede eliminar.
      */
     RespuestaGenericaRs eliminarCliente(Integer idCliente) throws BadRequestException;
+
+    /**
+     * Importa clientes desde un CSV con encabezados (nombre, apellido, telefono y, opcionalmente, correo y
+     * fechaRegistro). El archivo se lee por bloques; las filas inválidas o con teléfono repetido (en el archivo
+     * o en la base de datos) se omiten y se informan, y las demás se insertan.
+     * @param contenido Contenido del archivo en UTF-8.
+     * @return Resumen de la importación con el detalle de las filas omitidas.
+     * @throws BadRequestException Si el archivo no se puede leer o le faltan encabezados obligatorios.
+     */
+    ImportacionClientesRs importarClientes(InputStream contenido) throws BadRequestException;
 }
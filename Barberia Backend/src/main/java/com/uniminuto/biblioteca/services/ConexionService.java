@@ -0,0 +1,23 @@
+package com.uniminuto.biblioteca.services;
+
+import com.uniminuto.biblioteca.model.EstadisticaConexionRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.util.List;
+
+/**
+ * Interfaz para consultar el uso del pool de conexiones por endpoint.
+ */
+public interface ConexionService {
+
+    /**
+     * Obtiene cuántas conexiones pidió cada endpoint y cuánto tiempo las retuvo.
+     * @return Estadísticas por endpoint, de mayor a menor retención total.
+     */
+    List<EstadisticaConexionRs> obtenerEstadisticas();
+
+    /**
+     * Descarta las estadísticas acumuladas, por ejemplo antes de una prueba de carga.
+     * @return Respuesta genérica de éxito.
+     */
+    RespuestaGenericaRs reiniciarEstadisticas();
+}
@@ -0,0 +1,20 @@
+package com.uniminuto.biblioteca.services;
+
+import com.uniminuto.biblioteca.model.RespuestaLoteRs;
+import com.uniminuto.biblioteca.model.SolicitudLoteRq;
+import java.util.List;
+import org.apache.coyote.BadRequestException;
+
+/**
+ * Interfaz para atender varias consultas del API en una sola solicitud.
+ */
+public interface LoteService {
+
+    /**
+     * Ejecuta en paralelo las consultas GET de un lote.
+     * @param solicitudes Consultas a ejecutar.
+     * @return Una respuesta por consulta, en el mismo orden.
+     * @throws BadRequestException Si el lote está vacío o supera el máximo de consultas.
+     */
+    List<RespuestaLoteRs> ejecutarLote(List<SolicitudLoteRq> solicitudes) throws BadRequestException;
+}
@@ -1,8 +1,13 @@
 package com.uniminuto.biblioteca.services; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.entity.Pago;
+import com.uniminuto.biblioteca.model.FormatoExportacion;
+import com.uniminuto.biblioteca.model.PaginaRs;
+import com.uniminuto.biblioteca.model.PagoResumen;
 import com.uniminuto.biblioteca.model.PagoRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import org.apache.coyote.BadRequestException;
@@ -13,10 +18,13 @@ import org.apache.coyote.BadRequestException;
 public interface PagoService {
 
     /**
-     * Obtiene el listado de todos los pagos.
-     * @return Lista de pagos.
+     * Obtiene una página del listado de pagos, ordenado por fecha de pago e ID.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de pagos.
+     * @throws BadRequestException Si el cursor o el tamaño de página no son válidos.
      */
-    List<Pago> listarPagos();
+    PaginaRs<PagoResumen> listarPagos(String after, Integer limit) throws BadRequestException;
 
     /**
      * Obtiene un pago por su ID.
@@ -56,22 +64,39 @@ public interface PagoService {
      * @return Lista de pagos para la cita especificada.
      * @throws BadRequestException Si la cita no existe o hay un error.
      */
-    List<Pago> listarPagosPorCita(Integer idCita) throws BadRequestException;
+    List<PagoResumen> listarPagosPorCita(Integer idCita) throws BadRequestException;
 
     /**
      * Lista pagos por método de pago.
      * @param metodoPago Método de pago.
-     * @return Lista de pagos.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de pagos, ordenada por fecha de pago e ID.
      * @throws BadRequestException Si hay un error.
      */
-    List<Pago> listarPagosPorMetodo(Pago.MetodoPago metodoPago) throws BadRequestException;
+    PaginaRs<PagoResumen> listarPagosPorMetodo(Pago.MetodoPago metodoPago, String after, Integer limit) throws BadRequestException;
 
     /**
      * Lista pagos dentro de un rango de fechas.
      * @param fechaInicio Fecha de inicio del rango.
      * @param fechaFin Fecha de fin del rango.
-     * @return Lista de pagos.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de pagos, ordenada por fecha de pago e ID.
      * @throws BadRequestException Si hay un error en las fechas.
      */
-    List<Pago> listarPagosPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) throws BadRequestException;
+    PaginaRs<PagoResumen> listarPagosPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin, String after, Integer limit)
+            throws BadRequestException;
+
+    /**
+     * Escribe los pagos de un rango de fechas a medida que se leen de la base de datos, sin cargarlos en memoria.
+     * El rango debe validarse antes de llamar, porque la respuesta ya puede haber empezado a enviarse.
+     * @param fechaInicio Fecha inicial (inclusiva).
+     * @param fechaFin Fecha final (inclusiva).
+     * @param formato Formato de la exportación.
+     * @param salida Flujo donde se escriben las filas (no se cierra).
+     * @throws IOException Si falla la escritura.
+     */
+    void exportarPagos(LocalDate fechaInicio, LocalDate fechaFin, FormatoExportacion formato, OutputStream salida)
+            throws IOException;
 }
@@ -1,6 +1,11 @@
 package com.uniminuto.biblioteca.services; // Manteniendo el paquete base "biblioteca"
 
+import com.uniminuto.biblioteca.entity.FestivoSede;
+import com.uniminuto.biblioteca.entity.HorarioSede;
 import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.model.FestivoRq;
+import com.uniminuto.biblioteca.model.HorarioSedeRq;
+import com.uniminuto.biblioteca.model.PaginaRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.model.SedeRq;
 import java.util.List;
@@ -12,10 +17,13 @@ import org.apache.coyote.BadRequestException;
 public interface SedeService {
 
     /**
-     * Obtiene el listado de todas las sedes.
-     * @return Lista de sedes.
+     * Obtiene una página del listado de sedes, ordenado por ID.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de sedes.
+     * @throws BadRequestException Si el cursor o el tamaño de página no son válidos.
      */
-    List<Sede> listarSedes();
+    PaginaRs<Sede> listarSedes(String after, Integer limit) throws BadRequestException;
 
     /**
      * Obtiene una sede por su ID.
@@ -48,4 +56,45 @@ public interface SedeService {
      * @throws BadRequestException Si la sede no existe o no se puede eliminar.
      */
     RespuestaGenericaRs eliminarSede(Integer idSede) throws BadRequestException;
+
+    /**
+     * Obtiene el horario semanal de una sede.
+     * @param idSede ID de la sede.
+     * @return Lista de horarios (vacía si la sede usa el horario por defecto).
+     * @throws BadRequestException Si la sede no existe.
+     */
+    List<HorarioSede> listarHorario(Integer idSede) throws BadRequestException;
+
+    /**
+     * Reemplaza el horario semanal de una sede.
+     * @param idSede ID de la sede.
+     * @param horariosRq Nuevo horario; una lista vacía restablece el horario por defecto.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Si la sede no existe o algún horario es inválido.
+     */
+    RespuestaGenericaRs actualizarHorario(Integer idSede, List<HorarioSedeRq> horariosRq) throws BadRequestException;
+
+    /**
+     * Obtiene los festivos de una sede.
+     * @param idSede ID de la sede.
+     * @return Lista de festivos ordenados por fecha.
+     * @throws BadRequestException Si la sede no existe.
+     */
+    List<FestivoSede> listarFestivos(Integer idSede) throws BadRequestException;
+
+    /**
+     * Registra un festivo (día sin atención) para una sede.
+     * @param festivoRq Datos del festivo.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Si hay un error de validación o el festivo ya existe.
+     */
+    RespuestaGenericaRs crearFestivo(FestivoRq festivoRq) throws BadRequestException;
+
+    /**
+     * Elimina un festivo por su ID.
+     * @param idFestivo ID del festivo.
+     * @return Respuesta genérica de éxito o error.
+     * @throws BadRequestException Si el festivo no existe.
+     */
+    RespuestaGenericaRs eliminarFestivo(Integer idFestivo) throws BadRequestException;
 }
@@ -1,6 +1,7 @@
 package com.uniminuto.biblioteca.services; // Manteniendo el paquete base "biblioteca"
 
 import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.PaginaRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.model.ServicioRq;
 import java.util.List;
@@ -12,10 +13,13 @@ import org.apache.coyote.BadRequestException;
 public interface ServicioService {
 
     /**
-     * Obtiene el listado de todos los servicios.
-     * @return Lista de servicios.
+     * Obtiene una página del listado de servicios, ordenado por ID.
+     * @param after Cursor devuelto en la cabecera X-Siguiente-Cursor de la página anterior, o null.
+     * @param limit Tamaño de página (por defecto 50, máximo 500), o null.
+     * @return Página de servicios.
+     * @throws BadRequestException Si el cursor o el tamaño de página no son válidos.
      */
-    List<Servicio> listarServicios();
+    PaginaRs<Servicio> listarServicios(String after, Integer limit) throws BadRequestException;
 
     /**
      * Obtiene un servicio por su ID.
@@ -0,0 +1,30 @@
+package com.uniminuto.biblioteca.servicesimpl;
+
+import com.uniminuto.biblioteca.concurrencia.AgrupacionLecturasAspect;
+import com.uniminuto.biblioteca.model.EstadisticaAgrupacionRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.services.AgrupacionService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementación de la interfaz AgrupacionService sobre los contadores de {@link AgrupacionLecturasAspect}.
+ */
+@Service
+public class AgrupacionServiceImpl implements AgrupacionService {
+
+    @Autowired
+    private AgrupacionLecturasAspect agrupacionLecturas;
+
+    @Override
+    public List<EstadisticaAgrupacionRs> obtenerEstadisticas() {
+        return agrupacionLecturas.obtenerEstadisticas();
+    }
+
+    @Override
+    public RespuestaGenericaRs reiniciarEstadisticas() {
+        agrupacionLecturas.reiniciar();
+        return new RespuestaGenericaRs(true, "Estadísticas de agrupación reiniciadas exitosamente.");
+    }
+}
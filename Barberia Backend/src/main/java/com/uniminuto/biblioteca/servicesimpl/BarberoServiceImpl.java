@@ -1,18 +1,37 @@
 package com.uniminuto.biblioteca.servicesimpl;
 
+import com.uniminuto.biblioteca.agenda.AsignadorBarberos;
+import com.uniminuto.biblioteca.agenda.CalendarioLaboral;
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.cache.ListadosPreparados;
+import com.uniminuto.biblioteca.cache.ListadosPreparados.Listado;
+import com.uniminuto.biblioteca.concurrencia.ReintentarEnConflicto;
 import com.uniminuto.biblioteca.entity.Barbero;
 import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.TurnoBarbero;
 import com.uniminuto.biblioteca.model.BarberoRq;
+import com.uniminuto.biblioteca.model.PaginaRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.model.TurnoRq;
 import com.uniminuto.biblioteca.repository.BarberoRepository;
 import com.uniminuto.biblioteca.repository.SedeRepository; // Necesario para validar la sede
+import com.uniminuto.biblioteca.repository.TurnoBarberoRepository;
 import com.uniminuto.biblioteca.services.BarberoService;
+import com.uniminuto.biblioteca.utils.HorarioUtils;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
+import com.uniminuto.biblioteca.utils.RestriccionUtils;
+import com.uniminuto.biblioteca.utils.TransaccionUtils;
+import com.uniminuto.biblioteca.utils.VersionUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.apache.coyote.BadRequestException;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,25 +47,59 @@ public class BarberoServiceImpl implements BarberoService {
     @Autowired
     private SedeRepository sedeRepository; // Inyectar SedeRepository para validar la existencia de la sede
 
+    @Autowired
+    private TurnoBarberoRepository turnoBarberoRepository;
+
+    @Autowired
+    private CalendarioLaboral calendarioLaboral; // Se recompila cuando cambian los turnos
+
+    @Autowired
+    private AsignadorBarberos asignadorBarberos; // Sus montículos por sede dependen de qué barberos tiene cada sede
+
+    @Autowired
+    private ListadosPreparados listadosPreparados; // Se vuelve a armar al confirmar cada cambio
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas; // Barberos por ID, invalidados al confirmar cada cambio
+
     @Override
-    public List<Barbero> listarBarberos() {
-        return barberoRepository.findAllByOrderByApellidoAscNombreAsc();
+    @Transactional(readOnly = true)
+    public PaginaRs<Barbero> listarBarberos(String after, Integer limit) throws BadRequestException {
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 3);
+        List<Barbero> filas = cursor == null
+                ? barberoRepository.buscarPagina(PaginacionUtils.consulta(limite))
+                : barberoRepository.buscarPaginaDespues(cursor[0], cursor[1], PaginacionUtils.entero(cursor[2]),
+                        PaginacionUtils.consulta(limite));
+        return PaginacionUtils.pagina(filas, limite, b -> new Object[]{b.getApellido(), b.getNombre(), b.getIdBarbero()});
     }
 
     @Override
-    public List<Barbero> listarBarberosPorSede(Integer idSede) throws BadRequestException {
+    @Transactional(readOnly = true)
+    public PaginaRs<Barbero> listarBarberosPorSede(Integer idSede, String after, Integer limit) throws BadRequestException {
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 3);
         // Validar si la sede existe antes de buscar barberos por ella
         Optional<Sede> optSede = sedeRepository.findById(idSede);
         if (!optSede.isPresent()) {
             throw new BadRequestException("La sede con ID " + idSede + " no existe.");
         }
-        return barberoRepository.findBySede_IdSede(idSede);
+        List<Barbero> filas = cursor == null
+                ? barberoRepository.buscarPaginaPorSede(idSede, PaginacionUtils.consulta(limite))
+                : barberoRepository.buscarPaginaPorSedeDespues(idSede, cursor[0], cursor[1], PaginacionUtils.entero(cursor[2]),
+                        PaginacionUtils.consulta(limite));
+        return PaginacionUtils.pagina(filas, limite, b -> new Object[]{b.getApellido(), b.getNombre(), b.getIdBarbero()});
     }
 
     @Override
     public Barbero obtenerBarberoPorId(Integer idBarbero) throws BadRequestException {
-        return barberoRepository.findById(idBarbero)
-                .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + idBarbero));
+        // Sin transacción propia: un acierto de la caché no toma conexión
+        return cacheBusquedas.obtener(Barbero.class, idBarbero, () -> {
+            Optional<Barbero> barbero = barberoRepository.findById(idBarbero);
+            // La sede se carga aquí (normalmente desde la caché) porque la respuesta se serializa fuera de la transacción
+            barbero.ifPresent(b -> Hibernate.initialize(b.getSede()));
+            return barbero;
+        }, "Barbero no encontrado con ID: ");
     }
 
     @Override
@@ -78,6 +131,9 @@ public class BarberoServiceImpl implements BarberoService {
 
         try {
             barberoRepository.save(barbero);
+            TransaccionUtils.alConfirmar(asignadorBarberos::descartarTodo);
+            TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.BARBEROS));
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Barbero.class, barbero.getIdBarbero()));
             return new RespuestaGenericaRs(true, "Barbero creado exitosamente.");
         } catch (Exception e) {
             throw new BadRequestException("Error al crear el barbero: " + e.getMessage());
@@ -86,6 +142,7 @@ public class BarberoServiceImpl implements BarberoService {
 
     @Override
     @Transactional
+    @ReintentarEnConflicto
     public RespuestaGenericaRs actualizarBarbero(BarberoRq barberoRq) throws BadRequestException {
         // Validar ID del barbero
         if (barberoRq.getIdBarbero() == null) {
@@ -95,6 +152,7 @@ public class BarberoServiceImpl implements BarberoService {
         // Buscar barbero existente
         Barbero barberoActual = barberoRepository.findById(barberoRq.getIdBarbero())
                 .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + barberoRq.getIdBarbero()));
+        VersionUtils.verificar("Barbero", barberoRq.getIdBarbero(), barberoRq.getVersion(), barberoActual.getVersion());
 
         // Validar existencia de la nueva sede (si se proporciona)
         Sede nuevaSede = barberoActual.getSede(); // Por defecto, mantiene la sede actual
@@ -129,28 +187,81 @@ public class BarberoServiceImpl implements BarberoService {
         if (barberoRq.getEspecialidad() != null) {
             barberoActual.setEspecialidad(barberoRq.getEspecialidad());
         }
+        Integer idSedeAnterior = barberoActual.getSede().getIdSede();
         barberoActual.setSede(nuevaSede); // Asigna la sede (actual o nueva)
 
         try {
-            barberoRepository.save(barberoActual);
+            barberoRepository.saveAndFlush(barberoActual);
+            TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.BARBEROS));
+            // Con el barbero se descartan las citas guardadas que lo incluyen
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Barbero.class, barberoActual.getIdBarbero()));
+            if (!Objects.equals(nuevaSede.getIdSede(), idSedeAnterior)) {
+                TransaccionUtils.alConfirmar(asignadorBarberos::descartarTodo);
+            }
             return new RespuestaGenericaRs(true, "Barbero actualizado exitosamente.");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Lo reintenta @ReintentarEnConflicto
         } catch (Exception e) {
             throw new BadRequestException("Error al actualizar el barbero: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
     public RespuestaGenericaRs eliminarBarbero(Integer idBarbero) throws BadRequestException {
-        if (!barberoRepository.existsById(idBarbero)) {
+        int eliminados;
+        try {
+            eliminados = barberoRepository.eliminarPorId(idBarbero);
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                throw new BadRequestException("No se puede eliminar el barbero porque tiene citas o turnos asociados.");
+            }
+            throw new BadRequestException("Error al eliminar el barbero: " + RestriccionUtils.detalle(e));
+        }
+        if (eliminados == 0) {
             throw new BadRequestException("Barbero no encontrado con ID: " + idBarbero);
         }
+        TransaccionUtils.alConfirmar(asignadorBarberos::descartarTodo);
+        TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.BARBEROS));
+        TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Barbero.class, idBarbero));
+        return new RespuestaGenericaRs(true, "Barbero eliminado exitosamente.");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TurnoBarbero> listarTurnos(Integer idBarbero) throws BadRequestException {
+        if (!barberoRepository.existe(idBarbero)) {
+            throw new BadRequestException("Barbero no encontrado con ID: " + idBarbero);
+        }
+        return turnoBarberoRepository.findByBarbero_IdBarberoOrderByDiaSemanaAscHoraInicioAsc(idBarbero);
+    }
+
+    @Override
+    @Transactional(rollbackFor = BadRequestException.class)
+    public RespuestaGenericaRs actualizarTurnos(Integer idBarbero, List<TurnoRq> turnosRq) throws BadRequestException {
+        Barbero barbero = barberoRepository.findById(idBarbero)
+                .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + idBarbero));
+        if (turnosRq == null) {
+            throw new BadRequestException("Debe enviar la lista de turnos (vacía para quitar la restricción).");
+        }
+
+        // Validar cada turno antes de reemplazar la plantilla
+        List<TurnoBarbero> turnos = new ArrayList<>(turnosRq.size());
+        for (int i = 0; i < turnosRq.size(); i++) {
+            TurnoRq turnoRq = turnosRq.get(i);
+            HorarioUtils.validarBloque("Turno #" + (i + 1), turnoRq.getDiaSemana(),
+                    turnoRq.getHoraInicio(), turnoRq.getHoraFin());
+            turnos.add(new TurnoBarbero(null, barbero, turnoRq.getDiaSemana(),
+                    turnoRq.getHoraInicio(), turnoRq.getHoraFin()));
+        }
+
         try {
-            barberoRepository.deleteById(idBarbero);
-            return new RespuestaGenericaRs(true, "Barbero eliminado exitosamente.");
+            turnoBarberoRepository.eliminarPorBarbero(idBarbero);
+            turnoBarberoRepository.saveAll(turnos);
+            TransaccionUtils.alConfirmar(() -> calendarioLaboral.recompilarBarbero(idBarbero));
+            return new RespuestaGenericaRs(true, "Turnos del barbero actualizados exitosamente.");
         } catch (Exception e) {
-            // Aquí podrías manejar ConstraintViolationException si el barbero tiene citas asociadas
-            throw new BadRequestException("Error al eliminar el barbero: " + e.getMessage());
+            throw new BadRequestException("Error al actualizar los turnos: " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,56 @@
+package com.uniminuto.biblioteca.servicesimpl;
+
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.model.EstadisticaBusquedasRs;
+import com.uniminuto.biblioteca.model.EstadisticaCacheRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.services.CacheService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementación de la interfaz CacheService sobre las estadísticas de Hibernate y la caché de búsquedas.
+ */
+@Service
+public class CacheServiceImpl implements CacheService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas;
+
+    @Override
+    public List<EstadisticaCacheRs> obtenerEstadisticas() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] regiones = estadisticas.getSecondLevelCacheRegionNames();
+        Arrays.sort(regiones);
+        List<EstadisticaCacheRs> resultado = new ArrayList<>(regiones.length);
+        for (String region : regiones) {
+            CacheRegionStatistics estadistica = estadisticas.getDomainDataRegionStatistics(region);
+            long lecturas = estadistica.getHitCount() + estadistica.getMissCount();
+            resultado.add(new EstadisticaCacheRs(region, estadistica.getHitCount(), estadistica.getMissCount(),
+                    estadistica.getPutCount(), lecturas == 0 ? null : (double) estadistica.getHitCount() / lecturas));
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<EstadisticaBusquedasRs> obtenerEstadisticasBusquedas() {
+        return cacheBusquedas.obtenerEstadisticas();
+    }
+
+    @Override
+    public RespuestaGenericaRs invalidar() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        cacheBusquedas.invalidarTodo();
+        return new RespuestaGenericaRs(true, "Cachés de segundo nivel y de búsquedas vaciadas exitosamente.");
+    }
+}
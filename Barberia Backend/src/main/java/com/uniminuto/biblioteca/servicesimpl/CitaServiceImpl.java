@@ -1,23 +1,72 @@
 package com.uniminuto.biblioteca.servicesimpl; // Manteniendo el paquete base "biblioteca"
 
+import com.uniminuto.biblioteca.agenda.AgendaDia;
+import com.uniminuto.biblioteca.agenda.AsignadorBarberos;
+import com.uniminuto.biblioteca.agenda.BloqueosBarbero;
+import com.uniminuto.biblioteca.agenda.CalendarioLaboral;
+import com.uniminuto.biblioteca.agenda.IndiceCitas;
+import com.uniminuto.biblioteca.agenda.MascaraFranjas;
+import com.uniminuto.biblioteca.agenda.PlanificadorReasignacion;
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.concurrencia.AgruparLecturas;
+import com.uniminuto.biblioteca.concurrencia.ReintentarEnConflicto;
 import com.uniminuto.biblioteca.entity.Barbero;
 import com.uniminuto.biblioteca.entity.Cita;
 import com.uniminuto.biblioteca.entity.Cliente;
 import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.AgendaBarberoRs;
+import com.uniminuto.biblioteca.model.AgendaFechaRs;
+import com.uniminuto.biblioteca.model.CitaCalendarioRs;
+import com.uniminuto.biblioteca.model.CitaResumen;
 import com.uniminuto.biblioteca.model.CitaRq;
+import com.uniminuto.biblioteca.model.DisponibilidadBarberoRs;
+import com.uniminuto.biblioteca.model.FilaAgenda;
+import com.uniminuto.biblioteca.model.FormatoExportacion;
+import com.uniminuto.biblioteca.model.OcupacionDiaRs;
+import com.uniminuto.biblioteca.model.PaginaRs;
+import com.uniminuto.biblioteca.model.ReasignacionRq;
+import com.uniminuto.biblioteca.model.ReasignacionRs;
+import com.uniminuto.biblioteca.model.ReprogramacionRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.model.UbicacionCita;
 import com.uniminuto.biblioteca.repository.BarberoRepository;
 import com.uniminuto.biblioteca.repository.CitaRepository;
 import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
 import com.uniminuto.biblioteca.repository.ServicioRepository;
 import com.uniminuto.biblioteca.services.CitaService;
-
+import com.uniminuto.biblioteca.utils.ExportacionUtils;
+import com.uniminuto.biblioteca.utils.HorarioUtils;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
+import com.uniminuto.biblioteca.utils.RestriccionUtils;
+import com.uniminuto.biblioteca.utils.TransaccionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniminuto.biblioteca.utils.VersionUtils;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.sql.Date;
+import java.sql.Time;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,25 +88,107 @@ public class CitaServiceImpl implements CitaService {
     @Autowired
     private ServicioRepository servicioRepository; // Para validar Servicio
 
+    @Autowired
+    private SedeRepository sedeRepository; // Para validar Sede en la consulta de disponibilidad
+
+    @Autowired
+    private IndiceCitas indiceCitas; // Agenda en memoria para detectar solapamientos
+
+    @Autowired
+    private BloqueosBarbero bloqueosBarbero; // Serializa las reservas de un mismo barbero
+
+    @Autowired
+    private CalendarioLaboral calendarioLaboral; // Horarios de sede y turnos de barbero compilados en máscaras
+
+    @Autowired
+    private AsignadorBarberos asignadorBarberos; // Elige el barbero con menos carga cuando el cliente no tiene preferencia
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Inserciones por lotes sin pasar por Hibernate
+
+    @Autowired
+    private ObjectMapper objectMapper; // Serializa las filas de las exportaciones NDJSON
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas; // Citas por ID y clientes inexistentes, invalidadas al confirmar cada cambio
+
+    /**
+     * Máximo de citas que se aceptan en una sola solicitud de creación por lotes.
+     */
+    private static final int MAXIMO_CITAS_POR_LOTE = 500;
+
+    /**
+     * Máximo de días que abarca una consulta del mapa de ocupación.
+     */
+    private static final int MAXIMO_DIAS_OCUPACION = 92;
+
+    /**
+     * Máximo de días que abarca una consulta de agenda para calendario.
+     */
+    private static final int MAXIMO_DIAS_AGENDA = 62;
+
+    /**
+     * Barberos que se intentan como máximo al asignar uno automáticamente, si otros reservan en paralelo.
+     */
+    private static final int MAXIMO_INTENTOS_ASIGNACION = 3;
+
+    /**
+     * Inserción usada por la creación por lotes. Se ejecuta con JDBC porque la estrategia IDENTITY
+     * impide que Hibernate agrupe inserciones; con rewriteBatchedStatements el driver de MySQL
+     * la convierte en INSERTs de varias filas.
+     */
+    private static final String SQL_INSERTAR_CITA =
+            "INSERT INTO cita (fecha, hora, id_cliente, id_barbero, id_servicio) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Cambio de barbero usado por la reasignación por ausencia; solo aplica si la cita sigue con el barbero ausente.
+     */
+    private static final String SQL_REASIGNAR_CITA =
+            "UPDATE cita SET id_barbero = ?, version = version + 1 WHERE id_cita = ? AND id_barbero = ?";
+
+    /**
+     * Máximo de días que abarca una reasignación por ausencia.
+     */
+    private static final int MAXIMO_DIAS_REASIGNACION = 31;
+
+    /**
+     * Encabezados del CSV de exportación, en el orden de los campos de {@link CitaResumen}.
+     */
+    private static final String[] COLUMNAS_EXPORTACION = {"idCita", "fecha", "hora", "idCliente", "nombreCliente",
+        "apellidoCliente", "idBarbero", "nombreBarbero", "apellidoBarbero", "idSede", "idServicio", "nombreServicio",
+        "precio", "duracionMinutos", "estado"};
+
     @Override
-    public List<Cita> listarCitas() {
-        return citaRepository.findAllByOrderByFechaAscHoraAsc();
+    @Transactional(readOnly = true)
+    @AgruparLecturas({"cita", "cliente", "barbero", "sede", "servicio"})
+    public PaginaRs<CitaResumen> listarCitas(String after, Integer limit) throws BadRequestException {
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 3);
+        List<CitaResumen> filas = cursor == null
+                ? citaRepository.buscarPagina(PaginacionUtils.consulta(limite))
+                : citaRepository.buscarPaginaDespues(PaginacionUtils.fecha(cursor[0]), PaginacionUtils.hora(cursor[1]),
+                        PaginacionUtils.entero(cursor[2]), PaginacionUtils.consulta(limite));
+        return PaginacionUtils.pagina(filas, limite, c -> new Object[]{c.getFecha(), c.getHora(), c.getIdCita()});
     }
 
     @Override
+    @AgruparLecturas({"cita", "cliente", "barbero", "sede", "servicio"})
     public Cita obtenerCitaPorId(Integer idCita) throws BadRequestException {
-        return citaRepository.findById(idCita)
-                .orElseThrow(() -> new BadRequestException("Cita no encontrada con ID: " + idCita));
+        // Sin transacción propia: un acierto de la caché no toma conexión
+        return cacheBusquedas.obtener(Cita.class, idCita, () -> citaRepository.buscarDetalle(idCita),
+                "Cita no encontrada con ID: ");
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
     public RespuestaGenericaRs crearCita(CitaRq citaRq) throws BadRequestException {
-        // 1. Validar campos obligatorios del Request
+        // 1. Validar campos obligatorios del Request (el barbero puede omitirse si se indica la sede)
         if (citaRq.getFecha() == null || citaRq.getHora() == null ||
-            citaRq.getIdCliente() == null || citaRq.getIdBarbero() == null ||
-            citaRq.getIdServicio() == null) {
-            throw new BadRequestException("Fecha, hora, ID de cliente, barbero y servicio son obligatorios.");
+            citaRq.getIdCliente() == null || citaRq.getIdServicio() == null) {
+            throw new BadRequestException("Fecha, hora, ID de cliente y servicio son obligatorios.");
+        }
+        if (citaRq.getIdBarbero() == null && citaRq.getIdSede() == null) {
+            throw new BadRequestException("Debe indicar el ID del barbero o el ID de la sede para asignar uno automáticamente.");
         }
 
         // 2. Validar que la fecha no sea pasada
@@ -70,21 +201,27 @@ public class CitaServiceImpl implements CitaService {
         }
 
 
-        // 3. Validar existencia de Cliente, Barbero y Servicio
-        Cliente cliente = clienteRepository.findById(citaRq.getIdCliente())
-                .orElseThrow(() -> new BadRequestException("Cliente no encontrado con ID: " + citaRq.getIdCliente()));
-
-        Barbero barbero = barberoRepository.findById(citaRq.getIdBarbero())
-                .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + citaRq.getIdBarbero()));
+        // 3. Validar existencia de Barbero y Servicio (desde la caché de segundo nivel). El cliente solo
+        // aporta la llave foránea: si no existe, la restricción rechaza el INSERT, y el rechazo se recuerda
+        // un tiempo para no volver a bloquear la agenda del barbero con el mismo ID
+        if (cacheBusquedas.ausente(Cliente.class, citaRq.getIdCliente())) {
+            throw new BadRequestException("Cliente no encontrado con ID: " + citaRq.getIdCliente());
+        }
+        Cliente cliente = clienteRepository.getReferenceById(citaRq.getIdCliente());
 
         Servicio servicio = servicioRepository.findById(citaRq.getIdServicio())
                 .orElseThrow(() -> new BadRequestException("Servicio no encontrado con ID: " + citaRq.getIdServicio()));
 
-        // 4. Validar disponibilidad del barbero (no tener otra cita a la misma hora)
-        Optional<Cita> citaExistente = citaRepository.findByFechaAndHoraAndBarbero_IdBarbero(
-                citaRq.getFecha(), citaRq.getHora(), citaRq.getIdBarbero());
-        if (citaExistente.isPresent()) {
-            throw new BadRequestException("El barbero ya tiene una cita agendada para esa fecha y hora.");
+        // 4. Validar disponibilidad del barbero (que la cita no se solape con otra según la duración del servicio).
+        // La agenda del barbero queda bloqueada hasta el final de la transacción para que nadie reserve en paralelo.
+        Barbero barbero;
+        if (citaRq.getIdBarbero() != null) {
+            barbero = barberoRepository.findById(citaRq.getIdBarbero())
+                    .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + citaRq.getIdBarbero()));
+            bloqueosBarbero.bloquearHastaFinDeTransaccion(barbero.getIdBarbero());
+            validarDisponibilidad(barbero, citaRq.getFecha(), citaRq.getHora(), servicio, null);
+        } else {
+            barbero = asignarBarbero(citaRq.getIdSede(), citaRq.getFecha(), citaRq.getHora(), servicio);
         }
 
         // 5. Crear la entidad Cita
@@ -96,15 +233,129 @@ public class CitaServiceImpl implements CitaService {
         cita.setServicio(servicio);
 
         try {
-            citaRepository.save(cita);
+            Cita guardada = citaRepository.saveAndFlush(cita);
+            TransaccionUtils.alConfirmar(() -> {
+                indiceCitas.registrar(guardada);
+                cacheBusquedas.invalidar(Cita.class, guardada.getIdCita());
+            });
             return new RespuestaGenericaRs(true, "Cita agendada exitosamente.");
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                cacheBusquedas.registrarAusente(Cliente.class, citaRq.getIdCliente());
+                throw new BadRequestException("Cliente no encontrado con ID: " + citaRq.getIdCliente());
+            }
+            throw traducirViolacion(e, "Error al agendar la cita: ");
         } catch (Exception e) {
             throw new BadRequestException("Error al agendar la cita: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
+    public RespuestaGenericaRs crearCitasEnLote(List<CitaRq> citasRq) throws BadRequestException {
+        // 1. Validar tamaño del lote y campos obligatorios de cada cita
+        if (citasRq == null || citasRq.isEmpty()) {
+            throw new BadRequestException("Debe enviar al menos una cita.");
+        }
+        if (citasRq.size() > MAXIMO_CITAS_POR_LOTE) {
+            throw new BadRequestException("No se pueden crear más de " + MAXIMO_CITAS_POR_LOTE + " citas por lote.");
+        }
+        LocalDate hoy = LocalDate.now();
+        LocalTime ahora = LocalTime.now();
+        Set<Integer> idsCliente = new HashSet<>();
+        Set<Integer> idsBarbero = new HashSet<>();
+        Set<Integer> idsServicio = new HashSet<>();
+        Map<Integer, Set<LocalDate>> fechasPorBarbero = new HashMap<>();
+        for (int i = 0; i < citasRq.size(); i++) {
+            CitaRq citaRq = citasRq.get(i);
+            if (citaRq.getFecha() == null || citaRq.getHora() == null ||
+                citaRq.getIdCliente() == null || citaRq.getIdBarbero() == null ||
+                citaRq.getIdServicio() == null) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": fecha, hora, ID de cliente, barbero y servicio son obligatorios.");
+            }
+            if (citaRq.getFecha().isBefore(hoy) || (citaRq.getFecha().isEqual(hoy) && citaRq.getHora().isBefore(ahora))) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": no se puede agendar en una fecha u hora pasada.");
+            }
+            idsCliente.add(citaRq.getIdCliente());
+            idsBarbero.add(citaRq.getIdBarbero());
+            idsServicio.add(citaRq.getIdServicio());
+            fechasPorBarbero.computeIfAbsent(citaRq.getIdBarbero(), k -> new HashSet<>()).add(citaRq.getFecha());
+        }
+
+        // 2. Resolver clientes, barberos y servicios con una consulta IN por tabla
+        Set<Integer> clientesExistentes = clienteRepository.findAllById(idsCliente).stream()
+                .map(Cliente::getIdCliente).collect(Collectors.toSet());
+        Map<Integer, Barbero> barberos = barberoRepository.findAllById(idsBarbero).stream()
+                .collect(Collectors.toMap(Barbero::getIdBarbero, Function.identity()));
+        Map<Integer, Servicio> servicios = servicioRepository.findAllById(idsServicio).stream()
+                .collect(Collectors.toMap(Servicio::getIdServicio, Function.identity()));
+        for (int i = 0; i < citasRq.size(); i++) {
+            CitaRq citaRq = citasRq.get(i);
+            if (!clientesExistentes.contains(citaRq.getIdCliente())) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": cliente no encontrado con ID: " + citaRq.getIdCliente());
+            }
+            if (!barberos.containsKey(citaRq.getIdBarbero())) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": barbero no encontrado con ID: " + citaRq.getIdBarbero());
+            }
+            if (!servicios.containsKey(citaRq.getIdServicio())) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": servicio no encontrado con ID: " + citaRq.getIdServicio());
+            }
+        }
+
+        // 3. Validar solapamientos contra la base de datos y entre las citas del propio lote. Con las filas de
+        // los barberos bloqueadas, las agendas leídas incluyen lo reservado por cualquier instancia
+        bloqueosBarbero.bloquearHastaFinDeTransaccion(idsBarbero);
+        Set<LocalDate> fechasLote = new HashSet<>();
+        fechasPorBarbero.values().forEach(fechasLote::addAll);
+        Map<Long, AgendaDia> agendas = bloquearAgendas(idsBarbero, fechasLote);
+        for (int i = 0; i < citasRq.size(); i++) {
+            CitaRq citaRq = citasRq.get(i);
+            long clave = IndiceCitas.claveDe(citaRq.getIdBarbero(), citaRq.getFecha());
+            int inicio = IndiceCitas.minutos(citaRq.getHora());
+            int fin = inicio + servicios.get(citaRq.getIdServicio()).duracionEfectivaMinutos();
+            if (fin > 24 * 60) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": el servicio no alcanza a terminar antes de la medianoche.");
+            }
+            Barbero barbero = barberos.get(citaRq.getIdBarbero());
+            long[] laboral = calendarioLaboral.mascara(barbero.getSede().getIdSede(), barbero.getIdBarbero(), citaRq.getFecha());
+            if (!MascaraFranjas.contiene(laboral, MascaraFranjas.deIntervalo(inicio, fin))) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": el barbero no atiende en el horario solicitado.");
+            }
+            AgendaDia agenda = agendas.get(clave);
+            int idConflicto = agenda.buscarConflicto(inicio, fin, null);
+            if (idConflicto >= 0) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": el barbero ya tiene una cita (ID: " + idConflicto
+                        + ") que se cruza con el horario solicitado.");
+            }
+            if (idConflicto < -1) {
+                throw new BadRequestException("Cita #" + (i + 1) + ": se cruza con la cita #" + (-idConflicto - 1) + " del mismo lote.");
+            }
+            // Las citas del lote se identifican con IDs negativos (-2 para la #1, -3 para la #2, ...)
+            agendas.put(clave, agenda.con(-(i + 2), inicio, fin));
+        }
+
+        // 4. Insertar todas las citas en lotes JDBC
+        try {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR_CITA, citasRq, citasRq.size(), (ps, citaRq) -> {
+                ps.setDate(1, Date.valueOf(citaRq.getFecha()));
+                ps.setTime(2, Time.valueOf(citaRq.getHora()));
+                ps.setInt(3, citaRq.getIdCliente());
+                ps.setInt(4, citaRq.getIdBarbero());
+                ps.setInt(5, citaRq.getIdServicio());
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw traducirViolacion(e, "Error al agendar las citas: ");
+        }
+        TransaccionUtils.alConfirmar(() -> fechasPorBarbero.forEach((idBarbero, fechas) ->
+                fechas.forEach(fecha -> indiceCitas.invalidar(idBarbero, fecha))));
+        // Los IDs generados no se leen del lote: se olvidan las citas guardadas, incluidas las inexistentes
+        TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidarTipo(Cita.class));
+        return new RespuestaGenericaRs(true, citasRq.size() + " citas agendadas exitosamente.");
+    }
+
+    @Override
+    @Transactional(rollbackFor = BadRequestException.class)
+    @ReintentarEnConflicto
     public RespuestaGenericaRs actualizarCita(CitaRq citaRq) throws BadRequestException {
         // 1. Validar ID de la cita
         if (citaRq.getIdCita() == null) {
@@ -114,12 +365,15 @@ public class CitaServiceImpl implements CitaService {
         // 2. Buscar cita existente
         Cita citaActual = citaRepository.findById(citaRq.getIdCita())
                 .orElseThrow(() -> new BadRequestException("Cita no encontrada con ID: " + citaRq.getIdCita()));
+        VersionUtils.verificar("Cita", citaRq.getIdCita(), citaRq.getVersion(), citaActual.getVersion());
+        if (citaActual.getEstado() == Cita.EstadoCita.CANCELADA) {
+            throw new BadRequestException("No se puede modificar una cita cancelada.");
+        }
 
         // 3. Validar y obtener nuevas entidades relacionadas si los IDs cambian
         Cliente nuevoCliente = citaActual.getCliente();
         if (citaRq.getIdCliente() != null && !citaRq.getIdCliente().equals(citaActual.getCliente().getIdCliente())) {
-            nuevoCliente = clienteRepository.findById(citaRq.getIdCliente())
-                    .orElseThrow(() -> new BadRequestException("Nuevo cliente no encontrado con ID: " + citaRq.getIdCliente()));
+            nuevoCliente = clienteRepository.getReferenceById(citaRq.getIdCliente()); // Lo valida la llave foránea
         }
 
         Barbero nuevoBarbero = citaActual.getBarbero();
@@ -134,22 +388,19 @@ public class CitaServiceImpl implements CitaService {
                     .orElseThrow(() -> new BadRequestException("Nuevo servicio no encontrado con ID: " + citaRq.getIdServicio()));
         }
 
-        // 4. Validar disponibilidad del barbero si la fecha/hora/barbero cambian
+        // 4. Validar disponibilidad del barbero si la fecha/hora/barbero/servicio cambian
         LocalDate fechaCita = citaRq.getFecha() != null ? citaRq.getFecha() : citaActual.getFecha();
         LocalTime horaCita = citaRq.getHora() != null ? citaRq.getHora() : citaActual.getHora();
         Integer idBarberoCita = nuevoBarbero.getIdBarbero(); // Siempre usaremos el ID del barbero (nuevo o actual)
 
-        // Si la fecha, hora o barbero cambian, o si se mantiene igual pero es la misma cita, validar disponibilidad
+        // Si la fecha, hora, barbero o servicio cambian, validar que el nuevo intervalo no se solape con otra cita
         if ((citaRq.getFecha() != null && !citaRq.getFecha().equals(citaActual.getFecha())) ||
             (citaRq.getHora() != null && !citaRq.getHora().equals(citaActual.getHora())) ||
-            (citaRq.getIdBarbero() != null && !citaRq.getIdBarbero().equals(citaActual.getBarbero().getIdBarbero()))) {
-
-            Optional<Cita> citaConflicto = citaRepository.findByFechaAndHoraAndBarbero_IdBarbero(
-                    fechaCita, horaCita, idBarberoCita);
-
-            if (citaConflicto.isPresent() && !citaConflicto.get().getIdCita().equals(citaActual.getIdCita())) {
-                throw new BadRequestException("El barbero ya tiene otra cita agendada para la nueva fecha y hora.");
-            }
+            !idBarberoCita.equals(citaActual.getBarbero().getIdBarbero()) ||
+            !nuevoServicio.getIdServicio().equals(citaActual.getServicio().getIdServicio())) {
+            bloqueosBarbero.bloquearHastaFinDeTransaccion(
+                    Arrays.asList(citaActual.getBarbero().getIdBarbero(), idBarberoCita));
+            validarDisponibilidad(nuevoBarbero, fechaCita, horaCita, nuevoServicio, citaActual.getIdCita());
         }
         
         // 5. Validar que la fecha no sea pasada (para la nueva fecha si se actualiza)
@@ -162,7 +413,9 @@ public class CitaServiceImpl implements CitaService {
         }
 
 
-        // 6. Actualizar campos si se proporcionan en el request
+        // 6. Actualizar campos si se proporcionan en el request (conservando la ubicación anterior para el índice)
+        Integer idBarberoAnterior = citaActual.getBarbero().getIdBarbero();
+        LocalDate fechaAnterior = citaActual.getFecha();
         if (citaRq.getFecha() != null) {
             citaActual.setFecha(citaRq.getFecha());
         }
@@ -174,35 +427,242 @@ public class CitaServiceImpl implements CitaService {
         citaActual.setServicio(nuevoServicio);
 
         try {
-            citaRepository.save(citaActual);
+            Cita guardada = citaRepository.saveAndFlush(citaActual);
+            TransaccionUtils.alConfirmar(() -> {
+                indiceCitas.quitar(guardada.getIdCita(), idBarberoAnterior, fechaAnterior);
+                indiceCitas.registrar(guardada);
+                cacheBusquedas.invalidar(Cita.class, guardada.getIdCita());
+            });
             return new RespuestaGenericaRs(true, "Cita actualizada exitosamente.");
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                throw new BadRequestException("Nuevo cliente no encontrado con ID: " + citaRq.getIdCliente());
+            }
+            throw traducirViolacion(e, "Error al actualizar la cita: ");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Lo reintenta @ReintentarEnConflicto
         } catch (Exception e) {
             throw new BadRequestException("Error al actualizar la cita: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
-    public RespuestaGenericaRs eliminarCita(Integer idCita) throws BadRequestException {
-        if (!citaRepository.existsById(idCita)) {
-            throw new BadRequestException("Cita no encontrada con ID: " + idCita);
+    @Transactional(rollbackFor = BadRequestException.class)
+    @ReintentarEnConflicto
+    public RespuestaGenericaRs reprogramarCita(Integer idCita, ReprogramacionRq reprogramacionRq)
+            throws BadRequestException {
+        if (reprogramacionRq == null || (reprogramacionRq.getFecha() == null && reprogramacionRq.getHora() == null)) {
+            throw new BadRequestException("Debe indicar la nueva fecha y/o la nueva hora.");
+        }
+
+        // 1. Una sola consulta trae barbero, sede, fecha, hora y duración, sin cargar entidades
+        UbicacionCita actual = citaRepository.buscarUbicacion(idCita)
+                .orElseThrow(() -> new BadRequestException("Cita no encontrada o cancelada con ID: " + idCita));
+        LocalDate nuevaFecha = reprogramacionRq.getFecha() != null ? reprogramacionRq.getFecha() : actual.getFecha();
+        LocalTime nuevaHora = reprogramacionRq.getHora() != null ? reprogramacionRq.getHora() : actual.getHora();
+        if (nuevaFecha.equals(actual.getFecha()) && nuevaHora.equals(actual.getHora())) {
+            return new RespuestaGenericaRs(true, "La cita ya está en el horario solicitado.");
         }
+        if (nuevaFecha.isBefore(LocalDate.now())
+                || (nuevaFecha.isEqual(LocalDate.now()) && nuevaHora.isBefore(LocalTime.now()))) {
+            throw new BadRequestException("No se puede reprogramar una cita a una fecha u hora pasada.");
+        }
+
+        // 2. Validar el nuevo intervalo en memoria con la agenda del barbero bloqueada
+        bloqueosBarbero.bloquearHastaFinDeTransaccion(actual.getIdBarbero());
+        int duracion = actual.duracionEfectivaMinutos();
+        validarDisponibilidad(actual.getIdSede(), actual.getIdBarbero(), nuevaFecha, nuevaHora, duracion, idCita);
+
+        // 3. Mover la cita solo si sigue donde se leyó
+        int filas;
         try {
-            citaRepository.deleteById(idCita);
-            return new RespuestaGenericaRs(true, "Cita eliminada exitosamente.");
-        } catch (Exception e) {
-            // Considera manejar ConstraintViolationException si la cita tiene pagos asociados
-            throw new BadRequestException("Error al eliminar la cita: " + e.getMessage());
+            filas = citaRepository.reprogramar(idCita, actual.getIdBarbero(), actual.getFecha(), actual.getHora(),
+                    nuevaFecha, nuevaHora);
+        } catch (DataIntegrityViolationException e) {
+            throw traducirViolacion(e, "Error al reprogramar la cita: ");
+        }
+        if (filas == 0) {
+            // La cita cambió, se canceló o se eliminó después de leerla: se repite la reprogramación con los datos nuevos
+            throw new ObjectOptimisticLockingFailureException(Cita.class, idCita);
+        }
+        int inicio = IndiceCitas.minutos(nuevaHora);
+        TransaccionUtils.alConfirmar(() -> {
+            indiceCitas.quitar(idCita, actual.getIdBarbero(), actual.getFecha());
+            indiceCitas.registrar(idCita, actual.getIdBarbero(), nuevaFecha, inicio, inicio + duracion);
+            cacheBusquedas.invalidar(Cita.class, idCita);
+        });
+        return new RespuestaGenericaRs(true, "Cita reprogramada exitosamente.");
+    }
+
+    @Override
+    @Transactional(rollbackFor = BadRequestException.class)
+    public RespuestaGenericaRs cancelarCita(Integer idCita) throws BadRequestException {
+        // Una sola actualización condicional: solo cancela una cita vigente, futura y sin pagos; las filas
+        // afectadas dicen el resultado
+        if (citaRepository.cancelar(idCita, LocalDate.now()) == 1) {
+            TransaccionUtils.alConfirmar(() -> {
+                indiceCitas.quitar(idCita);
+                cacheBusquedas.invalidar(Cita.class, idCita);
+            });
+            return new RespuestaGenericaRs(true, "Cita cancelada exitosamente.");
+        }
+
+        // Solo en el caso de rechazo se consulta el motivo
+        Cita cita = citaRepository.findById(idCita)
+                .orElseThrow(() -> new BadRequestException("Cita no encontrada con ID: " + idCita));
+        if (cita.getEstado() == Cita.EstadoCita.CANCELADA) {
+            throw new BadRequestException("La cita ya está cancelada.");
+        }
+        if (cita.getFecha().isBefore(LocalDate.now())) {
+            throw new BadRequestException("No se puede cancelar una cita pasada.");
+        }
+        throw new BadRequestException("La cita tiene pagos registrados y no puede cancelarse.");
+    }
+
+    @Override
+    @Transactional(rollbackFor = BadRequestException.class)
+    public ReasignacionRs reasignarAusencia(ReasignacionRq reasignacionRq) throws BadRequestException {
+        // 1. Validar la solicitud; solo se reasignan citas de hoy en adelante
+        if (reasignacionRq == null || reasignacionRq.getIdBarbero() == null
+                || reasignacionRq.getDesde() == null || reasignacionRq.getHasta() == null) {
+            throw new BadRequestException("ID del barbero, fecha inicial y fecha final son obligatorios.");
+        }
+        if (reasignacionRq.getHasta().isBefore(reasignacionRq.getDesde())) {
+            throw new BadRequestException("La fecha final no puede ser anterior a la fecha inicial.");
+        }
+        if (ChronoUnit.DAYS.between(reasignacionRq.getDesde(), reasignacionRq.getHasta()) >= MAXIMO_DIAS_REASIGNACION) {
+            throw new BadRequestException("El rango no puede superar " + MAXIMO_DIAS_REASIGNACION + " días.");
+        }
+        Barbero ausente = barberoRepository.findById(reasignacionRq.getIdBarbero())
+                .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + reasignacionRq.getIdBarbero()));
+        Integer idAusente = ausente.getIdBarbero();
+        Integer idSede = ausente.getSede().getIdSede();
+        LocalDate hoy = LocalDate.now();
+        LocalDate desde = reasignacionRq.getDesde().isBefore(hoy) ? hoy : reasignacionRq.getDesde();
+        LocalDate hasta = reasignacionRq.getHasta();
+        if (hasta.isBefore(desde)) {
+            return new ReasignacionRs(0, 0, new HashMap<>(), new ArrayList<>());
+        }
+
+        // 2. Bloquear las agendas de toda la sede y leer de la base, con las filas bloqueadas, las citas del
+        // ausente y las agendas de los candidatos
+        List<Integer> idsCandidatos = barberoRepository.findBySede_IdSede(idSede).stream()
+                .map(Barbero::getIdBarbero).filter(id -> !id.equals(idAusente)).collect(Collectors.toList());
+        List<Integer> idsBloqueo = new ArrayList<>(idsCandidatos);
+        idsBloqueo.add(idAusente);
+        bloqueosBarbero.bloquearHastaFinDeTransaccion(idsBloqueo);
+        LocalTime ahora = LocalTime.now();
+        Map<LocalDate, List<UbicacionCita>> citasPorDia = new HashMap<>();
+        int citasAfectadas = 0;
+        for (UbicacionCita ubicacion : citaRepository.buscarUbicacionesPorBarbero(idAusente, desde, hasta)) {
+            if (ubicacion.getFecha().isEqual(hoy) && ubicacion.getHora().isBefore(ahora)) {
+                continue; // Ya empezó o pasó
+            }
+            citasPorDia.computeIfAbsent(ubicacion.getFecha(), k -> new ArrayList<>()).add(ubicacion);
+            citasAfectadas++;
+        }
+        Map<Long, AgendaDia> agendas = idsCandidatos.isEmpty() || citasPorDia.isEmpty() ? Map.of()
+                : bloquearAgendas(idsCandidatos, citasPorDia.keySet());
+
+        // 3. Planificar cada día por separado, en memoria
+        Map<Integer, Integer> barberoPorCita = new HashMap<>();
+        List<Integer> citasSinUbicar = new ArrayList<>();
+        List<UbicacionCita> reasignadas = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<UbicacionCita>> dia : citasPorDia.entrySet()) {
+            LocalDate fecha = dia.getKey();
+            List<UbicacionCita> citasDia = dia.getValue();
+            int n = citasDia.size();
+            int[] ids = new int[n];
+            int[] inicios = new int[n];
+            int[] fines = new int[n];
+            for (int i = 0; i < n; i++) {
+                UbicacionCita ubicacion = citasDia.get(i);
+                ids[i] = ubicacion.getIdCita();
+                inicios[i] = IndiceCitas.minutos(ubicacion.getHora());
+                fines[i] = inicios[i] + ubicacion.duracionEfectivaMinutos();
+            }
+            long[][] laborales = new long[idsCandidatos.size()][];
+            AgendaDia[] agendasDia = new AgendaDia[idsCandidatos.size()];
+            for (int j = 0; j < idsCandidatos.size(); j++) {
+                laborales[j] = calendarioLaboral.mascara(idSede, idsCandidatos.get(j), fecha);
+                agendasDia[j] = agendas.get(IndiceCitas.claveDe(idsCandidatos.get(j), fecha));
+            }
+            int[] asignacion = PlanificadorReasignacion.planificar(ids, inicios, fines, laborales, agendasDia);
+            for (int i = 0; i < n; i++) {
+                if (asignacion[i] == PlanificadorReasignacion.SIN_UBICAR) {
+                    citasSinUbicar.add(ids[i]);
+                } else {
+                    barberoPorCita.put(ids[i], idsCandidatos.get(asignacion[i]));
+                    reasignadas.add(citasDia.get(i));
+                }
+            }
+        }
+
+        // 4. Aplicar todos los cambios de barbero en lotes JDBC dentro de la misma transacción
+        if (!reasignadas.isEmpty()) {
+            int[][] filas;
+            try {
+                filas = jdbcTemplate.batchUpdate(SQL_REASIGNAR_CITA, reasignadas, reasignadas.size(), (ps, ubicacion) -> {
+                    ps.setInt(1, barberoPorCita.get(ubicacion.getIdCita()));
+                    ps.setInt(2, ubicacion.getIdCita());
+                    ps.setInt(3, idAusente);
+                });
+            } catch (DataIntegrityViolationException e) {
+                throw traducirViolacion(e, "Error al reasignar las citas: ");
+            }
+            for (int[] lote : filas) {
+                for (int afectadas : lote) {
+                    if (afectadas == 0) {
+                        throw new BadRequestException("Alguna cita cambió durante la reasignación; intente de nuevo.");
+                    }
+                }
+            }
+            TransaccionUtils.alConfirmar(() -> {
+                for (UbicacionCita ubicacion : reasignadas) {
+                    int inicio = IndiceCitas.minutos(ubicacion.getHora());
+                    indiceCitas.quitar(ubicacion.getIdCita(), idAusente, ubicacion.getFecha());
+                    indiceCitas.registrar(ubicacion.getIdCita(), barberoPorCita.get(ubicacion.getIdCita()),
+                            ubicacion.getFecha(), inicio, inicio + ubicacion.duracionEfectivaMinutos());
+                    cacheBusquedas.invalidar(Cita.class, ubicacion.getIdCita());
+                }
+            });
         }
+        Collections.sort(citasSinUbicar);
+        return new ReasignacionRs(citasAfectadas, reasignadas.size(), barberoPorCita, citasSinUbicar);
     }
 
     @Override
-    public List<Cita> listarCitasPorFechaYBarbero(LocalDate fecha, Integer idBarbero) throws BadRequestException {
-        // Opcional: Validar existencia del barbero si no se hace en findByFechaAndBarbero_IdBarbero
-        barberoRepository.findById(idBarbero)
-                .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + idBarbero));
+    @Transactional(rollbackFor = BadRequestException.class)
+    public RespuestaGenericaRs eliminarCita(Integer idCita) throws BadRequestException {
+        // La cita se lee para saber qué agenda del índice actualizar
+        Cita cita = citaRepository.findById(idCita)
+                .orElseThrow(() -> new BadRequestException("Cita no encontrada con ID: " + idCita));
+        Integer idBarbero = cita.getBarbero().getIdBarbero();
+        LocalDate fecha = cita.getFecha();
+        try {
+            citaRepository.eliminarPorId(idCita);
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                throw new BadRequestException("No se puede eliminar la cita porque tiene pagos asociados.");
+            }
+            throw new BadRequestException("Error al eliminar la cita: " + RestriccionUtils.detalle(e));
+        }
+        TransaccionUtils.alConfirmar(() -> {
+            indiceCitas.quitar(idCita, idBarbero, fecha);
+            cacheBusquedas.invalidar(Cita.class, idCita);
+        });
+        return new RespuestaGenericaRs(true, "Cita eliminada exitosamente.");
+    }
 
-        List<Cita> citas = citaRepository.findByFechaAndBarbero_IdBarberoOrderByHoraAsc(fecha, idBarbero);
+    @Override
+    @Transactional(readOnly = true)
+    @AgruparLecturas({"cita", "cliente", "barbero", "sede", "servicio"})
+    public List<CitaResumen> listarCitasPorFechaYBarbero(LocalDate fecha, Integer idBarbero) throws BadRequestException {
+        List<CitaResumen> citas = citaRepository.buscarResumenesPorFechaYBarbero(fecha, idBarbero);
+        // La existencia del barbero solo se consulta si no hay citas
+        if (citas.isEmpty() && !barberoRepository.existe(idBarbero)) {
+            throw new BadRequestException("Barbero no encontrado con ID: " + idBarbero);
+        }
         if (citas.isEmpty()) {
             // No lanzar excepción si no hay citas, solo devolver lista vacía o mensaje
             // throw new BadRequestException("No se encontraron citas para la fecha y barbero especificados.");
@@ -212,15 +672,326 @@ public class CitaServiceImpl implements CitaService {
     }
 
     @Override
-    public List<Cita> listarCitasPorCliente(Integer idCliente) throws BadRequestException {
-        // Opcional: Validar existencia del cliente
-        clienteRepository.findById(idCliente)
-                .orElseThrow(() -> new BadRequestException("Cliente no encontrado con ID: " + idCliente));
-
-        List<Cita> citas = citaRepository.findByCliente_IdClienteOrderByFechaDescHoraDesc(idCliente);
+    @Transactional(readOnly = true)
+    @AgruparLecturas({"cita", "cliente", "barbero", "sede", "servicio"})
+    public PaginaRs<CitaResumen> listarCitasPorCliente(Integer idCliente, String after, Integer limit) throws BadRequestException {
+        if (cacheBusquedas.ausente(Cliente.class, idCliente)) {
+            throw new BadRequestException("Cliente no encontrado con ID: " + idCliente);
+        }
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 3);
+        List<CitaResumen> citas = cursor == null
+                ? citaRepository.buscarPaginaPorCliente(idCliente, PaginacionUtils.consulta(limite))
+                : citaRepository.buscarPaginaPorClienteAntes(idCliente, PaginacionUtils.fecha(cursor[0]),
+                        PaginacionUtils.hora(cursor[1]), PaginacionUtils.entero(cursor[2]), PaginacionUtils.consulta(limite));
+        // La existencia del cliente solo se consulta si la primera página sale vacía
+        if (citas.isEmpty() && cursor == null && !clienteRepository.existsById(idCliente)) {
+            cacheBusquedas.registrarAusente(Cliente.class, idCliente);
+            throw new BadRequestException("Cliente no encontrado con ID: " + idCliente);
+        }
         if (citas.isEmpty()) {
             System.out.println("No se encontraron citas para el cliente " + idCliente);
         }
-        return citas;
+        return PaginacionUtils.pagina(citas, limite, c -> new Object[]{c.getFecha(), c.getHora(), c.getIdCita()});
+    }
+
+    /**
+     * Asigna el barbero de la sede con menos minutos reservados en la fecha que pueda atender el servicio,
+     * dejando su agenda bloqueada hasta el final de la transacción.
+     * @param idSede ID de la sede.
+     * @param fecha Fecha de la cita.
+     * @param hora Hora de inicio.
+     * @param servicio Servicio que determina la duración.
+     * @return Barbero asignado.
+     * @throws BadRequestException Si la sede no existe o ningún barbero puede atender.
+     */
+    private Barbero asignarBarbero(Integer idSede, LocalDate fecha, LocalTime hora, Servicio servicio)
+            throws BadRequestException {
+        int inicio = IndiceCitas.minutos(hora);
+        int duracion = servicio.duracionEfectivaMinutos();
+        Set<Integer> descartados = new HashSet<>();
+        for (int intento = 0; intento < MAXIMO_INTENTOS_ASIGNACION; intento++) {
+            Integer idBarbero = asignadorBarberos.elegir(idSede, fecha, inicio, duracion, descartados);
+            if (idBarbero == null) {
+                break;
+            }
+            // Otra reserva pudo tomar el horario entre la elección y el bloqueo: se valida de nuevo bajo el candado
+            BloqueosBarbero.Bloqueo bloqueo = bloqueosBarbero.bloquearHastaFinDeTransaccion(idBarbero);
+            try {
+                validarDisponibilidad(idSede, idBarbero, fecha, hora, duracion, null);
+            } catch (BadRequestException e) {
+                // Solo se conserva el candado del barbero elegido: retener los descartados tomaría varias
+                // franjas fuera de orden y dos asignaciones simultáneas podrían bloquearse entre sí
+                bloqueo.liberar();
+                descartados.add(idBarbero);
+                continue;
+            }
+            return barberoRepository.findById(idBarbero)
+                    .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + idBarbero));
+        }
+        if (!sedeRepository.existe(idSede)) {
+            throw new BadRequestException("La sede con ID " + idSede + " no existe.");
+        }
+        throw new BadRequestException("Ningún barbero de la sede tiene disponible el horario solicitado.");
+    }
+
+    /**
+     * Valida que el intervalo que ocuparía el servicio esté dentro del horario laboral del barbero
+     * y que no se solape con otra de sus citas.
+     * @param barbero Barbero.
+     * @param fecha Fecha de la cita.
+     * @param hora Hora de inicio.
+     * @param servicio Servicio que determina la duración.
+     * @param idCitaExcluida ID de la propia cita en una actualización, o null.
+     * @throws BadRequestException Si el intervalo está fuera del horario, se solapa con otra cita o excede el día.
+     */
+    private void validarDisponibilidad(Barbero barbero, LocalDate fecha, LocalTime hora, Servicio servicio,
+            Integer idCitaExcluida) throws BadRequestException {
+        validarDisponibilidad(barbero.getSede().getIdSede(), barbero.getIdBarbero(), fecha, hora,
+                servicio.duracionEfectivaMinutos(), idCitaExcluida);
+    }
+
+    /**
+     * Valida la disponibilidad a partir de los identificadores y la duración, sin necesidad de entidades.
+     * El índice en memoria descarta rápido los horarios ocupados, pero solo conoce las reservas de esta
+     * instancia; la decisión final se toma con la agenda leída de la base con bloqueo (ver
+     * {@link #bloquearAgendas(Collection, Collection)}).
+     * <p>
+     * Usa la misma granularidad que {@link #consultarDisponibilidad}: la cita empieza al inicio de una franja
+     * y ocupa franjas completas, así que una hora se acepta si y solo si la búsqueda de horarios la ofrece.
+     * @param idSede ID de la sede del barbero.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha de la cita.
+     * @param hora Hora de inicio.
+     * @param duracion Duración del servicio en minutos.
+     * @param idCitaExcluida ID de la propia cita en una actualización, o null.
+     * @throws BadRequestException Si la hora no está alineada, el intervalo está fuera del horario, se solapa
+     * con otra cita o excede el día.
+     */
+    private void validarDisponibilidad(Integer idSede, Integer idBarbero, LocalDate fecha, LocalTime hora,
+            int duracion, Integer idCitaExcluida) throws BadRequestException {
+        if (!HorarioUtils.alineada(hora)) {
+            throw new BadRequestException("La hora de la cita debe ser múltiplo de "
+                    + MascaraFranjas.MINUTOS_POR_FRANJA + " minutos.");
+        }
+        int inicio = IndiceCitas.minutos(hora);
+        // Con el inicio alineado, el cruce en minutos contra este intervalo equivale al cruce de franjas
+        // de la máscara ocupada, incluso con citas antiguas que no estén alineadas
+        int ocupacion = MascaraFranjas.franjasPara(duracion) * MascaraFranjas.MINUTOS_POR_FRANJA;
+        if (inicio + ocupacion > 24 * 60) {
+            throw new BadRequestException("El servicio no alcanza a terminar antes de la medianoche.");
+        }
+        long[] laboral = calendarioLaboral.mascara(idSede, idBarbero, fecha);
+        if (!MascaraFranjas.contiene(laboral, MascaraFranjas.deIntervalo(inicio, inicio + ocupacion))) {
+            throw new BadRequestException("El barbero no atiende en el horario solicitado.");
+        }
+        int idConflicto = indiceCitas.buscarConflicto(idBarbero, fecha, hora, ocupacion, idCitaExcluida);
+        if (idConflicto < 0) {
+            idConflicto = bloquearAgendas(List.of(idBarbero), List.of(fecha)).get(IndiceCitas.claveDe(idBarbero, fecha))
+                    .buscarConflicto(inicio, inicio + ocupacion, idCitaExcluida);
+            if (idConflicto >= 0) {
+                // La reservó otra instancia: la agenda en memoria está desactualizada y se vuelve a cargar
+                indiceCitas.invalidar(idBarbero, fecha);
+            }
+        }
+        if (idConflicto >= 0) {
+            throw new BadRequestException("El barbero ya tiene una cita (ID: " + idConflicto
+                    + ") que se cruza con el horario solicitado.");
+        }
+    }
+
+    /**
+     * Bloquea hasta el final de la transacción las filas de los barberos (en la base de datos, para todas
+     * las instancias de la aplicación) y lee sus agendas con una lectura con bloqueo, que ve las citas
+     * confirmadas aunque la transacción haya abierto antes su instantánea. Es la verificación definitiva
+     * de solapamientos: la restricción única de la tabla solo rechaza citas que empiecen a la misma hora.
+     * @param idsBarbero IDs de los barberos.
+     * @param fechas Fechas a leer.
+     * @return Agenda de cada par, indexada por {@link IndiceCitas#claveDe(Integer, LocalDate)}.
+     */
+    private Map<Long, AgendaDia> bloquearAgendas(Collection<Integer> idsBarbero, Collection<LocalDate> fechas) {
+        barberoRepository.bloquearFilas(idsBarbero);
+        return indiceCitas.leerAgendasBloqueadas(idsBarbero, fechas);
+    }
+
+    // Sin transacción: el IndiceCitas solo guarda las agendas leídas fuera de una, que van a la primaria y
+    // no a la réplica
+    @Override
+    public List<DisponibilidadBarberoRs> consultarDisponibilidad(LocalDate fecha, Integer idSede, Integer idServicio)
+            throws BadRequestException {
+        if (fecha == null || idSede == null || idServicio == null) {
+            throw new BadRequestException("Fecha, ID de sede e ID de servicio son obligatorios.");
+        }
+        Servicio servicio = servicioRepository.findById(idServicio)
+                .orElseThrow(() -> new BadRequestException("Servicio no encontrado con ID: " + idServicio));
+
+        List<Barbero> barberos = barberoRepository.findBySede_IdSede(idSede);
+        if (barberos.isEmpty()) {
+            if (!sedeRepository.existe(idSede)) {
+                throw new BadRequestException("La sede con ID " + idSede + " no existe.");
+            }
+            return new ArrayList<>();
+        }
+
+        // Una sola consulta trae las citas de toda la sede; el resto es aritmética de bits por barbero
+        List<Integer> idsBarbero = barberos.stream().map(Barbero::getIdBarbero).collect(Collectors.toList());
+        Map<Integer, AgendaDia> agendas = indiceCitas.obtenerAgendasSede(idSede, fecha, idsBarbero);
+        int franjasNecesarias = MascaraFranjas.franjasPara(servicio.duracionEfectivaMinutos());
+
+        List<DisponibilidadBarberoRs> disponibilidad = new ArrayList<>(barberos.size());
+        for (Barbero barbero : barberos) {
+            long[] libres = MascaraFranjas.restar(mascaraLaboral(idSede, barbero.getIdBarbero(), fecha),
+                    agendas.get(barbero.getIdBarbero()).mascaraOcupada());
+            long[] inicios = MascaraFranjas.iniciosPosibles(libres, franjasNecesarias);
+            disponibilidad.add(new DisponibilidadBarberoRs(barbero.getIdBarbero(), barbero.getNombre(),
+                    barbero.getApellido(), MascaraFranjas.horas(inicios)));
+        }
+        return disponibilidad;
+    }
+
+    // Sin readOnly por la misma razón que consultarDisponibilidad
+    @Override
+    public List<OcupacionDiaRs> consultarOcupacion(Integer idSede, Integer idBarbero, LocalDate desde, LocalDate hasta)
+            throws BadRequestException {
+        if (idSede == null || desde == null || hasta == null) {
+            throw new BadRequestException("ID de sede, fecha inicial y fecha final son obligatorios.");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new BadRequestException("La fecha final no puede ser anterior a la fecha inicial.");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS_OCUPACION) {
+            throw new BadRequestException("El rango no puede superar " + MAXIMO_DIAS_OCUPACION + " días.");
+        }
+
+        List<Integer> idsBarbero;
+        if (idBarbero != null) {
+            Barbero barbero = barberoRepository.findById(idBarbero)
+                    .orElseThrow(() -> new BadRequestException("Barbero no encontrado con ID: " + idBarbero));
+            if (!barbero.getSede().getIdSede().equals(idSede)) {
+                throw new BadRequestException("El barbero con ID " + idBarbero + " no pertenece a la sede " + idSede + ".");
+            }
+            idsBarbero = List.of(idBarbero);
+        } else {
+            idsBarbero = barberoRepository.findBySede_IdSede(idSede).stream()
+                    .map(Barbero::getIdBarbero).collect(Collectors.toList());
+            if (idsBarbero.isEmpty() && !sedeRepository.existe(idSede)) {
+                throw new BadRequestException("La sede con ID " + idSede + " no existe.");
+            }
+        }
+
+        // Una sola consulta por rango llena las agendas que falten; el conteo es aritmética de bits.
+        // Los días pasados no tienen capacidad, así que no se cargan en el índice.
+        LocalDate hoy = LocalDate.now();
+        Map<Long, AgendaDia> agendas = hasta.isBefore(hoy) ? Map.of()
+                : indiceCitas.obtenerAgendasRango(idsBarbero, desde.isBefore(hoy) ? hoy : desde, hasta);
+        List<OcupacionDiaRs> ocupacion = new ArrayList<>();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            int libres = 0;
+            int totales = 0;
+            for (Integer id : idsBarbero) {
+                long[] laboral = mascaraLaboral(idSede, id, fecha);
+                int franjasLaborales = MascaraFranjas.contar(laboral);
+                if (franjasLaborales == 0) {
+                    continue;
+                }
+                totales += franjasLaborales;
+                libres += MascaraFranjas.contar(MascaraFranjas.restar(laboral,
+                        agendas.get(IndiceCitas.claveDe(id, fecha)).mascaraOcupada()));
+            }
+            ocupacion.add(new OcupacionDiaRs(fecha, libres, totales, libres == 0));
+        }
+        return ocupacion;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @AgruparLecturas({"cita", "cliente", "barbero", "sede", "servicio"})
+    public List<AgendaFechaRs> consultarAgenda(Integer idBarbero, Integer idSede, LocalDate desde, LocalDate hasta)
+            throws BadRequestException {
+        if ((idBarbero == null) == (idSede == null)) {
+            throw new BadRequestException("Debe indicar el ID del barbero o el ID de la sede (solo uno de los dos).");
+        }
+        if (desde == null || hasta == null) {
+            throw new BadRequestException("Fecha inicial y fecha final son obligatorias.");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new BadRequestException("La fecha final no puede ser anterior a la fecha inicial.");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS_AGENDA) {
+            throw new BadRequestException("El rango no puede superar " + MAXIMO_DIAS_AGENDA + " días.");
+        }
+
+        // Una sola consulta; las filas llegan ordenadas por fecha, barbero y hora, así que basta con cortar los grupos
+        List<FilaAgenda> filas = idBarbero != null
+                ? citaRepository.buscarAgendaBarbero(idBarbero, desde, hasta)
+                : citaRepository.buscarAgendaSede(idSede, desde, hasta);
+        List<AgendaFechaRs> agenda = new ArrayList<>();
+        int i = 0;
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            List<AgendaBarberoRs> barberos = new ArrayList<>();
+            while (i < filas.size() && filas.get(i).getFecha().equals(fecha)) {
+                FilaAgenda primera = filas.get(i);
+                List<CitaCalendarioRs> citas = new ArrayList<>();
+                while (i < filas.size() && filas.get(i).getFecha().equals(fecha)
+                        && filas.get(i).getIdBarbero().equals(primera.getIdBarbero())) {
+                    FilaAgenda fila = filas.get(i++);
+                    int duracion = fila.getDuracionMinutos() != null && fila.getDuracionMinutos() > 0
+                            ? fila.getDuracionMinutos() : Servicio.DURACION_POR_DEFECTO_MINUTOS;
+                    citas.add(new CitaCalendarioRs(fila.getIdCita(), fila.getHora(), fila.getHora().plusMinutes(duracion),
+                            fila.getIdCliente(), fila.getNombreCliente() + " " + fila.getApellidoCliente(),
+                            fila.getIdServicio(), fila.getNombreServicio()));
+                }
+                barberos.add(new AgendaBarberoRs(primera.getIdBarbero(), primera.getNombreBarbero(),
+                        primera.getApellidoBarbero(), citas));
+            }
+            agenda.add(new AgendaFechaRs(fecha, barberos));
+        }
+        return agenda;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarCitas(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        // Las filas son proyecciones: el cursor avanza sin llenar el contexto de persistencia
+        try (Stream<CitaResumen> citas = citaRepository.exportarPorRango(desde, hasta)) {
+            ExportacionUtils.escribir(citas, formato, objectMapper, COLUMNAS_EXPORTACION, c -> new Object[]{
+                c.getIdCita(), c.getFecha(), c.getHora(), c.getIdCliente(), c.getNombreCliente(), c.getApellidoCliente(),
+                c.getIdBarbero(), c.getNombreBarbero(), c.getApellidoBarbero(), c.getIdSede(), c.getIdServicio(),
+                c.getNombreServicio(), c.getPrecio(), c.getDuracionMinutos(), c.getEstado()}, salida);
+        }
+    }
+
+    /**
+     * Máscara de las franjas en que el barbero atiende en la fecha indicada, descontando las horas ya pasadas.
+     * @param idSede ID de la sede del barbero.
+     * @param idBarbero ID del barbero.
+     * @param fecha Fecha a consultar.
+     * @return Máscara de franjas laborables.
+     */
+    private long[] mascaraLaboral(Integer idSede, Integer idBarbero, LocalDate fecha) {
+        LocalDate hoy = LocalDate.now();
+        if (fecha.isBefore(hoy)) {
+            return MascaraFranjas.vacia();
+        }
+        long[] laboral = calendarioLaboral.mascara(idSede, idBarbero, fecha);
+        if (fecha.isEqual(hoy)) {
+            laboral = MascaraFranjas.restar(laboral,
+                    MascaraFranjas.deIntervalo(0, IndiceCitas.minutos(LocalTime.now())));
+        }
+        return laboral;
+    }
+
+    /**
+     * Traduce una violación de integridad a un mensaje de negocio.
+     * @param e Excepción de integridad lanzada por la base de datos.
+     * @param prefijo Prefijo del mensaje genérico.
+     * @return Excepción con un mensaje comprensible para el usuario.
+     */
+    private BadRequestException traducirViolacion(DataIntegrityViolationException e, String prefijo) {
+        if (RestriccionUtils.esRestriccion(e, Cita.UK_BARBERO_FECHA_HORA)) {
+            return new BadRequestException("El barbero ya tiene una cita agendada para esa fecha y hora.");
+        }
+        return new BadRequestException(prefijo + RestriccionUtils.detalle(e));
     }
 }
@@ -1,15 +1,40 @@
 package com.uniminuto.biblioteca.servicesimpl; // Manteniendo el paquete base "biblioteca"
 
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.concurrencia.ReintentarEnConflicto;
 import com.uniminuto.biblioteca.entity.Cliente;
 import com.uniminuto.biblioteca.model.ClienteRq;
+import com.uniminuto.biblioteca.model.ErrorImportacionRs;
+import com.uniminuto.biblioteca.model.ImportacionClientesRs;
+import com.uniminuto.biblioteca.model.PaginaRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.repository.ClienteRepository;
 import com.uniminuto.biblioteca.services.ClienteService;
+import com.uniminuto.biblioteca.utils.LectorCsv;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
+import com.uniminuto.biblioteca.utils.RestriccionUtils;
+import com.uniminuto.biblioteca.utils.TransaccionUtils;
+import com.uniminuto.biblioteca.utils.VersionUtils;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,19 +47,41 @@ public class ClienteServiceImpl implements ClienteService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // Inserciones por lotes de la importación masiva
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas; // Clientes por ID, invalidados al confirmar cada cambio
+
+    /**
+     * Filas que se validan contra la base de datos e insertan juntas durante una importación.
+     */
+    private static final int TAMANIO_BLOQUE_IMPORTACION = 1000;
+
+    private static final String SQL_INSERTAR_CLIENTE =
+            "INSERT INTO cliente (nombre, apellido, telefono, correo, fecha_registro) VALUES (?, ?, ?, ?, ?)";
+
     @Override
-    public List<Cliente> listarClientes() {
-        return clienteRepository.findAllByOrderByFechaRegistroAsc();
+    @Transactional(readOnly = true)
+    public PaginaRs<Cliente> listarClientes(String after, Integer limit) throws BadRequestException {
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 2);
+        List<Cliente> filas = cursor == null
+                ? clienteRepository.buscarPagina(PaginacionUtils.consulta(limite))
+                : clienteRepository.buscarPaginaDespues(PaginacionUtils.fecha(cursor[0]), PaginacionUtils.entero(cursor[1]),
+                        PaginacionUtils.consulta(limite));
+        return PaginacionUtils.pagina(filas, limite, c -> new Object[]{c.getFechaRegistro(), c.getIdCliente()});
     }
 
     @Override
     public Cliente obtenerClientePorId(Integer idCliente) throws BadRequestException {
-        return clienteRepository.findById(idCliente)
-                .orElseThrow(() -> new BadRequestException("Cliente no encontrado con ID: " + idCliente));
+        // Sin transacción propia: un acierto de la caché no toma conexión
+        return cacheBusquedas.obtener(Cliente.class, idCliente, () -> clienteRepository.findById(idCliente),
+                "Cliente no encontrado con ID: ");
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
     public RespuestaGenericaRs crearCliente(ClienteRq clienteRq) throws BadRequestException {
         // Validar campos obligatorios
         if (clienteRq.getNombre() == null || clienteRq.getNombre().trim().isEmpty() ||
@@ -43,11 +90,6 @@ public class ClienteServiceImpl implements ClienteService {
             throw new BadRequestException("Nombre, apellido y teléfono son campos obligatorios.");
         }
 
-        // Validar duplicidad por teléfono (considerando que el teléfono debe ser único)
-        if (clienteRepository.existsByTelefono(clienteRq.getTelefono())) {
-            throw new BadRequestException("Ya existe un cliente con el número de teléfono proporcionado.");
-        }
-
         Cliente cliente = new Cliente();
         cliente.setNombre(clienteRq.getNombre());
         cliente.setApellido(clienteRq.getApellido());
@@ -59,15 +101,24 @@ public class ClienteServiceImpl implements ClienteService {
 
 
         try {
-            clienteRepository.save(cliente);
+            // La duplicidad por teléfono la rechaza la restricción única con la misma sentencia INSERT
+            Cliente guardado = clienteRepository.save(cliente);
+            // Olvida una búsqueda anterior que encontró el ID libre
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Cliente.class, guardado.getIdCliente()));
             return new RespuestaGenericaRs(true, "Cliente creado exitosamente.");
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esRestriccion(e, Cliente.UK_TELEFONO)) {
+                throw new BadRequestException("Ya existe un cliente con el número de teléfono proporcionado.");
+            }
+            throw new BadRequestException("Error al crear el cliente: " + RestriccionUtils.detalle(e));
         } catch (Exception e) {
             throw new BadRequestException("Error al crear el cliente: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
+    @ReintentarEnConflicto
     public RespuestaGenericaRs actualizarCliente(ClienteRq clienteRq) throws BadRequestException {
         // Validar ID del cliente
         if (clienteRq.getIdCliente()== null) {
@@ -77,16 +128,7 @@ public class ClienteServiceImpl implements ClienteService {
         // Buscar cliente existente
         Cliente clienteActual = clienteRepository.findById(clienteRq.getIdCliente())
                 .orElseThrow(() -> new BadRequestException("Cliente no encontrado con ID: " + clienteRq.getIdCliente()));
-
-        // Verificar si el teléfono cambió y si el nuevo teléfono ya existe para otro cliente
-        boolean telefonoCambiado = clienteRq.getTelefono() != null && !clienteActual.getTelefono().equals(clienteRq.getTelefono());
-
-        if (telefonoCambiado) {
-            if (clienteRepository.findByTelefono(clienteRq.getTelefono())
-                    .filter(c -> !c.getIdCliente().equals(clienteActual.getIdCliente())).isPresent()) {
-                throw new BadRequestException("Ya existe otro cliente con el número de teléfono proporcionado.");
-            }
-        }
+        VersionUtils.verificar("Cliente", clienteRq.getIdCliente(), clienteRq.getVersion(), clienteActual.getVersion());
 
         // Actualizar campos si se proporcionan en el request
         if (clienteRq.getNombre() != null) {
@@ -109,25 +151,217 @@ public class ClienteServiceImpl implements ClienteService {
 
 
         try {
-            clienteRepository.save(clienteActual);
+            // Si el nuevo teléfono ya es de otro cliente, la restricción única rechaza el UPDATE
+            clienteRepository.saveAndFlush(clienteActual);
+            // También descarta las citas guardadas que incluyen al cliente
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Cliente.class, clienteRq.getIdCliente()));
             return new RespuestaGenericaRs(true, "Cliente actualizado exitosamente.");
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esRestriccion(e, Cliente.UK_TELEFONO)) {
+                throw new BadRequestException("Ya existe otro cliente con el número de teléfono proporcionado.");
+            }
+            throw new BadRequestException("Error al actualizar el cliente: " + RestriccionUtils.detalle(e));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Lo reintenta @ReintentarEnConflicto
         } catch (Exception e) {
             throw new BadRequestException("Error al actualizar el cliente: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
     public RespuestaGenericaRs eliminarCliente(Integer idCliente) throws BadRequestException {
-        if (!clienteRepository.existsById(idCliente)) {
+        int eliminados;
+        try {
+            eliminados = clienteRepository.eliminarPorId(idCliente);
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                throw new BadRequestException("No se puede eliminar el cliente porque tiene citas asociadas.");
+            }
+            throw new BadRequestException("Error al eliminar el cliente: " + RestriccionUtils.detalle(e));
+        }
+        if (eliminados == 0) {
             throw new BadRequestException("Cliente no encontrado con ID: " + idCliente);
         }
+        TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Cliente.class, idCliente));
+        return new RespuestaGenericaRs(true, "Cliente eliminado exitosamente.");
+    }
+
+    @Override
+    @Transactional(rollbackFor = BadRequestException.class)
+    public ImportacionClientesRs importarClientes(InputStream contenido) throws BadRequestException {
+        LectorCsv lector = new LectorCsv(new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8)));
+        List<ErrorImportacionRs> errores = new ArrayList<>();
+        Set<String> telefonosArchivo = new HashSet<>();
+        List<FilaImportacion> bloque = new ArrayList<>(TAMANIO_BLOQUE_IMPORTACION);
+        long filasLeidas = 0;
+        long creados = 0;
         try {
-            clienteRepository.deleteById(idCliente);
-            return new RespuestaGenericaRs(true, "Cliente eliminado exitosamente.");
-        } catch (Exception e) {
-            // Considera manejar ConstraintViolationException si el cliente tiene citas asociadas
-            throw new BadRequestException("Error al eliminar el cliente: " + e.getMessage());
+            String[] encabezados = lector.leer();
+            if (encabezados == null) {
+                throw new BadRequestException("El archivo está vacío.");
+            }
+            ColumnasImportacion columnas = new ColumnasImportacion(encabezados);
+
+            String[] registro;
+            while ((registro = lector.leer()) != null) {
+                if (registro.length == 1 && registro[0].isBlank()) {
+                    continue; // Línea vacía
+                }
+                filasLeidas++;
+                FilaImportacion fila = columnas.fila(registro, lector.getLineaRegistro());
+                String motivo = fila.validar();
+                if (motivo == null && !telefonosArchivo.add(fila.telefono)) {
+                    motivo = "Teléfono repetido en el archivo.";
+                }
+                if (motivo != null) {
+                    errores.add(new ErrorImportacionRs(fila.linea, fila.telefono, motivo));
+                    continue;
+                }
+                bloque.add(fila);
+                if (bloque.size() == TAMANIO_BLOQUE_IMPORTACION) {
+                    creados += insertarBloque(bloque, errores);
+                    bloque.clear();
+                }
+            }
+            creados += insertarBloque(bloque, errores);
+        } catch (BadRequestException e) {
+            throw e; // También es una IOException: se propaga sin envolverla como error de lectura
+        } catch (IOException e) {
+            throw new BadRequestException("No se pudo leer el archivo: " + e.getMessage());
+        }
+        if (creados > 0) {
+            // Los IDs generados no se leen del lote: se olvidan los clientes guardados, incluidos los inexistentes
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidarTipo(Cliente.class));
+        }
+        return new ImportacionClientesRs(filasLeidas, creados, (long) errores.size(), errores);
+    }
+
+    /**
+     * Descarta las filas cuyo teléfono ya está registrado (una consulta por bloque) e inserta las demás
+     * en un lote JDBC.
+     * @param bloque Filas válidas y sin teléfonos repetidos dentro del archivo.
+     * @param errores Lista donde se agregan las filas descartadas.
+     * @return Número de clientes insertados.
+     */
+    private int insertarBloque(List<FilaImportacion> bloque, List<ErrorImportacionRs> errores) throws BadRequestException {
+        if (bloque.isEmpty()) {
+            return 0;
+        }
+        Set<String> existentes = new HashSet<>(clienteRepository.buscarTelefonosExistentes(
+                bloque.stream().map(f -> f.telefono).collect(Collectors.toList())));
+        List<FilaImportacion> nuevas = new ArrayList<>(bloque.size());
+        for (FilaImportacion fila : bloque) {
+            if (existentes.contains(fila.telefono)) {
+                errores.add(new ErrorImportacionRs(fila.linea, fila.telefono,
+                        "Ya existe un cliente con el número de teléfono proporcionado."));
+            } else {
+                nuevas.add(fila);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR_CLIENTE, nuevas, nuevas.size(), (ps, fila) -> {
+                ps.setString(1, fila.nombre);
+                ps.setString(2, fila.apellido);
+                ps.setString(3, fila.telefono);
+                ps.setString(4, fila.correo);
+                ps.setDate(5, Date.valueOf(fila.fechaRegistro));
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Error al importar los clientes: " + e.getMostSpecificCause().getMessage());
+        }
+        return nuevas.size();
+    }
+
+    /**
+     * Posición de cada columna en el CSV según la fila de encabezados (sin distinguir mayúsculas).
+     */
+    private static final class ColumnasImportacion {
+
+        private final int nombre;
+        private final int apellido;
+        private final int telefono;
+        private final int correo;
+        private final int fechaRegistro;
+
+        ColumnasImportacion(String[] encabezados) throws BadRequestException {
+            if (encabezados.length > 0 && encabezados[0].startsWith("\uFEFF")) {
+                encabezados[0] = encabezados[0].substring(1); // Marca de orden de bytes de Excel
+            }
+            nombre = posicion(encabezados, "nombre");
+            apellido = posicion(encabezados, "apellido");
+            telefono = posicion(encabezados, "telefono");
+            correo = posicion(encabezados, "correo");
+            int fecha = posicion(encabezados, "fecharegistro");
+            fechaRegistro = fecha >= 0 ? fecha : posicion(encabezados, "fecha_registro");
+            if (nombre < 0 || apellido < 0 || telefono < 0) {
+                throw new BadRequestException("El archivo debe tener los encabezados nombre, apellido y telefono.");
+            }
+        }
+
+        FilaImportacion fila(String[] registro, long linea) {
+            FilaImportacion fila = new FilaImportacion();
+            fila.linea = linea;
+            fila.nombre = valor(registro, nombre);
+            fila.apellido = valor(registro, apellido);
+            fila.telefono = valor(registro, telefono);
+            fila.correo = valor(registro, correo);
+            fila.textoFecha = valor(registro, fechaRegistro);
+            return fila;
+        }
+
+        private static int posicion(String[] encabezados, String nombre) {
+            for (int i = 0; i < encabezados.length; i++) {
+                if (encabezados[i].trim().toLowerCase(Locale.ROOT).equals(nombre)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static String valor(String[] registro, int posicion) {
+            if (posicion < 0 || posicion >= registro.length) {
+                return null;
+            }
+            String valor = registro[posicion].trim();
+            return valor.isEmpty() ? null : valor;
+        }
+    }
+
+    /**
+     * Cliente leído de una fila del archivo de importación.
+     */
+    private static final class FilaImportacion {
+
+        private long linea;
+        private String nombre;
+        private String apellido;
+        private String telefono;
+        private String correo;
+        private String textoFecha;
+        private LocalDate fechaRegistro;
+
+        /**
+         * Aplica las mismas reglas que la creación individual y los límites de las columnas.
+         * @return Motivo del rechazo, o null si la fila es válida.
+         */
+        String validar() {
+            if (nombre == null || apellido == null || telefono == null) {
+                return "Nombre, apellido y teléfono son campos obligatorios.";
+            }
+            if (nombre.length() > 100 || apellido.length() > 100 || telefono.length() > 15
+                    || (correo != null && correo.length() > 100)) {
+                return "Algún campo supera la longitud permitida.";
+            }
+            try {
+                fechaRegistro = textoFecha != null ? LocalDate.parse(textoFecha) : LocalDate.now();
+            } catch (DateTimeParseException e) {
+                return "Fecha de registro inválida (formato YYYY-MM-DD).";
+            }
+            return null;
         }
     }
 }
@@ -0,0 +1,30 @@
+package com.uniminuto.biblioteca.servicesimpl;
+
+import com.uniminuto.biblioteca.datasource.RetencionConexiones;
+import com.uniminuto.biblioteca.model.EstadisticaConexionRs;
+import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
+import com.uniminuto.biblioteca.services.ConexionService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementación de la interfaz ConexionService sobre las mediciones de {@link RetencionConexiones}.
+ */
+@Service
+public class ConexionServiceImpl implements ConexionService {
+
+    @Autowired
+    private RetencionConexiones retencionConexiones;
+
+    @Override
+    public List<EstadisticaConexionRs> obtenerEstadisticas() {
+        return retencionConexiones.obtenerEstadisticas();
+    }
+
+    @Override
+    public RespuestaGenericaRs reiniciarEstadisticas() {
+        retencionConexiones.reiniciar();
+        return new RespuestaGenericaRs(true, "Estadísticas de conexiones reiniciadas exitosamente.");
+    }
+}
@@ -0,0 +1,121 @@
+package com.uniminuto.biblioteca.servicesimpl;
+
+import com.uniminuto.biblioteca.lote.DespachadorLote;
+import com.uniminuto.biblioteca.model.RespuestaLoteRs;
+import com.uniminuto.biblioteca.model.SolicitudLoteRq;
+import com.uniminuto.biblioteca.services.LoteService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.PreDestroy;
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementación de la interfaz LoteService. Las consultas se reparten en un grupo fijo de hilos, más
+ * pequeño que el pool de conexiones, para que varios lotes simultáneos no dejen sin conexiones al resto
+ * de las solicitudes. Cada consulta llama al controlador de su ruta y abre su propia transacción de solo
+ * lectura en el servicio que la atiende, como lo haría una solicitud GET independiente.
+ */
+@Service
+public class LoteServiceImpl implements LoteService {
+
+    private static final String PREFIJO_LOTE = "/batch";
+
+    @Autowired
+    private DespachadorLote despachadorLote;
+
+    private final ExecutorService ejecutor;
+
+    private final int maximoSolicitudes;
+
+    private final long tiempoMaximoMs;
+
+    public LoteServiceImpl(@Value("${barberia.lote.hilos:4}") int hilos,
+            @Value("${barberia.lote.maximo-solicitudes:10}") int maximoSolicitudes,
+            @Value("${barberia.lote.tiempo-maximo-ms:30000}") long tiempoMaximoMs) {
+        CustomizableThreadFactory fabrica = new CustomizableThreadFactory("lote-");
+        fabrica.setDaemon(true);
+        this.ejecutor = Executors.newFixedThreadPool(hilos, fabrica);
+        this.maximoSolicitudes = maximoSolicitudes;
+        this.tiempoMaximoMs = tiempoMaximoMs;
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    @Override
+    public List<RespuestaLoteRs> ejecutarLote(List<SolicitudLoteRq> solicitudes) throws BadRequestException {
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            throw new BadRequestException("El lote debe incluir al menos una consulta.");
+        }
+        if (solicitudes.size() > maximoSolicitudes) {
+            throw new BadRequestException("El lote admite como máximo " + maximoSolicitudes + " consultas.");
+        }
+
+        List<String> ids = new ArrayList<>(solicitudes.size());
+        List<RespuestaLoteRs> respuestas = new ArrayList<>(Collections.nCopies(solicitudes.size(), null));
+        List<Future<RespuestaLoteRs>> pendientes = new ArrayList<>(Collections.nCopies(solicitudes.size(), null));
+        for (int i = 0; i < solicitudes.size(); i++) {
+            SolicitudLoteRq solicitud = solicitudes.get(i);
+            String id = solicitud.getId() != null ? solicitud.getId() : String.valueOf(i);
+            String ruta = solicitud.getRuta();
+            ids.add(id);
+            String error = validarRuta(ruta);
+            if (error != null) {
+                respuestas.set(i, new RespuestaLoteRs(id, 400, Collections.emptyMap(), null, error));
+            } else {
+                pendientes.set(i, ejecutor.submit(() -> despachadorLote.despachar(id, ruta)));
+            }
+        }
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tiempoMaximoMs);
+        for (int i = 0; i < pendientes.size(); i++) {
+            Future<RespuestaLoteRs> pendiente = pendientes.get(i);
+            if (pendiente != null) {
+                respuestas.set(i, esperar(pendiente, ids.get(i), limite));
+            }
+        }
+        return respuestas;
+    }
+
+    /**
+     * Solo se admiten rutas del propio API; un lote no puede incluir otro lote.
+     */
+    private static String validarRuta(String ruta) {
+        if (ruta == null || !ruta.startsWith("/") || ruta.startsWith("//") || ruta.contains("://")) {
+            return "La ruta debe ser una ruta del API que empiece por '/'.";
+        }
+        String camino = ruta.split("[?#]", 2)[0];
+        if (camino.equals(PREFIJO_LOTE) || camino.startsWith(PREFIJO_LOTE + "/")) {
+            return "Un lote no puede incluir otro lote.";
+        }
+        return null;
+    }
+
+    private static RespuestaLoteRs esperar(Future<RespuestaLoteRs> pendiente, String id, long limite) {
+        try {
+            return pendiente.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pendiente.cancel(true);
+            return new RespuestaLoteRs(id, 504, Collections.emptyMap(), null, "La consulta no terminó a tiempo.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendiente.cancel(true);
+            return new RespuestaLoteRs(id, 503, Collections.emptyMap(), null, "El lote se interrumpió.");
+        } catch (ExecutionException e) {
+            return new RespuestaLoteRs(id, 500, Collections.emptyMap(), null, "Error interno al atender la consulta.");
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package com.uniminuto.biblioteca.servicesimpl; // Manteniendo el paquete base "biblioteca"
 
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.concurrencia.AgruparLecturas;
+import com.uniminuto.biblioteca.concurrencia.ReintentarEnConflicto;
 import com.uniminuto.biblioteca.entity.Cita;
 import com.uniminuto.biblioteca.entity.Pago;
+import com.uniminuto.biblioteca.model.FormatoExportacion;
+import com.uniminuto.biblioteca.model.PaginaRs;
+import com.uniminuto.biblioteca.model.PagoResumen;
 import com.uniminuto.biblioteca.model.PagoRq;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.repository.CitaRepository; // Para validar Cita
 import com.uniminuto.biblioteca.repository.PagoRepository;
 import com.uniminuto.biblioteca.services.PagoService;
+import com.uniminuto.biblioteca.utils.ExportacionUtils;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
+import com.uniminuto.biblioteca.utils.RestriccionUtils;
+import com.uniminuto.biblioteca.utils.TransaccionUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniminuto.biblioteca.utils.VersionUtils;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,19 +46,42 @@ public class PagoServiceImpl implements PagoService {
     @Autowired
     private CitaRepository citaRepository; // Inyectar CitaRepository para validar la cita
 
+    @Autowired
+    private ObjectMapper objectMapper; // Serializa las filas de las exportaciones NDJSON
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas; // Pagos por ID y citas inexistentes, invalidados al confirmar cada cambio
+
+    /**
+     * Encabezados del CSV de exportación, en el orden de los campos de {@link PagoResumen}.
+     */
+    private static final String[] COLUMNAS_EXPORTACION = {"idPago", "monto", "fechaPago", "metodoPago", "idCita",
+        "fechaCita", "horaCita", "idCliente", "nombreCliente", "apellidoCliente", "idBarbero", "nombreBarbero",
+        "apellidoBarbero", "idServicio", "nombreServicio"};
+
     @Override
-    public List<Pago> listarPagos() {
-        return pagoRepository.findAll(); // JpaRepository ya provee findAll
+    @Transactional(readOnly = true)
+    @AgruparLecturas({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
+    public PaginaRs<PagoResumen> listarPagos(String after, Integer limit) throws BadRequestException {
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 2);
+        List<PagoResumen> filas = cursor == null
+                ? pagoRepository.buscarPagina(PaginacionUtils.consulta(limite))
+                : pagoRepository.buscarPaginaDespues(PaginacionUtils.fecha(cursor[0]), PaginacionUtils.entero(cursor[1]),
+                        PaginacionUtils.consulta(limite));
+        return PaginacionUtils.pagina(filas, limite, PagoServiceImpl::llavePagina);
     }
 
     @Override
+    @AgruparLecturas({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
     public Pago obtenerPagoPorId(Integer idPago) throws BadRequestException {
-        return pagoRepository.findById(idPago)
-                .orElseThrow(() -> new BadRequestException("Pago no encontrado con ID: " + idPago));
+        // Sin transacción propia: un acierto de la caché no toma conexión
+        return cacheBusquedas.obtener(Pago.class, idPago, () -> pagoRepository.buscarDetalle(idPago),
+                "Pago no encontrado con ID: ");
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
     public RespuestaGenericaRs crearPago(PagoRq pagoRq) throws BadRequestException {
         // 1. Validar campos obligatorios del Request
         if (pagoRq.getMonto() == null || pagoRq.getMonto().compareTo(BigDecimal.ZERO) <= 0 || // Monto no nulo y positivo
@@ -51,27 +91,35 @@ public class PagoServiceImpl implements PagoService {
             throw new BadRequestException("Monto (positivo), fecha de pago, método de pago e ID de cita son obligatorios.");
         }
 
-        // 2. Validar existencia de la Cita
-        Cita cita = citaRepository.findById(pagoRq.getIdCita())
-                .orElseThrow(() -> new BadRequestException("Cita no encontrada con ID: " + pagoRq.getIdCita()));
-
-        // 3. Crear la entidad Pago
+        // 2. Crear la entidad Pago. La cita no se lee: si no existe, la llave foránea rechaza el INSERT, y el
+        // rechazo se recuerda un tiempo
+        if (cacheBusquedas.ausente(Cita.class, pagoRq.getIdCita())) {
+            throw new BadRequestException("Cita no encontrada con ID: " + pagoRq.getIdCita());
+        }
         Pago pago = new Pago();
         pago.setMonto(pagoRq.getMonto());
         pago.setFechaPago(pagoRq.getFechaPago());
         pago.setMetodoPago(pagoRq.getMetodoPago());
-        pago.setCita(cita); // Asigna el objeto Cita completo
+        pago.setCita(citaRepository.getReferenceById(pagoRq.getIdCita()));
 
         try {
-            pagoRepository.save(pago);
+            Pago guardado = pagoRepository.save(pago);
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Pago.class, guardado.getIdPago()));
             return new RespuestaGenericaRs(true, "Pago registrado exitosamente.");
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                cacheBusquedas.registrarAusente(Cita.class, pagoRq.getIdCita());
+                throw new BadRequestException("Cita no encontrada con ID: " + pagoRq.getIdCita());
+            }
+            throw new BadRequestException("Error al registrar el pago: " + RestriccionUtils.detalle(e));
         } catch (Exception e) {
             throw new BadRequestException("Error al registrar el pago: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
+    @ReintentarEnConflicto
     public RespuestaGenericaRs actualizarPago(PagoRq pagoRq) throws BadRequestException {
         // 1. Validar ID del pago
         if (pagoRq.getIdPago() == null) {
@@ -81,12 +129,12 @@ public class PagoServiceImpl implements PagoService {
         // 2. Buscar pago existente
         Pago pagoActual = pagoRepository.findById(pagoRq.getIdPago())
                 .orElseThrow(() -> new BadRequestException("Pago no encontrado con ID: " + pagoRq.getIdPago()));
+        VersionUtils.verificar("Pago", pagoRq.getIdPago(), pagoRq.getVersion(), pagoActual.getVersion());
 
-        // 3. Validar y obtener nueva entidad Cita relacionada si el ID cambia
+        // 3. Referencia a la nueva cita si el ID cambia; si no existe, la llave foránea rechaza el UPDATE
         Cita nuevaCita = pagoActual.getCita();
         if (pagoRq.getIdCita() != null && !pagoRq.getIdCita().equals(pagoActual.getCita().getIdCita())) {
-            nuevaCita = citaRepository.findById(pagoRq.getIdCita())
-                    .orElseThrow(() -> new BadRequestException("Nueva cita no encontrada con ID: " + pagoRq.getIdCita()));
+            nuevaCita = citaRepository.getReferenceById(pagoRq.getIdCita());
         }
 
         // 4. Actualizar campos si se proporcionan en el request
@@ -105,8 +153,16 @@ public class PagoServiceImpl implements PagoService {
         pagoActual.setCita(nuevaCita); // Asigna la cita (actual o nueva)
 
         try {
-            pagoRepository.save(pagoActual);
+            pagoRepository.saveAndFlush(pagoActual);
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Pago.class, pagoRq.getIdPago()));
             return new RespuestaGenericaRs(true, "Pago actualizado exitosamente.");
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                throw new BadRequestException("Nueva cita no encontrada con ID: " + pagoRq.getIdCita());
+            }
+            throw new BadRequestException("Error al actualizar el pago: " + RestriccionUtils.detalle(e));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Lo reintenta @ReintentarEnConflicto
         } catch (Exception e) {
             throw new BadRequestException("Error al actualizar el pago: " + e.getMessage());
         }
@@ -115,24 +171,26 @@ public class PagoServiceImpl implements PagoService {
     @Override
     @Transactional
     public RespuestaGenericaRs eliminarPago(Integer idPago) throws BadRequestException {
-        if (!pagoRepository.existsById(idPago)) {
+        if (pagoRepository.eliminarPorId(idPago) == 0) {
             throw new BadRequestException("Pago no encontrado con ID: " + idPago);
         }
-        try {
-            pagoRepository.deleteById(idPago);
-            return new RespuestaGenericaRs(true, "Pago eliminado exitosamente.");
-        } catch (Exception e) {
-            throw new BadRequestException("Error al eliminar el pago: " + e.getMessage());
-        }
+        TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Pago.class, idPago));
+        return new RespuestaGenericaRs(true, "Pago eliminado exitosamente.");
     }
 
     @Override
-    public List<Pago> listarPagosPorCita(Integer idCita) throws BadRequestException {
-        // Opcional: Validar existencia de la cita
-        citaRepository.findById(idCita)
-                .orElseThrow(() -> new BadRequestException("Cita no encontrada con ID: " + idCita));
-        
-        List<Pago> pagos = pagoRepository.findByCita_IdCita(idCita);
+    @Transactional(readOnly = true)
+    @AgruparLecturas({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
+    public List<PagoResumen> listarPagosPorCita(Integer idCita) throws BadRequestException {
+        if (cacheBusquedas.ausente(Cita.class, idCita)) {
+            throw new BadRequestException("Cita no encontrada con ID: " + idCita);
+        }
+        List<PagoResumen> pagos = pagoRepository.buscarResumenesPorCita(idCita);
+        // La existencia de la cita solo se consulta si no hay pagos
+        if (pagos.isEmpty() && !citaRepository.existsById(idCita)) {
+            cacheBusquedas.registrarAusente(Cita.class, idCita);
+            throw new BadRequestException("Cita no encontrada con ID: " + idCita);
+        }
         if (pagos.isEmpty()) {
             System.out.println("No se encontraron pagos para la cita con ID: " + idCita);
         }
@@ -140,26 +198,74 @@ public class PagoServiceImpl implements PagoService {
     }
 
     @Override
-    public List<Pago> listarPagosPorMetodo(Pago.MetodoPago metodoPago) throws BadRequestException {
-        List<Pago> pagos = pagoRepository.findByMetodoPago(metodoPago);
+    @Transactional(readOnly = true)
+    @AgruparLecturas({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
+    public PaginaRs<PagoResumen> listarPagosPorMetodo(Pago.MetodoPago metodoPago, String after, Integer limit)
+            throws BadRequestException {
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 2);
+        List<PagoResumen> pagos = cursor == null
+                ? pagoRepository.buscarPaginaPorMetodo(metodoPago, PaginacionUtils.consulta(limite))
+                : pagoRepository.buscarPaginaPorMetodoDespues(metodoPago, PaginacionUtils.fecha(cursor[0]),
+                        PaginacionUtils.entero(cursor[1]), PaginacionUtils.consulta(limite));
         if (pagos.isEmpty()) {
             System.out.println("No se encontraron pagos con el método: " + metodoPago.name());
         }
-        return pagos;
+        return PaginacionUtils.pagina(pagos, limite, PagoServiceImpl::llavePagina);
     }
 
     @Override
-    public List<Pago> listarPagosPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) throws BadRequestException {
+    @Transactional(readOnly = true)
+    @AgruparLecturas({"pago", "cita", "cliente", "barbero", "sede", "servicio"})
+    public PaginaRs<PagoResumen> listarPagosPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin, String after, Integer limit)
+            throws BadRequestException {
         if (fechaInicio == null || fechaFin == null) {
             throw new BadRequestException("Ambas fechas (inicio y fin) son obligatorias para el rango.");
         }
         if (fechaFin.isBefore(fechaInicio)) {
             throw new BadRequestException("La fecha de fin no puede ser anterior a la fecha de inicio.");
         }
-        List<Pago> pagos = pagoRepository.findByFechaPagoBetween(fechaInicio, fechaFin);
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 2);
+        // La primera página arranca en el inicio del rango; las siguientes, en el último pago devuelto
+        List<PagoResumen> pagos = cursor == null
+                ? pagoRepository.buscarPaginaPorRango(fechaInicio, 0, fechaFin, PaginacionUtils.consulta(limite))
+                : pagoRepository.buscarPaginaPorRango(desdeCursor(cursor, fechaInicio), PaginacionUtils.entero(cursor[1]),
+                        fechaFin, PaginacionUtils.consulta(limite));
         if (pagos.isEmpty()) {
             System.out.println("No se encontraron pagos en el rango de fechas [" + fechaInicio + " - " + fechaFin + "]");
         }
-        return pagos;
+        return PaginacionUtils.pagina(pagos, limite, PagoServiceImpl::llavePagina);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarPagos(LocalDate fechaInicio, LocalDate fechaFin, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        // Las filas son proyecciones: el cursor avanza sin llenar el contexto de persistencia
+        try (Stream<PagoResumen> pagos = pagoRepository.exportarPorRango(fechaInicio, fechaFin)) {
+            ExportacionUtils.escribir(pagos, formato, objectMapper, COLUMNAS_EXPORTACION, p -> new Object[]{
+                p.getIdPago(), p.getMonto(), p.getFechaPago(), p.getMetodoPago(), p.getIdCita(), p.getFechaCita(),
+                p.getHoraCita(), p.getIdCliente(), p.getNombreCliente(), p.getApellidoCliente(), p.getIdBarbero(),
+                p.getNombreBarbero(), p.getApellidoBarbero(), p.getIdServicio(), p.getNombreServicio()}, salida);
+        }
+    }
+
+    /**
+     * Llave de orden de los listados de pagos: fecha de pago e ID.
+     */
+    private static Object[] llavePagina(PagoResumen pago) {
+        return new Object[]{pago.getFechaPago(), pago.getIdPago()};
+    }
+
+    /**
+     * Fecha del cursor de un listado por rango; no puede quedar antes del inicio del rango.
+     */
+    private static LocalDate desdeCursor(String[] cursor, LocalDate fechaInicio) throws BadRequestException {
+        LocalDate fecha = PaginacionUtils.fecha(cursor[0]);
+        if (fecha.isBefore(fechaInicio)) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+        return fecha;
     }
 }
@@ -1,15 +1,35 @@
 package com.uniminuto.biblioteca.servicesimpl; // Manteniendo el paquete base "biblioteca"
 
+import com.uniminuto.biblioteca.agenda.CalendarioLaboral;
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.cache.ListadosPreparados;
+import com.uniminuto.biblioteca.cache.ListadosPreparados.Listado;
+import com.uniminuto.biblioteca.concurrencia.ReintentarEnConflicto;
+import com.uniminuto.biblioteca.entity.FestivoSede;
+import com.uniminuto.biblioteca.entity.HorarioSede;
 import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.model.FestivoRq;
+import com.uniminuto.biblioteca.model.HorarioSedeRq;
+import com.uniminuto.biblioteca.model.PaginaRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.model.SedeRq;
+import com.uniminuto.biblioteca.repository.FestivoSedeRepository;
+import com.uniminuto.biblioteca.repository.HorarioSedeRepository;
 import com.uniminuto.biblioteca.repository.SedeRepository;
 import com.uniminuto.biblioteca.services.SedeService;
+import com.uniminuto.biblioteca.utils.HorarioUtils;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
+import com.uniminuto.biblioteca.utils.RestriccionUtils;
+import com.uniminuto.biblioteca.utils.TransaccionUtils;
+import com.uniminuto.biblioteca.utils.VersionUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,15 +42,36 @@ public class SedeServiceImpl implements SedeService {
     @Autowired
     private SedeRepository sedeRepository;
 
+    @Autowired
+    private HorarioSedeRepository horarioSedeRepository;
+
+    @Autowired
+    private FestivoSedeRepository festivoSedeRepository;
+
+    @Autowired
+    private CalendarioLaboral calendarioLaboral; // Se recompila cuando cambian el horario o los festivos
+
+    @Autowired
+    private ListadosPreparados listadosPreparados; // Se vuelve a armar al confirmar cada cambio
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas; // Sedes por ID, invalidadas al confirmar cada cambio
+
     @Override
-    public List<Sede> listarSedes() {
-        return sedeRepository.findAll(); // JpaRepository ya provee findAll
+    @Transactional(readOnly = true)
+    public PaginaRs<Sede> listarSedes(String after, Integer limit) throws BadRequestException {
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 1);
+        Integer despuesDe = cursor == null ? 0 : PaginacionUtils.entero(cursor[0]);
+        List<Sede> filas = sedeRepository.findByIdSedeGreaterThanOrderByIdSedeAsc(despuesDe, PaginacionUtils.consulta(limite));
+        return PaginacionUtils.pagina(filas, limite, s -> new Object[]{s.getIdSede()});
     }
 
     @Override
     public Sede obtenerSedePorId(Integer idSede) throws BadRequestException {
-        return sedeRepository.findById(idSede)
-                .orElseThrow(() -> new BadRequestException("Sede no encontrada con ID: " + idSede));
+        // Sin transacción propia: un acierto de la caché no toma conexión
+        return cacheBusquedas.obtener(Sede.class, idSede, () -> sedeRepository.findById(idSede),
+                "Sede no encontrada con ID: ");
     }
 
     @Override
@@ -55,6 +96,8 @@ public class SedeServiceImpl implements SedeService {
 
         try {
             sedeRepository.save(sede);
+            TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.SEDES));
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Sede.class, sede.getIdSede()));
             return new RespuestaGenericaRs(true, "Sede creada exitosamente.");
         } catch (Exception e) {
             throw new BadRequestException("Error al crear la sede: " + e.getMessage());
@@ -63,6 +106,7 @@ public class SedeServiceImpl implements SedeService {
 
     @Override
     @Transactional
+    @ReintentarEnConflicto
     public RespuestaGenericaRs actualizarSede(SedeRq sedeRq) throws BadRequestException {
         // Validar ID de la sede
         if (sedeRq.getIdSede() == null) {
@@ -72,6 +116,7 @@ public class SedeServiceImpl implements SedeService {
         // Buscar sede existente
         Sede sedeActual = sedeRepository.findById(sedeRq.getIdSede())
                 .orElseThrow(() -> new BadRequestException("Sede no encontrada con ID: " + sedeRq.getIdSede()));
+        VersionUtils.verificar("Sede", sedeRq.getIdSede(), sedeRq.getVersion(), sedeActual.getVersion());
 
         // Verificar si el nombre cambió y si el nuevo nombre ya existe para otra sede
         boolean nombreCambiado = sedeRq.getNombre() != null && !sedeActual.getNombre().equals(sedeRq.getNombre());
@@ -95,25 +140,126 @@ public class SedeServiceImpl implements SedeService {
         }
 
         try {
-            sedeRepository.save(sedeActual);
+            sedeRepository.saveAndFlush(sedeActual);
+            // Los barberos se listan con su sede
+            TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.SEDES, Listado.BARBEROS));
+            // Con la sede se descartan los barberos y citas guardados que la incluyen
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Sede.class, sedeActual.getIdSede()));
             return new RespuestaGenericaRs(true, "Sede actualizada exitosamente.");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Lo reintenta @ReintentarEnConflicto
         } catch (Exception e) {
             throw new BadRequestException("Error al actualizar la sede: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
     public RespuestaGenericaRs eliminarSede(Integer idSede) throws BadRequestException {
-        if (!sedeRepository.existsById(idSede)) {
+        int eliminadas;
+        try {
+            eliminadas = sedeRepository.eliminarPorId(idSede);
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                throw new BadRequestException("No se puede eliminar la sede porque tiene barberos, horarios o festivos asociados.");
+            }
+            throw new BadRequestException("Error al eliminar la sede: " + RestriccionUtils.detalle(e));
+        }
+        if (eliminadas == 0) {
+            throw new BadRequestException("Sede no encontrada con ID: " + idSede);
+        }
+        TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.SEDES));
+        TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Sede.class, idSede));
+        return new RespuestaGenericaRs(true, "Sede eliminada exitosamente.");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HorarioSede> listarHorario(Integer idSede) throws BadRequestException {
+        if (!sedeRepository.existe(idSede)) {
             throw new BadRequestException("Sede no encontrada con ID: " + idSede);
         }
+        return horarioSedeRepository.findBySede_IdSedeOrderByDiaSemanaAscHoraAperturaAsc(idSede);
+    }
+
+    @Override
+    @Transactional(rollbackFor = BadRequestException.class)
+    public RespuestaGenericaRs actualizarHorario(Integer idSede, List<HorarioSedeRq> horariosRq) throws BadRequestException {
+        Sede sede = sedeRepository.findById(idSede)
+                .orElseThrow(() -> new BadRequestException("Sede no encontrada con ID: " + idSede));
+        if (horariosRq == null) {
+            throw new BadRequestException("Debe enviar la lista de horarios (vacía para usar el horario por defecto).");
+        }
+
+        // Validar cada bloque antes de reemplazar el horario
+        List<HorarioSede> horarios = new ArrayList<>(horariosRq.size());
+        for (int i = 0; i < horariosRq.size(); i++) {
+            HorarioSedeRq horarioRq = horariosRq.get(i);
+            HorarioUtils.validarBloque("Horario #" + (i + 1), horarioRq.getDiaSemana(),
+                    horarioRq.getHoraApertura(), horarioRq.getHoraCierre());
+            horarios.add(new HorarioSede(null, sede, horarioRq.getDiaSemana(),
+                    horarioRq.getHoraApertura(), horarioRq.getHoraCierre()));
+        }
+
+        try {
+            horarioSedeRepository.eliminarPorSede(idSede);
+            horarioSedeRepository.saveAll(horarios);
+            TransaccionUtils.alConfirmar(() -> calendarioLaboral.recompilarSede(idSede));
+            return new RespuestaGenericaRs(true, "Horario de la sede actualizado exitosamente.");
+        } catch (Exception e) {
+            throw new BadRequestException("Error al actualizar el horario: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FestivoSede> listarFestivos(Integer idSede) throws BadRequestException {
+        if (!sedeRepository.existe(idSede)) {
+            throw new BadRequestException("Sede no encontrada con ID: " + idSede);
+        }
+        return festivoSedeRepository.findBySede_IdSedeOrderByFechaAsc(idSede);
+    }
+
+    @Override
+    @Transactional(rollbackFor = BadRequestException.class)
+    public RespuestaGenericaRs crearFestivo(FestivoRq festivoRq) throws BadRequestException {
+        // Validar campos obligatorios
+        if (festivoRq.getIdSede() == null || festivoRq.getFecha() == null) {
+            throw new BadRequestException("ID de sede y fecha son campos obligatorios.");
+        }
+        Integer idSede = festivoRq.getIdSede();
+
+        try {
+            // La existencia de la sede y la duplicidad de la fecha las validan las restricciones del INSERT
+            festivoSedeRepository.save(new FestivoSede(null, sedeRepository.getReferenceById(idSede),
+                    festivoRq.getFecha(), festivoRq.getDescripcion()));
+            TransaccionUtils.alConfirmar(() -> calendarioLaboral.recompilarSede(idSede));
+            return new RespuestaGenericaRs(true, "Festivo registrado exitosamente.");
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esRestriccion(e, FestivoSede.UK_SEDE_FECHA)) {
+                throw new BadRequestException("La sede ya tiene registrado un festivo en esa fecha.");
+            }
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                throw new BadRequestException("Sede no encontrada con ID: " + idSede);
+            }
+            throw new BadRequestException("Error al registrar el festivo: " + RestriccionUtils.detalle(e));
+        } catch (Exception e) {
+            throw new BadRequestException("Error al registrar el festivo: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional
+    public RespuestaGenericaRs eliminarFestivo(Integer idFestivo) throws BadRequestException {
+        FestivoSede festivo = festivoSedeRepository.findById(idFestivo)
+                .orElseThrow(() -> new BadRequestException("Festivo no encontrado con ID: " + idFestivo));
+        Integer idSede = festivo.getSede().getIdSede();
         try {
-            sedeRepository.deleteById(idSede);
-            return new RespuestaGenericaRs(true, "Sede eliminada exitosamente.");
+            festivoSedeRepository.delete(festivo);
+            TransaccionUtils.alConfirmar(() -> calendarioLaboral.recompilarSede(idSede));
+            return new RespuestaGenericaRs(true, "Festivo eliminado exitosamente.");
         } catch (Exception e) {
-            // Considera manejar ConstraintViolationException si la sede tiene barberos asociados
-            throw new BadRequestException("Error al eliminar la sede: " + e.getMessage());
+            throw new BadRequestException("Error al eliminar el festivo: " + e.getMessage());
         }
     }
 }
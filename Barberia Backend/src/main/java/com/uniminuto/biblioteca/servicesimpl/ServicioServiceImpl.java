@@ -1,16 +1,28 @@
 package com.uniminuto.biblioteca.servicesimpl; // Manteniendo el paquete base "biblioteca"
 
+import com.uniminuto.biblioteca.agenda.IndiceCitas;
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.cache.ListadosPreparados;
+import com.uniminuto.biblioteca.cache.ListadosPreparados.Listado;
+import com.uniminuto.biblioteca.concurrencia.ReintentarEnConflicto;
 import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.PaginaRs;
 import com.uniminuto.biblioteca.model.RespuestaGenericaRs;
 import com.uniminuto.biblioteca.model.ServicioRq;
 import com.uniminuto.biblioteca.repository.ServicioRepository;
 import com.uniminuto.biblioteca.services.ServicioService;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
+import com.uniminuto.biblioteca.utils.RestriccionUtils;
+import com.uniminuto.biblioteca.utils.TransaccionUtils;
+import com.uniminuto.biblioteca.utils.VersionUtils;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,16 +35,31 @@ public class ServicioServiceImpl implements ServicioService {
     @Autowired
     private ServicioRepository servicioRepository;
 
+    @Autowired
+    private IndiceCitas indiceCitas; // Las agendas en memoria dependen de la duración de los servicios
+
+    @Autowired
+    private ListadosPreparados listadosPreparados; // Se vuelve a armar al confirmar cada cambio
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas; // Servicios por ID, invalidados al confirmar cada cambio
+
     @Override
-    public List<Servicio> listarServicios() {
-        // --- CAMBIO: Ahora usa el nuevo método para ordenar por ID ---
-        return servicioRepository.findAllByOrderByIdServicioAsc();
+    @Transactional(readOnly = true)
+    public PaginaRs<Servicio> listarServicios(String after, Integer limit) throws BadRequestException {
+        int limite = PaginacionUtils.limite(limit);
+        String[] cursor = PaginacionUtils.decodificar(after, 1);
+        Integer despuesDe = cursor == null ? 0 : PaginacionUtils.entero(cursor[0]);
+        List<Servicio> filas = servicioRepository.findByIdServicioGreaterThanOrderByIdServicioAsc(despuesDe,
+                PaginacionUtils.consulta(limite));
+        return PaginacionUtils.pagina(filas, limite, s -> new Object[]{s.getIdServicio()});
     }
 
     @Override
     public Servicio obtenerServicioPorId(Integer idServicio) throws BadRequestException {
-        return servicioRepository.findById(idServicio)
-                .orElseThrow(() -> new BadRequestException("Servicio no encontrado con ID: " + idServicio));
+        // Sin transacción propia: un acierto de la caché no toma conexión
+        return cacheBusquedas.obtener(Servicio.class, idServicio, () -> servicioRepository.findById(idServicio),
+                "Servicio no encontrado con ID: ");
     }
 
     @Override
@@ -44,6 +71,9 @@ public class ServicioServiceImpl implements ServicioService {
             throw new BadRequestException("Nombre del servicio y precio son campos obligatorios y el precio debe ser positivo.");
         }
 
+        // Validar la duración (opcional, por defecto 30 minutos)
+        validarDuracion(servicioRq.getDuracionMinutos());
+
         // Validar duplicidad por nombre de servicio
         if (servicioRepository.existsByNombreServicio(servicioRq.getNombreServicio())) {
             throw new BadRequestException("Ya existe un servicio con el nombre proporcionado.");
@@ -53,9 +83,14 @@ public class ServicioServiceImpl implements ServicioService {
         servicio.setNombreServicio(servicioRq.getNombreServicio());
         servicio.setDescripcion(servicioRq.getDescripcion());
         servicio.setPrecio(servicioRq.getPrecio());
+        if (servicioRq.getDuracionMinutos() != null) {
+            servicio.setDuracionMinutos(servicioRq.getDuracionMinutos());
+        }
 
         try {
             servicioRepository.save(servicio);
+            TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.SERVICIOS));
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Servicio.class, servicio.getIdServicio()));
             return new RespuestaGenericaRs(true, "Servicio creado exitosamente.");
         } catch (Exception e) {
             throw new BadRequestException("Error al crear el servicio: " + e.getMessage());
@@ -64,6 +99,7 @@ public class ServicioServiceImpl implements ServicioService {
 
     @Override
     @Transactional
+    @ReintentarEnConflicto
     public RespuestaGenericaRs actualizarServicio(ServicioRq servicioRq) throws BadRequestException {
         // Validar ID del servicio
         if (servicioRq.getIdServicio() == null) {
@@ -73,6 +109,7 @@ public class ServicioServiceImpl implements ServicioService {
         // Buscar servicio existente
         Servicio servicioActual = servicioRepository.findById(servicioRq.getIdServicio())
                 .orElseThrow(() -> new BadRequestException("Servicio no encontrado con ID: " + servicioRq.getIdServicio()));
+        VersionUtils.verificar("Servicio", servicioRq.getIdServicio(), servicioRq.getVersion(), servicioActual.getVersion());
 
         // Verificar si el nombre del servicio cambió y si el nuevo nombre ya existe para otro servicio
         boolean nombreServicioCambiado = servicioRq.getNombreServicio() != null && !servicioActual.getNombreServicio().equals(servicioRq.getNombreServicio());
@@ -103,26 +140,58 @@ public class ServicioServiceImpl implements ServicioService {
         } else if (servicioRq.getPrecio() != null && servicioRq.getPrecio().compareTo(BigDecimal.ZERO) < 0) {
             throw new BadRequestException("El precio del servicio no puede ser negativo.");
         }
+        boolean duracionCambiada = servicioRq.getDuracionMinutos() != null
+                && !servicioRq.getDuracionMinutos().equals(servicioActual.getDuracionMinutos());
+        if (servicioRq.getDuracionMinutos() != null) {
+            validarDuracion(servicioRq.getDuracionMinutos());
+            servicioActual.setDuracionMinutos(servicioRq.getDuracionMinutos());
+        }
 
         try {
-            servicioRepository.save(servicioActual);
+            servicioRepository.saveAndFlush(servicioActual);
+            TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.SERVICIOS));
+            // Con el servicio se descartan las citas guardadas que lo incluyen
+            TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Servicio.class, servicioActual.getIdServicio()));
+            if (duracionCambiada) {
+                // Las citas existentes de este servicio ahora ocupan otro intervalo
+                TransaccionUtils.alConfirmar(indiceCitas::invalidarTodo);
+            }
             return new RespuestaGenericaRs(true, "Servicio actualizado exitosamente.");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Lo reintenta @ReintentarEnConflicto
         } catch (Exception e) {
             throw new BadRequestException("Error al actualizar el servicio: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = BadRequestException.class)
     public RespuestaGenericaRs eliminarServicio(Integer idServicio) throws BadRequestException {
-        if (!servicioRepository.existsById(idServicio)) {
+        int eliminados;
+        try {
+            eliminados = servicioRepository.eliminarPorId(idServicio);
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUtils.esLlaveForanea(e)) {
+                throw new BadRequestException("No se puede eliminar el servicio porque tiene citas asociadas.");
+            }
+            throw new BadRequestException("Error al eliminar el servicio: " + RestriccionUtils.detalle(e));
+        }
+        if (eliminados == 0) {
             throw new BadRequestException("Servicio no encontrado con ID: " + idServicio);
         }
-        try {
-            servicioRepository.deleteById(idServicio);
-            return new RespuestaGenericaRs(true, "Servicio eliminado exitosamente.");
-        } catch (Exception e) {
-            throw new BadRequestException("Error al eliminar el servicio: " + e.getMessage());
+        TransaccionUtils.alConfirmar(() -> listadosPreparados.invalidar(Listado.SERVICIOS));
+        TransaccionUtils.alConfirmar(() -> cacheBusquedas.invalidar(Servicio.class, idServicio));
+        return new RespuestaGenericaRs(true, "Servicio eliminado exitosamente.");
+    }
+
+    /**
+     * Valida que la duración, si se envía, sea positiva y no supere un día.
+     * @param duracionMinutos Duración en minutos.
+     * @throws BadRequestException Si la duración no es válida.
+     */
+    private void validarDuracion(Integer duracionMinutos) throws BadRequestException {
+        if (duracionMinutos != null && (duracionMinutos <= 0 || duracionMinutos > 24 * 60)) {
+            throw new BadRequestException("La duración del servicio debe estar entre 1 y 1440 minutos.");
         }
     }
-}
\ No newline at end of file
+}
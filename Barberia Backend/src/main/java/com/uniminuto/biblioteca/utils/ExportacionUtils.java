@@ -0,0 +1,156 @@
+package com.uniminuto.biblioteca.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uniminuto.biblioteca.model.FormatoExportacion;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.apache.coyote.BadRequestException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Utilidades para las exportaciones de citas y pagos.
+ * Las filas se leen de un {@link Stream} respaldado por un cursor de la base de datos y se escriben
+ * directamente en la respuesta, vaciando el búfer cada {@link #FILAS_POR_ENVIO} filas; la memoria usada
+ * no depende de cuántas filas se exporten.
+ */
+public final class ExportacionUtils {
+
+    /**
+     * Filas escritas entre cada envío al cliente.
+     */
+    public static final int FILAS_POR_ENVIO = 500;
+
+    private ExportacionUtils() {
+    }
+
+    /**
+     * Interpreta el parámetro de formato (sin distinguir mayúsculas).
+     * @param valor Valor recibido; si es nulo se usa NDJSON.
+     * @return Formato de exportación.
+     * @throws BadRequestException Si el formato no es ndjson ni csv.
+     */
+    public static FormatoExportacion formato(String valor) throws BadRequestException {
+        if (valor == null || valor.isBlank()) {
+            return FormatoExportacion.NDJSON;
+        }
+        for (FormatoExportacion formato : FormatoExportacion.values()) {
+            if (formato.name().equalsIgnoreCase(valor.trim())) {
+                return formato;
+            }
+        }
+        throw new BadRequestException("El formato debe ser ndjson o csv.");
+    }
+
+    /**
+     * Valida el rango de fechas de una exportación. Se valida antes de empezar a escribir la respuesta,
+     * porque una vez enviados los encabezados ya no se puede responder con un error.
+     * @param desde Fecha inicial.
+     * @param hasta Fecha final.
+     * @throws BadRequestException Si falta alguna fecha o la final es anterior a la inicial.
+     */
+    public static void validarRango(LocalDate desde, LocalDate hasta) throws BadRequestException {
+        if (desde == null || hasta == null) {
+            throw new BadRequestException("Fecha inicial y fecha final son obligatorias.");
+        }
+        if (hasta.isBefore(desde)) {
+            throw new BadRequestException("La fecha final no puede ser anterior a la fecha inicial.");
+        }
+    }
+
+    /**
+     * Respuesta de descarga con el tipo de contenido del formato.
+     * @param nombre Nombre del archivo sin extensión.
+     * @param formato Formato de la exportación.
+     * @param cuerpo Escritura del contenido.
+     * @return Respuesta que se escribe a medida que se generan las filas.
+     */
+    public static ResponseEntity<StreamingResponseBody> responder(String nombre, FormatoExportacion formato,
+            StreamingResponseBody cuerpo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getTipoContenido()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(nombre + "." + formato.getExtension()).build().toString())
+                .body(cuerpo);
+    }
+
+    /**
+     * Escribe las filas en el formato indicado. No cierra la salida.
+     * @param <T> Tipo de fila.
+     * @param filas Filas a exportar; se consumen una sola vez.
+     * @param formato Formato de la exportación.
+     * @param objectMapper Serializador JSON de la aplicación.
+     * @param columnas Encabezados del CSV.
+     * @param valores Valores de cada fila en el orden de {@code columnas}.
+     * @param salida Flujo de la respuesta.
+     * @return Número de filas escritas.
+     * @throws IOException Si el cliente cierra la conexión.
+     */
+    public static <T> long escribir(Stream<T> filas, FormatoExportacion formato, ObjectMapper objectMapper,
+            String[] columnas, Function<T, Object[]> valores, OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        ObjectWriter json = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (formato == FormatoExportacion.CSV) {
+            escribirLineaCsv(escritor, columnas);
+        }
+        long escritas = 0;
+        Iterator<T> iterador = filas.iterator();
+        while (iterador.hasNext()) {
+            T fila = iterador.next();
+            if (formato == FormatoExportacion.CSV) {
+                escribirLineaCsv(escritor, valores.apply(fila));
+            } else {
+                json.writeValue(escritor, fila);
+                escritor.write('\n');
+            }
+            if (++escritas % FILAS_POR_ENVIO == 0) {
+                escritor.flush();
+            }
+        }
+        escritor.flush();
+        return escritas;
+    }
+
+    private static void escribirLineaCsv(Writer escritor, Object[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            if (valores[i] != null) {
+                escribirCampoCsv(escritor, valores[i].toString());
+            }
+        }
+        escritor.write("\r\n");
+    }
+
+    /**
+     * Escribe un campo con las reglas de RFC 4180: entre comillas si contiene comas, comillas o saltos de línea.
+     */
+    private static void escribirCampoCsv(Writer escritor, String campo) throws IOException {
+        boolean comillas = campo.indexOf(',') >= 0 || campo.indexOf('"') >= 0
+                || campo.indexOf('\n') >= 0 || campo.indexOf('\r') >= 0;
+        if (!comillas) {
+            escritor.write(campo);
+            return;
+        }
+        escritor.write('"');
+        escritor.write(campo.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+}
@@ -0,0 +1,48 @@
+package com.uniminuto.biblioteca.utils;
+
+import com.uniminuto.biblioteca.agenda.MascaraFranjas;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import org.apache.coyote.BadRequestException;
+
+/**
+ * Validaciones comunes para los bloques de horario de sedes y turnos de barberos.
+ */
+public final class HorarioUtils {
+
+    private HorarioUtils() {
+    }
+
+    /**
+     * Valida un bloque semanal. La hora de fin 00:00 representa la medianoche del mismo día.
+     * Las horas deben coincidir con el inicio de una franja para que la máscara compilada sea exacta.
+     * @param etiqueta Prefijo del mensaje de error (por ejemplo "Turno #2").
+     * @param diaSemana Día de la semana.
+     * @param desde Hora de inicio.
+     * @param hasta Hora de fin.
+     * @throws BadRequestException Si el bloque es inválido.
+     */
+    public static void validarBloque(String etiqueta, DayOfWeek diaSemana, LocalTime desde, LocalTime hasta)
+            throws BadRequestException {
+        if (diaSemana == null || desde == null || hasta == null) {
+            throw new BadRequestException(etiqueta + ": día de la semana, hora de inicio y hora de fin son obligatorios.");
+        }
+        if (!hasta.equals(LocalTime.MIDNIGHT) && !desde.isBefore(hasta)) {
+            throw new BadRequestException(etiqueta + ": la hora de inicio debe ser anterior a la hora de fin.");
+        }
+        if (!alineada(desde) || !alineada(hasta)) {
+            throw new BadRequestException(etiqueta + ": las horas deben ser múltiplos de "
+                    + MascaraFranjas.MINUTOS_POR_FRANJA + " minutos.");
+        }
+    }
+
+    /**
+     * Indica si la hora coincide con el inicio de una franja de {@link MascaraFranjas#MINUTOS_POR_FRANJA} minutos.
+     * @param hora Hora a verificar.
+     * @return true si está alineada.
+     */
+    public static boolean alineada(LocalTime hora) {
+        return hora.getSecond() == 0 && hora.getNano() == 0
+                && hora.getMinute() % MascaraFranjas.MINUTOS_POR_FRANJA == 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.uniminuto.biblioteca.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) que avanza registro por registro sin cargar el archivo en memoria.
+ * Acepta campos entre comillas con comas, comillas dobladas y saltos de línea, y finales de línea
+ * LF o CRLF.
+ */
+public final class LectorCsv {
+
+    private final Reader lector;
+    private final StringBuilder campo = new StringBuilder();
+    private int siguiente = -2;
+    private long linea = 1;
+    private long lineaRegistro;
+
+    /**
+     * @param lector Fuente del CSV; conviene que tenga búfer. No se cierra.
+     */
+    public LectorCsv(Reader lector) {
+        this.lector = lector;
+    }
+
+    /**
+     * Lee el siguiente registro.
+     * @return Campos del registro, o null al final del archivo.
+     * @throws IOException Si falla la lectura o hay comillas sin cerrar.
+     */
+    public String[] leer() throws IOException {
+        int c = leerCaracter();
+        if (c == -1) {
+            return null;
+        }
+        lineaRegistro = linea;
+        List<String> campos = new ArrayList<>();
+        campo.setLength(0);
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    throw new IOException("Comillas sin cerrar en el registro de la línea " + lineaRegistro + ".");
+                }
+                if (c == '"') {
+                    if (verCaracter() == '"') {
+                        leerCaracter();
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && verCaracter() == '\n') {
+                    leerCaracter();
+                }
+                campos.add(campo.toString());
+                return campos.toArray(new String[0]);
+            } else {
+                campo.append((char) c);
+            }
+            c = leerCaracter();
+        }
+    }
+
+    /**
+     * Línea del archivo (desde 1) en la que empieza el último registro leído.
+     * @return Número de línea.
+     */
+    public long getLineaRegistro() {
+        return lineaRegistro;
+    }
+
+    private int leerCaracter() throws IOException {
+        int c = siguiente != -2 ? siguiente : lector.read();
+        siguiente = -2;
+        if (c == '\n') {
+            linea++;
+        }
+        return c;
+    }
+
+    private int verCaracter() throws IOException {
+        if (siguiente == -2) {
+            siguiente = lector.read();
+        }
+        return siguiente;
+    }
+}
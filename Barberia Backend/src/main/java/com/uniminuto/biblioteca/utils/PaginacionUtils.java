@@ -0,0 +1,156 @@
+package com.uniminuto.biblioteca.utils;
+
+import com.uniminuto.biblioteca.model.PaginaRs;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.coyote.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Utilidades para los listados paginados por cursor (keyset).
+ * <p>
+ * Cada listado tiene un orden estable que termina en la llave primaria. El cursor codifica los valores
+ * de esas columnas en el último elemento devuelto y la página siguiente se pide con un predicado
+ * "mayor que" sobre ellas, de modo que la base de datos recorre el índice desde ese punto en lugar de
+ * contar y descartar filas como haría un OFFSET. El cursor es opaco para el cliente: viaja en la
+ * cabecera {@link #CABECERA_SIGUIENTE_CURSOR} y se devuelve tal cual en el parámetro {@code after}.
+ */
+public final class PaginacionUtils {
+
+    /**
+     * Cabecera con el cursor de la página siguiente; no se envía en la última página.
+     */
+    public static final String CABECERA_SIGUIENTE_CURSOR = "X-Siguiente-Cursor";
+
+    public static final int LIMITE_POR_DEFECTO = 50;
+
+    public static final int LIMITE_MAXIMO = 500;
+
+    private static final String SEPARADOR = ".";
+
+    private PaginacionUtils() {
+    }
+
+    /**
+     * Valida el tamaño de página solicitado.
+     * @param limit Tamaño pedido por el cliente, o null.
+     * @return Tamaño de página a usar.
+     * @throws BadRequestException Si está fuera de rango.
+     */
+    public static int limite(Integer limit) throws BadRequestException {
+        if (limit == null) {
+            return LIMITE_POR_DEFECTO;
+        }
+        if (limit < 1 || limit > LIMITE_MAXIMO) {
+            throw new BadRequestException("El parámetro limit debe estar entre 1 y " + LIMITE_MAXIMO + ".");
+        }
+        return limit;
+    }
+
+    /**
+     * Pide una fila más que el tamaño de página para saber, sin contar, si hay página siguiente.
+     * @param limite Tamaño de página.
+     * @return Paginación para el repositorio.
+     */
+    public static Pageable consulta(int limite) {
+        return PageRequest.of(0, limite + 1);
+    }
+
+    /**
+     * Arma la página a partir de las filas leídas con {@link #consulta(int)}.
+     * @param filas Filas leídas (hasta limite + 1).
+     * @param limite Tamaño de página.
+     * @param llave Valores de la llave de orden de un elemento, en el orden de la consulta.
+     * @param <T> Tipo de los elementos.
+     * @return Página con el cursor de la siguiente, si existe.
+     */
+    public static <T> PaginaRs<T> pagina(List<T> filas, int limite, Function<T, Object[]> llave) {
+        if (filas.size() <= limite) {
+            return new PaginaRs<>(filas, null);
+        }
+        List<T> elementos = filas.subList(0, limite);
+        return new PaginaRs<>(elementos, codificar(llave.apply(elementos.get(limite - 1))));
+    }
+
+    /**
+     * Decodifica un cursor recibido en el parámetro {@code after}.
+     * @param cursor Cursor, o null para la primera página.
+     * @param partes Número de valores que debe contener.
+     * @return Valores del cursor, o null si no se envió.
+     * @throws BadRequestException Si el cursor no es válido.
+     */
+    public static String[] decodificar(String cursor, int partes) throws BadRequestException {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] valores = cursor.split("\\" + SEPARADOR, -1);
+        if (valores.length != partes) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+        try {
+            for (int i = 0; i < partes; i++) {
+                valores[i] = new String(Base64.getUrlDecoder().decode(valores[i]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+        return valores;
+    }
+
+    public static Integer entero(String valor) throws BadRequestException {
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+    }
+
+    public static LocalDate fecha(String valor) throws BadRequestException {
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+    }
+
+    public static LocalTime hora(String valor) throws BadRequestException {
+        try {
+            return LocalTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido.");
+        }
+    }
+
+    /**
+     * Respuesta HTTP de una página: el cuerpo es la lista y el cursor va en la cabecera.
+     * @param pagina Página.
+     * @param <T> Tipo de los elementos.
+     * @return Respuesta 200.
+     */
+    public static <T> ResponseEntity<List<T>> responder(PaginaRs<T> pagina) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.getSiguienteCursor() != null) {
+            respuesta.header(CABECERA_SIGUIENTE_CURSOR, pagina.getSiguienteCursor());
+        }
+        return respuesta.body(pagina.getElementos());
+    }
+
+    private static String codificar(Object[] valores) {
+        StringBuilder cursor = new StringBuilder();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                cursor.append(SEPARADOR);
+            }
+            cursor.append(Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(String.valueOf(valores[i]).getBytes(StandardCharsets.UTF_8)));
+        }
+        return cursor.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.uniminuto.biblioteca.utils;
+
+import java.util.Locale;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Utilidades para reconocer qué restricción de la base de datos rechazó una sentencia.
+ * Permiten validar unicidad y llaves foráneas con la propia sentencia de escritura en lugar de
+ * consultar antes, y aun así responder con un mensaje de negocio.
+ */
+public final class RestriccionUtils {
+
+    private RestriccionUtils() {
+    }
+
+    /**
+     * Indica si la violación se debe a la restricción con el nombre indicado.
+     * @param e Violación de integridad.
+     * @param restriccion Nombre de la restricción (definido en las migraciones).
+     * @return true si el mensaje de la base de datos menciona la restricción.
+     */
+    public static boolean esRestriccion(DataIntegrityViolationException e, String restriccion) {
+        return detalle(e).toLowerCase(Locale.ROOT).contains(restriccion);
+    }
+
+    /**
+     * Indica si la violación es de una llave foránea: un registro hijo apunta a un padre que no existe,
+     * o se intenta eliminar un padre que aún tiene hijos. No depende del nombre de la llave, que en las
+     * bases creadas antes de las migraciones lo generó Hibernate.
+     * @param e Violación de integridad.
+     * @return true si es una violación de llave foránea.
+     */
+    public static boolean esLlaveForanea(DataIntegrityViolationException e) {
+        return detalle(e).toLowerCase(Locale.ROOT).contains("foreign key");
+    }
+
+    /**
+     * Mensaje original de la base de datos.
+     * @param e Violación de integridad.
+     * @return Mensaje de la causa más específica.
+     */
+    public static String detalle(DataIntegrityViolationException e) {
+        return String.valueOf(e.getMostSpecificCause().getMessage());
+    }
+}
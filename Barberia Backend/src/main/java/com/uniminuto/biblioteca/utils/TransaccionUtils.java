@@ -0,0 +1,31 @@
+package com.uniminuto.biblioteca.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para ejecutar acciones ligadas al ciclo de vida de la transacción actual.
+ */
+public final class TransaccionUtils {
+
+    private TransaccionUtils() {
+    }
+
+    /**
+     * Ejecuta la acción cuando la transacción actual confirma. Si no hay transacción activa
+     * la acción se ejecuta de inmediato.
+     * @param accion Acción a ejecutar.
+     */
+    public static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.uniminuto.biblioteca.utils;
+
+import com.uniminuto.biblioteca.concurrencia.ConflictoVersionException;
+
+/**
+ * Utilidades para el control de concurrencia optimista en las actualizaciones.
+ */
+public final class VersionUtils {
+
+    private VersionUtils() {
+    }
+
+    /**
+     * Verifica que el cliente haya editado la versión vigente de la entidad. Si el request no trae
+     * versión, la actualización se aplica sobre la versión leída en esta transacción y solo se detectan
+     * los conflictos con escrituras concurrentes.
+     * @param entidad Nombre de la entidad.
+     * @param id ID del registro.
+     * @param versionLeida Versión enviada por el cliente (opcional).
+     * @param versionActual Versión vigente del registro.
+     * @throws ConflictoVersionException Si la versión enviada ya no es la vigente.
+     */
+    public static void verificar(String entidad, Integer id, Long versionLeida, Long versionActual)
+            throws ConflictoVersionException {
+        if (versionLeida != null && !versionLeida.equals(versionActual)) {
+            throw new ConflictoVersionException(entidad, id, versionActual);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.flywaydb.core.api.FlywayException;
+
+/**
+ * Agrega una restricción única a una tabla con datos. Una base que venía de ddl-auto=update puede tener
+ * filas repetidas; en ese caso la migración se detiene con la lista de registros a corregir en lugar de
+ * fallar con el error genérico de la base de datos o de borrar datos por su cuenta.
+ */
+final class RestriccionUnica {
+
+    private static final int MAXIMO_REPORTADOS = 20;
+
+    private RestriccionUnica() {
+    }
+
+    /**
+     * Verifica que no haya repetidos y agrega la restricción.
+     * @param conexion Conexión de la migración.
+     * @param tabla Tabla.
+     * @param restriccion Nombre de la restricción.
+     * @param columnaId Columna de la llave primaria, para identificar los registros repetidos.
+     * @param columnas Columnas que no pueden repetirse.
+     * @throws SQLException Si falla la consulta o la creación de la restricción.
+     * @throws FlywayException Si hay registros repetidos.
+     */
+    static void agregar(Connection conexion, String tabla, String restriccion, String columnaId, String... columnas)
+            throws SQLException {
+        String lista = String.join(", ", columnas);
+        Map<String, List<String>> repetidos = new LinkedHashMap<>();
+        String consulta = "SELECT " + lista + ", " + columnaId + " FROM " + tabla
+                + " WHERE (" + lista + ") IN (SELECT " + lista + " FROM " + tabla + " GROUP BY " + lista
+                + " HAVING COUNT(*) > 1) ORDER BY " + lista + ", " + columnaId;
+        try (Statement sentencia = conexion.createStatement(); ResultSet filas = sentencia.executeQuery(consulta)) {
+            while (filas.next()) {
+                List<String> valores = new ArrayList<>(columnas.length);
+                for (int i = 1; i <= columnas.length; i++) {
+                    valores.add(filas.getString(i));
+                }
+                repetidos.computeIfAbsent(String.join(" / ", valores), v -> new ArrayList<>())
+                        .add(filas.getString(columnas.length + 1));
+            }
+        }
+        if (!repetidos.isEmpty()) {
+            throw new FlywayException(reporte(tabla, restriccion, columnaId, lista, repetidos));
+        }
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("ALTER TABLE " + tabla + " ADD CONSTRAINT " + restriccion + " UNIQUE (" + lista + ")");
+        }
+    }
+
+    private static String reporte(String tabla, String restriccion, String columnaId, String lista,
+            Map<String, List<String>> repetidos) {
+        StringBuilder mensaje = new StringBuilder("No se puede crear la restricción ").append(restriccion)
+                .append(": valores de (").append(lista).append(") repetidos en ").append(tabla).append(": ")
+                .append(repetidos.size()).append(". Corrija o combine estos registros y vuelva a iniciar la aplicación:");
+        repetidos.entrySet().stream().limit(MAXIMO_REPORTADOS).forEach(repetido -> mensaje.append("\n  ")
+                .append(repetido.getKey()).append(" -> ").append(columnaId).append(' ').append(repetido.getValue()));
+        if (repetidos.size() > MAXIMO_REPORTADOS) {
+            mensaje.append("\n  ... y ").append(repetidos.size() - MAXIMO_REPORTADOS).append(" más");
+        }
+        return mensaje.toString();
+    }
+}
@@ -0,0 +1,18 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Un barbero no puede tener dos citas que empiecen a la misma hora. Solo rechaza inicios idénticos, no
+ * intervalos que se crucen: los solapamientos los impide la validación en SQL que hace el servicio de
+ * citas con la fila del barbero bloqueada.
+ */
+public class V3__cita_unica_por_barbero extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        RestriccionUnica.agregar(context.getConnection(), "cita", "uk_cita_barbero_fecha_hora", "id_cita",
+                "id_barbero", "fecha", "hora");
+    }
+}
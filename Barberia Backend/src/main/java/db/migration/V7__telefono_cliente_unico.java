@@ -0,0 +1,20 @@
+package db.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * El teléfono del cliente pasa de índice simple a restricción única, que también sirve a la búsqueda
+ * por teléfono.
+ */
+public class V7__telefono_cliente_unico extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        RestriccionUnica.agregar(context.getConnection(), "cliente", "uk_cliente_telefono", "id_cliente", "telefono");
+        try (Statement sentencia = context.getConnection().createStatement()) {
+            sentencia.execute("DROP INDEX idx_cliente_telefono ON cliente");
+        }
+    }
+}
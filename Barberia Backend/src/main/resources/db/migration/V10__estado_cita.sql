@@ -0,0 +1,15 @@
+-- Estado de la cita: cancelar una cita la marca como CANCELADA en lugar de borrarla, para conservar el
+-- historial y que la cancelación sea una sola actualización condicional.
+ALTER TABLE cita ADD COLUMN estado VARCHAR(20) NOT NULL DEFAULT 'AGENDADA';
+
+-- Barbero de la cita mientras siga vigente (NULL si está cancelada). La restricción única se recrea sobre
+-- esta columna calculada para que una cita cancelada no impida volver a reservar el mismo horario.
+ALTER TABLE cita ADD COLUMN id_barbero_vigente INT
+    GENERATED ALWAYS AS (CASE WHEN estado = 'CANCELADA' THEN NULL ELSE id_barbero END);
+
+-- La agenda de un barbero por día usaba la restricción única (id_barbero, fecha, hora); ahora tiene su
+-- propio índice, que también sirve a la llave foránea del barbero.
+CREATE INDEX idx_cita_barbero_fecha_hora ON cita (id_barbero, fecha, hora);
+
+ALTER TABLE cita DROP CONSTRAINT uk_cita_barbero_fecha_hora;
+ALTER TABLE cita ADD CONSTRAINT uk_cita_barbero_fecha_hora UNIQUE (id_barbero_vigente, fecha, hora);
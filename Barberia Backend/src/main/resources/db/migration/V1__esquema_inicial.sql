@@ -0,0 +1,62 @@
+-- Esquema inicial de la barbería, equivalente al que generaba Hibernate con ddl-auto=update antes de las
+-- migraciones. En bases de datos existentes no se ejecuta: Flyway las toma como línea base en esta versión,
+-- así que aquí no debe agregarse nada; cada cambio posterior va en su propia migración.
+
+CREATE TABLE sede (
+    id_sede INT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(100) NOT NULL,
+    direccion VARCHAR(255) NOT NULL,
+    telefono VARCHAR(15) NOT NULL,
+    PRIMARY KEY (id_sede)
+) ENGINE = InnoDB;
+
+CREATE TABLE servicio (
+    id_servicio INT NOT NULL AUTO_INCREMENT,
+    nombre_servicio VARCHAR(100) NOT NULL,
+    descripcion TEXT,
+    precio DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id_servicio)
+) ENGINE = InnoDB;
+
+CREATE TABLE cliente (
+    id_cliente INT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    telefono VARCHAR(15) NOT NULL,
+    correo VARCHAR(100),
+    fecha_registro DATE NOT NULL,
+    PRIMARY KEY (id_cliente)
+) ENGINE = InnoDB;
+
+CREATE TABLE barbero (
+    id_barbero INT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    especialidad VARCHAR(255),
+    id_sede INT NOT NULL,
+    PRIMARY KEY (id_barbero),
+    CONSTRAINT fk_barbero_sede FOREIGN KEY (id_sede) REFERENCES sede (id_sede)
+) ENGINE = InnoDB;
+
+CREATE TABLE cita (
+    id_cita INT NOT NULL AUTO_INCREMENT,
+    fecha DATE NOT NULL,
+    hora TIME NOT NULL,
+    id_cliente INT NOT NULL,
+    id_barbero INT NOT NULL,
+    id_servicio INT NOT NULL,
+    PRIMARY KEY (id_cita),
+    CONSTRAINT fk_cita_cliente FOREIGN KEY (id_cliente) REFERENCES cliente (id_cliente),
+    CONSTRAINT fk_cita_barbero FOREIGN KEY (id_barbero) REFERENCES barbero (id_barbero),
+    CONSTRAINT fk_cita_servicio FOREIGN KEY (id_servicio) REFERENCES servicio (id_servicio)
+) ENGINE = InnoDB;
+
+CREATE TABLE pago (
+    id_pago INT NOT NULL AUTO_INCREMENT,
+    monto DECIMAL(10, 2) NOT NULL,
+    fecha_pago DATE NOT NULL,
+    metodo_pago VARCHAR(50) NOT NULL,
+    id_cita INT NOT NULL,
+    PRIMARY KEY (id_pago),
+    CONSTRAINT fk_pago_cita FOREIGN KEY (id_cita) REFERENCES cita (id_cita)
+) ENGINE = InnoDB;
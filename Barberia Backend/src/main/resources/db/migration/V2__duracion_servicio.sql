@@ -0,0 +1,4 @@
+-- Duración de cada servicio, usada para detectar citas que se solapan. Los servicios existentes toman
+-- la duración por defecto.
+
+ALTER TABLE servicio ADD COLUMN duracion_minutos INT NOT NULL DEFAULT 30;
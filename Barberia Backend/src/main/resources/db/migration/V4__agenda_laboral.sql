@@ -0,0 +1,32 @@
+-- Horario de atención de cada sede por día de la semana, festivos en los que la sede no abre y turnos
+-- semanales de cada barbero (ver CalendarioLaboral).
+
+CREATE TABLE horario_sede (
+    id_horario INT NOT NULL AUTO_INCREMENT,
+    id_sede INT NOT NULL,
+    dia_semana VARCHAR(10) NOT NULL,
+    hora_apertura TIME NOT NULL,
+    hora_cierre TIME NOT NULL,
+    PRIMARY KEY (id_horario),
+    CONSTRAINT fk_horario_sede_sede FOREIGN KEY (id_sede) REFERENCES sede (id_sede)
+) ENGINE = InnoDB;
+
+CREATE TABLE festivo_sede (
+    id_festivo INT NOT NULL AUTO_INCREMENT,
+    id_sede INT NOT NULL,
+    fecha DATE NOT NULL,
+    descripcion VARCHAR(100),
+    PRIMARY KEY (id_festivo),
+    CONSTRAINT uk_festivo_sede_fecha UNIQUE (id_sede, fecha),
+    CONSTRAINT fk_festivo_sede_sede FOREIGN KEY (id_sede) REFERENCES sede (id_sede)
+) ENGINE = InnoDB;
+
+CREATE TABLE turno_barbero (
+    id_turno INT NOT NULL AUTO_INCREMENT,
+    id_barbero INT NOT NULL,
+    dia_semana VARCHAR(10) NOT NULL,
+    hora_inicio TIME NOT NULL,
+    hora_fin TIME NOT NULL,
+    PRIMARY KEY (id_turno),
+    CONSTRAINT fk_turno_barbero_barbero FOREIGN KEY (id_barbero) REFERENCES barbero (id_barbero)
+) ENGINE = InnoDB;
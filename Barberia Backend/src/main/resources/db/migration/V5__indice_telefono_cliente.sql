@@ -0,0 +1,3 @@
+-- Búsqueda de clientes por teléfono al importar desde CSV.
+
+CREATE INDEX idx_cliente_telefono ON cliente (telefono);
@@ -0,0 +1,29 @@
+-- Índices para las consultas de los repositorios. PlanConsultasTests verifica con EXPLAIN que ninguna
+-- consulta declarada en un repositorio recorra una tabla completa.
+-- Los índices que sirven a un listado paginado terminan en el ID para cubrir todo el ORDER BY del cursor.
+
+-- Cita: la agenda de un barbero por día ya usa la restricción única uk_cita_barbero_fecha_hora
+-- (id_barbero, fecha, hora). Historial de un cliente por fecha:
+CREATE INDEX idx_cita_cliente_fecha ON cita (id_cliente, fecha, hora, id_cita);
+-- Listado general, exportación y rangos de fechas:
+CREATE INDEX idx_cita_fecha_hora ON cita (fecha, hora, id_cita);
+
+-- Pago: rangos de fechas y listado ordenado por fecha de pago
+CREATE INDEX idx_pago_fecha_pago ON pago (fecha_pago, id_pago);
+-- Pagos de una cita
+CREATE INDEX idx_pago_cita ON pago (id_cita, fecha_pago);
+-- Listado por método de pago ordenado por fecha
+CREATE INDEX idx_pago_metodo_fecha ON pago (metodo_pago, fecha_pago, id_pago);
+
+-- Cliente: listado ordenado por fecha de registro y búsqueda por nombre (la restricción única del
+-- teléfono va aparte, en V7, porque antes hay que revisar los repetidos)
+CREATE INDEX idx_cliente_fecha_registro ON cliente (fecha_registro, id_cliente);
+CREATE INDEX idx_cliente_apellido_nombre ON cliente (apellido, nombre);
+
+-- Barbero: listado ordenado por apellido y nombre, general y por sede
+CREATE INDEX idx_barbero_apellido_nombre ON barbero (apellido, nombre, id_barbero);
+CREATE INDEX idx_barbero_sede_apellido_nombre ON barbero (id_sede, apellido, nombre, id_barbero);
+
+-- Búsqueda por nombre al validar duplicados
+CREATE INDEX idx_sede_nombre ON sede (nombre);
+CREATE INDEX idx_servicio_nombre ON servicio (nombre_servicio);
@@ -0,0 +1,10 @@
+-- Latido de replicación: la aplicación escribe la hora actual en la primaria y la lee en la réplica de
+-- lectura; la diferencia es el retraso de la réplica (ver MonitorReplica). Sin réplica la tabla no se usa.
+
+CREATE TABLE latido_replica (
+    id INT NOT NULL,
+    marca_ms BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO latido_replica (id, marca_ms) VALUES (1, 0);
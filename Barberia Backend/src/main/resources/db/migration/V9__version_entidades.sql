@@ -0,0 +1,10 @@
+-- Control de concurrencia optimista: cada UPDATE de una entidad verifica e incrementa su versión, de modo
+-- que una edición hecha sobre datos ya modificados por otra transacción se detecta en lugar de pisarla.
+-- Las actualizaciones con JPQL o JDBC directo también incrementan la columna.
+
+ALTER TABLE sede ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE servicio ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE barbero ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cliente ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cita ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE pago ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
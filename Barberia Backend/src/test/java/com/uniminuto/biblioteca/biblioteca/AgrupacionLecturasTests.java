@@ -0,0 +1,160 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.uniminuto.biblioteca.concurrencia.AgrupacionLecturasAspect;
+import com.uniminuto.biblioteca.concurrencia.AgruparLecturas;
+import com.uniminuto.biblioteca.model.EstadisticaAgrupacionRs;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Las llamadas simultáneas e idénticas a una consulta agrupada comparten una sola ejecución, salvo que
+ * se haya confirmado un cambio en sus tablas después de que empezara.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AgrupacionLecturasTests {
+
+    @TestConfiguration
+    static class Configuracion {
+        @Bean
+        ConsultaLenta consultaLenta() {
+            return new ConsultaLenta();
+        }
+    }
+
+    /**
+     * Consulta que no termina hasta que la prueba la libera.
+     */
+    static class ConsultaLenta {
+        private final AtomicInteger ejecuciones = new AtomicInteger();
+        private volatile CountDownLatch liberar = new CountDownLatch(1);
+
+        @AgruparLecturas({"servicio"})
+        public List<String> consultar(String filtro) throws InterruptedException {
+            ejecuciones.incrementAndGet();
+            liberar.await(30, TimeUnit.SECONDS);
+            return new ArrayList<>(List.of(filtro));
+        }
+
+        // El bean es un proxy: el estado se consulta por métodos, no por los campos
+        public int ejecuciones() {
+            return ejecuciones.get();
+        }
+
+        public void liberar() {
+            liberar.countDown();
+        }
+
+        public void reiniciar() {
+            ejecuciones.set(0);
+            liberar = new CountDownLatch(1);
+        }
+    }
+
+    @Autowired
+    private ConsultaLenta consultaLenta;
+
+    @Autowired
+    private AgrupacionLecturasAspect agrupacionLecturas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private ExecutorService ejecutor;
+
+    @BeforeEach
+    void preparar() {
+        consultaLenta.reiniciar();
+        agrupacionLecturas.reiniciar();
+        ejecutor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void terminar() {
+        consultaLenta.liberar();
+        ejecutor.shutdownNow();
+    }
+
+    @Test
+    void lasLlamadasSimultaneasCompartenUnaEjecucion() throws Exception {
+        List<Future<List<String>>> llamadas = new ArrayList<>();
+        llamadas.add(ejecutor.submit(() -> consultaLenta.consultar("hoy")));
+        esperar(() -> consultaLenta.ejecuciones() == 1);
+        for (int i = 0; i < 5; i++) {
+            llamadas.add(ejecutor.submit(() -> consultaLenta.consultar("hoy")));
+        }
+        esperar(() -> estadistica().getAgrupadas() == 5);
+        // Otros argumentos son otra consulta
+        Future<List<String>> otra = ejecutor.submit(() -> consultaLenta.consultar("mañana"));
+        esperar(() -> consultaLenta.ejecuciones() == 2);
+
+        consultaLenta.liberar();
+        List<String> primero = llamadas.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<List<String>> llamada : llamadas) {
+            assertSame(primero, llamada.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of("mañana"), otra.get(10, TimeUnit.SECONDS));
+        assertEquals(2, consultaLenta.ejecuciones());
+
+        mockMvc.perform(get("/agrupacion/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].consulta").value("ConsultaLenta.consultar"))
+                .andExpect(jsonPath("$[0].llamadas").value(7))
+                .andExpect(jsonPath("$[0].agrupadas").value(5));
+    }
+
+    @Test
+    void unaLlamadaPosteriorAUnCambioNoSeUneALaEjecucionAnterior() throws Exception {
+        Future<List<String>> anterior = ejecutor.submit(() -> consultaLenta.consultar("hoy"));
+        esperar(() -> consultaLenta.ejecuciones() == 1);
+
+        jdbcTemplate.update("UPDATE servicio SET descripcion = descripcion WHERE id_servicio = -1");
+        Future<List<String>> posterior = ejecutor.submit(() -> consultaLenta.consultar("hoy"));
+        esperar(() -> consultaLenta.ejecuciones() == 2);
+
+        consultaLenta.liberar();
+        assertTrue(anterior.get(10, TimeUnit.SECONDS) != posterior.get(10, TimeUnit.SECONDS));
+        assertEquals(0, estadistica().getAgrupadas());
+    }
+
+    private EstadisticaAgrupacionRs estadistica() {
+        return agrupacionLecturas.obtenerEstadisticas().stream()
+                .filter(e -> "ConsultaLenta.consultar".equals(e.getConsulta())).findFirst()
+                .orElse(new EstadisticaAgrupacionRs("ConsultaLenta.consultar", 0L, 0L, 0L, null));
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Pago;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.ClienteRq;
+import com.uniminuto.biblioteca.model.EstadisticaBusquedasRs;
+import com.uniminuto.biblioteca.model.PagoRq;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import com.uniminuto.biblioteca.repository.CitaRepository;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import com.uniminuto.biblioteca.services.ClienteService;
+import com.uniminuto.biblioteca.services.PagoService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import javax.persistence.EntityManagerFactory;
+import org.apache.coyote.BadRequestException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Las búsquedas por ID repetidas, incluidas las de IDs inexistentes, se resuelven sin consultas, y una
+ * escritura confirmada descarta tanto la entidad como las entradas que la incluyen.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CacheBusquedasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repiteLaBusquedaSinConsultarYLaInvalidaAlActualizarUnaRelacion() throws Exception {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede Busqueda", "Calle 4", "3000000004"));
+        Barbero barbero = barberoRepository.save(new Barbero(null, "Barbero", "Busqueda", null, sede));
+        Cliente cliente = clienteRepository.save(new Cliente(null, "Cliente", "Busqueda", "3200000004", null, LocalDate.now()));
+        Servicio servicio = servicioRepository.save(new Servicio(null, "Corte Busqueda", "Corte", new BigDecimal("20000")));
+        Cita cita = citaRepository.save(new Cita(null, LocalDate.now().plusDays(4), LocalTime.of(11, 0), cliente, barbero, servicio));
+
+        EstadisticaBusquedasRs antes = estadisticaCitas();
+        mockMvc.perform(get("/cita/obtener-por-id/{idCita}", cita.getIdCita()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cliente.nombre").value("Cliente"));
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long sentencias = estadisticas.getPrepareStatementCount();
+        mockMvc.perform(get("/cita/obtener-por-id/{idCita}", cita.getIdCita()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.barbero.sede.nombre").value("Sede Busqueda"));
+        assertEquals(sentencias, estadisticas.getPrepareStatementCount());
+
+        // Actualizar el cliente descarta también la cita guardada que lo incluye
+        ClienteRq clienteRq = new ClienteRq();
+        clienteRq.setIdCliente(cliente.getIdCliente());
+        clienteRq.setNombre("Renombrado");
+        clienteService.actualizarCliente(clienteRq);
+        mockMvc.perform(get("/cita/obtener-por-id/{idCita}", cita.getIdCita()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cliente.nombre").value("Renombrado"));
+
+        EstadisticaBusquedasRs despues = estadisticaCitas();
+        assertEquals(1, despues.getAciertos() - antes.getAciertos());
+        assertEquals(2, despues.getFallos() - antes.getFallos());
+        mockMvc.perform(get("/cache/busquedas/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.tipo == 'Cita')].entradas").exists());
+    }
+
+    @Test
+    void recuerdaLosIdsInexistentesHastaQueSeCreen() throws Exception {
+        int inexistente = 900_000;
+        Assertions.assertThrows(BadRequestException.class, () -> pagoService.obtenerPagoPorId(inexistente));
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long sentencias = estadisticas.getPrepareStatementCount();
+        BadRequestException ausente = Assertions.assertThrows(BadRequestException.class,
+                () -> pagoService.obtenerPagoPorId(inexistente));
+        assertEquals("Pago no encontrado con ID: " + inexistente, ausente.getMessage());
+        assertEquals(sentencias, estadisticas.getPrepareStatementCount());
+
+        // Un pago sobre una cita inexistente lo rechaza la llave foránea; el reintento no llega a la base de datos
+        PagoRq pagoRq = new PagoRq();
+        pagoRq.setMonto(new BigDecimal("10000"));
+        pagoRq.setFechaPago(LocalDate.now());
+        pagoRq.setMetodoPago(Pago.MetodoPago.Efectivo);
+        pagoRq.setIdCita(inexistente);
+        Assertions.assertThrows(BadRequestException.class, () -> pagoService.crearPago(pagoRq));
+        sentencias = estadisticas.getPrepareStatementCount();
+        BadRequestException error = Assertions.assertThrows(BadRequestException.class, () -> pagoService.crearPago(pagoRq));
+        assertEquals("Cita no encontrada con ID: " + inexistente, error.getMessage());
+        assertEquals(sentencias, estadisticas.getPrepareStatementCount());
+
+        // Crear la entidad olvida que el ID no existía (se marcan varios IDs libres: el generado puede saltarse alguno)
+        int siguiente = clienteRepository.findAll().stream().mapToInt(Cliente::getIdCliente).max().orElse(0) + 1;
+        for (int id = siguiente; id < siguiente + 50; id++) {
+            cacheBusquedas.registrarAusente(Cliente.class, id);
+        }
+        ClienteRq clienteRq = new ClienteRq();
+        clienteRq.setNombre("Cliente");
+        clienteRq.setApellido("Nuevo");
+        clienteRq.setTelefono("3200000005");
+        clienteService.crearCliente(clienteRq);
+        Cliente creado = clienteRepository.findAll().stream().filter(c -> "3200000005".equals(c.getTelefono()))
+                .findFirst().orElseThrow();
+        mockMvc.perform(get("/cliente/obtener-por-id/{idCliente}", creado.getIdCliente()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.apellido").value("Nuevo"));
+    }
+
+    @Test
+    void expulsaHastaElPesoMaximoYConservaLasEntradasQueSeSiguenLeyendo() {
+        CacheBusquedas cache = new CacheBusquedas(transactionManager, entityManagerFactory, 1, 600, 30);
+        cache.obtener(Sede.class, 0, () -> Optional.of(new Sede(0, "Sede frecuente", "Calle 0", "3000000000")));
+        for (int id = 1; id <= 200; id++) {
+            int idSede = id;
+            cache.obtener(Sede.class, idSede, () -> Optional.of(new Sede(idSede, "Sede " + idSede, "Calle", "3000000000")));
+            // La sede 0 se lee entre cada alta: la manecilla le da una segunda oportunidad en cada vuelta
+            cache.obtener(Sede.class, 0, Optional::empty);
+        }
+
+        EstadisticaBusquedasRs sedes = cache.obtenerEstadisticas().get(0);
+        assertTrue(sedes.getPesoBytes() <= 1024, "Peso: " + sedes.getPesoBytes());
+        assertTrue(sedes.getExpulsiones() > 0);
+        assertEquals("Sede frecuente", cache.obtener(Sede.class, 0, Optional::empty).orElseThrow().getNombre());
+    }
+
+    @Test
+    void unaInvalidacionSoloDescartaLasCargasDeSuTipoYDeLasQueLoIncluyen() {
+        CacheBusquedas cache = new CacheBusquedas(transactionManager, entityManagerFactory, 1024, 600, 30);
+        Sede sede = new Sede(1, "Sede", "Calle", "3000000000");
+
+        // Invalidar otro tipo durante la carga no impide guardarla
+        cache.obtener(Sede.class, 1, () -> {
+            cache.invalidar(Pago.class, 1);
+            return Optional.of(sede);
+        });
+        assertTrue(cache.obtener(Sede.class, 1, Optional::empty).isPresent());
+
+        // Invalidar la sede mientras se carga un barbero que la incluye sí, porque pudo leerla antes del cambio
+        cache.obtener(Barbero.class, 1, () -> {
+            cache.invalidar(Sede.class, 1);
+            return Optional.of(new Barbero(1, "Barbero", "Generaciones", null, sede));
+        });
+        assertTrue(cache.obtener(Barbero.class, 1, Optional::empty).isEmpty());
+    }
+
+    private EstadisticaBusquedasRs estadisticaCitas() {
+        return cacheBusquedas.obtenerEstadisticas().stream().filter(e -> "Cita".equals(e.getTipo())).findFirst()
+                .orElse(new EstadisticaBusquedasRs("Cita", 0L, 0L, 0L, 0L, 0L, 0L, null));
+    }
+}
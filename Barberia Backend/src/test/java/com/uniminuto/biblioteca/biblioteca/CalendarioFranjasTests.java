@@ -0,0 +1,202 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.uniminuto.biblioteca.agenda.CalendarioLaboral;
+import com.uniminuto.biblioteca.agenda.MascaraFranjas;
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.CitaRq;
+import com.uniminuto.biblioteca.model.DisponibilidadBarberoRs;
+import com.uniminuto.biblioteca.model.FestivoRq;
+import com.uniminuto.biblioteca.model.HorarioSedeRq;
+import com.uniminuto.biblioteca.model.TurnoRq;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import com.uniminuto.biblioteca.services.BarberoService;
+import com.uniminuto.biblioteca.services.CitaService;
+import com.uniminuto.biblioteca.services.SedeService;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Máscaras de franjas del calendario laboral (horario de sede, turnos y festivos) y coherencia entre la
+ * búsqueda de horarios libres y la validación al reservar: ambas trabajan con franjas de 15 minutos.
+ */
+@SpringBootTest
+class CalendarioFranjasTests {
+
+    @Autowired
+    private CalendarioLaboral calendarioLaboral;
+
+    @Autowired
+    private CitaService citaService;
+
+    @Autowired
+    private SedeService sedeService;
+
+    @Autowired
+    private BarberoService barberoService;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Sede sede;
+
+    private Barbero barbero;
+
+    private LocalDate lunes;
+
+    @BeforeEach
+    void preparar() {
+        sede = sedeRepository.save(new Sede(null, "Sede Calendario", "Calle 13", "3000000013"));
+        barbero = barberoRepository.save(new Barbero(null, "Barbero", "Calendario", null, sede));
+        lunes = LocalDate.now().plusWeeks(3).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void marcaLasFranjasQueTocaUnIntervaloIncluidoElCambioDePalabra() {
+        // 9:05 a 9:20 toca las franjas de las 9:00 y las 9:15
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(9, 15)),
+                MascaraFranjas.horas(MascaraFranjas.deIntervalo(9 * 60 + 5, 9 * 60 + 20)));
+
+        // Las franjas 63 a 65 (15:45 a 16:30) ocupan las dos palabras de la máscara
+        long[] cruce = MascaraFranjas.vacia();
+        MascaraFranjas.marcarFranjas(cruce, 63, 66);
+        assertEquals(1L << 63, cruce[0]);
+        assertEquals(0b11L, cruce[1]);
+        assertEquals(List.of(LocalTime.of(15, 45), LocalTime.of(16, 0), LocalTime.of(16, 15)),
+                MascaraFranjas.horas(cruce));
+
+        // Un servicio de tres franjas solo puede empezar en la primera
+        assertEquals(List.of(LocalTime.of(15, 45)), MascaraFranjas.horas(MascaraFranjas.iniciosPosibles(cruce, 3)));
+        assertEquals(3, MascaraFranjas.franjasPara(31));
+        assertEquals(1, MascaraFranjas.franjasPara(0));
+
+        // El final del día no se sale de la máscara
+        long[] ultimas = MascaraFranjas.deIntervalo(23 * 60 + 30, 24 * 60);
+        assertEquals(2, MascaraFranjas.contar(ultimas));
+        assertEquals(0, MascaraFranjas.contar(MascaraFranjas.iniciosPosibles(ultimas, 3)));
+    }
+
+    @Test
+    void intersectaHorarioDeSedeYTurnosYVaciaLosFestivos() throws Exception {
+        // Sin plantillas: horario por defecto de 8:00 a 20:00
+        assertArrayEquals(MascaraFranjas.deIntervalo(8 * 60, 20 * 60),
+                calendarioLaboral.mascara(sede.getIdSede(), barbero.getIdBarbero(), lunes));
+
+        HorarioSedeRq horario = new HorarioSedeRq();
+        horario.setDiaSemana(DayOfWeek.MONDAY);
+        horario.setHoraApertura(LocalTime.of(9, 0));
+        horario.setHoraCierre(LocalTime.of(12, 0));
+        sedeService.actualizarHorario(sede.getIdSede(), List.of(horario));
+        TurnoRq turno = new TurnoRq();
+        turno.setDiaSemana(DayOfWeek.MONDAY);
+        turno.setHoraInicio(LocalTime.of(10, 0));
+        turno.setHoraFin(LocalTime.of(14, 0));
+        barberoService.actualizarTurnos(barbero.getIdBarbero(), List.of(turno));
+
+        assertArrayEquals(MascaraFranjas.deIntervalo(10 * 60, 12 * 60),
+                calendarioLaboral.mascara(sede.getIdSede(), barbero.getIdBarbero(), lunes));
+        // La sede no abre los martes y el barbero sin turnos trabaja todo el horario de la sede
+        assertEquals(0, MascaraFranjas.contar(
+                calendarioLaboral.mascara(sede.getIdSede(), barbero.getIdBarbero(), lunes.plusDays(1))));
+        assertArrayEquals(MascaraFranjas.deIntervalo(9 * 60, 12 * 60),
+                calendarioLaboral.mascara(sede.getIdSede(), -1, lunes));
+
+        FestivoRq festivo = new FestivoRq();
+        festivo.setIdSede(sede.getIdSede());
+        festivo.setFecha(lunes);
+        festivo.setDescripcion("Festivo de prueba");
+        sedeService.crearFestivo(festivo);
+
+        assertEquals(0, MascaraFranjas.contar(calendarioLaboral.mascara(sede.getIdSede(), barbero.getIdBarbero(), lunes)));
+        assertEquals(8, MascaraFranjas.contar(
+                calendarioLaboral.mascara(sede.getIdSede(), barbero.getIdBarbero(), lunes.plusWeeks(1))));
+    }
+
+    @Test
+    void laReservaAceptaExactamenteLasHorasQueOfreceLaBusqueda() throws Exception {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "Cliente", "Calendario",
+                "38" + (System.nanoTime() % 100000000L), null, LocalDate.now()));
+        Servicio nuevo = new Servicio(null, "Barba Calendario", "Barba de 10 minutos", new BigDecimal("10000"));
+        nuevo.setDuracionMinutos(10);
+        Servicio servicio = servicioRepository.save(nuevo);
+
+        // Una cita antigua fuera de la cuadrícula, de 11:12 a 11:22, ocupa las franjas de las 11:00 y las 11:15
+        jdbcTemplate.update("INSERT INTO cita (fecha, hora, id_cliente, id_barbero, id_servicio) VALUES (?, ?, ?, ?, ?)",
+                Date.valueOf(lunes), Time.valueOf(LocalTime.of(11, 12)), cliente.getIdCliente(),
+                barbero.getIdBarbero(), servicio.getIdServicio());
+
+        List<LocalTime> ofrecidas = horasDisponibles(servicio);
+        assertFalse(ofrecidas.contains(LocalTime.of(11, 0)));
+        assertFalse(ofrecidas.contains(LocalTime.of(11, 15)));
+        assertTrue(ofrecidas.contains(LocalTime.of(10, 45)));
+        assertTrue(ofrecidas.contains(LocalTime.of(11, 30)));
+
+        // 11:00 a 11:10 no se cruza en minutos con la cita antigua, pero su franja sí
+        BadRequestException cruce = assertThrows(BadRequestException.class,
+                () -> citaService.crearCita(citaRq(cliente, servicio, LocalTime.of(11, 0))));
+        assertTrue(cruce.getMessage().contains("se cruza con el horario solicitado"), cruce.getMessage());
+
+        // Una hora fuera de la cuadrícula nunca la ofrece la búsqueda
+        BadRequestException desalineada = assertThrows(BadRequestException.class,
+                () -> citaService.crearCita(citaRq(cliente, servicio, LocalTime.of(11, 40))));
+        assertEquals("La hora de la cita debe ser múltiplo de 15 minutos.", desalineada.getMessage());
+
+        // Una hora ofrecida se acepta y deja de ofrecerse con su franja completa
+        citaService.crearCita(citaRq(cliente, servicio, LocalTime.of(11, 30)));
+        List<LocalTime> despues = horasDisponibles(servicio);
+        assertFalse(despues.contains(LocalTime.of(11, 30)));
+        assertTrue(despues.contains(LocalTime.of(11, 45)));
+    }
+
+    private List<LocalTime> horasDisponibles(Servicio servicio) throws BadRequestException {
+        List<DisponibilidadBarberoRs> disponibilidad = citaService.consultarDisponibilidad(lunes, sede.getIdSede(),
+                servicio.getIdServicio());
+        assertEquals(1, disponibilidad.size());
+        return disponibilidad.get(0).getHorasDisponibles();
+    }
+
+    private CitaRq citaRq(Cliente cliente, Servicio servicio, LocalTime hora) {
+        CitaRq citaRq = new CitaRq();
+        citaRq.setFecha(lunes);
+        citaRq.setHora(hora);
+        citaRq.setIdCliente(cliente.getIdCliente());
+        citaRq.setIdBarbero(barbero.getIdBarbero());
+        citaRq.setIdServicio(servicio.getIdServicio());
+        return citaRq;
+    }
+}
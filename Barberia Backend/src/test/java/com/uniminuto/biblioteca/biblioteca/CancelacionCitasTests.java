@@ -0,0 +1,196 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Pago;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.CitaRq;
+import com.uniminuto.biblioteca.model.ReprogramacionRq;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import com.uniminuto.biblioteca.repository.CitaRepository;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.PagoRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import com.uniminuto.biblioteca.services.CitaService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cancelar y reprogramar una cita son actualizaciones condicionales de una sola sentencia: solo una de
+ * varias operaciones simultáneas sobre la misma cita gana, y una cita cancelada se conserva pero deja
+ * libre su horario.
+ */
+@SpringBootTest
+class CancelacionCitasTests {
+
+    private static final int HILOS = 8;
+
+    @Autowired
+    private CitaService citaService;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private PagoRepository pagoRepository;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Barbero barbero;
+
+    private Cliente cliente;
+
+    private Servicio servicio;
+
+    private LocalDate fecha;
+
+    @BeforeEach
+    void preparar() {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede Cancelación", "Calle 11", "3000000011"));
+        barbero = barberoRepository.save(new Barbero(null, "Barbero", "Cancelación", null, sede));
+        cliente = clienteRepository.save(new Cliente(null, "Cliente", "Cancelación",
+                "36" + (System.nanoTime() % 100000000L), null, LocalDate.now()));
+        servicio = new Servicio(null, "Corte Cancelación", "Corte de 30 minutos", new BigDecimal("20000"));
+        servicio.setDuracionMinutos(30);
+        servicio = servicioRepository.save(servicio);
+        fecha = LocalDate.now().plusDays(6);
+    }
+
+    @Test
+    void cancelarConservaLaCitaYLiberaSuHorario() throws Exception {
+        int idCita = crearCita(LocalTime.of(10, 0));
+
+        citaService.cancelarCita(idCita);
+
+        assertEquals("CANCELADA", jdbcTemplate.queryForObject("SELECT estado FROM cita WHERE id_cita = ?",
+                String.class, idCita));
+        BadRequestException e = assertThrows(BadRequestException.class, () -> citaService.cancelarCita(idCita));
+        assertEquals("La cita ya está cancelada.", e.getMessage());
+
+        // El horario se puede volver a reservar a la misma hora de inicio pese a la restricción única
+        int nueva = crearCita(LocalTime.of(10, 0));
+        assertTrue(nueva != idCita);
+        assertEquals(1, citaRepository.buscarUbicacionesDia(barbero.getIdBarbero(), fecha).size());
+
+        // Una cita cancelada no se reprograma ni se modifica
+        ReprogramacionRq reprogramacionRq = new ReprogramacionRq();
+        reprogramacionRq.setHora(LocalTime.of(15, 0));
+        assertThrows(BadRequestException.class, () -> citaService.reprogramarCita(idCita, reprogramacionRq));
+    }
+
+    @Test
+    void cancelacionesSimultaneasSoloSeAplicanUnaVez() throws Exception {
+        int idCita = crearCita(LocalTime.of(11, 0));
+        long versionInicial = citaRepository.findById(idCita).get().getVersion();
+
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            tareas.add(ejecutor.submit(() -> {
+                salida.await();
+                try {
+                    citaService.cancelarCita(idCita);
+                    exitosas.incrementAndGet();
+                } catch (BadRequestException e) {
+                    rechazadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(1, TimeUnit.MINUTES);
+        }
+        ejecutor.shutdown();
+
+        assertEquals(1, exitosas.get());
+        assertEquals(HILOS - 1, rechazadas.get());
+        assertEquals(versionInicial + 1, citaRepository.findById(idCita).get().getVersion());
+    }
+
+    @Test
+    void noCancelaUnaCitaConPagos() throws Exception {
+        int idCita = crearCita(LocalTime.of(12, 0));
+        pagoRepository.save(new Pago(null, new BigDecimal("20000"), LocalDate.now(), Pago.MetodoPago.Efectivo,
+                citaRepository.getReferenceById(idCita)));
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> citaService.cancelarCita(idCita));
+        assertEquals("La cita tiene pagos registrados y no puede cancelarse.", e.getMessage());
+        assertEquals(Cita.EstadoCita.AGENDADA, citaRepository.findById(idCita).get().getEstado());
+    }
+
+    @Test
+    void reprogramarSoloMueveLaCitaSiSigueDondeSeLeyo() throws Exception {
+        int idCita = crearCita(LocalTime.of(14, 0));
+
+        // Con la hora leída desactualizada la sentencia no modifica nada
+        assertEquals(0, reprogramar(idCita, LocalTime.of(13, 0), LocalTime.of(16, 0)));
+        assertEquals(1, reprogramar(idCita, LocalTime.of(14, 0), LocalTime.of(16, 0)));
+        assertEquals(LocalTime.of(16, 0), citaRepository.findById(idCita).get().getHora());
+
+        // Tampoco mueve una cita cancelada entre la lectura y la escritura
+        citaService.cancelarCita(idCita);
+        assertEquals(0, reprogramar(idCita, LocalTime.of(16, 0), LocalTime.of(17, 0)));
+    }
+
+    private int reprogramar(int idCita, LocalTime horaLeida, LocalTime nuevaHora) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        return transaccion.execute(estado -> citaRepository.reprogramar(idCita, barbero.getIdBarbero(),
+                fecha, horaLeida, fecha, nuevaHora));
+    }
+
+    private int crearCita(LocalTime hora) throws BadRequestException {
+        CitaRq citaRq = new CitaRq();
+        citaRq.setFecha(fecha);
+        citaRq.setHora(hora);
+        citaRq.setIdCliente(cliente.getIdCliente());
+        citaRq.setIdBarbero(barbero.getIdBarbero());
+        citaRq.setIdServicio(servicio.getIdServicio());
+        citaService.crearCita(citaRq);
+        return citaRepository.buscarUbicacionesDia(barbero.getIdBarbero(), fecha).stream()
+                .filter(u -> u.getHora().equals(hora)).findFirst().get().getIdCita();
+    }
+}
@@ -0,0 +1,139 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.model.ClienteRq;
+import com.uniminuto.biblioteca.model.SedeRq;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.services.ClienteService;
+import com.uniminuto.biblioteca.services.SedeService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Control de concurrencia optimista: las ediciones simultáneas sin versión se reintentan y ninguna se
+ * pierde; una edición sobre una versión vieja responde 409 con la versión vigente.
+ */
+@SpringBootTest(properties = "barberia.concurrencia.intentos=20")
+@AutoConfigureMockMvc
+class ConcurrenciaOptimistaTests {
+
+    private static final int HILOS = 4;
+    private static final int EDICIONES_POR_HILO = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private SedeService sedeService;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Test
+    void edicionesConcurrentesSeReintentanSinPerderse() throws Exception {
+        Cliente cliente = clienteRepository.save(
+                new Cliente(null, "Cliente", "Concurrente", "3300000000", null, LocalDate.now()));
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int hilo = 0; hilo < HILOS; hilo++) {
+            String correo = "hilo" + hilo + "@barberia.com";
+            tareas.add(ejecutor.submit(() -> {
+                salida.await();
+                for (int i = 0; i < EDICIONES_POR_HILO; i++) {
+                    ClienteRq clienteRq = new ClienteRq();
+                    clienteRq.setIdCliente(cliente.getIdCliente());
+                    clienteRq.setCorreo(correo + i);
+                    clienteService.actualizarCliente(clienteRq);
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        ejecutor.shutdown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        // Cada edición incrementó la versión exactamente una vez
+        assertEquals(HILOS * EDICIONES_POR_HILO,
+                clienteRepository.findById(cliente.getIdCliente()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void edicionesConcurrentesDeCatalogosTambienSeReintentan() throws Exception {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede Concurrente", "Calle 3", "3000000003"));
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int hilo = 0; hilo < HILOS; hilo++) {
+            String direccion = "Calle " + hilo + "-";
+            tareas.add(ejecutor.submit(() -> {
+                salida.await();
+                for (int i = 0; i < EDICIONES_POR_HILO; i++) {
+                    SedeRq sedeRq = new SedeRq();
+                    sedeRq.setIdSede(sede.getIdSede());
+                    sedeRq.setDireccion(direccion + i);
+                    sedeService.actualizarSede(sedeRq);
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        ejecutor.shutdown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        assertEquals(HILOS * EDICIONES_POR_HILO, sedeRepository.findById(sede.getIdSede()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void edicionSobreVersionViejaRespondeConflicto() throws Exception {
+        Cliente cliente = clienteRepository.save(
+                new Cliente(null, "Cliente", "Editado", "3300000001", null, LocalDate.now()));
+        ClienteRq clienteRq = new ClienteRq();
+        clienteRq.setIdCliente(cliente.getIdCliente());
+        clienteRq.setVersion(0L);
+        clienteRq.setNombre("Primero");
+        mockMvc.perform(put("/cliente/actualizar").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(clienteRq)))
+                .andExpect(status().isOk());
+
+        clienteRq.setNombre("Segundo");
+        mockMvc.perform(put("/cliente/actualizar").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(clienteRq)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.entidad").value("Cliente"))
+                .andExpect(jsonPath("$.id").value(cliente.getIdCliente()))
+                .andExpect(jsonPath("$.versionActual").value(1));
+        assertEquals("Primero", clienteRepository.findById(cliente.getIdCliente()).orElseThrow().getNombre());
+    }
+}
@@ -0,0 +1,401 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.uniminuto.biblioteca.cache.CacheBusquedas;
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Pago;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.CitaRq;
+import com.uniminuto.biblioteca.model.ClienteRq;
+import com.uniminuto.biblioteca.model.FestivoRq;
+import com.uniminuto.biblioteca.model.PagoRq;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import com.uniminuto.biblioteca.repository.CitaRepository;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.PagoRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import com.uniminuto.biblioteca.services.BarberoService;
+import com.uniminuto.biblioteca.services.CitaService;
+import com.uniminuto.biblioteca.services.ClienteService;
+import com.uniminuto.biblioteca.services.PagoService;
+import com.uniminuto.biblioteca.services.SedeService;
+import com.uniminuto.biblioteca.services.ServicioService;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Cuenta las sentencias SQL que envía cada operación de los servicios. Los catálogos (sedes, servicios
+ * y barberos) se leen de la caché de segundo nivel, por lo que cada prueba los calienta antes de medir.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conteo;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class ConteoSentenciasTests {
+
+    /**
+     * Sentencias ejecutadas desde el inicio de la última medición.
+     */
+    private static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+    private static final Set<String> METODOS_EJECUCION = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    @Autowired
+    private CitaService citaService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private SedeService sedeService;
+
+    @Autowired
+    private ServicioService servicioService;
+
+    @Autowired
+    private BarberoService barberoService;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PagoRepository pagoRepository;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheBusquedas cacheBusquedas;
+
+    private Sede sede;
+
+    private Barbero barbero;
+
+    private Servicio servicio;
+
+    private Cliente cliente;
+
+    private LocalDate fecha;
+
+    @BeforeEach
+    void crearDatos() throws Exception {
+        // La caché de segundo nivel es la misma para todos los contextos de prueba de la JVM aunque cada
+        // uno use su propia base; se parte de una caché vacía y se vacía al terminar
+        entityManagerFactory.getCache().evictAll();
+        // La caché de búsquedas por ID recordaría los IDs inexistentes de las pruebas anteriores
+        cacheBusquedas.invalidarTodo();
+        String sufijo = String.valueOf(System.nanoTime());
+        sede = sedeRepository.save(new Sede(null, "Sede " + sufijo, "Calle 1", "3000000000"));
+        barbero = barberoRepository.save(new Barbero(null, "Barbero", sufijo, null, sede));
+        servicio = new Servicio(null, "Corte " + sufijo, "Corte de 30 minutos", new BigDecimal("20000"));
+        servicio.setDuracionMinutos(30);
+        servicio = servicioRepository.save(servicio);
+        cliente = clienteRepository.save(new Cliente(null, "Cliente", sufijo, telefono("31"), null, LocalDate.now()));
+        fecha = LocalDate.now().plusDays(7);
+        // Calienta la caché de segundo nivel y la agenda del barbero, que solo se guarda en memoria cuando
+        // se lee fuera de una transacción (como en la consulta de disponibilidad)
+        citaService.crearCita(citaRq(LocalTime.of(8, 0)));
+        citaService.consultarDisponibilidad(fecha, sede.getIdSede(), servicio.getIdServicio());
+    }
+
+    @AfterEach
+    void vaciarCacheSegundoNivel() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void crearCitaConCatalogosEnCacheBloqueaVerificaEInserta() throws Exception {
+        // Bloqueo de la fila del barbero, lectura con bloqueo de su agenda e inserción
+        assertSentencias(3, () -> citaService.crearCita(citaRq(LocalTime.of(9, 0))));
+    }
+
+    @Test
+    void crearCitaConClienteInexistenteLoRechazaLaLlaveForanea() throws Exception {
+        CitaRq citaRq = citaRq(LocalTime.of(10, 0));
+        citaRq.setIdCliente(-1);
+        assertRechazo(3, () -> citaService.crearCita(citaRq), "Cliente no encontrado con ID: -1");
+    }
+
+    @Test
+    void eliminarCitaLeeYBorra() throws Exception {
+        Cita cita = citaDelBarbero(LocalTime.of(8, 0));
+        assertSentencias(2, () -> citaService.eliminarCita(cita.getIdCita()));
+    }
+
+    @Test
+    void eliminarCitaConPagosLoRechazaLaLlaveForanea() throws Exception {
+        Cita cita = crearCitaConPago();
+        assertRechazo(2, () -> citaService.eliminarCita(cita.getIdCita()),
+                "No se puede eliminar la cita porque tiene pagos asociados.");
+    }
+
+    @Test
+    void listarCitasPorClienteSoloConsultaLaPagina() throws Exception {
+        assertSentencias(1, () -> citaService.listarCitasPorCliente(cliente.getIdCliente(), null, null));
+    }
+
+    @Test
+    void listarCitasPorClienteInexistenteVerificaElCliente() throws Exception {
+        assertRechazo(2, () -> citaService.listarCitasPorCliente(-1, null, null),
+                "Cliente no encontrado con ID: -1");
+    }
+
+    @Test
+    void crearClienteSoloInserta() throws Exception {
+        assertSentencias(1, () -> clienteService.crearCliente(clienteRq(telefono("32"))));
+    }
+
+    @Test
+    void crearClienteConTelefonoRepetidoLoRechazaLaRestriccion() throws Exception {
+        assertRechazo(1, () -> clienteService.crearCliente(clienteRq(cliente.getTelefono())),
+                "Ya existe un cliente con el número de teléfono proporcionado.");
+    }
+
+    @Test
+    void eliminarClienteSoloBorra() throws Exception {
+        Cliente otro = clienteRepository.save(new Cliente(null, "Otro", "Cliente", telefono("33"), null, LocalDate.now()));
+        assertSentencias(1, () -> clienteService.eliminarCliente(otro.getIdCliente()));
+        assertRechazo(1, () -> clienteService.eliminarCliente(otro.getIdCliente()),
+                "Cliente no encontrado con ID: " + otro.getIdCliente());
+    }
+
+    @Test
+    void eliminarClienteConCitasLoRechazaLaLlaveForanea() throws Exception {
+        assertRechazo(1, () -> clienteService.eliminarCliente(cliente.getIdCliente()),
+                "No se puede eliminar el cliente porque tiene citas asociadas.");
+    }
+
+    @Test
+    void crearPagoSoloInserta() throws Exception {
+        Cita cita = citaDelBarbero(LocalTime.of(8, 0));
+        assertSentencias(1, () -> pagoService.crearPago(pagoRq(cita.getIdCita())));
+    }
+
+    @Test
+    void crearPagoConCitaInexistenteLoRechazaLaLlaveForanea() throws Exception {
+        assertRechazo(1, () -> pagoService.crearPago(pagoRq(-1)), "Cita no encontrada con ID: -1");
+    }
+
+    @Test
+    void eliminarPagoSoloBorra() throws Exception {
+        Cita cita = crearCitaConPago();
+        Integer idPago = pagoRepository.findAll().stream()
+                .filter(p -> p.getCita().getIdCita().equals(cita.getIdCita()))
+                .findFirst().orElseThrow().getIdPago();
+        assertSentencias(1, () -> pagoService.eliminarPago(idPago));
+        assertRechazo(1, () -> pagoService.eliminarPago(idPago), "Pago no encontrado con ID: " + idPago);
+    }
+
+    @Test
+    void listarPagosPorCitaSoloConsultaLosPagos() throws Exception {
+        Cita cita = crearCitaConPago();
+        assertSentencias(1, () -> pagoService.listarPagosPorCita(cita.getIdCita()));
+    }
+
+    @Test
+    void crearFestivoSoloInserta() throws Exception {
+        FestivoRq festivoRq = new FestivoRq();
+        festivoRq.setIdSede(sede.getIdSede());
+        festivoRq.setFecha(fecha.plusDays(1));
+        festivoRq.setDescripcion("Festivo");
+        // Un INSERT; las otras dos consultas recompilan el calendario laboral de la sede tras confirmar
+        assertSentencias(3, () -> sedeService.crearFestivo(festivoRq));
+        assertRechazo(1, () -> sedeService.crearFestivo(festivoRq),
+                "La sede ya tiene registrado un festivo en esa fecha.");
+        festivoRq.setIdSede(-1);
+        assertRechazo(1, () -> sedeService.crearFestivo(festivoRq), "Sede no encontrada con ID: -1");
+    }
+
+    @Test
+    void eliminarCatalogosSoloBorra() throws Exception {
+        Sede otraSede = sedeRepository.save(new Sede(null, "Otra " + System.nanoTime(), "Calle 2", "3000000001"));
+        Barbero otroBarbero = barberoRepository.save(new Barbero(null, "Otro", "Barbero", null, otraSede));
+        Servicio otroServicio = servicioRepository.save(
+                new Servicio(null, "Otro " + System.nanoTime(), "Servicio", new BigDecimal("1000")));
+        assertSentencias(1, () -> barberoService.eliminarBarbero(otroBarbero.getIdBarbero()));
+        assertSentencias(1, () -> sedeService.eliminarSede(otraSede.getIdSede()));
+        assertSentencias(1, () -> servicioService.eliminarServicio(otroServicio.getIdServicio()));
+    }
+
+    @Test
+    void eliminarCatalogosConDependientesLoRechazaLaLlaveForanea() throws Exception {
+        assertRechazo(1, () -> barberoService.eliminarBarbero(barbero.getIdBarbero()),
+                "No se puede eliminar el barbero porque tiene citas o turnos asociados.");
+        assertRechazo(1, () -> sedeService.eliminarSede(sede.getIdSede()),
+                "No se puede eliminar la sede porque tiene barberos, horarios o festivos asociados.");
+        assertRechazo(1, () -> servicioService.eliminarServicio(servicio.getIdServicio()),
+                "No se puede eliminar el servicio porque tiene citas asociadas.");
+    }
+
+    private Cita crearCitaConPago() throws Exception {
+        citaService.crearCita(citaRq(LocalTime.of(15, 0)));
+        Cita cita = citaDelBarbero(LocalTime.of(15, 0));
+        pagoService.crearPago(pagoRq(cita.getIdCita()));
+        return cita;
+    }
+
+    private Cita citaDelBarbero(LocalTime hora) {
+        return citaRepository.findAll().stream()
+                .filter(c -> c.getHora().equals(hora) && c.getBarbero().getIdBarbero().equals(barbero.getIdBarbero()))
+                .findFirst().orElseThrow();
+    }
+
+    private CitaRq citaRq(LocalTime hora) {
+        CitaRq citaRq = new CitaRq();
+        citaRq.setFecha(fecha);
+        citaRq.setHora(hora);
+        citaRq.setIdCliente(cliente.getIdCliente());
+        citaRq.setIdBarbero(barbero.getIdBarbero());
+        citaRq.setIdServicio(servicio.getIdServicio());
+        return citaRq;
+    }
+
+    /**
+     * Teléfono único que cabe en los 15 caracteres de la columna.
+     */
+    private static String telefono(String prefijo) {
+        return prefijo + (System.nanoTime() % 10_000_000_000_000L);
+    }
+
+    private ClienteRq clienteRq(String telefono) {
+        ClienteRq clienteRq = new ClienteRq();
+        clienteRq.setNombre("Nuevo");
+        clienteRq.setApellido("Cliente");
+        clienteRq.setTelefono(telefono);
+        return clienteRq;
+    }
+
+    private PagoRq pagoRq(Integer idCita) {
+        PagoRq pagoRq = new PagoRq();
+        pagoRq.setMonto(new BigDecimal("20000"));
+        pagoRq.setFechaPago(LocalDate.now());
+        pagoRq.setMetodoPago(Pago.MetodoPago.Efectivo);
+        pagoRq.setIdCita(idCita);
+        return pagoRq;
+    }
+
+    /**
+     * Ejecuta la operación y verifica cuántas sentencias envió.
+     */
+    private void assertSentencias(int esperadas, Operacion operacion) throws Exception {
+        SENTENCIAS.clear();
+        operacion.ejecutar();
+        verificarSentencias(esperadas);
+    }
+
+    /**
+     * Ejecuta una operación que debe fallar con el mensaje indicado y verifica cuántas sentencias envió.
+     */
+    private void assertRechazo(int esperadas, Operacion operacion, String mensaje) {
+        SENTENCIAS.clear();
+        BadRequestException e = assertThrows(BadRequestException.class, operacion::ejecutar);
+        assertEquals(mensaje, e.getMessage());
+        verificarSentencias(esperadas);
+    }
+
+    private void verificarSentencias(int esperadas) {
+        List<String> ejecutadas = List.copyOf(SENTENCIAS);
+        assertEquals(esperadas, ejecutadas.size(), () -> "Sentencias ejecutadas:\n" + String.join("\n", ejecutadas));
+    }
+
+    @FunctionalInterface
+    private interface Operacion {
+        Object ejecutar() throws Exception;
+    }
+
+    /**
+     * Envuelve el DataSource para registrar cada sentencia que se ejecuta.
+     */
+    @TestConfiguration
+    static class ContadorConfig {
+
+        @Bean
+        static BeanPostProcessor contadorSentencias() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource) || !"dataSource".equals(beanName)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource((DataSource) bean) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return conexionContada(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection conexionContada(Connection conexion) {
+            return (Connection) Proxy.newProxyInstance(ConteoSentenciasTests.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, metodo, args) -> {
+                        Object resultado = invocar(conexion, metodo, args);
+                        if (resultado instanceof Statement) {
+                            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                            return sentenciaContada((Statement) resultado, sql, metodo.getReturnType());
+                        }
+                        return resultado;
+                    });
+        }
+
+        private static Object sentenciaContada(Statement sentencia, String sqlPreparado, Class<?> tipo) {
+            return Proxy.newProxyInstance(ConteoSentenciasTests.class.getClassLoader(), new Class<?>[] {tipo},
+                    (proxy, metodo, args) -> {
+                        if (METODOS_EJECUCION.contains(metodo.getName())) {
+                            SENTENCIAS.add(args != null && args.length > 0 && args[0] instanceof String
+                                    ? (String) args[0] : sqlPreparado);
+                        }
+                        return invocar(sentencia, metodo, args);
+                    });
+        }
+
+        private static Object invocar(Object destino, java.lang.reflect.Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.model.ErrorImportacionRs;
+import com.uniminuto.biblioteca.model.ImportacionClientesRs;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.services.ClienteService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * La importación de clientes por CSV descarta los teléfonos repetidos (en el archivo o ya registrados)
+ * informando la línea de cada uno, y no deja clientes a medias si el archivo falla a mitad de lectura.
+ */
+@SpringBootTest
+class ImportacionClientesTests {
+
+    private static final String ENCABEZADOS = "nombre,apellido,telefono,correo,fecha_registro\n";
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefijo;
+
+    @BeforeEach
+    void preparar() {
+        // Prefijo único por prueba: "39" + 8 dígitos, más 4 dígitos por fila, cabe en los 15 de la columna
+        prefijo = "39" + String.format("%08d", System.nanoTime() % 100000000L);
+    }
+
+    @Test
+    void descartaTelefonosRepetidosEnElArchivoYYaRegistrados() throws Exception {
+        clienteRepository.save(new Cliente(null, "Registrado", "Antes", telefono(3), null, LocalDate.now()));
+        String csv = ENCABEZADOS
+                + "Ana,Uno," + telefono(1) + ",ana@correo.com,2024-01-15\n"
+                + "Ana,Repetida," + telefono(1) + ",,\n"
+                + "Luis,Dos," + telefono(2) + ",,\n"
+                + "\n"
+                + "Pedro,Tres," + telefono(3) + ",,\n"
+                + ",SinNombre," + telefono(4) + ",,\n"
+                + "Eva,Fecha," + telefono(5) + ",,15/01/2024\n";
+
+        ImportacionClientesRs resultado = clienteService.importarClientes(archivo(csv));
+
+        assertEquals(6, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getClientesCreados());
+        assertEquals(4, resultado.getFilasConError());
+        List<ErrorImportacionRs> errores = resultado.getErrores();
+        assertError(errores, 3, telefono(1), "Teléfono repetido en el archivo.");
+        assertError(errores, 6, telefono(3), "Ya existe un cliente con el número de teléfono proporcionado.");
+        assertError(errores, 7, telefono(4), "Nombre, apellido y teléfono son campos obligatorios.");
+        assertError(errores, 8, telefono(5), "Fecha de registro inválida (formato YYYY-MM-DD).");
+        assertEquals(3, clientesDelPrefijo());
+        assertEquals(LocalDate.of(2024, 1, 15), clienteRepository.findAll().stream()
+                .filter(c -> c.getTelefono().equals(telefono(1))).findFirst().get().getFechaRegistro());
+
+        // Volver a importar el mismo archivo no crea nada: los teléfonos ya están registrados
+        ImportacionClientesRs repetida = clienteService.importarClientes(archivo(csv));
+        assertEquals(0, repetida.getClientesCreados());
+        assertError(repetida.getErrores(), 2, telefono(1), "Ya existe un cliente con el número de teléfono proporcionado.");
+        assertEquals(3, clientesDelPrefijo());
+    }
+
+    @Test
+    void unErrorDeLecturaDeshaceLosBloquesYaInsertados() {
+        // Más filas que un bloque de inserción: el primer bloque llega a la base antes de que falle la lectura
+        StringBuilder csv = new StringBuilder(ENCABEZADOS);
+        for (int i = 0; i < 1500; i++) {
+            csv.append("Cliente,Lote").append(i).append(',').append(telefono(i)).append(",,\n");
+        }
+        byte[] contenido = csv.toString().getBytes(StandardCharsets.UTF_8);
+        // Falla al llegar al 90 % del archivo, con varias lecturas pequeñas antes
+        InputStream conFallo = new InputStream() {
+            private int posicion;
+
+            @Override
+            public int read() throws IOException {
+                byte[] uno = new byte[1];
+                return read(uno, 0, 1) < 0 ? -1 : uno[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] destino, int desde, int largo) throws IOException {
+                if (posicion >= contenido.length * 9 / 10) {
+                    throw new IOException("Conexión interrumpida");
+                }
+                int leidos = Math.min(Math.min(largo, 1024), contenido.length - posicion);
+                System.arraycopy(contenido, posicion, destino, desde, leidos);
+                posicion += leidos;
+                return leidos;
+            }
+        };
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> clienteService.importarClientes(conFallo));
+        assertEquals("No se pudo leer el archivo: Conexión interrumpida", e.getMessage());
+        assertEquals(0, clientesDelPrefijo());
+    }
+
+    @Test
+    void rechazaUnArchivoVacio() {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> clienteService.importarClientes(archivo("")));
+        assertEquals("El archivo está vacío.", e.getMessage());
+    }
+
+    private String telefono(int fila) {
+        return prefijo + String.format("%04d", fila);
+    }
+
+    private int clientesDelPrefijo() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cliente WHERE telefono LIKE ?", Integer.class,
+                prefijo + "%");
+    }
+
+    private static InputStream archivo(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertError(List<ErrorImportacionRs> errores, long linea, String telefono, String motivo) {
+        assertTrue(errores.stream().anyMatch(error -> error.getLinea() == linea
+                && telefono.equals(error.getTelefono()) && motivo.equals(error.getMotivo())),
+                "Falta el error de la línea " + linea + " (" + motivo + "): " + errores);
+    }
+}
@@ -0,0 +1,114 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.uniminuto.biblioteca.agenda.IndiceCitas;
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * El índice de citas solo guarda agendas leídas de datos confirmados y se mantiene al día con los
+ * cambios que se le notifican.
+ */
+@SpringBootTest
+class IndiceCitasTests {
+
+    @Autowired
+    private IndiceCitas indiceCitas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    private Barbero barbero;
+
+    private Cliente cliente;
+
+    private Servicio servicio;
+
+    private LocalDate fecha;
+
+    @BeforeEach
+    void preparar() {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede Indice", "Calle 9", "3000000009"));
+        barbero = barberoRepository.save(new Barbero(null, "Barbero", "Indice", null, sede));
+        cliente = clienteRepository.save(new Cliente(null, "Cliente", "Indice",
+                "35" + (System.nanoTime() % 100000000L), null, LocalDate.now()));
+        servicio = new Servicio(null, "Corte Indice", "Corte de 30 minutos", new BigDecimal("20000"));
+        servicio.setDuracionMinutos(30);
+        servicio = servicioRepository.save(servicio);
+        fecha = LocalDate.now().plusDays(5);
+    }
+
+    @Test
+    void noGuardaUnaAgendaLeidaDentroDeUnaTransaccion() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.executeWithoutResult(estado -> {
+            int idCita = insertarCita(LocalTime.of(10, 0));
+            // La lectura dentro de la transacción ve la cita sin confirmar, pero no queda en memoria
+            assertEquals(idCita, indiceCitas.buscarConflicto(barbero.getIdBarbero(), fecha, LocalTime.of(10, 0), 30, null));
+            estado.setRollbackOnly();
+        });
+
+        // La cita se deshizo: la agenda se vuelve a leer y el horario está libre
+        assertEquals(-1, indiceCitas.buscarConflicto(barbero.getIdBarbero(), fecha, LocalTime.of(10, 0), 30, null));
+    }
+
+    @Test
+    void aplicaRegistrosYQuitaLaAgendaAlInvalidar() {
+        assertEquals(-1, indiceCitas.buscarConflicto(barbero.getIdBarbero(), fecha, LocalTime.of(9, 0), 30, null));
+
+        // Una escritura que no pasa por el índice deja la agenda en memoria desactualizada hasta invalidarla
+        int idCita = insertarCita(LocalTime.of(9, 0));
+        assertEquals(-1, indiceCitas.buscarConflicto(barbero.getIdBarbero(), fecha, LocalTime.of(9, 0), 30, null));
+        indiceCitas.invalidar(barbero.getIdBarbero(), fecha);
+        assertEquals(idCita, indiceCitas.buscarConflicto(barbero.getIdBarbero(), fecha, LocalTime.of(9, 15), 30, null));
+
+        // Los cambios notificados se aplican sobre la agenda guardada
+        indiceCitas.registrar(idCita, barbero.getIdBarbero(), fecha, 11 * 60, 11 * 60 + 30);
+        assertEquals(-1, indiceCitas.buscarConflicto(barbero.getIdBarbero(), fecha, LocalTime.of(9, 0), 30, null));
+        assertEquals(idCita, indiceCitas.buscarConflicto(barbero.getIdBarbero(), fecha, LocalTime.of(11, 0), 30, null));
+        indiceCitas.quitar(idCita, barbero.getIdBarbero(), fecha);
+        assertEquals(-1, indiceCitas.buscarConflicto(barbero.getIdBarbero(), fecha, LocalTime.of(11, 0), 30, null));
+    }
+
+    private int insertarCita(LocalTime hora) {
+        jdbcTemplate.update("INSERT INTO cita (fecha, hora, id_cliente, id_barbero, id_servicio) VALUES (?, ?, ?, ?, ?)",
+                Date.valueOf(fecha), Time.valueOf(hora), cliente.getIdCliente(), barbero.getIdBarbero(),
+                servicio.getIdServicio());
+        return jdbcTemplate.queryForObject("SELECT id_cita FROM cita WHERE id_barbero = ? AND fecha = ? AND hora = ?",
+                Integer.class, barbero.getIdBarbero(), Date.valueOf(fecha), Time.valueOf(hora));
+    }
+}
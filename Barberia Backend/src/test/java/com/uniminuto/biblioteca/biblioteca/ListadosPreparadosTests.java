@@ -0,0 +1,117 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.uniminuto.biblioteca.model.ServicioRq;
+import com.uniminuto.biblioteca.services.ServicioService;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * La primera página de los listados de referencia se sirve desde memoria, sin consultas, y se vuelve a
+ * armar al confirmar cada cambio.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListadosPreparadosTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ServicioService servicioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void sirveElListadoSinConsultarYLoRearmaAlConfirmar() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            servicioService.crearServicio(servicio("Preparado " + i));
+        }
+        byte[] primero = mockMvc.perform(get("/servicio/listar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long sentencias = estadisticas.getPrepareStatementCount();
+        byte[] segundo = mockMvc.perform(get("/servicio/listar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(primero, segundo);
+        assertEquals(sentencias, estadisticas.getPrepareStatementCount());
+
+        // El listado se rearma al confirmar, antes de la siguiente solicitud
+        servicioService.crearServicio(servicio("Preparado nuevo"));
+        sentencias = estadisticas.getPrepareStatementCount();
+        String tercero = mockMvc.perform(get("/servicio/listar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(sentencias, estadisticas.getPrepareStatementCount());
+        assertTrue(tercero.contains("Preparado nuevo"));
+
+        // Un cambio que no pasa por el servicio se detecta por la versión de la tabla
+        jdbcTemplate.update("UPDATE servicio SET descripcion = ? WHERE nombre_servicio = ?", "Por JDBC", "Preparado 0");
+        String cuarto = mockMvc.perform(get("/servicio/listar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(cuarto.contains("Por JDBC"));
+    }
+
+    @Test
+    void enviaLaVersionComprimidaSiElClienteAceptaGzip() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            servicioService.crearServicio(servicio("Comprimido " + i));
+        }
+        byte[] plano = mockMvc.perform(get("/servicio/listar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        String etag = mockMvc.perform(get("/servicio/listar")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        byte[] comprimido = mockMvc.perform(get("/servicio/listar").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/" + etag))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            assertArrayEquals(plano, entrada.readAllBytes());
+        }
+
+        mockMvc.perform(get("/servicio/listar").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/servicio/listar").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private static ServicioRq servicio(String nombre) {
+        ServicioRq servicioRq = new ServicioRq();
+        servicioRq.setNombreServicio(nombre);
+        servicioRq.setDescripcion("Servicio de referencia para el listado preparado");
+        servicioRq.setPrecio(new BigDecimal("10000"));
+        return servicioRq;
+    }
+}
@@ -0,0 +1,93 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Un lote atiende varias consultas GET del API en una sola solicitud, cada una con el estado, las
+ * cabeceras y el cuerpo que habría tenido por separado.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoteConsultasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Test
+    void respondeCadaConsultaDelLoteComoUnaSolicitudIndependiente() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            clienteRepository.save(new Cliente(null, "Cliente Lote " + i, "Lote", "32100000" + i, null, LocalDate.now()));
+        }
+        servicioRepository.save(new Servicio(null, "Corte Lote", "Corte", new BigDecimal("15000")));
+
+        String lote = "["
+                + "{\"id\":\"servicios\",\"ruta\":\"/servicio/listar\"},"
+                + "{\"id\":\"clientes\",\"ruta\":\"/cliente/listar?limit=2\"},"
+                + "{\"id\":\"cliente\",\"ruta\":\"/cliente/obtener-por-id/900001\"},"
+                + "{\"id\":\"desconocida\",\"ruta\":\"/no-existe\"},"
+                + "{\"ruta\":\"/batch\"}"
+                + "]";
+        mockMvc.perform(post("/batch").contentType(MediaType.APPLICATION_JSON).content(lote))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].id").value("servicios"))
+                .andExpect(jsonPath("$[0].estado").value(200))
+                .andExpect(jsonPath("$[0].cuerpo[*].nombreServicio", hasItem("Corte Lote")))
+                // Los parámetros y las cabeceras de paginación llegan como en una solicitud normal
+                .andExpect(jsonPath("$[1].estado").value(200))
+                .andExpect(jsonPath("$[1].cuerpo.length()").value(2))
+                .andExpect(jsonPath("$[1].cabeceras['X-Siguiente-Cursor']").exists())
+                .andExpect(jsonPath("$[1].cabeceras.ETag").exists())
+                // Un error en una consulta no afecta a las demás
+                .andExpect(jsonPath("$[2].estado").value(400))
+                .andExpect(jsonPath("$[2].error").value("Cliente no encontrado con ID: 900001"))
+                .andExpect(jsonPath("$[3].estado").value(404))
+                .andExpect(jsonPath("$[4].id").value("4"))
+                .andExpect(jsonPath("$[4].estado").value(400))
+                .andExpect(jsonPath("$[4].error").value("Un lote no puede incluir otro lote."));
+    }
+
+    @Test
+    void convierteLosParametrosYRechazaLosFaltantesOInvalidos() throws Exception {
+        String lote = "["
+                + "{\"id\":\"metodo\",\"ruta\":\"/pago/listar-por-metodo?metodoPago=Efectivo\"},"
+                + "{\"id\":\"fecha\",\"ruta\":\"/cita/listar-por-fecha-barbero?fecha=2030-01-15&idBarbero=900001\"},"
+                + "{\"id\":\"faltante\",\"ruta\":\"/cita/listar-por-fecha-barbero?idBarbero=1\"},"
+                + "{\"id\":\"invalido\",\"ruta\":\"/cita/listar-por-fecha-barbero?fecha=mañana&idBarbero=1\"},"
+                + "{\"id\":\"streaming\",\"ruta\":\"/cita/exportar?desde=2030-01-01&hasta=2030-01-31\"}"
+                + "]";
+        mockMvc.perform(post("/batch").contentType(MediaType.APPLICATION_JSON).content(lote))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].estado").value(200))
+                .andExpect(jsonPath("$[0].cabeceras.ETag").exists())
+                // La fecha se convierte con su @DateTimeFormat y la validación del servicio responde 400
+                .andExpect(jsonPath("$[1].estado").value(400))
+                .andExpect(jsonPath("$[1].error").value("Barbero no encontrado con ID: 900001"))
+                .andExpect(jsonPath("$[2].estado").value(400))
+                .andExpect(jsonPath("$[2].error").value("Falta el parámetro 'fecha'."))
+                .andExpect(jsonPath("$[3].estado").value(400))
+                .andExpect(jsonPath("$[4].estado").value(404));
+    }
+}
@@ -0,0 +1,161 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.CitaResumen;
+import com.uniminuto.biblioteca.model.PaginaRs;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import com.uniminuto.biblioteca.repository.CitaRepository;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import com.uniminuto.biblioteca.services.CitaService;
+import com.uniminuto.biblioteca.utils.PaginacionUtils;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Los listados por cursor recorren cada fila una sola vez aunque varias compartan fecha y hora en el borde
+ * de una página, la última página no trae cursor y el tamaño de página se valida.
+ */
+@SpringBootTest
+class PaginacionCursorTests {
+
+    private static final Comparator<CitaResumen> ORDEN = Comparator.comparing(CitaResumen::getFecha)
+            .thenComparing(CitaResumen::getHora).thenComparing(CitaResumen::getIdCita);
+
+    @Autowired
+    private CitaService citaService;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    private Cliente cliente;
+
+    private List<Integer> creadas;
+
+    /**
+     * Cinco citas del mismo cliente: tres a la misma fecha y hora con barberos distintos, y dos más tarde.
+     */
+    @BeforeEach
+    void preparar() {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede Cursor", "Calle 12", "3000000012"));
+        cliente = clienteRepository.save(new Cliente(null, "Cliente", "Cursor",
+                "37" + (System.nanoTime() % 100000000L), null, LocalDate.now()));
+        Servicio servicio = servicioRepository.save(new Servicio(null, "Corte Cursor", "Corte", new BigDecimal("20000")));
+        LocalDate fecha = LocalDate.now().plusYears(5);
+        creadas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Barbero barbero = barberoRepository.save(new Barbero(null, "Barbero" + i, "Cursor", null, sede));
+            creadas.add(guardar(fecha, LocalTime.of(9, 0), barbero, servicio));
+        }
+        Barbero barbero = barberoRepository.save(new Barbero(null, "Barbero3", "Cursor", null, sede));
+        creadas.add(guardar(fecha, LocalTime.of(10, 0), barbero, servicio));
+        creadas.add(guardar(fecha.plusDays(1), LocalTime.of(9, 0), barbero, servicio));
+    }
+
+    @Test
+    void recorreCadaCitaUnaVezConFechaYHoraRepetidasEnElBorde() throws Exception {
+        // Con páginas de 2 el borde de la primera página cae entre las tres citas de las 9:00
+        List<CitaResumen> recorridas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaRs<CitaResumen> pagina = citaService.listarCitas(cursor, 2);
+            assertTrue(pagina.getElementos().size() <= 2);
+            recorridas.addAll(pagina.getElementos());
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        Set<Integer> ids = new HashSet<>();
+        for (CitaResumen cita : recorridas) {
+            assertTrue(ids.add(cita.getIdCita()), "Cita repetida entre páginas: " + cita.getIdCita());
+        }
+        assertTrue(ids.containsAll(creadas));
+        List<CitaResumen> ordenadas = new ArrayList<>(recorridas);
+        ordenadas.sort(ORDEN);
+        assertEquals(ordenadas, recorridas);
+        assertEquals((recorridas.size() + 1) / 2, paginas);
+    }
+
+    @Test
+    void laUltimaPaginaNoTraeCursor() throws Exception {
+        Integer idCliente = cliente.getIdCliente();
+
+        // Orden descendente: la cita del día siguiente, la de las 10:00 y luego las tres de las 9:00
+        PaginaRs<CitaResumen> primera = citaService.listarCitasPorCliente(idCliente, null, 3);
+        assertEquals(List.of(creadas.get(4), creadas.get(3), creadas.get(2)), ids(primera));
+        assertNotNull(primera.getSiguienteCursor());
+
+        // Quedan exactamente dos filas: una página llena sin cursor, sin pedir una página vacía
+        PaginaRs<CitaResumen> segunda = citaService.listarCitasPorCliente(idCliente, primera.getSiguienteCursor(), 2);
+        assertEquals(List.of(creadas.get(1), creadas.get(0)), ids(segunda));
+        assertNull(segunda.getSiguienteCursor());
+
+        PaginaRs<CitaResumen> completa = citaService.listarCitasPorCliente(idCliente, null, 5);
+        assertEquals(5, completa.getElementos().size());
+        assertNull(completa.getSiguienteCursor());
+    }
+
+    @Test
+    void validaElTamanoDePaginaYElCursor() throws Exception {
+        assertEquals(PaginacionUtils.LIMITE_POR_DEFECTO, PaginacionUtils.limite(null));
+        assertEquals(1, PaginacionUtils.limite(1));
+        assertEquals(PaginacionUtils.LIMITE_MAXIMO, PaginacionUtils.limite(PaginacionUtils.LIMITE_MAXIMO));
+        assertThrows(BadRequestException.class, () -> PaginacionUtils.limite(0));
+        assertThrows(BadRequestException.class, () -> PaginacionUtils.limite(PaginacionUtils.LIMITE_MAXIMO + 1));
+
+        assertThrows(BadRequestException.class, () -> citaService.listarCitas("no-es-un-cursor", 2));
+        assertThrows(BadRequestException.class, () -> citaService.listarCitas("a.b.c", 2));
+        assertNull(PaginacionUtils.decodificar(" ", 3));
+    }
+
+    private Integer guardar(LocalDate fecha, LocalTime hora, Barbero barbero, Servicio servicio) {
+        Cita cita = new Cita();
+        cita.setFecha(fecha);
+        cita.setHora(hora);
+        cita.setCliente(cliente);
+        cita.setBarbero(barbero);
+        cita.setServicio(servicio);
+        return citaRepository.save(cita).getIdCita();
+    }
+
+    private static List<Integer> ids(PaginaRs<CitaResumen> pagina) {
+        List<Integer> ids = new ArrayList<>();
+        pagina.getElementos().forEach(cita -> ids.add(cita.getIdCita()));
+        return ids;
+    }
+}
@@ -0,0 +1,294 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.uniminuto.biblioteca.entity.Pago.MetodoPago;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ejecuta EXPLAIN sobre el SQL de cada consulta declarada en los repositorios (derivadas del nombre
+ * del método o escritas con {@code @Query}) y falla si alguna recorre una tabla completa (ver
+ * {@link #tablasRecorridasNoPermitidas} para la única excepción).
+ * El esquema es el de las migraciones de Flyway, así que la prueba comprueba que los índices
+ * definidos cubren todas las consultas.
+ */
+@SpringBootTest(properties = {
+    // Base propia: los datos de ejemplo y las estadísticas no afectan a las demás pruebas
+    "spring.datasource.url=jdbc:h2:mem:planes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.uniminuto.biblioteca.biblioteca.PlanConsultasTests$CapturaSql"})
+class PlanConsultasTests {
+
+    private static final String PAQUETE_REPOSITORIOS = "com.uniminuto.biblioteca.repository";
+
+    private static final Set<String> TABLAS_CATALOGO = Set.of("sede", "servicio", "barbero");
+    private static final Pattern UNION = Pattern.compile("(?i)\\bjoin\\s+(\\w+)");
+    private static final Pattern RECORRIDO = Pattern.compile("/\\* public\\.(\\w+)\\.tableScan \\*/");
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final int SEDES = 10;
+    private static final int SERVICIOS = 10;
+    private static final int CLIENTES = 2000;
+    private static final int BARBEROS = 50;
+    private static final int CITAS = 5000;
+    private static final int PAGOS = 2000;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * La caché de segundo nivel es la misma para todos los contextos de prueba de la JVM (mismo
+     * ehcache.xml) aunque cada uno use su propia base; se vacía para no dejar entidades de esta base.
+     */
+    @AfterEach
+    void vaciarCacheSegundoNivel() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void ningunaConsultaDeRepositorioRecorreUnaTablaCompleta() {
+        poblar();
+        Repositories repositorios = new Repositories(contexto);
+        int consultas = 0;
+        List<String> recorridos = new ArrayList<>();
+        for (Class<?> dominio : repositorios) {
+            Class<?> interfaz = repositorios.getRepositoryInformationFor(dominio).get().getRepositoryInterface();
+            if (!interfaz.getPackageName().equals(PAQUETE_REPOSITORIOS)) {
+                continue;
+            }
+            Object repositorio = repositorios.getRepositoryFor(dominio).get();
+            Method[] metodos = interfaz.getDeclaredMethods();
+            Arrays.sort(metodos, Comparator.comparing(Method::getName));
+            for (Method metodo : metodos) {
+                if (metodo.isDefault() || metodo.isSynthetic() || Modifier.isStatic(metodo.getModifiers())) {
+                    continue;
+                }
+                String nombre = interfaz.getSimpleName() + "." + metodo.getName();
+                for (String sql : capturarSql(repositorio, metodo)) {
+                    String plan = explicar(sql);
+                    consultas++;
+                    if (!tablasRecorridasNoPermitidas(sql, plan).isEmpty()) {
+                        recorridos.add(nombre + "\n    " + plan.replace("\n", "\n    "));
+                    }
+                }
+            }
+        }
+        assertTrue(consultas > 0, "No se capturó ninguna consulta");
+        assertTrue(recorridos.isEmpty(), "Consultas que recorren tablas completas:\n" + String.join("\n", recorridos));
+    }
+
+    /**
+     * Tablas del plan que se recorren completas, sin contar las tablas de catálogo unidas a la consulta.
+     * En los listados paginados H2 elige el orden de los JOIN sin considerar el LIMIT y puede empezar
+     * por un catálogo pequeño (sede, servicio o barbero) para luego entrar a la tabla principal por el
+     * índice de la llave foránea; MySQL resuelve ese caso recorriendo el índice del ORDER BY.
+     * Recorrer la tabla principal de la consulta o una tabla de subconsulta nunca se permite.
+     */
+    private static Set<String> tablasRecorridasNoPermitidas(String sql, String plan) {
+        Set<String> unidas = new HashSet<>();
+        Matcher join = UNION.matcher(sql);
+        while (join.find()) {
+            unidas.add(join.group(1).toLowerCase());
+        }
+        Set<String> recorridas = new HashSet<>();
+        Matcher recorrido = RECORRIDO.matcher(plan);
+        while (recorrido.find()) {
+            String tabla = recorrido.group(1);
+            if (!(TABLAS_CATALOGO.contains(tabla) && unidas.contains(tabla))) {
+                recorridas.add(tabla);
+            }
+        }
+        return recorridas;
+    }
+
+    /**
+     * Carga datos de ejemplo y actualiza las estadísticas: con tablas vacías el optimizador no
+     * distingue entre recorrer la tabla y usar un índice.
+     */
+    private void poblar() {
+        insertar("INSERT INTO sede (nombre, direccion, telefono) VALUES (?, 'Calle', '1')", SEDES,
+                (ps, i) -> ps.setString(1, "Sede " + i));
+        insertar("INSERT INTO servicio (nombre_servicio, precio, duracion_minutos) VALUES (?, 10, 30)", SERVICIOS,
+                (ps, i) -> ps.setString(1, "Servicio " + i));
+        insertar("INSERT INTO cliente (nombre, apellido, telefono, fecha_registro) VALUES (?, ?, ?, ?)", CLIENTES,
+                (ps, i) -> {
+                    ps.setString(1, "Nombre " + i);
+                    ps.setString(2, "Apellido " + i);
+                    ps.setString(3, String.valueOf(3000000000L + i));
+                    ps.setObject(4, INICIO.plusDays(i % 365));
+                });
+        insertar("INSERT INTO barbero (nombre, apellido, id_sede) VALUES (?, ?, ?)", BARBEROS, (ps, i) -> {
+            ps.setString(1, "Nombre " + i);
+            ps.setString(2, "Apellido " + i);
+            ps.setInt(3, 1 + i % SEDES);
+        });
+        insertar("INSERT INTO cita (fecha, hora, id_cliente, id_barbero, id_servicio) VALUES (?, ?, ?, ?, ?)", CITAS,
+                (ps, i) -> {
+                    ps.setObject(1, INICIO.plusDays(i / (BARBEROS * 10)));
+                    ps.setObject(2, LocalTime.of(8, 0).plusMinutes(30L * (i % 10)));
+                    ps.setInt(3, 1 + i % CLIENTES);
+                    ps.setInt(4, 1 + (i / 10) % BARBEROS);
+                    ps.setInt(5, 1 + i % SERVICIOS);
+                });
+        insertar("INSERT INTO pago (monto, fecha_pago, metodo_pago, id_cita) VALUES (10, ?, ?, ?)", PAGOS, (ps, i) -> {
+            ps.setObject(1, INICIO.plusDays(i % 365));
+            ps.setString(2, MetodoPago.values()[i % MetodoPago.values().length].name());
+            ps.setInt(3, 1 + i);
+        });
+        insertar("INSERT INTO horario_sede (id_sede, dia_semana, hora_apertura, hora_cierre) VALUES (?, ?, '08:00', '20:00')",
+                SEDES * 7, (ps, i) -> {
+                    ps.setInt(1, 1 + i / 7);
+                    ps.setString(2, DayOfWeek.of(1 + i % 7).name());
+                });
+        insertar("INSERT INTO festivo_sede (id_sede, fecha) VALUES (?, ?)", SEDES * 10, (ps, i) -> {
+            ps.setInt(1, 1 + i / 10);
+            ps.setObject(2, INICIO.plusDays(i % 10));
+        });
+        insertar("INSERT INTO turno_barbero (id_barbero, dia_semana, hora_inicio, hora_fin) VALUES (?, ?, '08:00', '16:00')",
+                BARBEROS * 5, (ps, i) -> {
+                    ps.setInt(1, 1 + i / 5);
+                    ps.setString(2, DayOfWeek.of(1 + i % 5).name());
+                });
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void insertar(String sql, int filas, ParameterizedPreparedStatementSetter<Integer> valores) {
+        List<Integer> indices = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            indices.add(i);
+        }
+        jdbcTemplate.batchUpdate(sql, indices, 500, valores);
+    }
+
+    /**
+     * Invoca el método con argumentos de ejemplo dentro de una transacción que se revierte y devuelve
+     * las sentencias SQL que generó.
+     */
+    private List<String> capturarSql(Object repositorio, Method metodo) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        return transaccion.execute(estado -> {
+            estado.setRollbackOnly();
+            CapturaSql.SENTENCIAS.clear();
+            try {
+                Object resultado = metodo.invoke(repositorio, argumentos(metodo));
+                if (resultado instanceof Stream) {
+                    ((Stream<?>) resultado).close();
+                }
+            } catch (InvocationTargetException e) {
+                // Un DELETE de ejemplo puede chocar con una llave foránea; la sentencia ya quedó capturada
+                if (!(e.getCause() instanceof DataIntegrityViolationException)) {
+                    throw new IllegalStateException("No se pudo ejecutar " + metodo, e);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("No se pudo ejecutar " + metodo, e);
+            }
+            return new ArrayList<>(CapturaSql.SENTENCIAS);
+        });
+    }
+
+    private String explicar(String sql) {
+        int parametros = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            for (int i = 1; i <= parametros; i++) {
+                ps.setObject(i, null);
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1));
+            }
+            return plan.toString();
+        });
+    }
+
+    private static Object[] argumentos(Method metodo) {
+        Type[] tipos = metodo.getGenericParameterTypes();
+        Object[] argumentos = new Object[tipos.length];
+        for (int i = 0; i < tipos.length; i++) {
+            argumentos[i] = ejemplo(tipos[i]);
+        }
+        return argumentos;
+    }
+
+    private static Object ejemplo(Type tipo) {
+        if (tipo instanceof ParameterizedType) {
+            // Colecciones de parámetros IN: un elemento del tipo declarado
+            return List.of(ejemplo(((ParameterizedType) tipo).getActualTypeArguments()[0]));
+        }
+        Class<?> clase = (Class<?>) tipo;
+        if (clase == Integer.class || clase == int.class) {
+            return 1;
+        } else if (clase == String.class) {
+            return "x";
+        } else if (clase == LocalDate.class) {
+            return LocalDate.now();
+        } else if (clase == LocalTime.class) {
+            return LocalTime.NOON;
+        } else if (clase == BigDecimal.class) {
+            return BigDecimal.ONE;
+        } else if (clase == DayOfWeek.class) {
+            return DayOfWeek.MONDAY;
+        } else if (clase == Pageable.class) {
+            return PageRequest.of(0, 10);
+        } else if (clase.isEnum()) {
+            return clase.getEnumConstants()[0];
+        }
+        throw new IllegalArgumentException("Sin valor de ejemplo para " + clase);
+    }
+
+    /**
+     * Registra el SQL que Hibernate envía a la base de datos.
+     */
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.uniminuto.biblioteca.datasource.MonitorReplica;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.model.SedeRq;
+import com.uniminuto.biblioteca.services.SedeService;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Separación de lecturas y escrituras con dos bases embebidas independientes. Como no hay replicación
+ * entre ellas, cada una tiene sus propios datos y el latido de la réplica se fija a mano, lo que permite
+ * ver a qué base fue cada consulta.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:primaria;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "barberia.replica.datasource.jdbc-url=" + ReplicaLecturaTests.URL_REPLICA,
+    "barberia.replica.datasource.username=sa",
+    "barberia.replica.retraso-maximo-ms=5000",
+    // El latido se verifica a mano en la prueba
+    "barberia.replica.intervalo-latido-ms=3600000"})
+class ReplicaLecturaTests {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private SedeService sedeService;
+
+    @Autowired
+    private MonitorReplica monitorReplica;
+
+    @Autowired
+    @Qualifier("dataSourcePrimaria")
+    private DataSource primaria;
+
+    @Autowired
+    @Qualifier("dataSourceReplica")
+    private DataSource replica;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * En producción la réplica recibe el esquema por replicación; aquí se migra aparte.
+     */
+    @BeforeAll
+    static void migrarReplica() {
+        Flyway.configure().dataSource(URL_REPLICA, "sa", "").load().migrate();
+    }
+
+    /**
+     * La caché de segundo nivel es la misma para todos los contextos de prueba de la JVM (mismo
+     * ehcache.xml) aunque cada uno use su propia base; se vacía para no dejar entidades de esta base.
+     */
+    @AfterEach
+    void vaciarCacheSegundoNivel() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void lecturasVanALaReplicaSoloMientrasEsteAlDia() throws Exception {
+        JdbcTemplate jdbcPrimaria = new JdbcTemplate(primaria);
+        JdbcTemplate jdbcReplica = new JdbcTemplate(replica);
+        jdbcReplica.update("INSERT INTO sede (nombre, direccion, telefono) VALUES ('Sede Réplica', 'Calle 2', '2')");
+
+        // Sin medición la réplica no está al día; las escrituras siempre van a la primaria
+        assertFalse(monitorReplica.alDia());
+        SedeRq sedeRq = new SedeRq();
+        sedeRq.setNombre("Sede Primaria");
+        sedeRq.setDireccion("Calle 1");
+        sedeRq.setTelefono("1");
+        sedeService.crearSede(sedeRq);
+        assertEquals(1, jdbcPrimaria.queryForObject("SELECT COUNT(*) FROM sede", Integer.class));
+        assertEquals(List.of("Sede Primaria"), nombresSedes());
+
+        // Réplica al día: las lecturas de solo lectura van a ella
+        jdbcReplica.update("UPDATE latido_replica SET marca_ms = ?", System.currentTimeMillis());
+        monitorReplica.verificar();
+        assertTrue(monitorReplica.alDia());
+        assertEquals(List.of("Sede Réplica"), nombresSedes());
+        assertTrue(jdbcPrimaria.queryForObject("SELECT marca_ms FROM latido_replica", Long.class) > 0,
+                "El monitor debe escribir el latido en la primaria");
+
+        // Réplica atrasada: se vuelve a la primaria
+        jdbcReplica.update("UPDATE latido_replica SET marca_ms = ?", System.currentTimeMillis() - 60_000);
+        monitorReplica.verificar();
+        assertFalse(monitorReplica.alDia());
+        assertEquals(List.of("Sede Primaria"), nombresSedes());
+    }
+
+    private List<String> nombresSedes() throws Exception {
+        return sedeService.listarSedes(null, null).getElementos().stream()
+                .map(Sede::getNombre).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,150 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.model.CitaRq;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import com.uniminuto.biblioteca.repository.CitaRepository;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import com.uniminuto.biblioteca.services.CitaService;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Prueba de estrés: muchas reservas simultáneas contra un mismo barbero no deben producir
+ * citas duplicadas ni solapadas, tampoco si otra instancia reservó sin pasar por el índice en memoria.
+ */
+@SpringBootTest
+class ReservaConcurrenteTests {
+
+    private static final int HILOS = 32;
+    private static final int RESERVAS = 2000;
+    private static final int HORAS_CANDIDATAS = 40;
+
+    @Autowired
+    private CitaService citaService;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reservasConcurrentesNoDuplicanNiSolapanCitas() throws Exception {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede Estrés", "Calle 1", "3000000000"));
+        Barbero barbero = barberoRepository.save(new Barbero(null, "Barbero", "Concurrido", null, sede));
+        Cliente cliente = clienteRepository.save(
+                new Cliente(null, "Cliente", "Frecuente", "3100000000", null, LocalDate.now()));
+        Servicio servicio = new Servicio(null, "Corte Estrés", "Corte de 30 minutos", new BigDecimal("20000"));
+        servicio.setDuracionMinutos(30);
+        servicio = servicioRepository.save(servicio);
+
+        LocalDate fecha = LocalDate.now().plusDays(7);
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < RESERVAS; i++) {
+            CitaRq citaRq = new CitaRq();
+            citaRq.setFecha(fecha);
+            // Horas cada 15 minutos: las vecinas se solapan con un servicio de 30 minutos
+            citaRq.setHora(LocalTime.of(8, 0).plusMinutes(15L * (i % HORAS_CANDIDATAS)));
+            citaRq.setIdCliente(cliente.getIdCliente());
+            citaRq.setIdBarbero(barbero.getIdBarbero());
+            citaRq.setIdServicio(servicio.getIdServicio());
+            tareas.add(ejecutor.submit(() -> {
+                salida.await();
+                try {
+                    citaService.crearCita(citaRq);
+                    exitosas.incrementAndGet();
+                } catch (BadRequestException e) {
+                    rechazadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        ejecutor.shutdown();
+
+        List<Cita> citas = citaRepository.findByFechaAndBarbero_IdBarberoOrderByHoraAsc(fecha, barbero.getIdBarbero());
+        assertEquals(RESERVAS, exitosas.get() + rechazadas.get());
+        assertEquals(exitosas.get(), citas.size(), "Cada reserva aceptada debe corresponder a una sola fila");
+        assertTrue(citas.size() >= HORAS_CANDIDATAS / 3, "Debe aceptarse al menos una reserva por hora libre");
+        for (int i = 1; i < citas.size(); i++) {
+            LocalTime finAnterior = citas.get(i - 1).getHora().plusMinutes(30);
+            assertTrue(!citas.get(i).getHora().isBefore(finAnterior),
+                    "Citas solapadas: " + citas.get(i - 1).getHora() + " y " + citas.get(i).getHora());
+        }
+    }
+
+    @Test
+    void reservaDeOtraInstanciaSeRechazaAunqueElIndiceNoLaConozca() throws Exception {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede Instancias", "Calle 2", "3000000002"));
+        Barbero barbero = barberoRepository.save(new Barbero(null, "Barbero", "Instancias", null, sede));
+        Cliente cliente = clienteRepository.save(
+                new Cliente(null, "Cliente", "Instancias", "3100000002", null, LocalDate.now()));
+        Servicio servicio = new Servicio(null, "Corte Instancias", "Corte de 40 minutos", new BigDecimal("20000"));
+        servicio.setDuracionMinutos(40);
+        servicio = servicioRepository.save(servicio);
+        LocalDate fecha = LocalDate.now().plusDays(8);
+
+        // La agenda queda en memoria y luego otra instancia inserta una cita de 10:00 a 10:40
+        citaService.consultarDisponibilidad(fecha, sede.getIdSede(), servicio.getIdServicio());
+        jdbcTemplate.update("INSERT INTO cita (fecha, hora, id_cliente, id_barbero, id_servicio) VALUES (?, ?, ?, ?, ?)",
+                Date.valueOf(fecha), Time.valueOf(LocalTime.of(10, 0)), cliente.getIdCliente(),
+                barbero.getIdBarbero(), servicio.getIdServicio());
+
+        // 10:30 no repite la hora de inicio, así que la restricción única no la detectaría
+        CitaRq citaRq = new CitaRq();
+        citaRq.setFecha(fecha);
+        citaRq.setHora(LocalTime.of(10, 30));
+        citaRq.setIdCliente(cliente.getIdCliente());
+        citaRq.setIdBarbero(barbero.getIdBarbero());
+        citaRq.setIdServicio(servicio.getIdServicio());
+        BadRequestException e = assertThrows(BadRequestException.class, () -> citaService.crearCita(citaRq));
+        assertTrue(e.getMessage().contains("se cruza con el horario solicitado"), e.getMessage());
+        assertEquals(1, citaRepository.findByFechaAndBarbero_IdBarberoOrderByHoraAsc(fecha, barbero.getIdBarbero()).size());
+    }
+}
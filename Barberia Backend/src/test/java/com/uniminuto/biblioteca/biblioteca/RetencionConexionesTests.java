@@ -0,0 +1,87 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.uniminuto.biblioteca.entity.Barbero;
+import com.uniminuto.biblioteca.entity.Cita;
+import com.uniminuto.biblioteca.entity.Cliente;
+import com.uniminuto.biblioteca.entity.Pago;
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.repository.BarberoRepository;
+import com.uniminuto.biblioteca.repository.CitaRepository;
+import com.uniminuto.biblioteca.repository.ClienteRepository;
+import com.uniminuto.biblioteca.repository.PagoRepository;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Sin Open Session in View, los endpoints de detalle deben responder con sus relaciones ya cargadas y
+ * cada uno debe devolver su conexión antes de serializar.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RetencionConexionesTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private BarberoRepository barberoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private CitaRepository citaRepository;
+
+    @Autowired
+    private PagoRepository pagoRepository;
+
+    @Test
+    void detallesSeSerializanSinSesionAbiertaYSeMideLaRetencion() throws Exception {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede Detalle", "Calle 1", "3000000000"));
+        Barbero barbero = barberoRepository.save(new Barbero(null, "Barbero", "Detalle", null, sede));
+        Cliente cliente = clienteRepository.save(new Cliente(null, "Cliente", "Detalle", "3200000000", null, LocalDate.now()));
+        Servicio servicio = servicioRepository.save(new Servicio(null, "Corte Detalle", "Corte", new BigDecimal("20000")));
+        Cita cita = citaRepository.save(new Cita(null, LocalDate.now().plusDays(3), LocalTime.of(10, 0), cliente, barbero, servicio));
+        Pago pago = pagoRepository.save(new Pago(null, new BigDecimal("20000"), LocalDate.now(), Pago.MetodoPago.Efectivo, cita));
+        mockMvc.perform(delete("/conexion/estadisticas")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/cita/obtener-por-id/{idCita}", cita.getIdCita()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cliente.nombre").value("Cliente"))
+                .andExpect(jsonPath("$.barbero.sede.nombre").value("Sede Detalle"))
+                .andExpect(jsonPath("$.servicio.nombreServicio").value("Corte Detalle"));
+        mockMvc.perform(get("/pago/obtener-por-id/{idPago}", pago.getIdPago()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cita.cliente.telefono").value("3200000000"))
+                .andExpect(jsonPath("$.cita.barbero.sede.direccion").value("Calle 1"));
+        mockMvc.perform(get("/barbero/obtener-por-id/{idBarbero}", barbero.getIdBarbero()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sede.nombre").value("Sede Detalle"));
+
+        mockMvc.perform(get("/conexion/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.endpoint == 'GET /cita/obtener-por-id/{idCita}')].conexiones").value(1))
+                .andExpect(jsonPath("$[?(@.endpoint == 'GET /pago/obtener-por-id/{idPago}')].conexiones").value(1))
+                .andExpect(jsonPath("$[?(@.endpoint == 'GET /barbero/obtener-por-id/{idBarbero}')].conexiones").value(1));
+    }
+}
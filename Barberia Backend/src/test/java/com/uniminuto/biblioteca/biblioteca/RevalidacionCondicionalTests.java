@@ -0,0 +1,101 @@
+package com.uniminuto.biblioteca.biblioteca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.uniminuto.biblioteca.entity.Sede;
+import com.uniminuto.biblioteca.entity.Servicio;
+import com.uniminuto.biblioteca.repository.SedeRepository;
+import com.uniminuto.biblioteca.repository.ServicioRepository;
+import java.math.BigDecimal;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Los endpoints de consulta responden 304 sin tocar la base de datos mientras las tablas que leen no
+ * cambien, y un ETag nuevo en cuanto se confirma una escritura, venga de JPA o de JDBC.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RevalidacionCondicionalTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SedeRepository sedeRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void responde304SinConsultarMientrasLaTablaNoCambie() throws Exception {
+        Sede sede = sedeRepository.save(new Sede(null, "Sede ETag", "Calle 9", "3000000009"));
+        String etag = mockMvc.perform(get("/sede/listar"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        // Sin Last-Modified, una revalidación solo por fecha (precisión de un segundo) no evita la respuesta
+        mockMvc.perform(get("/sede/listar").header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT"))
+                .andExpect(status().isOk());
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long sentencias = estadisticas.getPrepareStatementCount();
+        mockMvc.perform(get("/sede/listar").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(sentencias, estadisticas.getPrepareStatementCount());
+
+        // Escribir en otra tabla no invalida el listado de sedes
+        servicioRepository.save(new Servicio(null, "Servicio ETag", "Corte", new BigDecimal("15000")));
+        mockMvc.perform(get("/sede/listar").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Una escritura por JDBC sí lo invalida
+        jdbcTemplate.update("UPDATE sede SET telefono = ? WHERE id_sede = ?", "3000000010", sede.getIdSede());
+        String nuevo = mockMvc.perform(get("/sede/listar").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nuevo);
+    }
+
+    @Test
+    void lasEscriturasRevertidasNoCambianElEtag() throws Exception {
+        String etag = mockMvc.perform(get("/servicio/listar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        try {
+            // Viola la restricción NOT NULL del nombre: la transacción se revierte
+            servicioRepository.save(new Servicio(null, null, "Sin nombre", new BigDecimal("1")));
+        } catch (RuntimeException e) {
+            // Esperado
+        }
+        mockMvc.perform(get("/servicio/listar").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        servicioRepository.save(new Servicio(null, "Barba ETag", "Barba", new BigDecimal("12000")));
+        mockMvc.perform(get("/servicio/listar").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -9,8 +9,30 @@ export interface Cita {
   cliente: Cliente; // Objeto Cliente completo
   barbero: Barbero; // Objeto Barbero completo
   servicio: Servicio; // Objeto Servicio completo
+  estado?: EstadoCita;
 }
 
+// Una cita cancelada se conserva, pero deja libre su horario
+export type EstadoCita = 'AGENDADA' | 'CANCELADA';
+
+// Fila plana de los listados de citas (cliente, barbero y servicio ya resueltos)
+export interface CitaResumen {
+  idCita: number;
+  fecha: string;
+  hora: string;
+  idCliente: number;
+  nombreCliente: string;
+  apellidoCliente: string;
+  idBarbero: number;
+  nombreBarbero: string;
+  apellidoBarbero: string;
+  idSede: number;
+  idServicio: number;
+  nombreServicio: string;
+  precio: number;
+  duracionMinutos: number;
+  estado: EstadoCita;
+}
 
 export interface CitaRq {
   idCita?: number;
@@ -19,4 +41,27 @@ export interface CitaRq {
   idCliente: number;
   idBarbero: number;
   idServicio: number;
-}
\ No newline at end of file
+}
+
+// Agenda de varios días para vistas de calendario (GET /cita/agenda)
+export interface CitaCalendario {
+  idCita: number;
+  hora: string;
+  horaFin: string;
+  idCliente: number;
+  cliente: string;
+  idServicio: number;
+  servicio: string;
+}
+
+export interface AgendaBarbero {
+  idBarbero: number;
+  nombre: string;
+  apellido: string;
+  citas: CitaCalendario[];
+}
+
+export interface AgendaFecha {
+  fecha: string;
+  barberos: AgendaBarbero[];
+}
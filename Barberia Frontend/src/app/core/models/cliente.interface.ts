@@ -6,4 +6,17 @@ export interface Cliente {
   telefono: string;
   correo?: string; 
   fechaRegistro?: string; 
-}
\ No newline at end of file
+}
+// Resultado de POST /cliente/importar
+export interface ErrorImportacion {
+  linea: number;
+  telefono?: string;
+  motivo: string;
+}
+
+export interface ImportacionClientes {
+  filasLeidas: number;
+  clientesCreados: number;
+  filasConError: number;
+  errores: ErrorImportacion[];
+}
@@ -0,0 +1,14 @@
+// Consulta GET del API dentro de un lote
+export interface SolicitudLoteRq {
+  id?: string; // Identificador para ubicar la respuesta; por defecto, la posición en el lote
+  ruta: string; // Ruta del API con sus parámetros, p. ej. "/cliente/listar?limit=500"
+}
+
+// Respuesta de una consulta del lote, con lo que habría respondido el endpoint por separado
+export interface RespuestaLoteRs<T = unknown> {
+  id: string;
+  estado: number; // Código HTTP de la consulta
+  cabeceras: { [nombre: string]: string }; // Cabeceras de la respuesta, p. ej. X-Siguiente-Cursor
+  cuerpo: T | null; // JSON devuelto por el endpoint
+  error: string | null; // Mensaje de error si la consulta falló
+}
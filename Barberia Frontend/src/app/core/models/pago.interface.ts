@@ -15,6 +15,24 @@ export interface Pago {
   cita: Cita;          // Objeto Cita completo
 }
 
+// Fila plana de los listados de pagos (cita, cliente, barbero y servicio ya resueltos)
+export interface PagoResumen {
+  idPago: number;
+  monto: number;
+  fechaPago: string;
+  metodoPago: MetodoPago;
+  idCita: number;
+  fechaCita: string;
+  horaCita: string;
+  idCliente: number;
+  nombreCliente: string;
+  apellidoCliente: string;
+  idBarbero: number;
+  nombreBarbero: string;
+  apellidoBarbero: string;
+  idServicio: number;
+  nombreServicio: string;
+}
 
 export interface PagoRq {
   idPago?: number;
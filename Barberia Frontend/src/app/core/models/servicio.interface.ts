@@ -4,4 +4,5 @@ export interface Servicio {
   nombreServicio: string; 
   descripcion: string;
   precio: number;
+  duracionMinutos?: number; // Duración en minutos (por defecto 30 en el backend)
   }
\ No newline at end of file
@@ -1,9 +1,10 @@
 // src/app/core/services/barberos.service.ts
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Barbero } from '../models/barbero.interface';
 import { RespuestaGenericaRs } from '../models/respuesta-generica.interface'; // Asumo que tienes esta interfaz
+import { obtenerTodasLasPaginas } from './paginacion';
 
 @Injectable({
   providedIn: 'root'
@@ -20,7 +21,7 @@ export class BarberosService {
    * @returns Un Observable que emite un array de objetos Barbero.
    */
   getBarberos(): Observable<Barbero[]> {
-    return this.http.get<Barbero[]>(`${this.apiUrl}/listar`);
+    return obtenerTodasLasPaginas<Barbero>(this.http, `${this.apiUrl}/listar`);
   }
 
   /**
@@ -38,7 +39,7 @@ export class BarberosService {
    * @returns Un Observable que emite un array de objetos Barbero.
    */
   getBarberosPorSede(idSede: number): Observable<Barbero[]> {
-    return this.http.get<Barbero[]>(`${this.apiUrl}/listar-por-sede`, { params: { idSede: idSede.toString() } });
+    return obtenerTodasLasPaginas<Barbero>(this.http, `${this.apiUrl}/listar-por-sede`, new HttpParams().set('idSede', idSede.toString()));
   }
 
   /**
@@ -1,8 +1,9 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Cita, CitaRq } from '../models/cita.interface';
+import { AgendaFecha, Cita, CitaResumen, CitaRq } from '../models/cita.interface';
 import { RespuestaGenericaRs } from '../models/respuesta-generica.interface';
+import { obtenerPagina, Pagina } from './paginacion';
 
 @Injectable({
   providedIn: 'root'
@@ -14,11 +15,12 @@ export class CitasService {
   constructor(private http: HttpClient) { }
 
   /**
-   * Obtiene la lista de todas las citas.
-   * @returns Un Observable que emite un array de objetos Cita.
+   * Obtiene una página de la lista de citas.
+   * @param after Cursor de la página a pedir, o null para la primera.
+   * @returns Un Observable que emite las citas de la página y el cursor de la siguiente.
    */
-  getCitas(): Observable<Cita[]> {
-    return this.http.get<Cita[]>(`${this.apiUrl}/listar`);
+  getCitas(after: string | null = null): Observable<Pagina<CitaResumen>> {
+    return obtenerPagina<CitaResumen>(this.http, `${this.apiUrl}/listar`, after);
   }
 
   /**
@@ -61,21 +63,43 @@ export class CitasService {
    * Lista citas por fecha y barbero.
    * @param fecha Fecha de las citas (formato YYYY-MM-DD).
    * @param idBarbero ID del barbero.
-   * @returns Un Observable que emite un array de objetos Cita.
+   * @returns Un Observable que emite un array de objetos CitaResumen.
    */
-  getCitasByFechaAndBarbero(fecha: string, idBarbero: number): Observable<Cita[]> {
+  getCitasByFechaAndBarbero(fecha: string, idBarbero: number): Observable<CitaResumen[]> {
     let params = new HttpParams();
     params = params.append('fecha', fecha);
     params = params.append('idBarbero', idBarbero.toString());
-    return this.http.get<Cita[]>(`${this.apiUrl}/listar-por-fecha-barbero`, { params: params });
+    return this.http.get<CitaResumen[]>(`${this.apiUrl}/listar-por-fecha-barbero`, { params: params });
   }
 
   /**
-   * Lista citas por cliente.
+   * Obtiene la agenda de varios días de un barbero o de una sede en una sola petición.
+   * El navegador revalida la respuesta con ETag, así que una agenda sin cambios no se vuelve a descargar.
+   * @param desde Fecha inicial (formato YYYY-MM-DD).
+   * @param hasta Fecha final (formato YYYY-MM-DD).
+   * @param filtro ID del barbero o ID de la sede a consultar.
+   * @returns Un Observable que emite la agenda agrupada por día y barbero.
+   */
+  getAgenda(desde: string, hasta: string, filtro: { idBarbero?: number; idSede?: number }): Observable<AgendaFecha[]> {
+    let params = new HttpParams();
+    params = params.append('desde', desde);
+    params = params.append('hasta', hasta);
+    if (filtro.idBarbero != null) {
+      params = params.append('idBarbero', filtro.idBarbero.toString());
+    }
+    if (filtro.idSede != null) {
+      params = params.append('idSede', filtro.idSede.toString());
+    }
+    return this.http.get<AgendaFecha[]>(`${this.apiUrl}/agenda`, { params: params });
+  }
+
+  /**
+   * Lista una página de las citas de un cliente.
    * @param idCliente ID del cliente.
-   * @returns Un Observable que emite un array de objetos Cita.
+   * @param after Cursor de la página a pedir, o null para la primera.
+   * @returns Un Observable que emite las citas de la página y el cursor de la siguiente.
    */
-  getCitasByCliente(idCliente: number): Observable<Cita[]> {
-    return this.http.get<Cita[]>(`${this.apiUrl}/listar-por-cliente/${idCliente}`);
+  getCitasByCliente(idCliente: number, after: string | null = null): Observable<Pagina<CitaResumen>> {
+    return obtenerPagina<CitaResumen>(this.http, `${this.apiUrl}/listar-por-cliente/${idCliente}`, after);
   }
 }
\ No newline at end of file
@@ -1,8 +1,9 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Cliente } from '../models/cliente.interface';
+import { Cliente, ImportacionClientes } from '../models/cliente.interface';
 import { RespuestaGenericaRs } from '../models/respuesta-generica.interface';
+import { obtenerPagina, Pagina } from './paginacion';
 
 @Injectable({
   providedIn: 'root'
@@ -15,11 +16,12 @@ export class ClientesService {
   constructor(private http: HttpClient) { }
 
   /**
-   * Obtiene la lista de todos los clientes.
-   * @returns Un Observable que emite un array de objetos Cliente.
+   * Obtiene una página de la lista de clientes.
+   * @param after Cursor de la página a pedir, o null para la primera.
+   * @returns Un Observable que emite los clientes de la página y el cursor de la siguiente.
    */
-  getClientes(): Observable<Cliente[]> {
-    return this.http.get<Cliente[]>(`${this.apiUrl}/listar`);
+  getClientes(after: string | null = null): Observable<Pagina<Cliente>> {
+    return obtenerPagina<Cliente>(this.http, `${this.apiUrl}/listar`, after);
   }
 
   /**
@@ -75,4 +77,15 @@ export class ClientesService {
   deleteCliente(idCliente: number): Observable<RespuestaGenericaRs> {
     return this.http.delete<RespuestaGenericaRs>(`${this.apiUrl}/eliminar/${idCliente}`);
   }
-}
\ No newline at end of file
+
+  /**
+   * Importa clientes desde un archivo CSV (encabezados nombre, apellido, telefono y, opcionalmente, correo y fechaRegistro).
+   * @param archivo Archivo CSV en UTF-8.
+   * @returns Un Observable que emite el resumen de la importación con las filas omitidas.
+   */
+  importarClientes(archivo: File): Observable<ImportacionClientes> {
+    const formData = new FormData();
+    formData.append('archivo', archivo);
+    return this.http.post<ImportacionClientes>(`${this.apiUrl}/importar`, formData);
+  }
+}
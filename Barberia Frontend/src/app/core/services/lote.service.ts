@@ -0,0 +1,67 @@
+import { Injectable } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { map } from 'rxjs/operators';
+import { RespuestaLoteRs, SolicitudLoteRq } from '../models/lote.interface';
+import { CABECERA_SIGUIENTE_CURSOR, continuarPaginas, LIMITE_PAGINA, Pagina } from './paginacion';
+
+@Injectable({
+  providedIn: 'root'
+})
+export class LoteService {
+  // Ajusta esta URL a la base de tu API.
+  private baseUrl = 'http://localhost:8000/barberia/v1';
+
+  constructor(private http: HttpClient) { }
+
+  /**
+   * Ejecuta varias consultas GET del API en una sola petición.
+   * @param solicitudes Consultas a ejecutar.
+   * @returns Un Observable que emite una respuesta por consulta, en el mismo orden.
+   */
+  ejecutar(solicitudes: SolicitudLoteRq[]): Observable<RespuestaLoteRs[]> {
+    return this.http.post<RespuestaLoteRs[]>(`${this.baseUrl}/batch`, solicitudes);
+  }
+
+  /**
+   * Carga la primera página de varios listados con una sola petición. Las pantallas muestran esa página
+   * de inmediato y piden las siguientes con el cursor de cada listado.
+   * @param rutas Ruta de cada listado (p. ej. { clientes: '/cliente/listar' }).
+   * @param limite Tamaño de la primera página de cada listado.
+   * @returns Un Observable que emite la primera página de cada listado, con las mismas claves.
+   */
+  obtenerListados<T extends { [clave: string]: Pagina<unknown> }>(rutas: { [K in keyof T]: string },
+                                                                  limite: { [K in keyof T]?: number } = {}): Observable<T> {
+    const claves = Object.keys(rutas) as (keyof T & string)[];
+    const solicitudes = claves.map(clave => ({ id: clave, ruta: `${rutas[clave]}?limit=${limite[clave] ?? LIMITE_PAGINA}` }));
+    return this.ejecutar(solicitudes).pipe(
+      map(respuestas => {
+        const fallida = respuestas.find(respuesta => respuesta.estado !== 200);
+        if (fallida) {
+          throw new Error(`Error al cargar ${fallida.id}: ${fallida.error ?? fallida.estado}`);
+        }
+        const resultado = {} as { [clave: string]: Pagina<unknown> };
+        respuestas.forEach(respuesta => resultado[respuesta.id] = {
+          elementos: (respuesta.cuerpo ?? []) as unknown[],
+          siguiente: this.cabecera(respuesta, CABECERA_SIGUIENTE_CURSOR)
+        });
+        return resultado as T;
+      })
+    );
+  }
+
+  /**
+   * Completa un catálogo (listas desplegables) del que ya se mostró la primera página recibida en un lote.
+   * @param ruta Ruta del listado, la misma usada en obtenerListados.
+   * @param pagina Primera página del listado.
+   * @returns Un Observable que emite todos los elementos del listado.
+   */
+  completarListado<T>(ruta: string, pagina: Pagina<T>): Observable<T[]> {
+    return continuarPaginas<T>(this.http, `${this.baseUrl}${ruta}`, pagina.elementos, pagina.siguiente);
+  }
+
+  private cabecera(respuesta: RespuestaLoteRs, nombre: string): string | null {
+    const clave = Object.keys(respuesta.cabeceras ?? {}).find(c => c.toLowerCase() === nombre.toLowerCase());
+    return clave ? respuesta.cabeceras[clave] : null;
+  }
+}
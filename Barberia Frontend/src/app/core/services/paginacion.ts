@@ -0,0 +1,94 @@
+import { HttpClient, HttpParams, HttpResponse } from '@angular/common/http';
+import { EMPTY, Observable, of } from 'rxjs';
+import { expand, map, reduce } from 'rxjs/operators';
+
+/**
+ * Cabecera en la que el backend envía el cursor de la página siguiente de un listado.
+ */
+export const CABECERA_SIGUIENTE_CURSOR = 'X-Siguiente-Cursor';
+
+/**
+ * Tamaño de página que piden las pantallas que muestran el listado completo.
+ */
+export const LIMITE_PAGINA = 500;
+
+/**
+ * Tamaño de página de las tablas que se cargan por partes con "Cargar más".
+ */
+export const LIMITE_PAGINA_TABLA = 50;
+
+/**
+ * Una página de un listado paginado por cursor.
+ */
+export interface Pagina<T> {
+  elementos: T[];
+  /** Cursor de la página siguiente, o null si es la última. */
+  siguiente: string | null;
+}
+
+/**
+ * Pide una sola página de un listado paginado por cursor, para mostrarla sin esperar las demás.
+ * @param http Cliente HTTP.
+ * @param url URL del listado.
+ * @param after Cursor de la página a pedir, o null para la primera.
+ * @param params Parámetros adicionales del listado.
+ * @param limite Tamaño de la página.
+ * @returns Un Observable que emite los elementos de la página y el cursor de la siguiente.
+ */
+export function obtenerPagina<T>(http: HttpClient, url: string, after: string | null = null,
+                                 params: HttpParams = new HttpParams(), limite: number = LIMITE_PAGINA_TABLA): Observable<Pagina<T>> {
+  return pedirPagina<T>(http, url, params, after, limite).pipe(
+    map((respuesta: HttpResponse<T[]>) => ({
+      elementos: respuesta.body ?? [],
+      siguiente: respuesta.headers.get(CABECERA_SIGUIENTE_CURSOR)
+    }))
+  );
+}
+
+/**
+ * Recorre todas las páginas de un listado paginado por cursor y emite la lista completa.
+ * Cada petición al backend trae como máximo LIMITE_PAGINA filas. Solo para catálogos pequeños
+ * (sedes, barberos, servicios); las tablas grandes usan obtenerPagina.
+ * @param http Cliente HTTP.
+ * @param url URL del listado.
+ * @param params Parámetros adicionales del listado.
+ * @returns Un Observable que emite todos los elementos del listado.
+ */
+export function obtenerTodasLasPaginas<T>(http: HttpClient, url: string, params: HttpParams = new HttpParams()): Observable<T[]> {
+  return recorrerPaginas<T>(http, url, params, null, []);
+}
+
+/**
+ * Completa un listado del que ya se tiene la primera página (por ejemplo, recibida en un lote),
+ * pidiendo las páginas restantes a partir del cursor.
+ * @param http Cliente HTTP.
+ * @param url URL del listado.
+ * @param primera Elementos de la primera página.
+ * @param siguiente Cursor de la página siguiente, o null si no hay más páginas.
+ * @param params Parámetros adicionales del listado.
+ * @returns Un Observable que emite todos los elementos del listado.
+ */
+export function continuarPaginas<T>(http: HttpClient, url: string, primera: T[], siguiente: string | null,
+                                    params: HttpParams = new HttpParams()): Observable<T[]> {
+  return siguiente ? recorrerPaginas<T>(http, url, params, siguiente, primera) : of(primera);
+}
+
+function pedirPagina<T>(http: HttpClient, url: string, params: HttpParams, after: string | null,
+                        limite: number): Observable<HttpResponse<T[]>> {
+  let paginaParams = params.set('limit', limite.toString());
+  if (after) {
+    paginaParams = paginaParams.set('after', after);
+  }
+  return http.get<T[]>(url, { params: paginaParams, observe: 'response' });
+}
+
+function recorrerPaginas<T>(http: HttpClient, url: string, params: HttpParams, desde: string | null, previos: T[]): Observable<T[]> {
+  return pedirPagina<T>(http, url, params, desde, LIMITE_PAGINA).pipe(
+    expand((respuesta: HttpResponse<T[]>) => {
+      const siguiente = respuesta.headers.get(CABECERA_SIGUIENTE_CURSOR);
+      return siguiente ? pedirPagina<T>(http, url, params, siguiente, LIMITE_PAGINA) : EMPTY;
+    }),
+    map((respuesta: HttpResponse<T[]>) => respuesta.body ?? []),
+    reduce((todos: T[], pagina: T[]) => todos.concat(pagina), previos)
+  );
+}
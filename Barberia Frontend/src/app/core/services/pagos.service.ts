@@ -1,8 +1,9 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Pago, PagoRq, MetodoPago } from '../models/pago.interface';
+import { Pago, PagoResumen, PagoRq, MetodoPago } from '../models/pago.interface';
 import { RespuestaGenericaRs } from '../models/respuesta-generica.interface';
+import { obtenerPagina, Pagina } from './paginacion';
 
 @Injectable({
   providedIn: 'root'
@@ -14,11 +15,12 @@ export class PagosService {
   constructor(private http: HttpClient) { }
 
   /**
-   * Obtiene la lista de todos los pagos.
-   * @returns Un Observable que emite un array de objetos Pago.
+   * Obtiene una página de la lista de pagos.
+   * @param after Cursor de la página a pedir, o null para la primera.
+   * @returns Un Observable que emite los pagos de la página y el cursor de la siguiente.
    */
-  getPagos(): Observable<Pago[]> {
-    return this.http.get<Pago[]>(`${this.apiUrl}/listar`);
+  getPagos(after: string | null = null): Observable<Pagina<PagoResumen>> {
+    return obtenerPagina<PagoResumen>(this.http, `${this.apiUrl}/listar`, after);
   }
 
   /**
@@ -60,33 +62,35 @@ export class PagosService {
   /**
    * Lista pagos por el ID de la cita asociada.
    * @param idCita ID de la cita.
-   * @returns Un Observable que emite un array de objetos Pago.
+   * @returns Un Observable que emite un array de objetos PagoResumen.
    */
-  getPagosByCita(idCita: number): Observable<Pago[]> {
-    return this.http.get<Pago[]>(`${this.apiUrl}/listar-por-cita/${idCita}`);
+  getPagosByCita(idCita: number): Observable<PagoResumen[]> {
+    return this.http.get<PagoResumen[]>(`${this.apiUrl}/listar-por-cita/${idCita}`);
   }
 
   /**
    * Lista pagos por método de pago.
    * @param metodoPago Método de pago (Efectivo, Tarjeta, Transferencia).
-   * @returns Un Observable que emite un array de objetos Pago.
+   * @param after Cursor de la página a pedir, o null para la primera.
+   * @returns Un Observable que emite los pagos de la página y el cursor de la siguiente.
    */
-  getPagosByMetodo(metodoPago: MetodoPago): Observable<Pago[]> {
+  getPagosByMetodo(metodoPago: MetodoPago, after: string | null = null): Observable<Pagina<PagoResumen>> {
     let params = new HttpParams();
     params = params.append('metodoPago', metodoPago); // El enum se serializa como string
-    return this.http.get<Pago[]>(`${this.apiUrl}/listar-por-metodo`, { params: params });
+    return obtenerPagina<PagoResumen>(this.http, `${this.apiUrl}/listar-por-metodo`, after, params);
   }
 
   /**
    * Lista pagos dentro de un rango de fechas.
    * @param fechaInicio Fecha de inicio del rango (formato yyyy-MM-dd).
    * @param fechaFin Fecha de fin del rango (formato yyyy-MM-dd).
-   * @returns Un Observable que emite un array de objetos Pago.
+   * @param after Cursor de la página a pedir, o null para la primera.
+   * @returns Un Observable que emite los pagos de la página y el cursor de la siguiente.
    */
-  getPagosByRangoFechas(fechaInicio: string, fechaFin: string): Observable<Pago[]> {
+  getPagosByRangoFechas(fechaInicio: string, fechaFin: string, after: string | null = null): Observable<Pagina<PagoResumen>> {
     let params = new HttpParams();
     params = params.append('fechaInicio', fechaInicio);
     params = params.append('fechaFin', fechaFin);
-    return this.http.get<Pago[]>(`${this.apiUrl}/listar-por-rango-fechas`, { params: params });
+    return obtenerPagina<PagoResumen>(this.http, `${this.apiUrl}/listar-por-rango-fechas`, after, params);
   }
 }
\ No newline at end of file
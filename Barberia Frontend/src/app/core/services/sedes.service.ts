@@ -3,6 +3,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Sede } from '../models/sede.interface';
+import { obtenerTodasLasPaginas } from './paginacion';
 
 @Injectable({
   providedIn: 'root'
@@ -21,7 +22,7 @@ export class SedesService {
    * @returns Un Observable con un arreglo de objetos Sede.
    */
   getSedes(): Observable<Sede[]> {
-    return this.http.get<Sede[]>(`${this.apiUrl}/listar`); // Agrega el sufijo "/listar"
+    return obtenerTodasLasPaginas<Sede>(this.http, `${this.apiUrl}/listar`); // Agrega el sufijo "/listar"
   }
 
   /**
@@ -3,6 +3,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Servicio } from '../models/servicio.interface';
+import { obtenerTodasLasPaginas } from './paginacion';
 
 @Injectable({
   providedIn: 'root'
@@ -15,7 +16,7 @@ export class ServiciosService {
   constructor(private http: HttpClient) { }
 
   getServicios(): Observable<Servicio[]> {
-    return this.http.get<Servicio[]>(`${this.apiUrl}/listar`);
+    return obtenerTodasLasPaginas<Servicio>(this.http, `${this.apiUrl}/listar`);
   }
 
   getServicioById(id: number): Observable<Servicio> {
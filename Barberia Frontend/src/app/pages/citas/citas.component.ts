@@ -2,13 +2,12 @@ import { Component, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormBuilder, FormGroup, Validators, ReactiveFormsModule } from '@angular/forms';
 import { CitasService } from '../../core/services/citas.service';
-import { ClientesService } from '../../core/services/clientes.service';
-import { BarberosService } from '../../core/services/barberos.service';
-import { ServiciosService } from '../../core/services/servicios.service';
-import { Cita, CitaRq } from '../../core/models/cita.interface';
+import { LoteService } from '../../core/services/lote.service';
+import { CitaResumen, CitaRq } from '../../core/models/cita.interface';
 import { Cliente } from '../../core/models/cliente.interface';
 import { Barbero } from '../../core/models/barbero.interface';
 import { Servicio } from '../../core/models/servicio.interface';
+import { LIMITE_PAGINA_TABLA, Pagina } from '../../core/services/paginacion';
 
 declare const bootstrap: any; // Para usar el modal de Bootstrap
 
@@ -20,12 +19,14 @@ declare const bootstrap: any; // Para usar el modal de Bootstrap
   styleUrl: './citas.component.scss'
 })
 export class CitasComponent implements OnInit {
-  citas: Cita[] = [];
+  citas: CitaResumen[] = [];
+  siguienteCitas: string | null = null; // Cursor de la siguiente página de la tabla
+  cargandoCitas = false;
   clientes: Cliente[] = [];
   barberos: Barbero[] = [];
   servicios: Servicio[] = [];
 
-  citaSelected: Cita | null = null;
+  citaSelected: CitaResumen | null = null;
 
   modalInstance: any;
   modoFormulario: string = '';
@@ -35,41 +36,70 @@ export class CitasComponent implements OnInit {
 
   constructor(
     private citasService: CitasService,
-    private clientesService: ClientesService,
-    private barberosService: BarberosService,
-    private serviciosService: ServiciosService,
+    private loteService: LoteService,
     private formBuilder: FormBuilder
   ) {
     this.cargarFormulario();
   }
 
   ngOnInit(): void {
-    this.cargarListasDesplegables();
-    this.cargarListaCitas();
+    this.cargarDatosIniciales();
   }
 
-  cargarListasDesplegables(): void {
-    this.clientesService.getClientes().subscribe({
-      next: (data) => this.clientes = data,
-      error: (err) => console.error('Error al cargar clientes:', err)
-    });
-    this.barberosService.getBarberos().subscribe({
-      next: (data) => this.barberos = data,
-      error: (err) => console.error('Error al cargar barberos:', err)
+  // La primera página de la tabla y de las listas desplegables llegan en una sola petición al backend;
+  // la tabla se muestra de inmediato y las listas desplegables se completan después
+  cargarDatosIniciales(): void {
+    this.loteService.obtenerListados<{ clientes: Pagina<Cliente>; barberos: Pagina<Barbero>; servicios: Pagina<Servicio>; citas: Pagina<CitaResumen> }>({
+      clientes: '/cliente/listar',
+      barberos: '/barbero/listar',
+      servicios: '/servicio/listar',
+      citas: '/cita/listar'
+    }, { citas: LIMITE_PAGINA_TABLA }).subscribe({
+      next: (datos) => {
+        this.citas = datos.citas.elementos;
+        this.siguienteCitas = datos.citas.siguiente;
+        this.completarCatalogo('/cliente/listar', datos.clientes, clientes => this.clientes = clientes);
+        this.completarCatalogo('/barbero/listar', datos.barberos, barberos => this.barberos = barberos);
+        this.completarCatalogo('/servicio/listar', datos.servicios, servicios => this.servicios = servicios);
+      },
+      error: (error) => {
+        console.error('Error al cargar los datos de citas:', error);
+        alert('Error al cargar la lista de citas. Consulte la consola.');
+      }
     });
-    this.serviciosService.getServicios().subscribe({
-      next: (data) => this.servicios = data,
-      error: (err) => console.error('Error al cargar servicios:', err)
+  }
+
+  private completarCatalogo<T>(ruta: string, pagina: Pagina<T>, asignar: (lista: T[]) => void): void {
+    asignar(pagina.elementos);
+    this.loteService.completarListado(ruta, pagina).subscribe({
+      next: asignar,
+      error: (error) => console.error(`Error al completar ${ruta}:`, error)
     });
   }
 
+  // Vuelve a la primera página de la tabla
   cargarListaCitas() {
-    this.citasService.getCitas().subscribe({
-      next: (data: Cita[]) => {
-        this.citas = data;
-        console.log('Citas cargadas para la tabla:', this.citas);
+    this.citas = [];
+    this.siguienteCitas = null;
+    this.cargarPaginaCitas(null);
+  }
+
+  cargarMasCitas() {
+    if (this.siguienteCitas && !this.cargandoCitas) {
+      this.cargarPaginaCitas(this.siguienteCitas);
+    }
+  }
+
+  private cargarPaginaCitas(after: string | null) {
+    this.cargandoCitas = true;
+    this.citasService.getCitas(after).subscribe({
+      next: (pagina: Pagina<CitaResumen>) => {
+        this.citas = this.citas.concat(pagina.elementos);
+        this.siguienteCitas = pagina.siguiente;
+        this.cargandoCitas = false;
       },
       error: (error) => {
+        this.cargandoCitas = false;
         console.error('Error al obtener las citas:', error);
         alert('Error al cargar la lista de citas. Consulte la consola.');
       }
@@ -87,7 +117,7 @@ export class CitasComponent implements OnInit {
     });
   }
 
-  openCitaModal(modo: string, cita?: Cita): void {
+  openCitaModal(modo: string, cita?: CitaResumen): void {
     this.modoFormulario = modo;
     this.titleModal = modo === 'C' ? 'Agendar Nueva Cita' : 'Editar Cita';
     this.citaSelected = cita || null;
@@ -101,9 +131,9 @@ export class CitasComponent implements OnInit {
         idCita: cita.idCita,
         fecha: cita.fecha,
         hora: cita.hora,
-        idCliente: cita.cliente.idCliente,
-        idBarbero: cita.barbero.idBarbero,
-        idServicio: cita.servicio.idServicio
+        idCliente: cita.idCliente,
+        idBarbero: cita.idBarbero,
+        idServicio: cita.idServicio
       });
     }
 
@@ -116,7 +146,7 @@ export class CitasComponent implements OnInit {
     }
   }
 
-  abrirModoEdicion(cita: Cita) {
+  abrirModoEdicion(cita: CitaResumen) {
     this.openCitaModal('E', cita);
   }
 
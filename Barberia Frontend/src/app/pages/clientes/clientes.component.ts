@@ -3,6 +3,7 @@ import { CommonModule } from '@angular/common';
 import { FormBuilder, FormGroup, Validators, ReactiveFormsModule } from '@angular/forms';
 import { ClientesService } from '../../core/services/clientes.service';
 import { Cliente } from '../../core/models/cliente.interface';
+import { Pagina } from '../../core/services/paginacion';
 
 declare const bootstrap: any; // Para usar el modal de Bootstrap
 
@@ -15,6 +16,8 @@ declare const bootstrap: any; // Para usar el modal de Bootstrap
 })
 export class ClientesComponent implements OnInit {
   clientes: Cliente[] = [];
+  siguienteClientes: string | null = null; // Cursor de la siguiente página de la tabla
+  cargandoClientes = false;
   clienteSelected: Cliente | null = null;
 
   modalInstance: any;
@@ -34,14 +37,30 @@ export class ClientesComponent implements OnInit {
     this.cargarListaClientes();
   }
 
+  // Vuelve a la primera página de la tabla
   cargarListaClientes() {
-    this.clientesService.getClientes().subscribe({
-      next: (data: Cliente[]) => {
-        // El backend ya ordena por fechaRegistroDesc, solo asignamos.
-        this.clientes = data;
-        console.log('Clientes cargados para la tabla:', this.clientes);
+    this.clientes = [];
+    this.siguienteClientes = null;
+    this.cargarPaginaClientes(null);
+  }
+
+  cargarMasClientes() {
+    if (this.siguienteClientes && !this.cargandoClientes) {
+      this.cargarPaginaClientes(this.siguienteClientes);
+    }
+  }
+
+  private cargarPaginaClientes(after: string | null) {
+    this.cargandoClientes = true;
+    this.clientesService.getClientes(after).subscribe({
+      next: (pagina: Pagina<Cliente>) => {
+        // El backend ya ordena por fechaRegistroDesc, solo se agrega la página al final.
+        this.clientes = this.clientes.concat(pagina.elementos);
+        this.siguienteClientes = pagina.siguiente;
+        this.cargandoClientes = false;
       },
       error: (error) => {
+        this.cargandoClientes = false;
         console.error('Error al obtener los clientes:', error);
         // Manejo de errores, por ejemplo, mostrar un mensaje al usuario
         alert('Error al cargar la lista de clientes. Consulte la consola.');
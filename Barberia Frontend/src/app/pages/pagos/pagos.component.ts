@@ -2,9 +2,10 @@ import { Component, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormBuilder, FormGroup, Validators, ReactiveFormsModule } from '@angular/forms';
 import { PagosService } from '../../core/services/pagos.service';
-import { CitasService } from '../../core/services/citas.service'; // Para obtener la lista de citas
-import { Pago, PagoRq, MetodoPago } from '../../core/models/pago.interface';
-import { Cita } from '../../core/models/cita.interface';
+import { LoteService } from '../../core/services/lote.service';
+import { PagoResumen, PagoRq, MetodoPago } from '../../core/models/pago.interface';
+import { CitaResumen } from '../../core/models/cita.interface';
+import { LIMITE_PAGINA_TABLA, Pagina } from '../../core/services/paginacion';
 
 declare const bootstrap: any; // Para usar el modal de Bootstrap
 
@@ -16,10 +17,12 @@ declare const bootstrap: any; // Para usar el modal de Bootstrap
   styleUrl: './pagos.component.scss'
 })
 export class PagosComponent implements OnInit {
-  pagos: Pago[] = [];
-  citas: Cita[] = []; // Para el dropdown de citas
+  pagos: PagoResumen[] = [];
+  siguientePagos: string | null = null; // Cursor de la siguiente página de la tabla
+  cargandoPagos = false;
+  citas: CitaResumen[] = []; // Para el dropdown de citas
 
-  pagoSelected: Pago | null = null;
+  pagoSelected: PagoResumen | null = null;
 
   modalInstance: any;
   modoFormulario: string = '';
@@ -30,32 +33,62 @@ export class PagosComponent implements OnInit {
 
   constructor(
     private pagosService: PagosService,
-    private citasService: CitasService, // Inyecta el servicio de citas
+    private loteService: LoteService,
     private formBuilder: FormBuilder
   ) {
     this.cargarFormulario();
   }
 
   ngOnInit(): void {
-    this.cargarListasDesplegables();
-    this.cargarListaPagos();
+    this.cargarDatosIniciales();
   }
 
-  cargarListasDesplegables(): void {
-    // Carga las citas para el dropdown
-    this.citasService.getCitas().subscribe({
-      next: (data) => this.citas = data,
-      error: (err) => console.error('Error al cargar citas para pagos:', err)
+  // La primera página de la tabla de pagos y de las citas del dropdown llegan en una sola petición al backend;
+  // la tabla se muestra de inmediato y el dropdown se completa después
+  cargarDatosIniciales(): void {
+    this.loteService.obtenerListados<{ citas: Pagina<CitaResumen>; pagos: Pagina<PagoResumen> }>({
+      citas: '/cita/listar',
+      pagos: '/pago/listar'
+    }, { pagos: LIMITE_PAGINA_TABLA }).subscribe({
+      next: (datos) => {
+        this.pagos = datos.pagos.elementos;
+        this.siguientePagos = datos.pagos.siguiente;
+        this.citas = datos.citas.elementos;
+        this.loteService.completarListado('/cita/listar', datos.citas).subscribe({
+          next: (citas) => this.citas = citas,
+          error: (error) => console.error('Error al completar las citas del dropdown:', error)
+        });
+      },
+      error: (error) => {
+        console.error('Error al cargar los datos de pagos:', error);
+        alert('Error al cargar la lista de pagos. Consulte la consola.');
+      }
     });
   }
 
+  // Vuelve a la primera página de la tabla
   cargarListaPagos() {
-    this.pagosService.getPagos().subscribe({
-      next: (data: Pago[]) => {
-        this.pagos = data;
-        console.log('Pagos cargados para la tabla:', this.pagos);
+    this.pagos = [];
+    this.siguientePagos = null;
+    this.cargarPaginaPagos(null);
+  }
+
+  cargarMasPagos() {
+    if (this.siguientePagos && !this.cargandoPagos) {
+      this.cargarPaginaPagos(this.siguientePagos);
+    }
+  }
+
+  private cargarPaginaPagos(after: string | null) {
+    this.cargandoPagos = true;
+    this.pagosService.getPagos(after).subscribe({
+      next: (pagina: Pagina<PagoResumen>) => {
+        this.pagos = this.pagos.concat(pagina.elementos);
+        this.siguientePagos = pagina.siguiente;
+        this.cargandoPagos = false;
       },
       error: (error) => {
+        this.cargandoPagos = false;
         console.error('Error al obtener los pagos:', error);
         alert('Error al cargar la lista de pagos. Consulte la consola.');
       }
@@ -72,7 +105,7 @@ export class PagosComponent implements OnInit {
     });
   }
 
-  openPagoModal(modo: string, pago?: Pago): void {
+  openPagoModal(modo: string, pago?: PagoResumen): void {
     this.modoFormulario = modo;
     this.titleModal = modo === 'C' ? 'Registrar Nuevo Pago' : 'Editar Pago';
     this.pagoSelected = pago || null;
@@ -87,7 +120,7 @@ export class PagosComponent implements OnInit {
         monto: pago.monto,
         fechaPago: pago.fechaPago,
         metodoPago: pago.metodoPago,
-        idCita: pago.cita.idCita
+        idCita: pago.idCita
       });
     } else {
         // Para modo C, la fecha de pago por defecto es hoy
@@ -105,7 +138,7 @@ export class PagosComponent implements OnInit {
     }
   }
 
-  abrirModoEdicion(pago: Pago) {
+  abrirModoEdicion(pago: PagoResumen) {
     this.openPagoModal('E', pago);
   }
 
@@ -59,7 +59,7 @@ export class ServiciosComponent implements OnInit {
       nombreServicio: ['', Validators.required], // <-- CAMBIO: Usar nombreServicio
       descripcion: ['', Validators.required],
       precio: [null, [Validators.required, Validators.min(0.01)]],
-      // ELIMINADO: duracionMinutos: [null, [Validators.required, Validators.min(1)]]
+      duracionMinutos: [30, [Validators.min(1), Validators.max(1440)]],
     });
   }
 
@@ -79,7 +79,7 @@ export class ServiciosComponent implements OnInit {
         nombreServicio: servicio.nombreServicio,
         descripcion: servicio.descripcion,
         precio: servicio.precio,
-        // ELIMINADO: duracionMinutos: servicio.duracionMinutos
+        duracionMinutos: servicio.duracionMinutos,
       });
     }
 